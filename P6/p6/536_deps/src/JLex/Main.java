@@ -5,6 +5,64 @@
   See below for copyright notice, license, and disclaimer.
   New releases from http://www.cs.princeton.edu/~appel/modern/java/JLex/
 
+  Version 1.2.7 (in progress)
+   New %mmap directive.  The generated lexer maps its input file with
+     FileChannel.map and scans the bytes in place, so the input buffer
+     is never copied, shifted or doubled.  Adds a FileChannel
+     constructor; FileInputStreams are mapped as well, and other
+     streams (and pipes) are read once into memory as raw bytes, a
+     Reader once as chars.  Input is treated as 8-bit.
+     A ByteBuffer constructor scans a region of memory already loaded,
+     e.g. one chunk of a larger mapped file.
+   The subset construction keeps sets of NFA states as long[] bitsets in
+     an open-addressing hash table, with the epsilon-closure of every NFA
+     state computed once up front.
+   DFA minimization uses Hopcroft's partition refinement over int arrays
+     instead of repeatedly sweeping every group.  New command-line
+     options: -time prints a timing summary like CUP's, and -check also
+     runs the old iterative minimizer and checks that its groups of
+     states lie within the new ones, that the new groups are
+     consistent, and that the tables emitted from both minimizers
+     (yy_state_dtrans, yy_acpt, yy_cmap, yy_rmap and yy_nxt) encode
+     the same DFA, by walking them side by side.  The old minimizer could leave equivalent states apart
+     (their rows were merged later by reduce()), so the minimized DFA
+     may now have fewer states; the scanner it encodes is the same.
+   The DFAs of the lexical states are explored on several threads at
+     once (-threads n; by default one per processor), then merged and
+     numbered as before, so the output does not depend on the number
+     of threads.  New -cache option: the minimized DFA is saved in
+     <filename>.dfa, keyed by a digest of the NFA, and reused while
+     the rules' regular expressions and lexical states are unchanged,
+     so that editing only actions or code skips DFA construction and
+     minimization.
+   New %compress directive.  The transition table is emitted compressed
+     by row displacement (the "comb" of yy_base, yy_def, yy_nxt and
+     yy_chk arrays, as in lex and flex) instead of as a full
+     yy_nxt[][] array with one entry per state and character class.
+   New %utf8 directive.  Character classes in the specification range
+     over all Unicode code points, including supplementary ones, and
+     are compiled to UTF-8 byte sequences, so the generated lexer runs
+     on the input bytes with no decoding and a 258-entry yy_cmap.
+     Negated classes and . also match a lone non-ASCII byte, so that
+     malformed input is not left unmatched.  Implies %mmap; yychar and
+     yylength() count bytes, and yytext() decodes UTF-8.
+   Character maps wider than 512 entries (%unicode) are emitted as two
+     levels: a page table indexed by the high bits of a character and
+     one 256-entry block of classes per distinct page.
+   New %column directive.  yycolumn holds the column of the start of
+     the current match, counted from 0 in the same units as yychar,
+     and is computed from the buffer indices as yy_mark_start already
+     scans the previous match for line terminators.  Implies %char.
+   New %switch directive.  The transition function is emitted as code,
+     a switch on the state whose cases compare the lookahead character
+     against the bounds of its runs of transitions, instead of as the
+     yy_cmap and yy_nxt tables.  Overrides %compress.
+   SparseBitSet is replaced by CBitSet, a dense long[] bitset iterated
+     with next_set_bit.  Character classes are computed by splitting
+     per-class bitsets a word at a time instead of testing every
+     character against every edge, which makes %unicode specifications
+     with many character classes several times faster to process.
+
   Version 1.2.6, 2/7/03, [C. Scott Ananian]
    Renamed 'assert' function 'ASSERT' to accomodate Java 1.4's new keyword.
    Fixed a bug which certain forms of comment in the JLex directives section
@@ -250,9 +308,6 @@ class CSpec
   /* DFA Machine. */
   Vector m_dfa_states; /* Vector of states, with index
 				 corresponding to label. */
-  Hashtable m_dfa_sets; /* Hashtable taking set of NFA states
-				  to corresponding DFA state, 
-				  if the latter exists. */
   
   /* Accept States and Corresponding Anchors. */
   Vector m_accept_vector;
@@ -281,16 +336,27 @@ class CSpec
   /* Verbose execution flag. */
   boolean m_verbose;
 
+  /* Command-line options: print a timing summary (-time), and check
+     the minimized DFA against the iterative minimizer (-check). */
+  boolean m_show_timing;
+  boolean m_check_minimize;
+  int m_dfa_threads; /* Most threads building the DFA at once. */
+
   /* JLex directives flags. */
   boolean m_integer_type;
   boolean m_intwrap_type;
   boolean m_yyeof;
   boolean m_count_chars;
   boolean m_count_lines;
+  boolean m_count_columns;
   boolean m_cup_compatible;
   boolean m_unix;
   boolean m_public;
   boolean m_ignorecase;
+  boolean m_mmap;
+  boolean m_compress;
+  boolean m_switch;
+  boolean m_utf8;
 
   char m_init_code[];
   int m_init_read;
@@ -368,20 +434,27 @@ class CSpec
 	m_intwrap_type = false;
 	m_count_lines = false;
 	m_count_chars = false;
+	m_count_columns = false;
 	m_cup_compatible = false;
 	m_unix = true;
         m_public = false;
 	m_yyeof = false;
 	m_ignorecase = false;
+	m_mmap = false;
+	m_compress = false;
+	m_switch = false;
+	m_utf8 = false;
 
 	/* Initialize variables for JLex runtime options. */
 	m_verbose = true;
+	m_show_timing = false;
+	m_check_minimize = false;
+	m_dfa_threads = Runtime.getRuntime().availableProcessors();
 
 	m_nfa_start = null;
 	m_nfa_states = new Vector();
 	
 	m_dfa_states = new Vector();
-	m_dfa_sets = new Hashtable();
 
 	m_dtrans_vector = new Vector();
 	m_dtrans_ncols = CUtility.MAX_SEVEN_BIT + 1;
@@ -441,6 +514,14 @@ class CEmit
     **************************************************************/
   private final boolean EDBG = true;
   private final boolean NOT_EDBG = false;
+  private final int CMAP_PAGE_BITS = 8; /* See emit_paged_cmap. */
+  private final int CMAP_PAGE_SIZE = 1 << CMAP_PAGE_BITS;
+  /* Estimated bytecode sizes for emit_switch_table: HotSpot does not
+     compile methods of more than 8000 bytes. */
+  private final int SWITCH_METHOD_SIZE = 6000;
+  private final int SWITCH_RANGE_SIZE = 11;
+  private final int SWITCH_CASE_SIZE = 4;
+  private final int SWITCH_LINEAR_RUNS = 4;
 
   /***************************************************************
     Function: CEmit
@@ -668,12 +749,29 @@ class CEmit
 	    }
 
 	  /* Member Variables */
-	  m_outstream.println("\tprivate java.io.BufferedReader yy_reader;");
+	  if (m_spec.m_mmap)
+	    {
+	      /* The whole input is addressed in place; yy_reader,
+		 yy_stream and yy_channel are only consulted once, by
+		 yy_load. */
+	      m_outstream.println("\tprivate java.io.Reader yy_reader;");
+	      m_outstream.println("\tprivate java.io.InputStream yy_stream;");
+	      m_outstream.println("\tprivate java.nio.channels.FileChannel yy_channel;");
+	      m_outstream.println("\tprivate java.nio.ByteBuffer yy_bytes;");
+	      m_outstream.println("\tprivate char yy_text_buffer[];");
+	    }
+	  else
+	    {
+	      m_outstream.println("\tprivate java.io.BufferedReader yy_reader;");
+	    }
 	  m_outstream.println("\tprivate int yy_buffer_index;");
 	  m_outstream.println("\tprivate int yy_buffer_read;");
 	  m_outstream.println("\tprivate int yy_buffer_start;");
 	  m_outstream.println("\tprivate int yy_buffer_end;");
-	  m_outstream.println("\tprivate char yy_buffer[];");
+	  if (false == m_spec.m_mmap)
+	    {
+	      m_outstream.println("\tprivate char yy_buffer[];");
+	    }
 	  if (m_spec.m_count_chars)
 	    {
 	      m_outstream.println("\tprivate int yychar;");
@@ -682,6 +780,11 @@ class CEmit
 	    {
 	      m_outstream.println("\tprivate int yyline;");
 	    }
+	  if (m_spec.m_count_columns)
+	    {
+	      m_outstream.println("\tprivate int yycolumn;");
+	      m_outstream.println("\tprivate int yy_line_start;");
+	    }
 	  m_outstream.println("\tprivate boolean yy_at_bol;");
 	  m_outstream.println("\tprivate int yy_lexical_state;");
 	  /*if (m_spec.m_count_lines || true == m_spec.m_count_chars)
@@ -718,7 +821,14 @@ class CEmit
 	  m_outstream.println("\t\t\tthrow (new Error(\"Error: Bad input "
 				 + "stream initializer.\"));");
 	  m_outstream.println("\t\t}");
-	  m_outstream.println("\t\tyy_reader = new java.io.BufferedReader(reader);");
+	  if (m_spec.m_mmap)
+	    {
+	      m_outstream.println("\t\tyy_reader = reader;");
+	    }
+	  else
+	    {
+	      m_outstream.println("\t\tyy_reader = new java.io.BufferedReader(reader);");
+	    }
 	  m_outstream.println("\t}");
 	  m_outstream.println();
 
@@ -749,10 +859,90 @@ class CEmit
 	  m_outstream.println("\t\t\tthrow (new Error(\"Error: Bad input "
 				 + "stream initializer.\"));");
 	  m_outstream.println("\t\t}");
-	  m_outstream.println("\t\tyy_reader = new java.io.BufferedReader(new java.io.InputStreamReader(instream));");
+	  if (m_spec.m_mmap)
+	    {
+	      /* File streams are mapped; anything else is read in once,
+		 as raw bytes, so that no charset decodes them (a %utf8
+		 scanner decodes the UTF-8 itself). */
+	      m_outstream.println("\t\tif (instream instanceof java.io.FileInputStream) {");
+	      m_outstream.println("\t\t\tyy_channel = ((java.io.FileInputStream) instream).getChannel();");
+	      m_outstream.println("\t\t} else {");
+	      m_outstream.println("\t\t\tyy_stream = instream;");
+	      m_outstream.println("\t\t}");
+	    }
+	  else
+	    {
+	      m_outstream.println("\t\tyy_reader = new java.io.BufferedReader(new java.io.InputStreamReader(instream));");
+	    }
 	  m_outstream.println("\t}");
 	  m_outstream.println();
 
+	  if (m_spec.m_mmap)
+	    {
+	      /* Function: third constructor (FileChannel) */
+	      m_outstream.print("\t");
+	      if (true == m_spec.m_public) {
+		m_outstream.print("public ");
+	      }
+	      m_outstream.print(new String(m_spec.m_class_name));
+	      m_outstream.print(" (java.nio.channels.FileChannel channel)");
+
+	      if (null != m_spec.m_init_throw_code)
+		{
+		  m_outstream.println();
+		  m_outstream.print("\t\tthrows ");
+		  m_outstream.println(new String(m_spec.m_init_throw_code,0,
+						    m_spec.m_init_throw_read));
+		  m_outstream.println("\t\t{");
+		}
+	      else
+		{
+		  m_outstream.println(" {");
+		}
+
+	      m_outstream.println("\t\tthis ();");
+	      m_outstream.println("\t\tif (null == channel) {");
+	      m_outstream.println("\t\t\tthrow (new Error(\"Error: Bad input "
+				     + "stream initializer.\"));");
+	      m_outstream.println("\t\t}");
+	      m_outstream.println("\t\tyy_channel = channel;");
+	      m_outstream.println("\t}");
+	      m_outstream.println();
+
+	      /* Function: fourth constructor (ByteBuffer) */
+	      /* Scans bytes from the buffer's position to its limit; yychar
+		 counts from the position. */
+	      m_outstream.print("\t");
+	      if (true == m_spec.m_public) {
+		m_outstream.print("public ");
+	      }
+	      m_outstream.print(new String(m_spec.m_class_name));
+	      m_outstream.print(" (java.nio.ByteBuffer bytes)");
+
+	      if (null != m_spec.m_init_throw_code)
+		{
+		  m_outstream.println();
+		  m_outstream.print("\t\tthrows ");
+		  m_outstream.println(new String(m_spec.m_init_throw_code,0,
+						    m_spec.m_init_throw_read));
+		  m_outstream.println("\t\t{");
+		}
+	      else
+		{
+		  m_outstream.println(" {");
+		}
+
+	      m_outstream.println("\t\tthis ();");
+	      m_outstream.println("\t\tif (null == bytes) {");
+	      m_outstream.println("\t\t\tthrow (new Error(\"Error: Bad input "
+				     + "stream initializer.\"));");
+	      m_outstream.println("\t\t}");
+	      m_outstream.println("\t\tyy_bytes = bytes.slice();");
+	      m_outstream.println("\t\tyy_buffer_read = yy_bytes.limit();");
+	      m_outstream.println("\t}");
+	      m_outstream.println();
+	    }
+
 
 	  /* Function: third, private constructor - only for internal use */
 	  m_outstream.print("\tprivate ");
@@ -772,7 +962,10 @@ class CEmit
 	      m_outstream.println(" {");
 	    }
 	  
-	  m_outstream.println("\t\tyy_buffer = new char[YY_BUFFER_SIZE];");
+	  if (false == m_spec.m_mmap)
+	    {
+	      m_outstream.println("\t\tyy_buffer = new char[YY_BUFFER_SIZE];");
+	    }
 	  m_outstream.println("\t\tyy_buffer_read = 0;");
 	  m_outstream.println("\t\tyy_buffer_index = 0;");
 	  m_outstream.println("\t\tyy_buffer_start = 0;");
@@ -785,6 +978,11 @@ class CEmit
 	    {
 	      m_outstream.println("\t\tyyline = 0;");
 	    }
+	  if (m_spec.m_count_columns)
+	    {
+	      m_outstream.println("\t\tyycolumn = 0;");
+	      m_outstream.println("\t\tyy_line_start = 0;");
+	    }
 	  m_outstream.println("\t\tyy_at_bol = true;");
 	  m_outstream.println("\t\tyy_lexical_state = YYINITIAL;");
 	  /*if (m_spec.m_count_lines || true == m_spec.m_count_chars)
@@ -908,66 +1106,22 @@ class CEmit
 	m_outstream.println("\t\treturn yy_state_dtrans[state];");
 	m_outstream.println("\t}");*/
 
-	/* Function: yy_advance */
-	m_outstream.println("\tprivate int yy_advance ()");
-	m_outstream.println("\t\tthrows java.io.IOException {");
-	/*m_outstream.println("\t\t{");*/
-	m_outstream.println("\t\tint next_read;");
-	m_outstream.println("\t\tint i;");
-	m_outstream.println("\t\tint j;");
-	m_outstream.println();
-
-	m_outstream.println("\t\tif (yy_buffer_index < yy_buffer_read) {");
-	m_outstream.println("\t\t\treturn yy_buffer[yy_buffer_index++];");
-	/*m_outstream.println("\t\t\t++yy_buffer_index;");*/
-	m_outstream.println("\t\t}");
-	m_outstream.println();
-
-	m_outstream.println("\t\tif (0 != yy_buffer_start) {");
-	m_outstream.println("\t\t\ti = yy_buffer_start;");
-	m_outstream.println("\t\t\tj = 0;");
-	m_outstream.println("\t\t\twhile (i < yy_buffer_read) {");
-	m_outstream.println("\t\t\t\tyy_buffer[j] = yy_buffer[i];");
-	m_outstream.println("\t\t\t\t++i;");
-	m_outstream.println("\t\t\t\t++j;");
-	m_outstream.println("\t\t\t}");
-	m_outstream.println("\t\t\tyy_buffer_end = yy_buffer_end - yy_buffer_start;");
-	m_outstream.println("\t\t\tyy_buffer_start = 0;");
-	m_outstream.println("\t\t\tyy_buffer_read = j;");
-	m_outstream.println("\t\t\tyy_buffer_index = j;");
-	m_outstream.println("\t\t\tnext_read = yy_reader.read(yy_buffer,");
-	m_outstream.println("\t\t\t\t\tyy_buffer_read,");
-	m_outstream.println("\t\t\t\t\tyy_buffer.length - yy_buffer_read);");
-	m_outstream.println("\t\t\tif (-1 == next_read) {");
-	m_outstream.println("\t\t\t\treturn YY_EOF;");
-	m_outstream.println("\t\t\t}");
-	m_outstream.println("\t\t\tyy_buffer_read = yy_buffer_read + next_read;");
-	m_outstream.println("\t\t}");
-	m_outstream.println();
-
-	m_outstream.println("\t\twhile (yy_buffer_index >= yy_buffer_read) {");
-	m_outstream.println("\t\t\tif (yy_buffer_index >= yy_buffer.length) {");
-	m_outstream.println("\t\t\t\tyy_buffer = yy_double(yy_buffer);");
-	m_outstream.println("\t\t\t}");
-	m_outstream.println("\t\t\tnext_read = yy_reader.read(yy_buffer,");
-	m_outstream.println("\t\t\t\t\tyy_buffer_read,");
-	m_outstream.println("\t\t\t\t\tyy_buffer.length - yy_buffer_read);");
-	m_outstream.println("\t\t\tif (-1 == next_read) {");
-	m_outstream.println("\t\t\t\treturn YY_EOF;");
-	m_outstream.println("\t\t\t}");
-	m_outstream.println("\t\t\tyy_buffer_read = yy_buffer_read + next_read;");
-	m_outstream.println("\t\t}");
+	if (m_spec.m_mmap)
+	  {
+	    emit_mmap_input();
+	  }
+	else
+	  {
+	    emit_buffered_input();
+	  }
 
-	m_outstream.println("\t\treturn yy_buffer[yy_buffer_index++];");
-	m_outstream.println("\t}");
-	
 	/* Function: yy_move_end */
 	m_outstream.println("\tprivate void yy_move_end () {");
 	m_outstream.println("\t\tif (yy_buffer_end > yy_buffer_start &&");
-	m_outstream.println("\t\t    '\\n' == yy_buffer[yy_buffer_end-1])");
+	m_outstream.println("\t\t    '\\n' == " + buffer_char("yy_buffer_end-1") + ")");
 	m_outstream.println("\t\t\tyy_buffer_end--;");
 	m_outstream.println("\t\tif (yy_buffer_end > yy_buffer_start &&");
-	m_outstream.println("\t\t    '\\r' == yy_buffer[yy_buffer_end-1])");
+	m_outstream.println("\t\t    '\\r' == " + buffer_char("yy_buffer_end-1") + ")");
 	m_outstream.println("\t\t\tyy_buffer_end--;");
 	m_outstream.println("\t}");
 
@@ -976,25 +1130,46 @@ class CEmit
 	m_outstream.println("\tprivate void yy_mark_start () {");
 	if (m_spec.m_count_lines || true == m_spec.m_count_chars)
 	  {
-	    if (m_spec.m_count_lines)
+	    if (m_spec.m_count_lines || m_spec.m_count_columns)
 	      {
 		m_outstream.println("\t\tint i;");
 		m_outstream.println("\t\tfor (i = yy_buffer_start; " 
 				       + "i < yy_buffer_index; ++i) {");
-		m_outstream.println("\t\t\tif ('\\n' == yy_buffer[i] && !yy_last_was_cr) {");
+	      }
+	    if (m_spec.m_count_lines)
+	      {
+		m_outstream.println("\t\t\tif ('\\n' == " + buffer_char("i")
+				    + " && !yy_last_was_cr) {");
 		m_outstream.println("\t\t\t\t++yyline;");
 		m_outstream.println("\t\t\t}");
-		m_outstream.println("\t\t\tif ('\\r' == yy_buffer[i]) {");
+		m_outstream.println("\t\t\tif ('\\r' == " + buffer_char("i") + ") {");
 		m_outstream.println("\t\t\t\t++yyline;");
 		m_outstream.println("\t\t\t\tyy_last_was_cr=true;");
 		m_outstream.println("\t\t\t} else yy_last_was_cr=false;");
+	      }
+	    if (m_spec.m_count_columns)
+	      {
+		/* yy_line_start is the yychar of the first character
+		   after the last line terminator. */
+		m_outstream.println("\t\t\tif ('\\n' == " + buffer_char("i")
+				    + " || '\\r' == " + buffer_char("i") + ") {");
+		m_outstream.println("\t\t\t\tyy_line_start = yychar + i + 1 "
+				    + "- yy_buffer_start;");
+		m_outstream.println("\t\t\t}");
+	      }
+	    if (m_spec.m_count_lines || m_spec.m_count_columns)
+	      {
 		m_outstream.println("\t\t}");
 	      }
 	    if (m_spec.m_count_chars)
 	      {
-		m_outstream.println("\t\tyychar = yychar"); 
+		m_outstream.println("\t\tyychar = yychar");
 		m_outstream.println("\t\t\t+ yy_buffer_index - yy_buffer_start;");
 	      }
+	    if (m_spec.m_count_columns)
+	      {
+		m_outstream.println("\t\tyycolumn = yychar - yy_line_start;");
+	      }
 	  }
 	m_outstream.println("\t\tyy_buffer_start = yy_buffer_index;");
 	m_outstream.println("\t}");
@@ -1010,20 +1185,57 @@ class CEmit
 	m_outstream.println("\t\tyy_at_bol = "+
 			    "(yy_buffer_end > yy_buffer_start) &&");
 	m_outstream.println("\t\t            "+
-			    "('\\r' == yy_buffer[yy_buffer_end-1] ||");
+			    "('\\r' == " + buffer_char("yy_buffer_end-1") + " ||");
 	m_outstream.println("\t\t            "+
-			    " '\\n' == yy_buffer[yy_buffer_end-1] ||");
+			    " '\\n' == " + buffer_char("yy_buffer_end-1") + " ||");
 	m_outstream.println("\t\t            "+ /* unicode LS */
-			    " 2028/*LS*/ == yy_buffer[yy_buffer_end-1] ||");
+			    " 2028/*LS*/ == " + buffer_char("yy_buffer_end-1") + " ||");
 	m_outstream.println("\t\t            "+ /* unicode PS */
-			    " 2029/*PS*/ == yy_buffer[yy_buffer_end-1]);");
+			    " 2029/*PS*/ == " + buffer_char("yy_buffer_end-1") + ");");
 	m_outstream.println("\t}");
 
 	/* Function: yytext */
 	m_outstream.println("\tprivate java.lang.String yytext () {");
-	m_outstream.println("\t\treturn (new java.lang.String(yy_buffer,");
-	m_outstream.println("\t\t\tyy_buffer_start,");
-	m_outstream.println("\t\t\tyy_buffer_end - yy_buffer_start));");
+	if (m_spec.m_mmap)
+	  {
+	    /* Decode into a reusable scratch array so that only the
+	       String itself is allocated. */
+	    m_outstream.println("\t\tint i;");
+	    m_outstream.println("\t\tint length = yy_buffer_end - yy_buffer_start;");
+	    m_outstream.println("\t\tif (null == yy_text_buffer || yy_text_buffer.length < length) {");
+	    m_outstream.println("\t\t\tyy_text_buffer = new char[java.lang.Math.max(length, YY_BUFFER_SIZE)];");
+	    m_outstream.println("\t\t}");
+	    if (m_spec.m_utf8)
+	      {
+		/* ASCII text is copied as is; anything else is
+		   decoded as UTF-8. */
+		m_outstream.println("\t\tfor (i = 0; i < length; ++i) {");
+		m_outstream.println("\t\t\tint b = yy_bytes.get(yy_buffer_start + i);");
+		m_outstream.println("\t\t\tif (b < 0) {");
+		m_outstream.println("\t\t\t\tjava.nio.ByteBuffer text = yy_bytes.duplicate();");
+		m_outstream.println("\t\t\t\ttext.limit(yy_buffer_end);");
+		m_outstream.println("\t\t\t\ttext.position(yy_buffer_start);");
+		m_outstream.println("\t\t\t\treturn java.nio.charset.StandardCharsets.UTF_8"
+				    + ".decode(text).toString();");
+		m_outstream.println("\t\t\t}");
+		m_outstream.println("\t\t\tyy_text_buffer[i] = (char) b;");
+		m_outstream.println("\t\t}");
+	      }
+	    else
+	      {
+		m_outstream.println("\t\tfor (i = 0; i < length; ++i) {");
+		m_outstream.println("\t\t\tyy_text_buffer[i] = "
+				    + buffer_char("yy_buffer_start + i") + ";");
+		m_outstream.println("\t\t}");
+	      }
+	    m_outstream.println("\t\treturn (new java.lang.String(yy_text_buffer, 0, length));");
+	  }
+	else
+	  {
+	    m_outstream.println("\t\treturn (new java.lang.String(yy_buffer,");
+	    m_outstream.println("\t\t\tyy_buffer_start,");
+	    m_outstream.println("\t\t\tyy_buffer_end - yy_buffer_start));");
+	  }
 	m_outstream.println("\t}");
 
 	/* Function: yylength */
@@ -1115,6 +1327,190 @@ class CEmit
 	m_outstream.println("\t}");
       }
 
+  /***************************************************************
+    Function: buffer_char
+    Description: Returns the expression for the input character
+    at the given buffer index in the generated lexer.
+    **************************************************************/
+  private String buffer_char
+    (
+     String index
+     )
+      {
+	if (m_spec.m_mmap)
+	  {
+	    return "((char) (yy_bytes.get(" + index + ") & 0xff))";
+	  }
+	return "yy_buffer[" + index + "]";
+      }
+
+  /***************************************************************
+    Function: emit_buffered_input
+    Description: Emits yy_advance for the default input mode,
+    which reads through yy_reader into the growable yy_buffer.
+    **************************************************************/
+  private void emit_buffered_input
+    (
+     )
+      throws java.io.IOException
+      {
+	/* Function: yy_advance */
+	m_outstream.println("\tprivate int yy_advance ()");
+	m_outstream.println("\t\tthrows java.io.IOException {");
+	/*m_outstream.println("\t\t{");*/
+	m_outstream.println("\t\tint next_read;");
+	m_outstream.println("\t\tint i;");
+	m_outstream.println("\t\tint j;");
+	m_outstream.println();
+
+	m_outstream.println("\t\tif (yy_buffer_index < yy_buffer_read) {");
+	m_outstream.println("\t\t\treturn yy_buffer[yy_buffer_index++];");
+	/*m_outstream.println("\t\t\t++yy_buffer_index;");*/
+	m_outstream.println("\t\t}");
+	m_outstream.println();
+
+	m_outstream.println("\t\tif (0 != yy_buffer_start) {");
+	m_outstream.println("\t\t\ti = yy_buffer_start;");
+	m_outstream.println("\t\t\tj = 0;");
+	m_outstream.println("\t\t\twhile (i < yy_buffer_read) {");
+	m_outstream.println("\t\t\t\tyy_buffer[j] = yy_buffer[i];");
+	m_outstream.println("\t\t\t\t++i;");
+	m_outstream.println("\t\t\t\t++j;");
+	m_outstream.println("\t\t\t}");
+	m_outstream.println("\t\t\tyy_buffer_end = yy_buffer_end - yy_buffer_start;");
+	m_outstream.println("\t\t\tyy_buffer_start = 0;");
+	m_outstream.println("\t\t\tyy_buffer_read = j;");
+	m_outstream.println("\t\t\tyy_buffer_index = j;");
+	m_outstream.println("\t\t\tnext_read = yy_reader.read(yy_buffer,");
+	m_outstream.println("\t\t\t\t\tyy_buffer_read,");
+	m_outstream.println("\t\t\t\t\tyy_buffer.length - yy_buffer_read);");
+	m_outstream.println("\t\t\tif (-1 == next_read) {");
+	m_outstream.println("\t\t\t\treturn YY_EOF;");
+	m_outstream.println("\t\t\t}");
+	m_outstream.println("\t\t\tyy_buffer_read = yy_buffer_read + next_read;");
+	m_outstream.println("\t\t}");
+	m_outstream.println();
+
+	m_outstream.println("\t\twhile (yy_buffer_index >= yy_buffer_read) {");
+	m_outstream.println("\t\t\tif (yy_buffer_index >= yy_buffer.length) {");
+	m_outstream.println("\t\t\t\tyy_buffer = yy_double(yy_buffer);");
+	m_outstream.println("\t\t\t}");
+	m_outstream.println("\t\t\tnext_read = yy_reader.read(yy_buffer,");
+	m_outstream.println("\t\t\t\t\tyy_buffer_read,");
+	m_outstream.println("\t\t\t\t\tyy_buffer.length - yy_buffer_read);");
+	m_outstream.println("\t\t\tif (-1 == next_read) {");
+	m_outstream.println("\t\t\t\treturn YY_EOF;");
+	m_outstream.println("\t\t\t}");
+	m_outstream.println("\t\t\tyy_buffer_read = yy_buffer_read + next_read;");
+	m_outstream.println("\t\t}");
+
+	m_outstream.println("\t\treturn yy_buffer[yy_buffer_index++];");
+	m_outstream.println("\t}");
+      }
+
+  /***************************************************************
+    Function: emit_mmap_input
+    Description: Emits yy_load and yy_advance for %mmap input.
+    The whole input is mapped (or, if it cannot be, read once)
+    into yy_bytes, and the buffer indices address it directly, so
+    the buffer is never shifted or doubled while scanning.  Input
+    characters are 8-bit; each byte is one character.
+    **************************************************************/
+  private void emit_mmap_input
+    (
+     )
+      throws java.io.IOException
+      {
+	/* Function: yy_load */
+	m_outstream.println("\tprivate void yy_load ()");
+	m_outstream.println("\t\tthrows java.io.IOException {");
+	m_outstream.println("\t\tif (null != yy_channel) {");
+	/* Pipes and other special files have no size to map (nor a
+	   position), so they are read to the end instead. */
+	m_outstream.println("\t\t\tlong size = yy_channel.size();");
+	m_outstream.println("\t\t\tif (0 < size) {");
+	m_outstream.println("\t\t\t\tlong position = yy_channel.position();");
+	m_outstream.println("\t\t\t\tsize = size - position;");
+	m_outstream.println("\t\t\t\tif (size > java.lang.Integer.MAX_VALUE) {");
+	m_outstream.println("\t\t\t\t\tthrow (new java.io.IOException(\"Error: "
+			    + "Input too large to map.\"));");
+	m_outstream.println("\t\t\t\t}");
+	m_outstream.println("\t\t\t\tyy_bytes = yy_channel.map(java.nio.channels."
+			    + "FileChannel.MapMode.READ_ONLY,");
+	m_outstream.println("\t\t\t\t\tposition, size);");
+	m_outstream.println("\t\t\t} else {");
+	m_outstream.println("\t\t\t\tyy_stream = java.nio.channels.Channels"
+			    + ".newInputStream(yy_channel);");
+	m_outstream.println("\t\t\t}");
+	m_outstream.println("\t\t\tyy_channel = null;");
+	m_outstream.println("\t\t}");
+	m_outstream.println("\t\tif (null != yy_stream) {");
+	m_outstream.println("\t\t\tint next_read;");
+	m_outstream.println("\t\t\tint read = 0;");
+	m_outstream.println("\t\t\tbyte bytes[] = new byte[YY_BUFFER_SIZE];");
+	m_outstream.println("\t\t\twhile (-1 != (next_read = yy_stream.read(bytes, "
+			    + "read, bytes.length - read))) {");
+	m_outstream.println("\t\t\t\tread = read + next_read;");
+	m_outstream.println("\t\t\t\tif (read >= bytes.length) {");
+	m_outstream.println("\t\t\t\t\tbytes = java.util.Arrays.copyOf(bytes, "
+			    + "2 * bytes.length);");
+	m_outstream.println("\t\t\t\t}");
+	m_outstream.println("\t\t\t}");
+	m_outstream.println("\t\t\tyy_bytes = java.nio.ByteBuffer.wrap(bytes, 0, read);");
+	m_outstream.println("\t\t\tyy_stream = null;");
+	m_outstream.println("\t\t} else if (null != yy_reader) {");
+	m_outstream.println("\t\t\tint i;");
+	m_outstream.println("\t\t\tint next_read;");
+	m_outstream.println("\t\t\tint read = 0;");
+	m_outstream.println("\t\t\tchar buf[] = new char[YY_BUFFER_SIZE];");
+	m_outstream.println("\t\t\tbyte bytes[];");
+	m_outstream.println("\t\t\twhile (-1 != (next_read = yy_reader.read(buf, "
+			    + "read, buf.length - read))) {");
+	m_outstream.println("\t\t\t\tread = read + next_read;");
+	m_outstream.println("\t\t\t\tif (read >= buf.length) {");
+	m_outstream.println("\t\t\t\t\tbuf = yy_double(buf);");
+	m_outstream.println("\t\t\t\t}");
+	m_outstream.println("\t\t\t}");
+	if (m_spec.m_utf8)
+	  {
+	    m_outstream.println("\t\t\tbytes = new java.lang.String(buf, 0, read)"
+				+ ".getBytes(java.nio.charset.StandardCharsets.UTF_8);");
+	  }
+	else
+	  {
+	    /* Each byte is one character, so characters that do not fit
+	       in a byte cannot be scanned. */
+	    m_outstream.println("\t\t\tbytes = new byte[read];");
+	    m_outstream.println("\t\t\tfor (i = 0; i < read; ++i) {");
+	    m_outstream.println("\t\t\t\tif (buf[i] > 0xff) {");
+	    m_outstream.println("\t\t\t\t\tthrow (new java.io.IOException(\"Error: "
+				+ "Input character not in ISO-8859-1.\"));");
+	    m_outstream.println("\t\t\t\t}");
+	    m_outstream.println("\t\t\t\tbytes[i] = (byte) buf[i];");
+	    m_outstream.println("\t\t\t}");
+	  }
+	m_outstream.println("\t\t\tyy_bytes = java.nio.ByteBuffer.wrap(bytes);");
+	m_outstream.println("\t\t\tyy_reader = null;");
+	m_outstream.println("\t\t}");
+	m_outstream.println("\t\tyy_buffer_read = yy_bytes.limit();");
+	m_outstream.println("\t}");
+
+	/* Function: yy_advance */
+	m_outstream.println("\tprivate int yy_advance ()");
+	m_outstream.println("\t\tthrows java.io.IOException {");
+	m_outstream.println("\t\tif (yy_buffer_index < yy_buffer_read) {");
+	m_outstream.println("\t\t\treturn yy_bytes.get(yy_buffer_index++) & 0xff;");
+	m_outstream.println("\t\t}");
+	m_outstream.println("\t\tif (null == yy_bytes) {");
+	m_outstream.println("\t\t\tyy_load();");
+	m_outstream.println("\t\t\tif (yy_buffer_index < yy_buffer_read) {");
+	m_outstream.println("\t\t\t\treturn yy_bytes.get(yy_buffer_index++) & 0xff;");
+	m_outstream.println("\t\t\t}");
+	m_outstream.println("\t\t}");
+	m_outstream.println("\t\treturn YY_EOF;");
+	m_outstream.println("\t}");
+      }
+
   /***************************************************************
     Function: emit_header
     Description: Emits class header.
@@ -1212,15 +1608,34 @@ class CEmit
 	  }
 	m_outstream.println("\t};");
 
+	if (m_spec.m_switch)
+	  {
+	    emit_switch_table();
+	    return;
+	  }
+
 	// CSA: modified yy_cmap to use string packing 9-Aug-1999
 	int[] yy_cmap = new int[m_spec.m_ccls_map.length];
 	for (i = 0; i < m_spec.m_ccls_map.length; ++i)
 	    yy_cmap[i] = m_spec.m_col_map[m_spec.m_ccls_map[i]];
-	m_outstream.print("\tprivate int yy_cmap[] = unpackFromString(");
-	emit_table_as_string(new int[][] { yy_cmap });
-	m_outstream.println(")[0];");
+	if (yy_cmap.length > 2 * CMAP_PAGE_SIZE)
+	  {
+	    emit_paged_cmap(yy_cmap);
+	  }
+	else
+	  {
+	    m_outstream.print("\tprivate int yy_cmap[] = unpackFromString(");
+	    emit_table_as_string(new int[][] { yy_cmap });
+	    m_outstream.println(")[0];");
+	  }
 	m_outstream.println();
 
+	if (m_spec.m_compress)
+	  {
+	    emit_comb_table();
+	    return;
+	  }
+
 	// CSA: modified yy_rmap to use string packing 9-Aug-1999
 	m_outstream.print("\tprivate int yy_rmap[] = unpackFromString(");
 	emit_table_as_string(new int[][] { m_spec.m_row_map });
@@ -1245,19 +1660,450 @@ class CEmit
       }
 
   /***************************************************************
-    Function: emit_driver
-    Description: Output an integer table as a string.  Written by
-    Raimondas Lencevicius 6/24/98; reorganized by CSA 9-Aug-1999.
-    From his original comments:
-	   yy_nxt[][] values are coded into a string
-	   by printing integers and representing
-	   integer sequences as "value:length" pairs.
+    Function: emit_paged_cmap
+    Description: Emits the character map in two levels.  The
+    characters are split into pages of CMAP_PAGE_SIZE; pages with
+    the same classes share one block of yy_cmap_block, and
+    yy_cmap_page holds the offset of the block for each page.
     **************************************************************/
-  private void emit_table_as_string(int[][] ia) {
-	int sequenceLength = 0; // RL - length of the number sequence
-	boolean sequenceStarted = false; // RL - has number sequence started?
-	int previousInt = -20; // RL - Bogus -20 state.
-	
+  private void emit_paged_cmap
+    (
+     int yy_cmap[]
+     )
+      throws java.io.IOException
+      {
+	int npages = (yy_cmap.length + CMAP_PAGE_SIZE - 1) / CMAP_PAGE_SIZE;
+	int page[] = new int[npages];
+	int block[] = new int[npages * CMAP_PAGE_SIZE];
+	int nblocks = 0;
+	int slice[];
+	Hashtable blocks = new Hashtable();
+	String key;
+	Integer offset;
+	int i;
+
+	for (i = 0; i < npages; ++i)
+	  {
+	    /* The pseudo-characters' page is padded with class 0. */
+	    slice = new int[CMAP_PAGE_SIZE];
+	    System.arraycopy(yy_cmap,i * CMAP_PAGE_SIZE,slice,0,
+			     java.lang.Math.min(CMAP_PAGE_SIZE,
+						yy_cmap.length - i * CMAP_PAGE_SIZE));
+	    key = java.util.Arrays.toString(slice);
+	    offset = (Integer) blocks.get(key);
+	    if (null == offset)
+	      {
+		offset = Integer.valueOf(nblocks * CMAP_PAGE_SIZE);
+		System.arraycopy(slice,0,block,offset.intValue(),CMAP_PAGE_SIZE);
+		blocks.put(key,offset);
+		++nblocks;
+	      }
+	    page[i] = offset.intValue();
+	  }
+
+	m_outstream.print("\tprivate int yy_cmap_page[] = unpackFromString(");
+	emit_table_as_string(new int[][] { page });
+	m_outstream.println(")[0];");
+	m_outstream.print("\tprivate int yy_cmap_block[] = unpackFromString(");
+	emit_table_as_string(new int[][] 
+			     { java.util.Arrays.copyOf(block,nblocks * CMAP_PAGE_SIZE) });
+	m_outstream.println(")[0];");
+      }
+
+  /***************************************************************
+    Function: cmap
+    Description: Returns the expression for the character class
+    of c in the generated lexer.
+    **************************************************************/
+  private String cmap
+    (
+     String c
+     )
+      {
+	if (m_spec.m_ccls_map.length > 2 * CMAP_PAGE_SIZE)
+	  {
+	    return "yy_cmap_block[yy_cmap_page[" + c + " >> " + CMAP_PAGE_BITS
+	      + "] + (" + c + " & " + (CMAP_PAGE_SIZE - 1) + ")]";
+	  }
+	return "yy_cmap[" + c + "]";
+      }
+
+  /***************************************************************
+    Function: emit_comb_table
+    Description: Emits the transition table compressed by row
+    displacement.  Each row of the table has a default entry, the
+    one that occurs most often in it; the other entries of row r
+    are stored at yy_nxt[base + column], where base is the base of
+    r, and yy_chk holds base to mark them as belonging to r.  Rows
+    are placed largest first, each at the first unused base where
+    its entries fit into the holes left by the rows already placed.
+    yy_base and yy_def are emitted per state rather than per row,
+    so that the scanner need not look up yy_rmap.
+    **************************************************************/
+  private void emit_comb_table
+    (
+     )
+      throws java.io.IOException
+      {
+	int nrows = m_spec.m_dtrans_vector.size();
+	int ncols = m_spec.m_dtrans_ncols;
+	int nstates = m_spec.m_row_map.length;
+	int[][] rows = new int[nrows][];
+	int[] row_base = new int[nrows];
+	int[] row_def = new int[nrows];
+	long[] order = new long[nrows];
+	int[] nxt = new int[ncols];
+	int[] chk = new int[ncols];
+	boolean[] used = new boolean[ncols];
+	int size = 0;
+	int row;
+	int col;
+	int base;
+	int i;
+
+	for (row = 0; row < nrows; ++row)
+	  {
+	    rows[row] = ((CDTrans) m_spec.m_dtrans_vector.elementAt(row)).m_dtrans;
+	    CUtility.ASSERT(rows[row].length == ncols);
+	    row_def[row] = most_frequent(rows[row]);
+
+	    int count = 0;
+	    for (col = 0; col < ncols; ++col)
+	      {
+		if (rows[row][col] != row_def[row])
+		  {
+		    ++count;
+		  }
+	      }
+	    /* Sort by decreasing number of entries, then by row. */
+	    order[row] = ((long) (ncols - count) << 32) | row;
+	  }
+	java.util.Arrays.sort(order);
+	java.util.Arrays.fill(chk, -1);
+
+	for (i = 0; i < nrows; ++i)
+	  {
+	    row = (int) order[i];
+	    for (base = 0; ; ++base)
+	      {
+		if (base + ncols > nxt.length)
+		  {
+		    int old = chk.length;
+		    nxt = java.util.Arrays.copyOf(nxt, 2 * (base + ncols));
+		    chk = java.util.Arrays.copyOf(chk, nxt.length);
+		    used = java.util.Arrays.copyOf(used, nxt.length);
+		    java.util.Arrays.fill(chk, old, chk.length, -1);
+		  }
+		/* Bases must differ, since yy_chk identifies rows by them. */
+		if (used[base])
+		  {
+		    continue;
+		  }
+		for (col = 0; col < ncols; ++col)
+		  {
+		    if (rows[row][col] != row_def[row] && -1 != chk[base + col])
+		      {
+			break;
+		      }
+		  }
+		if (col == ncols)
+		  {
+		    break;
+		  }
+	      }
+
+	    row_base[row] = base;
+	    used[base] = true;
+	    for (col = 0; col < ncols; ++col)
+	      {
+		if (rows[row][col] != row_def[row])
+		  {
+		    nxt[base + col] = rows[row][col];
+		    chk[base + col] = base;
+		  }
+	      }
+	    /* Every base + column must index the arrays. */
+	    size = Math.max(size, base + ncols);
+	  }
+
+	int[] yy_base = new int[nstates];
+	int[] yy_def = new int[nstates];
+	for (i = 0; i < nstates; ++i)
+	  {
+	    yy_base[i] = row_base[m_spec.m_row_map[i]];
+	    yy_def[i] = row_def[m_spec.m_row_map[i]];
+	  }
+
+	if (m_spec.m_verbose)
+	  {
+	    System.out.println("Compressed transition table to " + size
+			       + " entries from " + nrows + " x " + ncols
+			       + " = " + (nrows * ncols) + ".");
+	  }
+
+	m_outstream.print("\tprivate int yy_base[] = unpackFromString(");
+	emit_table_as_string(new int[][] { yy_base });
+	m_outstream.println(")[0];");
+	m_outstream.println();
+
+	m_outstream.print("\tprivate int yy_def[] = unpackFromString(");
+	emit_table_as_string(new int[][] { yy_def });
+	m_outstream.println(")[0];");
+	m_outstream.println();
+
+	m_outstream.print("\tprivate int yy_nxt[] = unpackFromString(");
+	emit_table_as_string(new int[][] { java.util.Arrays.copyOf(nxt, size) });
+	m_outstream.println(")[0];");
+	m_outstream.println();
+
+	m_outstream.print("\tprivate int yy_chk[] = unpackFromString(");
+	emit_table_as_string(new int[][] { java.util.Arrays.copyOf(chk, size) });
+	m_outstream.println(")[0];");
+	m_outstream.println();
+
+	/* Function: yy_next */
+	m_outstream.println("\tprivate int yy_next (int state,int col) {");
+	m_outstream.println("\t\tint base = yy_base[state];");
+	m_outstream.println("\t\treturn (yy_chk[base + col] == base) "
+			       + "? yy_nxt[base + col] : yy_def[state];");
+	m_outstream.println("\t}");
+	m_outstream.println();
+      }
+
+  /***************************************************************
+    Function: emit_switch_table
+    Description: For %switch, emits the transition function as
+    code instead of as yy_cmap and yy_nxt.  yy_next(state, c)
+    switches on the state; each case finds the next state by
+    comparing c against the bounds of the runs of characters that
+    lead to the same state, in a binary search of if statements.
+    States with equal rows share a case.  The cases are spread over
+    as many methods as it takes to keep each one below HotSpot's
+    limit on the size of the methods it compiles.
+    **************************************************************/
+  private void emit_switch_table
+    (
+     )
+      throws java.io.IOException
+      {
+	int nstates = m_spec.m_row_map.length;
+	int nrows = m_spec.m_dtrans_vector.size();
+	int nchars = m_spec.m_ccls_map.length;
+	int run_lo[] = new int[nchars];
+	int run_col[] = new int[nchars];
+	int nruns = 0;
+	int lo[][] = new int[nrows][];
+	int next[][] = new int[nrows][];
+	int row_method[] = new int[nrows];
+	int method_first[] = new int[nstates + 1];
+	int nmethods = 0;
+	int size;
+	int row;
+	int col;
+	int state;
+	int first;
+	int count;
+	int i;
+	int k;
+
+	/* Runs of characters of the same column. */
+	for (i = 0; i < nchars; ++i)
+	  {
+	    col = m_spec.m_col_map[m_spec.m_ccls_map[i]];
+	    if (0 == nruns || run_col[nruns - 1] != col)
+	      {
+		run_lo[nruns] = i;
+		run_col[nruns] = col;
+		++nruns;
+	      }
+	  }
+
+	/* Runs of characters that lead to the same state, by row. */
+	for (row = 0; row < nrows; ++row)
+	  {
+	    int dtrans[] = ((CDTrans) m_spec.m_dtrans_vector.elementAt(row)).m_dtrans;
+	    int row_lo[] = new int[nruns];
+	    int row_next[] = new int[nruns];
+
+	    count = 0;
+	    for (k = 0; k < nruns; ++k)
+	      {
+		if (0 == count || row_next[count - 1] != dtrans[run_col[k]])
+		  {
+		    row_lo[count] = run_lo[k];
+		    row_next[count] = dtrans[run_col[k]];
+		    ++count;
+		  }
+	      }
+	    lo[row] = java.util.Arrays.copyOf(row_lo,count);
+	    next[row] = java.util.Arrays.copyOf(row_next,count);
+	  }
+
+	/* Split the states into methods, estimating their bytecode. */
+	java.util.Arrays.fill(row_method,-1);
+	method_first[nmethods++] = 0;
+	size = 0;
+	for (state = 0; state < nstates; ++state)
+	  {
+	    row = m_spec.m_row_map[state];
+	    if (row_method[row] != nmethods - 1)
+	      {
+		if (0 < size
+		    && size + SWITCH_RANGE_SIZE * lo[row].length > SWITCH_METHOD_SIZE)
+		  {
+		    method_first[nmethods++] = state;
+		    size = 0;
+		  }
+		row_method[row] = nmethods - 1;
+		size += SWITCH_RANGE_SIZE * lo[row].length;
+	      }
+	    size += SWITCH_CASE_SIZE;
+	  }
+	method_first[nmethods] = nstates;
+
+	if (m_spec.m_verbose)
+	  {
+	    System.out.println("Coded transition function in " + nmethods
+			       + " method(s) for " + nstates + " states.");
+	  }
+
+	/* Function: yy_next */
+	if (1 < nmethods)
+	  {
+	    m_outstream.println("\tprivate int yy_next (int state,int c) {");
+	    for (i = 1; i < nmethods; ++i)
+	      {
+		m_outstream.println("\t\tif (state < " + method_first[i] 
+				    + ") return yy_next" + (i - 1) + "(state,c);");
+	      }
+	    m_outstream.println("\t\treturn yy_next" + (nmethods - 1) + "(state,c);");
+	    m_outstream.println("\t}");
+	  }
+
+	/* From here on, row_method[row] == nmethods + i once the case
+	   of row has been emitted in method i. */
+	for (i = 0; i < nmethods; ++i)
+	  {
+	    m_outstream.println("\tprivate int yy_next" 
+				+ ((1 < nmethods) ? String.valueOf(i) : "")
+				+ " (int state,int c) {");
+	    m_outstream.println("\t\tswitch (state) {");
+	    for (first = method_first[i]; first < method_first[i + 1]; ++first)
+	      {
+		row = m_spec.m_row_map[first];
+		if (row_method[row] == nmethods + i)
+		  {
+		    continue; /* Emitted with an earlier state. */
+		  }
+		row_method[row] = nmethods + i;
+		for (state = first; state < method_first[i + 1]; ++state)
+		  {
+		    if (m_spec.m_row_map[state] == row)
+		      {
+			m_outstream.println("\t\tcase " + state + ":");
+		      }
+		  }
+		emit_ranges(lo[row],next[row],0,lo[row].length,"\t\t\t");
+	      }
+	    m_outstream.println("\t\tdefault:");
+	    m_outstream.println("\t\t\treturn YY_F;");
+	    m_outstream.println("\t\t}");
+	    m_outstream.println("\t}");
+	  }
+	m_outstream.println();
+      }
+
+  /***************************************************************
+    Function: emit_ranges
+    Description: Emits statements that return next[k] for c in
+    lo[k] up to lo[k + 1], for c in the runs from..to-1.
+    **************************************************************/
+  private void emit_ranges
+    (
+     int lo[],
+     int next[],
+     int from,
+     int to,
+     String indent
+     )
+      throws java.io.IOException
+      {
+	int mid;
+	int k;
+
+	if (to - from <= SWITCH_LINEAR_RUNS)
+	  {
+	    for (k = from; k < to - 1; ++k)
+	      {
+		m_outstream.println(indent + "if (c < " + lo[k + 1] + ") return "
+				    + state_name(next[k]) + ";");
+	      }
+	    m_outstream.println(indent + "return " + state_name(next[to - 1]) + ";");
+	    return;
+	  }
+
+	mid = (from + to) / 2;
+	m_outstream.println(indent + "if (c < " + lo[mid] + ") {");
+	emit_ranges(lo,next,from,mid,indent + "\t");
+	m_outstream.println(indent + "}");
+	emit_ranges(lo,next,mid,to,indent);
+      }
+
+  /***************************************************************
+    Function: state_name
+    **************************************************************/
+  private String state_name
+    (
+     int state
+     )
+      {
+	return (-1 == state) ? "YY_F" : String.valueOf(state);
+      }
+
+  /***************************************************************
+    Function: most_frequent
+    Description: Returns the value that occurs most often in row.
+    **************************************************************/
+  private int most_frequent
+    (
+     int row[]
+     )
+      {
+	int sorted[] = row.clone();
+	int best = 0;
+	int best_count = 0;
+	int i;
+	int j;
+
+	java.util.Arrays.sort(sorted);
+	for (i = 0; i < sorted.length; i = j)
+	  {
+	    for (j = i; j < sorted.length && sorted[j] == sorted[i]; ++j)
+	      {
+	      }
+	    if (j - i > best_count)
+	      {
+		best = sorted[i];
+		best_count = j - i;
+	      }
+	  }
+	return best;
+      }
+
+  /***************************************************************
+    Function: emit_driver
+    Description: Output an integer table as a string.  Written by
+    Raimondas Lencevicius 6/24/98; reorganized by CSA 9-Aug-1999.
+    From his original comments:
+	   yy_nxt[][] values are coded into a string
+	   by printing integers and representing
+	   integer sequences as "value:length" pairs.
+    **************************************************************/
+  private void emit_table_as_string(int[][] ia) {
+	int sequenceLength = 0; // RL - length of the number sequence
+	boolean sequenceStarted = false; // RL - has number sequence started?
+	int previousInt = -20; // RL - Bogus -20 state.
+	
 	// RL - Output matrix size
 	m_outstream.print(ia.length);
 	m_outstream.print(",");
@@ -1417,8 +2263,21 @@ class CEmit
 	  m_outstream.println("\t\t\tyy_next_state = YY_F;");
 	  /*m_outstream.println("\t\t\t\tyy_next_state = "
 				 + "yy_next(yy_state,yy_lookahead);");*/
-	  m_outstream.println("\t\t\tyy_next_state = "
- 	   + "yy_nxt[yy_rmap[yy_state]][yy_cmap[yy_lookahead]];");
+	  if (m_spec.m_switch)
+	    {
+	      m_outstream.println("\t\t\tyy_next_state = "
+				     + "yy_next(yy_state,yy_lookahead);");
+	    }
+	  else if (m_spec.m_compress)
+	    {
+	      m_outstream.println("\t\t\tyy_next_state = "
+				     + "yy_next(yy_state," + cmap("yy_lookahead") + ");");
+	    }
+	  else
+	    {
+	      m_outstream.println("\t\t\tyy_next_state = "
+ 	       + "yy_nxt[yy_rmap[yy_state]][" + cmap("yy_lookahead") + "];");
+	    }
 
 	  if (NOT_EDBG)
 	    {
@@ -1607,36 +2466,6 @@ class CEmit
       }
 }
 
-/***************************************************************
-  Class: CBunch
-  **************************************************************/
-class CBunch
-{
-  /***************************************************************
-    Member Variables
-    **************************************************************/
-  Vector m_nfa_set; /* Vector of CNfa states in dfa state. */
-  SparseBitSet m_nfa_bit; /* BitSet representation of CNfa labels. */
-  CAccept m_accept; /* Accepting actions, or null if nonaccepting state. */
-  int m_anchor; /* Anchors on regular expression. */
-  int m_accept_index; /* CNfa index corresponding to accepting actions. */
-
-  /***************************************************************
-    Function: CBunch
-    Description: Constructor.
-    **************************************************************/
-  CBunch
-    (
-     )
-      {
-	m_nfa_set = null;
-	m_nfa_bit = null;
-	m_accept = null;
-	m_anchor = CSpec.NONE;
-	m_accept_index = -1;
-      }
-}
-
 /***************************************************************
   Class: CMakeNfa
   **************************************************************/
@@ -1789,7 +2618,7 @@ class CMakeNfa
     **************************************************************/
   private void processStates
     (
-     SparseBitSet states,
+     CBitSet states,
      CNfa current
      )
       {
@@ -1817,7 +2646,7 @@ class CMakeNfa
       {
 	CNfa start;
 	CNfa p;
-	SparseBitSet states;
+	CBitSet states;
 
 	if (CUtility.DESCENT_DEBUG)
 	  {
@@ -1862,7 +2691,7 @@ class CMakeNfa
 	  }
 
 	// CSA: add pseudo-rules for BOL and EOF
-	SparseBitSet all_states = new SparseBitSet();
+	CBitSet all_states = new CBitSet();
 	for (int i = 0; i < m_spec.m_states.size(); ++i)
 		all_states.set(i);
 	p.m_next2 = CAlloc.newCNfa(m_spec);
@@ -2352,42 +3181,71 @@ class CSimplifyNfa
    *  edges.  We optimistically assume that every character belongs to
    *  a single character class, and then incrementally split classes
    *  as we see edges that require discrimination between characters in
-   *  the class. [CSA, 25-Jul-1999] */
+   *  the class. [CSA, 25-Jul-1999]
+   *  The characters of each class are kept as a CBitSet, so that an
+   *  edge is tested against a class a word at a time.  The classes
+   *  split by an edge are numbered in order of their first character
+   *  on the edge, as when every character was examined in turn. */
   private void computeClasses(CSpec m_spec) {
     this.original_charset_size = m_spec.m_dtrans_ncols;
     this.ccls = new int[original_charset_size]; // initially all zero.
 
+    int n = original_charset_size;
     int nextcls = 1;
-    SparseBitSet clsA = new SparseBitSet(), clsB = new SparseBitSet();
-    Hashtable h = new Hashtable();
+    Vector members = new Vector(); // characters in each class
+    CBitSet all = new CBitSet(n);
+    all.set(0, n);
+    members.addElement(all);
+    int[] split = new int[16], first = new int[16];
+    CBitSet[] side = new CBitSet[16];
     
     System.out.print("Working on character classes.");
     for (Enumeration e=m_spec.m_nfa_states.elements(); e.hasMoreElements(); ) {
       CNfa nfa = (CNfa) e.nextElement();
       if (nfa.m_edge==CNfa.EMPTY || nfa.m_edge==CNfa.EPSILON)
 	continue; // no discriminatory information.
-      clsA.clearAll(); clsB.clearAll();
-      for (int i=0; i<ccls.length; i++)
-	if (nfa.m_edge==i || // edge labeled with a character
-	    nfa.m_edge==CNfa.CCL && nfa.m_set.contains(i)) // set of characters
-	  clsA.set(ccls[i]);
-	else
-	  clsB.set(ccls[i]);
-      // now figure out which character classes we need to split.
-      clsA.and(clsB); // split the classes which show up on both sides of edge
-      System.out.print(clsA.size()==0?".":":");
-      if (clsA.size()==0) continue; // nothing to do.
+      CBitSet edge;
+      int lo, hi; // range of classes the edge may split
+      if (nfa.m_edge==CNfa.CCL) { // set of characters
+	edge = nfa.m_set.members(n);
+	lo = 0; hi = nextcls;
+      } else { // edge labeled with a character
+	edge = new CBitSet(n);
+	if (nfa.m_edge < n) edge.set(nfa.m_edge);
+	lo = (nfa.m_edge < n) ? ccls[nfa.m_edge] : 0;
+	hi = (nfa.m_edge < n) ? lo+1 : 0;
+      }
+      // find the classes which show up on both sides of edge
+      int nsplit = 0;
+      for (int c=lo; c<hi; c++) {
+	CBitSet cls = (CBitSet) members.elementAt(c);
+	if (!cls.intersects(edge) || cls.subset_of(edge)) continue;
+	if (nsplit==split.length) {
+	  split = java.util.Arrays.copyOf(split, 2*nsplit);
+	  first = java.util.Arrays.copyOf(first, 2*nsplit);
+	  side = java.util.Arrays.copyOf(side, 2*nsplit);
+	}
+	CBitSet a = (CBitSet) cls.clone();
+	a.and(edge);
+	// insert in order of first character on the edge side
+	int f = a.next_set_bit(0), j = nsplit++;
+	for (; j>0 && first[j-1]>f; j--) {
+	  split[j] = split[j-1]; first[j] = first[j-1]; side[j] = side[j-1];
+	}
+	split[j] = c; first[j] = f; side[j] = a;
+      }
+      System.out.print(nsplit==0?".":":");
+      if (nsplit==0) continue; // nothing to do.
       // and split them.
-      h.clear(); // h will map old to new class name
-      for (int i=0; i<ccls.length; i++)
-	if (clsA.get(ccls[i])) // a split class
-	  if (nfa.m_edge==i ||
-	      nfa.m_edge==CNfa.CCL && nfa.m_set.contains(i)) { // on A side
-	    Integer split = new Integer(ccls[i]);
-	    if (!h.containsKey(split))
-	      h.put(split, new Integer(nextcls++)); // make new class
-	    ccls[i] = ((Integer)h.get(split)).intValue();
-	  }
+      for (int j=0; j<nsplit; j++) {
+	CBitSet a = side[j];
+	((CBitSet) members.elementAt(split[j])).andNot(a);
+	members.addElement(a);
+	for (int i=a.next_set_bit(0); i>=0; i=a.next_set_bit(i+1))
+	  ccls[i] = nextcls;
+	nextcls++;
+	side[j] = null;
+      }
     }
     System.out.println();
     System.out.println("NFA has "+nextcls+" distinct character classes.");
@@ -2397,39 +3255,404 @@ class CSimplifyNfa
 }
 
 /***************************************************************
-  Class: CMinimize
+  Class: CUtf8Nfa
+  Description: For %utf8, rewrites the NFA built over Unicode code
+  points into one over the bytes of their UTF-8 encodings.  An edge
+  on a character or character class becomes a choice of chains of
+  byte edges, one per sequence of byte ranges that utf8_ranges()
+  splits the class into; the pseudo-characters BOL and EOF move to
+  the two columns after the byte values.
  **************************************************************/
-class CMinimize
+class CUtf8Nfa
 {
   /***************************************************************
     Member Variables
     **************************************************************/
-  CSpec m_spec;
-  Vector m_group;
-  int m_ingroup[];
+  private CSpec m_spec;
+  private int m_bol; /* BOL and EOF of the code point NFA. */
+  private int m_eof;
+  private Vector m_seqs; /* Byte range sequences of the current edge,
+			    each an int[] of lo, hi pairs. */
 
   /***************************************************************
-    Function: CMinimize
-    Description: Constructor.
+    Constants
     **************************************************************/
-  CMinimize 
-    (
-     )
-      {
-	reset();
-      }
-  
+  static final int BYTE_BOL = CUtility.MAX_EIGHT_BIT + 1;
+  static final int BYTE_EOF = CUtility.MAX_EIGHT_BIT + 2;
+
   /***************************************************************
-    Function: reset
-    Description: Resets member variables.
+    Function: translate
+    Description: High-level access function to module.
     **************************************************************/
-  private void reset
+  void translate
     (
+     CSpec spec
      )
       {
-	m_spec = null;
-	m_group = null;
-	m_ingroup = null;
+	int i;
+	int size;
+	CNfa nfa;
+
+	m_spec = spec;
+	m_bol = spec.BOL;
+	m_eof = spec.EOF;
+	m_seqs = new Vector();
+
+	/* States added along the way have byte edges already. */
+	size = spec.m_nfa_states.size();
+	for (i = 0; i < size; ++i)
+	  {
+	    nfa = (CNfa) spec.m_nfa_states.elementAt(i);
+	    if (CNfa.CCL == nfa.m_edge)
+	      {
+		translate_set(nfa);
+	      }
+	    else if (m_bol == nfa.m_edge)
+	      {
+		nfa.m_edge = BYTE_BOL;
+	      }
+	    else if (m_eof == nfa.m_edge)
+	      {
+		nfa.m_edge = BYTE_EOF;
+	      }
+	    else if (nfa.m_edge > CUtility.MAX_SEVEN_BIT)
+	      {
+		m_seqs.removeAllElements();
+		utf8_ranges(nfa.m_edge,nfa.m_edge);
+		build(nfa,null);
+	      }
+	  }
+
+	/* Label the new states. */
+	size = spec.m_nfa_states.size();
+	for (i = 0; i < size; ++i)
+	  {
+	    nfa = (CNfa) spec.m_nfa_states.elementAt(i);
+	    nfa.m_label = i;
+	  }
+
+	spec.BOL = BYTE_BOL;
+	spec.EOF = BYTE_EOF;
+	spec.m_dtrans_ncols = BYTE_EOF + 1;
+
+	m_spec = null;
+	m_seqs = null;
+      }
+
+  /***************************************************************
+    Function: translate_set
+    Description: Rewrites an edge on a character class.
+    **************************************************************/
+  private void translate_set
+    (
+     CNfa nfa
+     )
+      {
+	int elements[] = nfa.m_set.elements();
+	CSet pseudo = new CSet();
+	int lo;
+	int i;
+	int j;
+
+	m_seqs.removeAllElements();
+	if (nfa.m_set.is_complement())
+	  {
+	    /* Everything from 0 to MAX_CODE_POINT but the elements. */
+	    lo = 0;
+	    for (i = 0; 
+		 i < elements.length && elements[i] <= CUtility.MAX_CODE_POINT;
+		 ++i)
+	      {
+		utf8_ranges(lo,elements[i] - 1);
+		lo = elements[i] + 1;
+	      }
+	    utf8_ranges(lo,CUtility.MAX_CODE_POINT);
+
+	    /* Any non-ASCII byte also matches on its own, so that
+	       malformed input falls to the same rules as an unknown
+	       character; well-formed input still matches whole
+	       characters, which are longer. */
+	    m_seqs.addElement(new int[] { 0x80, CUtility.MAX_EIGHT_BIT });
+	  }
+	else
+	  {
+	    /* Each run of consecutive elements is one range. */
+	    for (i = 0; 
+		 i < elements.length && elements[i] <= CUtility.MAX_CODE_POINT;
+		 i = j)
+	      {
+		for (j = i + 1; j < elements.length 
+		       && elements[j] <= CUtility.MAX_CODE_POINT
+		       && elements[j] == elements[j - 1] + 1; ++j)
+		  {
+		  }
+		utf8_ranges(elements[i],elements[j - 1]);
+	      }
+	  }
+
+	if (nfa.m_set.contains(m_bol))
+	  {
+	    pseudo.add(BYTE_BOL);
+	  }
+	if (nfa.m_set.contains(m_eof))
+	  {
+	    pseudo.add(BYTE_EOF);
+	  }
+	build(nfa,pseudo);
+      }
+
+  /***************************************************************
+    Function: build
+    Description: Replaces the edge out of nfa by the byte range
+    sequences in m_seqs, which all lead to nfa.m_next.  Sequences
+    of one byte, and the pseudo-characters in pseudo, share a single
+    character class edge; the rest become chains of states.
+    **************************************************************/
+  private void build
+    (
+     CNfa nfa,
+     CSet pseudo
+     )
+      {
+	Vector branches = new Vector();
+	CSet single = (null == pseudo) ? new CSet() : pseudo;
+	boolean has_single = (null != pseudo);
+	CNfa target = nfa.m_next;
+	CNfa branch;
+	CNfa p;
+	int seq[];
+	int i;
+	int c;
+
+	for (i = 0; i < m_seqs.size(); ++i)
+	  {
+	    seq = (int[]) m_seqs.elementAt(i);
+	    if (2 == seq.length)
+	      {
+		for (c = seq[0]; c <= seq[1]; ++c)
+		  {
+		    single.add(c);
+		  }
+		has_single = true;
+	      }
+	    else
+	      {
+		branches.addElement(chain(seq,target));
+	      }
+	  }
+
+	if (0 == branches.size())
+	  {
+	    /* Possibly empty, e.g. for a lone surrogate. */
+	    nfa.m_edge = CNfa.CCL;
+	    nfa.m_set = single;
+	    return;
+	  }
+	if (has_single)
+	  {
+	    branch = CAlloc.newCNfa(m_spec);
+	    branch.m_edge = CNfa.CCL;
+	    branch.m_set = single;
+	    branch.m_next = target;
+	    branches.insertElementAt(branch,0);
+	  }
+
+	/* Branch to each chain through a list of epsilon states. */
+	nfa.m_edge = CNfa.EPSILON;
+	nfa.m_set = null;
+	p = nfa;
+	for (i = 0; i < branches.size() - 1; ++i)
+	  {
+	    p.m_next = (CNfa) branches.elementAt(i);
+	    p.m_next2 = CAlloc.newCNfa(m_spec);
+	    p = p.m_next2;
+	  }
+	p.m_next = (CNfa) branches.lastElement();
+      }
+
+  /***************************************************************
+    Function: chain
+    Description: Returns a chain of states with one edge on each
+    byte range of seq, ending at target.
+    **************************************************************/
+  private CNfa chain
+    (
+     int seq[],
+     CNfa target
+     )
+      {
+	CNfa first = null;
+	CNfa p = null;
+	CNfa state;
+	int i;
+	int c;
+
+	for (i = 0; i < seq.length; i += 2)
+	  {
+	    state = CAlloc.newCNfa(m_spec);
+	    if (seq[i] == seq[i + 1])
+	      {
+		state.m_edge = seq[i];
+	      }
+	    else
+	      {
+		state.m_edge = CNfa.CCL;
+		state.m_set = new CSet();
+		for (c = seq[i]; c <= seq[i + 1]; ++c)
+		  {
+		    state.m_set.add(c);
+		  }
+	      }
+
+	    if (null == p)
+	      {
+		first = state;
+	      }
+	    else
+	      {
+		p.m_next = state;
+	      }
+	    p = state;
+	  }
+	p.m_next = target;
+	return first;
+      }
+
+  /***************************************************************
+    Function: utf8_ranges
+    Description: Adds to m_seqs sequences of byte ranges whose
+    concatenations are exactly the UTF-8 encodings of the code
+    points lo through hi, skipping surrogates.  The range is split
+    until lo and hi encode to the same number of bytes and, in each
+    position, every byte between theirs can follow every prefix.
+    **************************************************************/
+  private void utf8_ranges
+    (
+     int lo,
+     int hi
+     )
+      {
+	int bound[] = { 0x7F, 0x7FF, 0xFFFF };
+	int lo_bytes[];
+	int hi_bytes[];
+	int seq[];
+	int i;
+	int m;
+
+	if (lo > hi)
+	  {
+	    return;
+	  }
+	if (lo <= 0xDFFF && hi >= 0xD800)
+	  {
+	    utf8_ranges(lo,0xD7FF);
+	    utf8_ranges(0xE000,hi);
+	    return;
+	  }
+	for (i = 0; i < bound.length; ++i)
+	  {
+	    if (lo <= bound[i] && hi > bound[i])
+	      {
+		utf8_ranges(lo,bound[i]);
+		utf8_ranges(bound[i] + 1,hi);
+		return;
+	      }
+	  }
+
+	lo_bytes = encode(lo);
+	hi_bytes = encode(hi);
+	for (i = 1; i < lo_bytes.length; ++i)
+	  {
+	    m = (1 << (6 * i)) - 1;
+	    if ((lo & ~m) != (hi & ~m))
+	      {
+		if (0 != (lo & m))
+		  {
+		    utf8_ranges(lo,lo | m);
+		    utf8_ranges((lo | m) + 1,hi);
+		    return;
+		  }
+		if (m != (hi & m))
+		  {
+		    utf8_ranges(lo,(hi & ~m) - 1);
+		    utf8_ranges(hi & ~m,hi);
+		    return;
+		  }
+	      }
+	  }
+
+	seq = new int[2 * lo_bytes.length];
+	for (i = 0; i < lo_bytes.length; ++i)
+	  {
+	    seq[2 * i] = lo_bytes[i];
+	    seq[2 * i + 1] = hi_bytes[i];
+	  }
+	m_seqs.addElement(seq);
+      }
+
+  /***************************************************************
+    Function: encode
+    Description: Returns the UTF-8 encoding of code point c.
+    **************************************************************/
+  private static int[] encode
+    (
+     int c
+     )
+      {
+	if (c <= 0x7F)
+	  {
+	    return new int[] { c };
+	  }
+	if (c <= 0x7FF)
+	  {
+	    return new int[] { 0xC0 | (c >> 6), 0x80 | (c & 0x3F) };
+	  }
+	if (c <= 0xFFFF)
+	  {
+	    return new int[] { 0xE0 | (c >> 12), 0x80 | ((c >> 6) & 0x3F),
+			       0x80 | (c & 0x3F) };
+	  }
+	return new int[] { 0xF0 | (c >> 18), 0x80 | ((c >> 12) & 0x3F),
+			   0x80 | ((c >> 6) & 0x3F), 0x80 | (c & 0x3F) };
+      }
+}
+
+/***************************************************************
+  Class: CMinimize
+ **************************************************************/
+class CMinimize
+{
+  /***************************************************************
+    Member Variables
+    **************************************************************/
+  CSpec m_spec;
+  Vector m_group;
+  int m_ingroup[];
+  CDfaTables m_classic;		/* tables from refine_groups, for -check */
+
+  /***************************************************************
+    Function: CMinimize
+    Description: Constructor.
+    **************************************************************/
+  CMinimize 
+    (
+     )
+      {
+	reset();
+      }
+  
+  /***************************************************************
+    Function: reset
+    Description: Resets member variables.
+    **************************************************************/
+  private void reset
+    (
+     )
+      {
+	m_spec = null;
+	m_group = null;
+	m_ingroup = null;
+	m_classic = null;
       }
 
   /***************************************************************
@@ -2449,6 +3672,7 @@ class CMinimize
 	m_spec = spec;
 	m_group = null;
 	m_ingroup = null;
+	m_classic = null;
       }
 
   /***************************************************************
@@ -2469,6 +3693,13 @@ class CMinimize
 	   Save accept states in auxilary vector. */
 	reduce();
 
+	if (null != m_classic
+	    && false == equivalent(m_classic,new CDfaTables(m_spec)))
+	  {
+	    throw new Error("Error: Tables from Hopcroft and iterative DFA "
+			    + "minimization encode different DFAs.");
+	  }
+
 	reset();
       }
 
@@ -2600,11 +3831,11 @@ class CMinimize
 	int nrows;
 	int reduced_ncols;
 	int reduced_nrows;
-	SparseBitSet set;
+	CBitSet set;
 	CDTrans dtrans;
 	int size;
 
-	set = new SparseBitSet();
+	set = new CBitSet();
 	
 	/* Save accept nodes and anchor entries. */
 	size = m_spec.m_dtrans_vector.size();
@@ -2844,36 +4075,484 @@ class CMinimize
     (
      )
       {
-	Vector dtrans_group;
-	Vector new_group;
+	int classic[] = null;
+
+	if (m_spec.m_check_minimize)
+	  {
+	    m_classic = classic_tables();
+	    classic = m_ingroup;
+	  }
+
+	partition();
+
+	if (null != classic
+	    && (false == coarsens(m_ingroup,classic) || false == stable()))
+	  {
+	    throw new Error("Error: Hopcroft and iterative DFA minimization "
+			    + "disagree.");
+	  }
+
+	System.out.println(m_group.size() + " states after removal of redundant states.");
+
+	if (m_spec.m_verbose
+	    && true == CUtility.OLD_DUMP_DEBUG)
+	  {
+	    System.out.println();
+	    System.out.println("States grouped as follows after minimization");
+	    pgroups();
+	  }
+
+	fix_dtrans();
+      }
+
+  /***************************************************************
+    Function: partition
+    Description: Groups equivalent states by Hopcroft's partition
+    refinement.  States start out grouped by accepting action, and
+    a worklist of splitter groups is processed until no group can
+    be split: for each splitter and character class, the states
+    that move into the splitter on that class are moved to the front
+    of their groups, and every group only partly moved is split.
+    A split group's pieces are added to the worklist if it was
+    there already; otherwise only the smaller piece is.  Missing
+    transitions (CDTrans.F) go to an extra sink state in a group of
+    its own.  Sets m_group and m_ingroup, with groups numbered in
+    order of their lowest state.
+    **************************************************************/
+  private void partition
+    (
+     )
+      {
+	int nstates = m_spec.m_dtrans_vector.size();
+	int ncols = m_spec.m_dtrans_ncols;
+	int sink = nstates;
+	int n = nstates + 1;
+	int next[] = new int[n * ncols];
+	int pred_start[] = new int[n * ncols + 2];
+	int pred[] = new int[n * ncols];
+	int elem[] = new int[n];	/* states, grouped by block */
+	int loc[] = new int[n];		/* index of each state in elem */
+	int block[] = new int[n];
+	int first[] = new int[n];	/* block b is elem[first[b] .. end[b]-1] */
+	int end[] = new int[n];
+	int marked[] = new int[n];
+	boolean pending[] = new boolean[n];
+	int work[] = new int[n];
+	int touched[] = new int[n];
+	int splitter[] = new int[n];
+	int nwork = 0;
+	int nblocks;
 	int i;
 	int j;
-	int old_group_count;
-	int group_count;
-	CDTrans next;
-	CDTrans first;
-	int goto_first;
-	int goto_next;
 	int c;
-	int group_size;
-	boolean added;
-
-	init_groups();
+	int s;
+	int t;
+	int b;
+	CDTrans dtrans;
 
-	group_count = m_group.size();
-	old_group_count = group_count - 1;
+	/* State s moves to next[s * ncols + c] on c; missing transitions,
+	   and all transitions out of the sink, go to the sink. */
+	for (s = 0; s < nstates; ++s)
+	  {
+	    dtrans = (CDTrans) m_spec.m_dtrans_vector.elementAt(s);
+	    for (c = 0; c < ncols; ++c)
+	      {
+		t = dtrans.m_dtrans[c];
+		next[s * ncols + c] = (CDTrans.F == t) ? sink : t;
+	      }
+	  }
+	for (c = 0; c < ncols; ++c)
+	  {
+	    next[sink * ncols + c] = sink;
+	  }
 
-	while (old_group_count != group_count)
+	/* Inverse transitions: the states that move to t on c are
+	   pred[pred_start[t * ncols + c] .. pred_start[t * ncols + c + 1] - 1]. */
+	for (i = 0; i < next.length; ++i)
 	  {
-	    old_group_count = group_count;
+	    ++pred_start[next[i] * ncols + i % ncols + 2];
+	  }
+	for (i = 2; i < pred_start.length; ++i)
+	  {
+	    pred_start[i] += pred_start[i - 1];
+	  }
+	for (i = 0; i < next.length; ++i)
+	  {
+	    pred[pred_start[next[i] * ncols + i % ncols + 1]++] = i / ncols;
+	  }
 
-	    if (CUtility.DEBUG)
+	/* Initial blocks: one per accepting action, and the sink. */
+	java.util.IdentityHashMap<CAccept,Integer> accept_block
+	  = new java.util.IdentityHashMap<CAccept,Integer>();
+	nblocks = 0;
+	for (s = 0; s < nstates; ++s)
+	  {
+	    dtrans = (CDTrans) m_spec.m_dtrans_vector.elementAt(s);
+	    Integer found = accept_block.get(dtrans.m_accept);
+	    if (null == found)
 	      {
-		CUtility.ASSERT(m_group.size() == group_count);
+		found = Integer.valueOf(nblocks++);
+		accept_block.put(dtrans.m_accept,found);
 	      }
+	    block[s] = found.intValue();
+	  }
+	block[sink] = nblocks++;
 
-	    for (i = 0; i < group_count; ++i)
-	      {
+	for (s = 0; s < n; ++s)
+	  {
+	    ++end[block[s]];
+	  }
+	for (b = 0, i = 0; b < nblocks; ++b)
+	  {
+	    first[b] = i;
+	    i += end[b];
+	    end[b] = first[b];
+	  }
+	for (s = 0; s < n; ++s)
+	  {
+	    b = block[s];
+	    elem[end[b]] = s;
+	    loc[s] = end[b];
+	    ++end[b];
+	  }
+	for (b = 0; b < nblocks; ++b)
+	  {
+	    work[nwork++] = b;
+	    pending[b] = true;
+	  }
+
+	while (0 < nwork)
+	  {
+	    int a = work[--nwork];
+	    int size = end[a] - first[a];
+
+	    pending[a] = false;
+	    System.arraycopy(elem,first[a],splitter,0,size);
+
+	    for (c = 0; c < ncols; ++c)
+	      {
+		int ntouched = 0;
+
+		/* Mark the states that move into the splitter on c. */
+		for (i = 0; i < size; ++i)
+		  {
+		    int key = splitter[i] * ncols + c;
+		    for (j = pred_start[key]; j < pred_start[key + 1]; ++j)
+		      {
+			s = pred[j];
+			b = block[s];
+			int slot = first[b] + marked[b];
+			if (loc[s] >= slot)
+			  {
+			    if (0 == marked[b])
+			      {
+				touched[ntouched++] = b;
+			      }
+			    t = elem[slot];
+			    elem[loc[s]] = t;
+			    loc[t] = loc[s];
+			    elem[slot] = s;
+			    loc[s] = slot;
+			    ++marked[b];
+			  }
+		      }
+		  }
+
+		/* Split the blocks that were only partly marked. */
+		for (i = 0; i < ntouched; ++i)
+		  {
+		    b = touched[i];
+		    int count = marked[b];
+		    marked[b] = 0;
+		    if (count == end[b] - first[b])
+		      {
+			continue;
+		      }
+
+		    int split = nblocks++;
+		    first[split] = first[b];
+		    end[split] = first[b] + count;
+		    first[b] = end[split];
+		    for (j = first[split]; j < end[split]; ++j)
+		      {
+			block[elem[j]] = split;
+		      }
+
+		    if (pending[b]
+			|| count <= end[b] - first[b])
+		      {
+			work[nwork++] = split;
+			pending[split] = true;
+		      }
+		    else
+		      {
+			work[nwork++] = b;
+			pending[b] = true;
+		      }
+		  }
+	      }
+	  }
+
+	/* Number the groups in order of their lowest state. */
+	int number[] = new int[nblocks];
+	for (b = 0; b < nblocks; ++b)
+	  {
+	    number[b] = -1;
+	  }
+	m_group = new Vector();
+	m_ingroup = new int[nstates];
+	for (s = 0; s < nstates; ++s)
+	  {
+	    b = block[s];
+	    if (-1 == number[b])
+	      {
+		number[b] = m_group.size();
+		m_group.addElement(new Vector());
+	      }
+	    m_ingroup[s] = number[b];
+	    ((Vector) m_group.elementAt(number[b]))
+	      .addElement(m_spec.m_dtrans_vector.elementAt(s));
+	  }
+      }
+
+  /***************************************************************
+    Function: classic_tables
+    Description: Minimizes and reduces a copy of the DFA with the
+    iterative minimizer, and returns the tables that would be
+    emitted from it.  The DFA itself is left as it was, but
+    m_ingroup is left as refine_groups made it.
+    **************************************************************/
+  private CDfaTables classic_tables
+    (
+     )
+      {
+	Vector dtrans_vector = m_spec.m_dtrans_vector;
+	int state_dtrans[] = m_spec.m_state_dtrans.clone();
+	int ncols = m_spec.m_dtrans_ncols;
+	Vector copy = new Vector();
+	CDTrans dtrans;
+	CDTrans dtrans_copy;
+	CDfaTables tables;
+	int i;
+
+	/* fix_dtrans and reduce rewrite the rows they are given. */
+	for (i = 0; i < dtrans_vector.size(); ++i)
+	  {
+	    dtrans = (CDTrans) dtrans_vector.elementAt(i);
+	    dtrans_copy = new CDTrans(dtrans.m_label,m_spec);
+	    dtrans_copy.m_dtrans = dtrans.m_dtrans.clone();
+	    dtrans_copy.m_accept = dtrans.m_accept;
+	    dtrans_copy.m_anchor = dtrans.m_anchor;
+	    copy.addElement(dtrans_copy);
+	  }
+	m_spec.m_dtrans_vector = copy;
+
+	init_groups();
+	refine_groups();
+	fix_dtrans();
+	reduce();
+	tables = new CDfaTables(m_spec);
+
+	m_spec.m_dtrans_vector = dtrans_vector;
+	m_spec.m_state_dtrans = state_dtrans;
+	m_spec.m_dtrans_ncols = ncols;
+	m_spec.m_col_map = null;
+	m_spec.m_row_map = null;
+	m_spec.m_accept_vector = null;
+	m_spec.m_anchor_array = null;
+	return tables;
+      }
+
+  /***************************************************************
+    Function: equivalent
+    Description: Returns true if the tables a and b encode the same
+    DFA up to the numbering of states.  Both are walked side by side
+    from the start state of each lexical state, one pair of states
+    at a time: paired states must have the same accepting action and
+    anchor, and on every character class either both have no
+    transition or they move to another pair.  The states of a may
+    be fewer than those of b, or more, as long as they scan alike.
+    **************************************************************/
+  private boolean equivalent
+    (
+     CDfaTables a,
+     CDfaTables b
+     )
+      {
+	CLongSet seen = new CLongSet();
+	int work[];
+	int nwork = 0;
+	int ncols = a.m_col_map.length;
+	int i;
+	int c;
+	int s;
+	int t;
+
+	if (ncols != b.m_col_map.length
+	    || a.m_state_dtrans.length != b.m_state_dtrans.length)
+	  {
+	    return false;
+	  }
+
+	/* Start with the pairs of start states. */
+	work = new int[2 * a.m_state_dtrans.length + 2 * ncols];
+	for (i = 0; i < a.m_state_dtrans.length; ++i)
+	  {
+	    work[nwork++] = a.m_state_dtrans[i];
+	    work[nwork++] = b.m_state_dtrans[i];
+	  }
+
+	while (0 < nwork)
+	  {
+	    t = work[--nwork];
+	    s = work[--nwork];
+	    if (CDTrans.F == s || CDTrans.F == t)
+	      {
+		if (s != t)
+		  {
+		    return false;
+		  }
+		continue;
+	      }
+	    if (false == seen.add(((long) s << 32) | t))
+	      {
+		continue;
+	      }
+
+	    if (a.m_accept_vector.elementAt(s) != b.m_accept_vector.elementAt(t)
+		|| a.m_anchor_array[s] != b.m_anchor_array[t])
+	      {
+		return false;
+	      }
+	    if (nwork + 2 * ncols > work.length)
+	      {
+		work = java.util.Arrays.copyOf(work,2 * work.length);
+	      }
+	    for (c = 0; c < ncols; ++c)
+	      {
+		work[nwork++] = a.m_nxt[a.m_row_map[s]][a.m_col_map[c]];
+		work[nwork++] = b.m_nxt[b.m_row_map[t]][b.m_col_map[c]];
+	      }
+	  }
+	return true;
+      }
+
+  /***************************************************************
+    Function: coarsens
+    Description: Returns true if every group of the map from states
+    to groups fine lies within one group of coarse.
+    **************************************************************/
+  private boolean coarsens
+    (
+     int coarse[],
+     int fine[]
+     )
+      {
+	int to_coarse[] = new int[fine.length];
+	int s;
+
+	java.util.Arrays.fill(to_coarse,-1);
+	for (s = 0; s < fine.length; ++s)
+	  {
+	    if (-1 == to_coarse[fine[s]])
+	      {
+		to_coarse[fine[s]] = coarse[s];
+	      }
+	    else if (to_coarse[fine[s]] != coarse[s])
+	      {
+		return false;
+	      }
+	  }
+	return true;
+      }
+
+  /***************************************************************
+    Function: stable
+    Description: Returns true if the states of each group in
+    m_group have the same accepting action and, on every character
+    class, move into the same group.
+    **************************************************************/
+  private boolean stable
+    (
+     )
+      {
+	int i;
+	int j;
+	int c;
+	Vector dtrans_group;
+	CDTrans first;
+	CDTrans next;
+
+	for (i = 0; i < m_group.size(); ++i)
+	  {
+	    dtrans_group = (Vector) m_group.elementAt(i);
+	    first = (CDTrans) dtrans_group.elementAt(0);
+	    for (j = 1; j < dtrans_group.size(); ++j)
+	      {
+		next = (CDTrans) dtrans_group.elementAt(j);
+		if (first.m_accept != next.m_accept)
+		  {
+		    return false;
+		  }
+		for (c = 0; c < m_spec.m_dtrans_ncols; ++c)
+		  {
+		    int goto_first = first.m_dtrans[c];
+		    int goto_next = next.m_dtrans[c];
+		    if (goto_first != goto_next
+			&& (goto_first == CDTrans.F
+			    || goto_next == CDTrans.F
+			    || m_ingroup[goto_next] != m_ingroup[goto_first]))
+		      {
+			return false;
+		      }
+		  }
+	      }
+	  }
+	return true;
+      }
+
+  /***************************************************************
+    Function: refine_groups
+    Description: Splits the groups made by init_groups by sweeping
+    all of them until none splits.  This was the minimizer before
+    partition(); it is kept to check partition() with -check.
+    Because it compares states against groups that are still being
+    split within a sweep, it can separate equivalent states (which
+    reduce() then merges as identical rows), so partition() must
+    find the same groups or coarser ones.
+    **************************************************************/
+  private void refine_groups
+    (
+     )
+      {
+	Vector dtrans_group;
+	Vector new_group;
+	int i;
+	int j;
+	int old_group_count;
+	int group_count;
+	CDTrans next;
+	CDTrans first;
+	int goto_first;
+	int goto_next;
+	int c;
+	int group_size;
+	boolean added;
+
+	group_count = m_group.size();
+	old_group_count = group_count - 1;
+
+	while (old_group_count != group_count)
+	  {
+	    old_group_count = group_count;
+
+	    if (CUtility.DEBUG)
+	      {
+		CUtility.ASSERT(m_group.size() == group_count);
+	      }
+
+	    for (i = 0; i < group_count; ++i)
+	      {
 		dtrans_group = (Vector) m_group.elementAt(i);
 
 		group_size = dtrans_group.size();
@@ -2944,17 +4623,6 @@ class CMinimize
 	      }
 	  }
 
-	System.out.println(m_group.size() + " states after removal of redundant states.");
-
-	if (m_spec.m_verbose
-	    && true == CUtility.OLD_DUMP_DEBUG)
-	  {
-	    System.out.println();
-	    System.out.println("States grouped as follows after minimization");
-	    pgroups();
-	  }
-
-	fix_dtrans();
       }
 
   /***************************************************************
@@ -3108,6 +4776,11 @@ class CMinimize
 
 /***************************************************************
   Class: CNfa2Dfa
+  Description: Subset construction.  The DFA of each lexical state
+  is explored by a CSubset, several at once on their own threads
+  when there is more than one lexical state; the sets of NFA states
+  they find are then merged and numbered as a single sequential
+  construction would number them.
  **************************************************************/
 class CNfa2Dfa
 {
@@ -3115,13 +4788,25 @@ class CNfa2Dfa
     Member Variables
     **************************************************************/
   private CSpec m_spec;
-  private int m_unmarked_dfa;
   private CLexGen m_lexGen;
 
-  /***************************************************************
-    Constants
-    **************************************************************/
-  private static final int NOT_IN_DSTATES = -1;
+  /* The NFA, indexed by state label, shared by the CSubsets. */
+  int m_nfa_count;
+  CNfa m_nfa[];
+  int m_closure[][]; /* Labels in each state's epsilon-closure. */
+  int m_closure_accept[]; /* Lowest accepting label in each closure,
+			     or CUtility.INT_MAX. */
+  int m_move[]; /* Label of m_next for each state with a character
+		   edge, or -1. */
+  int m_cols[][]; /* Character classes of each state's edge. */
+
+  /* For merging: the distinct sets found by all CSubsets, each
+     with the CSubset and index it was first found at. */
+  private CSubset m_found;
+  private int m_found_in[];
+  private int m_found_index[];
+  private int m_dfa_of[]; /* Current DFA state of each set, or -1. */
+  private int m_set_of_dfa[]; /* Set of each DFA state. */
 
   /***************************************************************
     Function: CNfa2Dfa
@@ -3134,8 +4819,8 @@ class CNfa2Dfa
       }
 
   /***************************************************************
-    Function: set 
-    Description: 
+    Function: set
+    Description:
     **************************************************************/
   private void set
     (
@@ -3145,12 +4830,11 @@ class CNfa2Dfa
       {
 	m_lexGen = lexGen;
 	m_spec = spec;
-	m_unmarked_dfa = 0;
       }
 
   /***************************************************************
-    Function: reset 
-    Description: 
+    Function: reset
+    Description:
     **************************************************************/
   private void reset
     (
@@ -3158,7 +4842,16 @@ class CNfa2Dfa
       {
 	m_lexGen = null;
 	m_spec = null;
-	m_unmarked_dfa = 0;
+	m_nfa = null;
+	m_closure = null;
+	m_closure_accept = null;
+	m_move = null;
+	m_cols = null;
+	m_found = null;
+	m_found_in = null;
+	m_found_index = null;
+	m_dfa_of = null;
+	m_set_of_dfa = null;
       }
 
   /***************************************************************
@@ -3171,8 +4864,6 @@ class CNfa2Dfa
      CSpec spec
      )
       {
-	int i;
-
 	reset();
 	set(lexGen,spec);
 
@@ -3186,549 +4877,1079 @@ class CNfa2Dfa
 	  }
 
 	free_dfa_states();
-      }     
+	reset();
+      }
 
    /***************************************************************
     Function: make_dtrans
     Description: Creates uncompressed CDTrans transition table.
+    Lexical state i is explored by subsets[i % nthreads].
     **************************************************************/
   private void make_dtrans
     (
      )
-     /* throws java.lang.CloneNotSupportedException*/
       {
-	CDfa next;
-	CDfa dfa;
-	CBunch bunch;
-	int i;
-	int nextstate;
-	int size;
-	CDTrans dtrans;
-	CNfa nfa;
-	int istate;
+	CSubset subsets[];
+	Thread threads[];
+	int rules[];
 	int nstates;
-	
-	System.out.print("Working on DFA states.");
+	int nthreads;
+	int istate;
+	int i;
 
-	/* Reference passing type and initializations. */
-	bunch = new CBunch();
-	m_unmarked_dfa = 0;
+	System.out.print("Working on DFA states.");
 
-	/* Allocate mapping array. */
+	init_nfa();
 	nstates = m_spec.m_state_rules.length;
-	m_spec.m_state_dtrans = new int[nstates];
+	nthreads = java.lang.Math.max(1,java.lang.Math.min(m_spec.m_dfa_threads,
+							   nstates));
 
-	for (istate = 0; nstates > istate; ++istate)
+	subsets = new CSubset[nthreads];
+	for (i = 0; i < nthreads; ++i)
+	  {
+	    subsets[i] = new CSubset(this,m_spec.m_dtrans_ncols);
+	  }
+	for (istate = 0; istate < nstates; ++istate)
 	  {
-	    /* CSA bugfix: if we skip all zero size rules, then
-	       an specification with no rules produces an illegal
-	       lexer (0 states) instead of a lexer that rejects
-	       everything (1 nonaccepting state). [27-Jul-1999]
-	    if (0 == m_spec.m_state_rules[istate].size())
+	    rules = new int[m_spec.m_state_rules[istate].size()];
+	    for (i = 0; i < rules.length; ++i)
 	      {
-		m_spec.m_state_dtrans[istate] = CDTrans.F;
-		continue;
+		rules[i]
+		  = ((CNfa) m_spec.m_state_rules[istate].elementAt(i)).m_label;
 	      }
-	    */
-		
-	    /* Create start state and initialize fields. */
-	    bunch.m_nfa_set = (Vector) m_spec.m_state_rules[istate].clone();
-	    sortStates(bunch.m_nfa_set);
-	    
-	    bunch.m_nfa_bit = new SparseBitSet();
-	    
-	    /* Initialize bit set. */
-	    size = bunch.m_nfa_set.size();
-	    for (i = 0; size > i; ++i)
+	    subsets[istate % nthreads].add_start(rules);
+	  }
+
+	if (1 == nthreads)
+	  {
+	    subsets[0].run();
+	  }
+	else
+	  {
+	    threads = new Thread[nthreads];
+	    for (i = 0; i < nthreads; ++i)
 	      {
-		nfa = (CNfa) bunch.m_nfa_set.elementAt(i);
-		bunch.m_nfa_bit.set(nfa.m_label);
+		threads[i] = new Thread(subsets[i]);
+		threads[i].start();
 	      }
-	    
-	    bunch.m_accept = null;
-	    bunch.m_anchor = CSpec.NONE;
-	    bunch.m_accept_index = CUtility.INT_MAX;
-	    
-	    e_closure(bunch);
-	    add_to_dstates(bunch);
-	    
-	    m_spec.m_state_dtrans[istate] = m_spec.m_dtrans_vector.size();
-
-	    /* Main loop of CDTrans creation. */
-	    while (null != (dfa = get_unmarked()))
+	    for (i = 0; i < nthreads; ++i)
 	      {
-		System.out.print(".");
-		System.out.flush();
-		
-		if (CUtility.DEBUG)
+		try
 		  {
-		    CUtility.ASSERT(false == dfa.m_mark);
+		    threads[i].join();
 		  }
-
-		/* Get first unmarked node, then mark it. */
-		dfa.m_mark = true;
-		
-		/* Allocate new CDTrans, then initialize fields. */
-		dtrans = new CDTrans(m_spec.m_dtrans_vector.size(),m_spec);
-		dtrans.m_accept = dfa.m_accept;
-		dtrans.m_anchor = dfa.m_anchor;
-		
-		/* Set CDTrans array for each character transition. */
-		for (i = 0; i < m_spec.m_dtrans_ncols; ++i)
+		catch (InterruptedException e)
 		  {
-		    if (CUtility.DEBUG)
-		      {
-			CUtility.ASSERT(0 <= i);
-			CUtility.ASSERT(m_spec.m_dtrans_ncols > i);
-		      }
-		    
-		    /* Create new dfa set by attempting character transition. */
-		    move(dfa.m_nfa_set,dfa.m_nfa_bit,i,bunch);
-		    if (null != bunch.m_nfa_set)
-		      {
-			e_closure(bunch);
-		      }
-		    
-		    if (CUtility.DEBUG)
-		      {
-			CUtility.ASSERT((null == bunch.m_nfa_set 
-					 && null == bunch.m_nfa_bit)
-					|| (null != bunch.m_nfa_set 
-					    && null != bunch.m_nfa_bit));
-		      }
-		    
-		    /* Create new state or set state to empty. */
-		    if (null == bunch.m_nfa_set)
-		      {
-			nextstate = CDTrans.F;
-		      }
-		    else 
-		      {
-			nextstate = in_dstates(bunch);
-			
-			if (NOT_IN_DSTATES == nextstate)
-			  {
-			    nextstate = add_to_dstates(bunch);
-			  }
-		      }
-		    
-		    if (CUtility.DEBUG)
-		      {
-			CUtility.ASSERT(nextstate < m_spec.m_dfa_states.size());
-		      }
-		    
-		    dtrans.m_dtrans[i] = nextstate;
+		    throw new Error("Interrupted while building the DFA.");
 		  }
-		
-		if (CUtility.DEBUG)
+		if (null != subsets[i].m_failure)
 		  {
-		    CUtility.ASSERT(m_spec.m_dtrans_vector.size() == dfa.m_label);
+		    throw subsets[i].m_failure;
 		  }
-		
-		m_spec.m_dtrans_vector.addElement(dtrans);
 	      }
 	  }
 
+	merge(subsets);
 	System.out.println();
       }
 
   /***************************************************************
-    Function: free_dfa_states
-    **************************************************************/  
-  private void free_dfa_states
+    Function: merge
+    Description: Numbers the sets found by the CSubsets as DFA
+    states and builds their CDTrans rows.  States are numbered in
+    the order they are found: the start state of each lexical state,
+    which is always a new DFA state, followed by the states reachable
+    from it that are new.  Where a set has more than one DFA state,
+    transitions go to the latest.
+    **************************************************************/
+  private void merge
     (
+     CSubset subsets[]
      )
       {
-	m_spec.m_dfa_states = null;
-	m_spec.m_dfa_sets = null;
+	int nthreads = subsets.length;
+	int nstates = m_spec.m_state_rules.length;
+	int index_of[][] = new int[nthreads][];
+	int found_count;
+	int istate;
+	int unmarked;
+	int dfa;
+	int found;
+	int next;
+	int trans[];
+	int i;
+	int k;
+	CSubset subset;
+	CDTrans dtrans;
+
+	/* Find each CSubset's sets among all the sets found. */
+	m_found = new CSubset(this,m_spec.m_dtrans_ncols);
+	m_found_in = new int[64];
+	m_found_index = new int[64];
+	for (k = 0; k < nthreads; ++k)
+	  {
+	    subset = subsets[k];
+	    index_of[k] = new int[subset.m_set_count];
+	    for (i = 0; i < subset.m_set_count; ++i)
+	      {
+		found_count = m_found.m_set_count;
+		index_of[k][i] = m_found.intern(subset.m_sets[i],
+						subset.m_set_hash[i],
+						subset.m_set_accept[i]);
+		if (found_count != m_found.m_set_count)
+		  {
+		    if (found_count == m_found_in.length)
+		      {
+			m_found_in = java.util.Arrays.copyOf(m_found_in,
+							     2 * found_count);
+			m_found_index = java.util.Arrays.copyOf(m_found_index,
+								2 * found_count);
+		      }
+		    m_found_in[found_count] = k;
+		    m_found_index[found_count] = i;
+		  }
+	      }
+	  }
+
+	m_dfa_of = new int[m_found.m_set_count];
+	java.util.Arrays.fill(m_dfa_of,-1);
+	m_set_of_dfa = new int[64];
+
+	m_spec.m_state_dtrans = new int[nstates];
+	unmarked = 0;
+	for (istate = 0; istate < nstates; ++istate)
+	  {
+	    /* Create start state, always as a new DFA state. */
+	    k = istate % nthreads;
+	    found = index_of[k][subsets[k].start_of(istate / nthreads)];
+	    m_spec.m_state_dtrans[istate] = add_to_dstates(found);
+
+	    /* Main loop of CDTrans creation. */
+	    while (unmarked < m_spec.m_dfa_states.size())
+	      {
+		System.out.print(".");
+		System.out.flush();
+
+		dfa = unmarked;
+		++unmarked;
+		found = m_set_of_dfa[dfa];
+		k = m_found_in[found];
+		trans = subsets[k].m_trans[m_found_index[found]];
+
+		/* Allocate new CDTrans, then initialize fields. */
+		dtrans = new CDTrans(m_spec.m_dtrans_vector.size(),m_spec);
+		dtrans.m_accept = ((CDfa) m_spec.m_dfa_states.elementAt(dfa)).m_accept;
+		dtrans.m_anchor = ((CDfa) m_spec.m_dfa_states.elementAt(dfa)).m_anchor;
+
+		for (i = 0; i < trans.length; ++i)
+		  {
+		    if (CDTrans.F == trans[i])
+		      {
+			dtrans.m_dtrans[i] = CDTrans.F;
+			continue;
+		      }
+		    next = index_of[k][trans[i]];
+		    if (-1 == m_dfa_of[next])
+		      {
+			add_to_dstates(next);
+		      }
+		    dtrans.m_dtrans[i] = m_dfa_of[next];
+		  }
+
+		if (CUtility.DEBUG)
+		  {
+		    CUtility.ASSERT(m_spec.m_dtrans_vector.size() == dfa);
+		  }
+
+		m_spec.m_dtrans_vector.addElement(dtrans);
+	      }
+	  }
       }
 
   /***************************************************************
-    Function: free_nfa_states
-    **************************************************************/  
-  private void free_nfa_states
+    function: add_to_dstates
+    Description: Creates a new DFA state for the found set, which
+    becomes the DFA state of that set, and returns its index.
+    **************************************************************/
+  private int add_to_dstates
     (
+     int found
      )
       {
-	/* UNDONE: Remove references to nfas from within dfas. */
-	/* UNDONE: Don't free CAccepts. */
+	CDfa dfa;
+	int accept_index = m_found.m_set_accept[found];
 
-	m_spec.m_nfa_states = null;
-	m_spec.m_nfa_start = null;
-	m_spec.m_state_rules = null;
+	/* Allocate, passing CSpec so dfa label can be set. */
+	dfa = CAlloc.newCDfa(m_spec);
+
+	/* Initialize fields, including the mark field. */
+	if (CUtility.INT_MAX != accept_index)
+	  {
+	    dfa.m_accept = m_nfa[accept_index].m_accept;
+	    dfa.m_anchor = m_nfa[accept_index].m_anchor;
+	  }
+	dfa.m_mark = false;
+
+	if (CUtility.DEBUG)
+	  {
+	    CUtility.ASSERT(null != dfa.m_accept
+			    || CSpec.NONE == dfa.m_anchor);
+	  }
+
+	if (dfa.m_label == m_set_of_dfa.length)
+	  {
+	    m_set_of_dfa = java.util.Arrays.copyOf(m_set_of_dfa,
+						   2 * dfa.m_label);
+	  }
+	m_set_of_dfa[dfa.m_label] = found;
+	m_dfa_of[found] = dfa.m_label;
+
+	return dfa.m_label;
       }
 
   /***************************************************************
-    Function: e_closure
-    Description: Alters and returns input set.
+    Function: init_nfa
+    Description: Builds the array form of the NFA: the edges of
+    each state, and its epsilon-closure with the lowest accepting
+    state in it.
     **************************************************************/
-  private void e_closure
+  private void init_nfa
     (
-     CBunch bunch
      )
       {
-	Stack nfa_stack;
-	int size;
-	int i;
+	int ncols = m_spec.m_dtrans_ncols;
+	int stack[];
+	int stamp[];
+	int closure[];
+	int top;
+	int count;
+	int s;
+	int t;
+	int c;
+	int cols[];
+	CBitSet edge;
 	CNfa state;
 
-	/* Debug checks. */
-	if (CUtility.DEBUG)
-	  {
-	    CUtility.ASSERT(null != bunch);
-	    CUtility.ASSERT(null != bunch.m_nfa_set);
-	    CUtility.ASSERT(null != bunch.m_nfa_bit);
-	  }
-
-	bunch.m_accept = null;
-	bunch.m_anchor = CSpec.NONE;
-	bunch.m_accept_index = CUtility.INT_MAX;
-	
-	/* Create initial stack. */
-	nfa_stack = new Stack();
-	size = bunch.m_nfa_set.size();
-	for (i = 0; i < size; ++i)
+	m_nfa_count = m_spec.m_nfa_states.size();
+	m_nfa = new CNfa[m_nfa_count];
+	m_move = new int[m_nfa_count];
+	m_cols = new int[m_nfa_count][];
+	cols = new int[ncols];
+	for (s = 0; s < m_nfa_count; ++s)
 	  {
-	    state = (CNfa) bunch.m_nfa_set.elementAt(i);
-	    
+	    state = (CNfa) m_spec.m_nfa_states.elementAt(s);
 	    if (CUtility.DEBUG)
 	      {
-		CUtility.ASSERT(bunch.m_nfa_bit.get(state.m_label));
+		CUtility.ASSERT(s == state.m_label);
 	      }
+	    m_nfa[s] = state;
+	    m_move[s] = -1;
 
-	    nfa_stack.push(state);
-	  }
-
-	/* Main loop. */
-	while (false == nfa_stack.empty())
-	  {
-	    state = (CNfa) nfa_stack.pop();
-	    
-	    if (CUtility.OLD_DUMP_DEBUG)
+	    count = 0;
+	    if (CNfa.CCL == state.m_edge)
 	      {
-		if (null != state.m_accept)
+		edge = state.m_set.members(ncols);
+		for (c = edge.next_set_bit(0); c >= 0; c = edge.next_set_bit(c + 1))
 		  {
-		    System.out.println("Looking at accepting state " + state.m_label
-				       + " with <"
-				       + (new String(state.m_accept.m_action,0,
-						     state.m_accept.m_action_read))
-				       + ">");
+		    cols[count++] = c;
 		  }
 	      }
-
-	    if (null != state.m_accept 
-		&& state.m_label < bunch.m_accept_index)
+	    else if (0 <= state.m_edge && state.m_edge < ncols)
 	      {
-		bunch.m_accept_index = state.m_label;
-		bunch.m_accept = state.m_accept;
-		bunch.m_anchor = state.m_anchor;
-
-		if (CUtility.OLD_DUMP_DEBUG)
-		  {
-		    System.out.println("Found accepting state " + state.m_label
-				       + " with <"
-				       + (new String(state.m_accept.m_action,0,
-						     state.m_accept.m_action_read))
-				       + ">");
-		  }
+		cols[count++] = state.m_edge;
+	      }
+	    if (0 < count)
+	      {
+		m_move[s] = state.m_next.m_label;
+	      }
+	    m_cols[s] = new int[count];
+	    System.arraycopy(cols,0,m_cols[s],0,count);
+	  }
+
+	/* Epsilon-closures, by depth-first search from each state;
+	   stamp[t] == s + 1 once t is in the closure of s. */
+	m_closure = new int[m_nfa_count][];
+	m_closure_accept = new int[m_nfa_count];
+	stack = new int[m_nfa_count];
+	stamp = new int[m_nfa_count];
+	closure = new int[m_nfa_count];
+	for (s = 0; s < m_nfa_count; ++s)
+	  {
+	    count = 0;
+	    top = 0;
+	    m_closure_accept[s] = CUtility.INT_MAX;
+	    stamp[s] = s + 1;
+	    stack[top++] = s;
+	    while (0 < top)
+	      {
+		t = stack[--top];
+		closure[count++] = t;
+		state = m_nfa[t];
 
-		if (CUtility.DEBUG)
+		if (null != state.m_accept && t < m_closure_accept[s])
 		  {
-		    CUtility.ASSERT(null != bunch.m_accept);
-		    CUtility.ASSERT(CSpec.NONE == bunch.m_anchor
-				    || 0 != (bunch.m_anchor & CSpec.END)
-				    || 0 != (bunch.m_anchor & CSpec.START));
+		    m_closure_accept[s] = t;
 		  }
-	      }
 
-	    if (CNfa.EPSILON == state.m_edge)
-	      {
-		if (null != state.m_next)
+		if (CNfa.EPSILON == state.m_edge)
 		  {
-		    if (false == bunch.m_nfa_set.contains(state.m_next))
+		    if (null != state.m_next
+			&& s + 1 != stamp[state.m_next.m_label])
 		      {
-			if (CUtility.DEBUG)
-			  {
-			    CUtility.ASSERT(false == bunch.m_nfa_bit.get(state.m_next.m_label));
-			  }
-			
-			bunch.m_nfa_bit.set(state.m_next.m_label);
-			bunch.m_nfa_set.addElement(state.m_next);
-			nfa_stack.push(state.m_next);
+			stamp[state.m_next.m_label] = s + 1;
+			stack[top++] = state.m_next.m_label;
 		      }
-		  }
-
-		if (null != state.m_next2)
-		  {
-		    if (false == bunch.m_nfa_set.contains(state.m_next2))
+		    if (null != state.m_next2
+			&& s + 1 != stamp[state.m_next2.m_label])
 		      {
-			if (CUtility.DEBUG)
-			  {
-			    CUtility.ASSERT(false == bunch.m_nfa_bit.get(state.m_next2.m_label));
-			  }
-			
-			bunch.m_nfa_bit.set(state.m_next2.m_label);
-			bunch.m_nfa_set.addElement(state.m_next2);
-			nfa_stack.push(state.m_next2);
+			stamp[state.m_next2.m_label] = s + 1;
+			stack[top++] = state.m_next2.m_label;
 		      }
 		  }
 	      }
+	    m_closure[s] = new int[count];
+	    System.arraycopy(closure,0,m_closure[s],0,count);
 	  }
+      }
+
+  /***************************************************************
+    Function: free_dfa_states
+    **************************************************************/
+  private void free_dfa_states
+    (
+     )
+      {
+	m_spec.m_dfa_states = null;
+      }
+
+  /***************************************************************
+    Function: free_nfa_states
+    **************************************************************/
+  private void free_nfa_states
+    (
+     )
+      {
+	/* UNDONE: Remove references to nfas from within dfas. */
+	/* UNDONE: Don't free CAccepts. */
+
+	m_spec.m_nfa_states = null;
+	m_spec.m_nfa_start = null;
+	m_spec.m_state_rules = null;
+      }
+}
+
+/***************************************************************
+  Class: CSubset
+  Description: Finds the sets of NFA states reachable from the
+  start sets of some lexical states, and the transitions between
+  them, for CNfa2Dfa.  Sets are kept as sorted arrays of NFA labels
+  in an open-addressing hash table; the set being built is also a
+  long[] bitset, to which precomputed epsilon-closures are added.
+  A CSubset only reads the NFA, so several can run at once.
+ **************************************************************/
+class CSubset implements Runnable
+{
+  /***************************************************************
+    Member Variables
+    **************************************************************/
+  private CNfa2Dfa m_nfa2dfa;
+  private int m_ncols;
+
+  /* The start sets to explore from, as lists of NFA labels, and
+     the set found for each. */
+  private int m_rules[][];
+  private int m_starts[];
+  private int m_start_count;
+
+  /* The sets found, with the hash of each, the lowest accepting
+     label in each (or CUtility.INT_MAX), and the transitions out
+     of each to other sets, or CDTrans.F. */
+  int m_sets[][];
+  int m_set_hash[];
+  int m_set_accept[];
+  int m_trans[][];
+  int m_set_count;
+  private int m_table[]; /* Set + 1, or 0 if the slot is free. */
+
+  /* The set being built, as a bitset and as a list of its labels,
+     with its hash (the sum of hash_label over its labels). */
+  private long m_target[];
+  private int m_members[];
+  private int m_member_count;
+  private int m_hash;
+  private int m_accept_index;
+
+  Error m_failure; /* Thrown by run() on its own thread, if any. */
+
+  /***************************************************************
+    Function: CSubset
+    **************************************************************/
+  CSubset
+    (
+     CNfa2Dfa nfa2dfa,
+     int ncols
+     )
+      {
+	m_nfa2dfa = nfa2dfa;
+	m_ncols = ncols;
+	m_rules = new int[4][];
+	m_starts = new int[4];
+	m_start_count = 0;
+	m_sets = new int[64][];
+	m_set_hash = new int[64];
+	m_set_accept = new int[64];
+	m_trans = new int[64][];
+	m_set_count = 0;
+	m_table = new int[128];
+	m_target = new long[(nfa2dfa.m_nfa_count + 63) >> 6];
+	m_members = new int[nfa2dfa.m_nfa_count];
+	m_member_count = 0;
+	m_failure = null;
+      }
 
-	if (null != bunch.m_nfa_set)
+  /***************************************************************
+    Function: add_start
+    Description: Adds a start set to explore from: the union of
+    the closures of the given NFA labels.
+    **************************************************************/
+  void add_start
+    (
+     int rules[]
+     )
+      {
+	if (m_start_count == m_rules.length)
 	  {
-	    sortStates(bunch.m_nfa_set);
+	    m_rules = java.util.Arrays.copyOf(m_rules,2 * m_start_count);
+	    m_starts = java.util.Arrays.copyOf(m_starts,2 * m_start_count);
 	  }
+	m_rules[m_start_count++] = rules;
+      }
 
-	return;
+  /***************************************************************
+    Function: start_of
+    Description: Returns the set found for the i-th start set.
+    **************************************************************/
+  int start_of
+    (
+     int i
+     )
+      {
+	return m_starts[i];
       }
 
   /***************************************************************
-    Function: move
-    Description: Returns null if resulting NFA set is empty.
+    Function: run
+    Description: Finds the sets reachable from each start set.
     **************************************************************/
-  void move
+  public void run
     (
-     Vector nfa_set,
-     SparseBitSet nfa_bit,
-     int b,
-     CBunch bunch
      )
       {
-	int size;
-	int index;
-	CNfa state;
-	
-	bunch.m_nfa_set = null;
-	bunch.m_nfa_bit = null;
+	int i;
+	int j;
+	int explored = 0;
 
-	size = nfa_set.size();
-	for (index = 0; index < size; ++index)
+	try
 	  {
-	    state = (CNfa) nfa_set.elementAt(index);
-	    
-	    if (b == state.m_edge
-		|| (CNfa.CCL == state.m_edge
-		    && true == state.m_set.contains(b)))
+	    for (i = 0; i < m_start_count; ++i)
 	      {
-		if (null == bunch.m_nfa_set)
+		clear_target();
+		for (j = 0; j < m_rules[i].length; ++j)
 		  {
-		    if (CUtility.DEBUG)
-		      {
-			CUtility.ASSERT(null == bunch.m_nfa_bit);
-		      }
-		    
-		    bunch.m_nfa_set = new Vector();
-		    /*bunch.m_nfa_bit 
-			= new SparseBitSet(m_spec.m_nfa_states.size());*/
-		    bunch.m_nfa_bit = new SparseBitSet();
+		    add_closure(m_rules[i][j]);
 		  }
+		m_starts[i] = find_or_add();
 
-		bunch.m_nfa_set.addElement(state.m_next);
-		/*System.out.println("Size of bitset: " + bunch.m_nfa_bit.size());
-		System.out.println("Reference index: " + state.m_next.m_label);
-		System.out.flush();*/
-		bunch.m_nfa_bit.set(state.m_next.m_label);
+		for ( ; explored < m_set_count; ++explored)
+		  {
+		    explore(explored);
+		  }
 	      }
 	  }
-	
-	if (null != bunch.m_nfa_set)
+	catch (Error e)
 	  {
-	    if (CUtility.DEBUG)
-	      {
-		CUtility.ASSERT(null != bunch.m_nfa_bit);
-	      }
-	    
-	    sortStates(bunch.m_nfa_set);
+	    m_failure = e;
 	  }
-
-	return;
       }
 
   /***************************************************************
-    Function: sortStates
+    Function: explore
+    Description: Finds the transitions out of set s: on each
+    character class, the union of the closures of the states
+    moved to.
     **************************************************************/
-  private void sortStates
+  private void explore
     (
-     Vector nfa_set
+     int s
      )
       {
-	CNfa elem;
-	int begin;
-	int size;
-	int index;
-	int value;
-	int smallest_index;
-	int smallest_value;
-	CNfa begin_elem;
+	int cols[][] = m_nfa2dfa.m_cols;
+	int move[] = m_nfa2dfa.m_move;
+	int set[] = m_sets[s];
+	int trans[] = new int[m_ncols];
+	int start[] = new int[m_ncols + 1];
+	int moved[];
+	int i;
+	int j;
 
-	size = nfa_set.size();
-	for (begin = 0; begin < size; ++begin)
+	/* Sort the states moved to by character class: those
+	   moved to on class i are moved[start[i] .. start[i+1]-1]. */
+	for (j = 0; j < set.length; ++j)
 	  {
-	    elem = (CNfa) nfa_set.elementAt(begin);
-	    smallest_value = elem.m_label;
-	    smallest_index = begin;
-
-	    for (index = begin + 1; index < size; ++index)
+	    for (i = 0; i < cols[set[j]].length; ++i)
 	      {
-		elem = (CNfa) nfa_set.elementAt(index);
-		value = elem.m_label;
-
-		if (value < smallest_value)
-		  {
-		    smallest_index = index;
-		    smallest_value = value;
-		  }
+		++start[cols[set[j]][i] + 1];
 	      }
-
-	    begin_elem = (CNfa) nfa_set.elementAt(begin);
-	    elem = (CNfa) nfa_set.elementAt(smallest_index);
-	    nfa_set.setElementAt(elem,begin);
-	    nfa_set.setElementAt(begin_elem,smallest_index);
 	  }
-
-	if (CUtility.OLD_DEBUG)
+	for (i = 0; i < m_ncols; ++i)
 	  {
-	    System.out.print("NFA vector indices: ");  
-	    
-	    for (index = 0; index < size; ++index)
+	    start[i + 1] += start[i];
+	  }
+	moved = new int[start[m_ncols]];
+	for (j = 0; j < set.length; ++j)
+	  {
+	    for (i = 0; i < cols[set[j]].length; ++i)
 	      {
-		elem = (CNfa) nfa_set.elementAt(index);
-		System.out.print(elem.m_label + " ");
+		moved[start[cols[set[j]][i]]++] = move[set[j]];
 	      }
-	    System.out.println();
-	  }	
+	  }
+	for (i = m_ncols; i > 0; --i)
+	  {
+	    start[i] = start[i - 1];
+	  }
+	start[0] = 0;
 
-	return;
+	for (i = 0; i < m_ncols; ++i)
+	  {
+	    clear_target();
+	    for (j = start[i]; j < start[i + 1]; ++j)
+	      {
+		add_closure(moved[j]);
+	      }
+	    trans[i] = (0 == m_member_count) ? CDTrans.F : find_or_add();
+	  }
+	m_trans[s] = trans;
       }
 
   /***************************************************************
-    Function: get_unmarked
-    Description: Returns next unmarked DFA state.
+    Function: intern
+    Description: Returns the index of a copy of set, found
+    elsewhere, adding it if it is new.
     **************************************************************/
-  private CDfa get_unmarked
+  int intern
     (
+     int set[],
+     int hash,
+     int accept_index
      )
       {
-	int size;
-	CDfa dfa;
+	int i;
 
-	size = m_spec.m_dfa_states.size();
-	while (m_unmarked_dfa < size)
+	clear_target();
+	for (i = 0; i < set.length; ++i)
 	  {
-	    dfa = (CDfa) m_spec.m_dfa_states.elementAt(m_unmarked_dfa);
-
-	    if (false == dfa.m_mark)
-	      {
-		if (CUtility.OLD_DUMP_DEBUG)
-		  {
-		    System.out.print("*");
-		    System.out.flush();
-		  }
-
-		if (m_spec.m_verbose && true == CUtility.OLD_DUMP_DEBUG)
-		  {
-		    System.out.println("---------------");
-		    System.out.print("working on DFA state " 
-				     + m_unmarked_dfa
-				     + " = NFA states: ");
-		    m_lexGen.print_set(dfa.m_nfa_set);
-		    System.out.println();
-		  }
-
-		return dfa;
-	      }
-
-	    ++m_unmarked_dfa;
+	    m_target[set[i] >> 6] |= 1L << set[i];
+	    m_members[m_member_count++] = set[i];
 	  }
-
-	return null;
+	m_hash = hash;
+	m_accept_index = accept_index;
+	return find_or_add();
       }
-  
+
   /***************************************************************
-    function: add_to_dstates
-    Description: Takes as input a CBunch with details of
-    a dfa state that needs to be created.
-    1) Allocates a new dfa state and saves it in 
-    the appropriate CSpec vector.
-    2) Initializes the fields of the dfa state
-    with the information in the CBunch.
-    3) Returns index of new dfa.
+    Function: clear_target
+    Description: Empties the set being built.
     **************************************************************/
-  private int add_to_dstates
+  private void clear_target
     (
-     CBunch bunch
      )
       {
-	CDfa dfa;
-	
-	if (CUtility.DEBUG)
-	  {
-	    CUtility.ASSERT(null != bunch.m_nfa_set);
-	    CUtility.ASSERT(null != bunch.m_nfa_bit);
-	    CUtility.ASSERT(null != bunch.m_accept 
-			    || CSpec.NONE == bunch.m_anchor);
-	  }
-
-	/* Allocate, passing CSpec so dfa label can be set. */
-	dfa = CAlloc.newCDfa(m_spec);
-	
-	/* Initialize fields, including the mark field. */
-	dfa.m_nfa_set = (Vector) bunch.m_nfa_set.clone();
-	dfa.m_nfa_bit = (SparseBitSet) bunch.m_nfa_bit.clone();
-	dfa.m_accept = bunch.m_accept;
-	dfa.m_anchor = bunch.m_anchor;
-	dfa.m_mark = false;
-	
-	/* Register dfa state using BitSet in CSpec Hashtable. */
-	m_spec.m_dfa_sets.put(dfa.m_nfa_bit,dfa);
-	/*registerCDfa(dfa);*/
+	int i;
 
-	if (CUtility.OLD_DUMP_DEBUG)
+	for (i = 0; i < m_member_count; ++i)
 	  {
-	    System.out.print("Registering set : ");
-	    m_lexGen.print_set(dfa.m_nfa_set);
-	    System.out.println();
+	    m_target[m_members[i] >> 6] = 0;
 	  }
-
-	return dfa.m_label;
+	m_member_count = 0;
+	m_hash = 0;
+	m_accept_index = CUtility.INT_MAX;
       }
 
   /***************************************************************
-    Function: in_dstates
+    Function: add_closure
+    Description: Adds the epsilon-closure of NFA state s to the
+    set being built.
     **************************************************************/
-  private int in_dstates
+  private void add_closure
     (
-     CBunch bunch
+     int s
      )
       {
-	CDfa dfa;
-	
-	if (CUtility.OLD_DEBUG)
-	  {
-	    System.out.print("Looking for set : ");
-	    m_lexGen.print_set(bunch.m_nfa_set);
+	int closure[] = m_nfa2dfa.m_closure[s];
+	int i;
+	int t;
+
+	for (i = 0; i < closure.length; ++i)
+	  {
+	    t = closure[i];
+	    if (0 == (m_target[t >> 6] & (1L << t)))
+	      {
+		m_target[t >> 6] |= 1L << t;
+		m_members[m_member_count++] = t;
+		m_hash += hash_label(t);
+	      }
+	  }
+	if (m_nfa2dfa.m_closure_accept[s] < m_accept_index)
+	  {
+	    m_accept_index = m_nfa2dfa.m_closure_accept[s];
 	  }
+      }
+
+  /***************************************************************
+    Function: hash_label
+    Description: Spreads the bits of an NFA label; a set is hashed
+    by summing this over its labels, so the order in which they
+    were added does not matter.
+    **************************************************************/
+  private static int hash_label
+    (
+     int label
+     )
+      {
+	int h = (label + 1) * 0x9e3779b1;
+
+	return h ^ (h >>> 15);
+      }
 
-	dfa = (CDfa) m_spec.m_dfa_sets.get(bunch.m_nfa_bit);
+  /***************************************************************
+    Function: same_set
+    Description: Returns true if set s is the set being built.
+    **************************************************************/
+  private boolean same_set
+    (
+     int s
+     )
+      {
+	int set[] = m_sets[s];
+	int i;
 
-	if (null != dfa)
+	if (m_set_hash[s] != m_hash || set.length != m_member_count)
+	  {
+	    return false;
+	  }
+	for (i = 0; i < set.length; ++i)
 	  {
-	    if (CUtility.OLD_DUMP_DEBUG)
+	    if (0 == (m_target[set[i] >> 6] & (1L << set[i])))
 	      {
-		System.out.println(" FOUND!");
+		return false;
 	      }
-	    
-	    return dfa.m_label;
 	  }
+	return true;
+      }
 
-	if (CUtility.OLD_DUMP_DEBUG)
+  /***************************************************************
+    Function: find_or_add
+    Description: Returns the index of the set being built, adding
+    it to the sets found if it is new.
+    **************************************************************/
+  private int find_or_add
+    (
+     )
+      {
+	int slot = find_slot();
+
+	if (0 != m_table[slot])
+	  {
+	    return m_table[slot] - 1;
+	  }
+
+	if (m_set_count == m_sets.length)
+	  {
+	    m_sets = java.util.Arrays.copyOf(m_sets,2 * m_set_count);
+	    m_set_hash = java.util.Arrays.copyOf(m_set_hash,2 * m_set_count);
+	    m_set_accept = java.util.Arrays.copyOf(m_set_accept,
+						   2 * m_set_count);
+	    m_trans = java.util.Arrays.copyOf(m_trans,2 * m_set_count);
+	  }
+	m_sets[m_set_count] = java.util.Arrays.copyOf(m_members,m_member_count);
+	java.util.Arrays.sort(m_sets[m_set_count]);
+	m_set_hash[m_set_count] = m_hash;
+	m_set_accept[m_set_count] = m_accept_index;
+	m_table[slot] = m_set_count + 1;
+	++m_set_count;
+
+	/* Keep the table at most half full. */
+	if (2 * m_set_count > m_table.length)
+	  {
+	    rehash();
+	  }
+	return m_set_count - 1;
+      }
+
+  /***************************************************************
+    Function: find_slot
+    Description: Returns the slot of m_table holding the set being
+    built, or the free slot where it belongs.
+    **************************************************************/
+  private int find_slot
+    (
+     )
+      {
+	int mask = m_table.length - 1;
+	int slot = (m_hash ^ (m_hash >>> 16)) & mask;
+	int s;
+
+	while (0 != (s = m_table[slot]))
+	  {
+	    if (same_set(s - 1))
+	      {
+		break;
+	      }
+	    slot = (slot + 1) & mask;
+	  }
+	return slot;
+      }
+
+  /***************************************************************
+    Function: rehash
+    Description: Doubles m_table and registers every set again.
+    **************************************************************/
+  private void rehash
+    (
+     )
+      {
+	int mask;
+	int slot;
+	int i;
+
+	m_table = new int[2 * m_table.length];
+	mask = m_table.length - 1;
+	for (i = 0; i < m_set_count; ++i)
+	  {
+	    slot = (m_set_hash[i] ^ (m_set_hash[i] >>> 16)) & mask;
+	    while (0 != m_table[slot])
+	      {
+		slot = (slot + 1) & mask;
+	      }
+	    m_table[slot] = i + 1;
+	  }
+      }
+}
+
+/***************************************************************
+  Class: CDfaCache
+  Description: On-disk cache of the minimized DFA, for -cache.
+  The cache is keyed by a digest of the NFA that the rules compile
+  to, so when the regular expressions, macros and lexical states of
+  a specification are unchanged, the tables of the previous run are
+  read back and only the code around them is emitted again.  The
+  actions are matched up by the order of their accepting NFA
+  states; their code is not part of the key.
+ **************************************************************/
+class CDfaCache
+{
+  /***************************************************************
+    Member Variables
+    **************************************************************/
+  private String m_filename;
+  private byte m_key[];
+  private Vector m_accepts; /* Action of each accepting NFA state. */
+  private Hashtable m_accept_index; /* Index of each in m_accepts. */
+
+  /***************************************************************
+    Constants
+    **************************************************************/
+  private static final String MAGIC = "JLex DFA cache 1";
+
+  /***************************************************************
+    Function: CDfaCache
+    **************************************************************/
+  CDfaCache
+    (
+     String filename
+     )
+      {
+	m_filename = filename;
+	m_key = null;
+	m_accepts = null;
+	m_accept_index = null;
+      }
+
+  /***************************************************************
+    Function: digest
+    Description: Computes the key of the NFA in spec, which must
+    not have been simplified yet.
+    **************************************************************/
+  void digest
+    (
+     CSpec spec
+     )
+      {
+	java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+	java.io.DataOutputStream out = new java.io.DataOutputStream(bytes);
+	CNfa nfa;
+	int elements[];
+	int i;
+	int j;
+
+	m_accepts = new Vector();
+	m_accept_index = new Hashtable();
+	try
+	  {
+	    out.writeUTF(MAGIC);
+	    out.writeInt(spec.m_dtrans_ncols);
+	    out.writeInt(spec.BOL);
+	    out.writeInt(spec.EOF);
+	    out.writeBoolean(spec.m_utf8);
+
+	    out.writeInt(spec.m_nfa_states.size());
+	    for (i = 0; i < spec.m_nfa_states.size(); ++i)
+	      {
+		nfa = (CNfa) spec.m_nfa_states.elementAt(i);
+		out.writeInt(nfa.m_edge);
+		out.writeInt(null == nfa.m_next ? -1 : nfa.m_next.m_label);
+		out.writeInt(null == nfa.m_next2 ? -1 : nfa.m_next2.m_label);
+		out.writeInt(nfa.m_anchor);
+		if (null == nfa.m_accept)
+		  {
+		    out.writeInt(-1);
+		  }
+		else
+		  {
+		    m_accept_index.put(nfa.m_accept,Integer.valueOf(m_accepts.size()));
+		    out.writeInt(m_accepts.size());
+		    m_accepts.addElement(nfa.m_accept);
+		  }
+		if (CNfa.CCL == nfa.m_edge)
+		  {
+		    elements = nfa.m_set.elements();
+		    out.writeBoolean(nfa.m_set.is_complement());
+		    out.writeInt(elements.length);
+		    for (j = 0; j < elements.length; ++j)
+		      {
+			out.writeInt(elements[j]);
+		      }
+		  }
+	      }
+
+	    out.writeInt(spec.m_state_rules.length);
+	    for (i = 0; i < spec.m_state_rules.length; ++i)
+	      {
+		out.writeInt(spec.m_state_rules[i].size());
+		for (j = 0; j < spec.m_state_rules[i].size(); ++j)
+		  {
+		    out.writeInt(((CNfa) spec.m_state_rules[i].elementAt(j)).m_label);
+		  }
+	      }
+	    out.flush();
+
+	    m_key = java.security.MessageDigest.getInstance("SHA-256")
+	      .digest(bytes.toByteArray());
+	  }
+	catch (java.io.IOException e)
+	  {
+	    throw new Error("Error: Unable to digest the NFA.");
+	  }
+	catch (java.security.NoSuchAlgorithmException e)
+	  {
+	    throw new Error("Error: SHA-256 is not available.");
+	  }
+      }
+
+  /***************************************************************
+    Function: load
+    Description: If the cache file holds the DFA for the key,
+    stores its tables in spec, as CMinimize would, and returns
+    true.  Otherwise returns false and leaves spec unchanged.
+    **************************************************************/
+  boolean load
+    (
+     CSpec spec
+     )
+      {
+	java.io.DataInputStream in;
+	byte key[];
+	int ccls_map[];
+	int rows[][];
+	int row_map[];
+	int col_map[];
+	int state_dtrans[];
+	int accepts[];
+	int anchors[];
+	int bol;
+	int eof;
+	int ncols;
+	int i;
+	CDTrans dtrans;
+
+	try
+	  {
+	    in = new java.io.DataInputStream(new java.io.BufferedInputStream(
+		   new java.io.FileInputStream(m_filename)));
+	  }
+	catch (java.io.FileNotFoundException e)
+	  {
+	    return false;
+	  }
+
+	try
+	  {
+	    if (false == MAGIC.equals(in.readUTF()))
+	      {
+		return false;
+	      }
+	    key = new byte[in.readInt()];
+	    in.readFully(key);
+	    if (false == java.util.Arrays.equals(key,m_key))
+	      {
+		return false;
+	      }
+
+	    bol = in.readInt();
+	    eof = in.readInt();
+	    ncols = in.readInt();
+	    ccls_map = read_ints(in);
+	    rows = new int[in.readInt()][];
+	    for (i = 0; i < rows.length; ++i)
+	      {
+		rows[i] = read_ints(in);
+	      }
+	    row_map = read_ints(in);
+	    col_map = read_ints(in);
+	    state_dtrans = read_ints(in);
+	    accepts = read_ints(in);
+	    anchors = read_ints(in);
+	  }
+	catch (java.io.IOException e)
+	  {
+	    return false;
+	  }
+	finally
+	  {
+	    try
+	      {
+		in.close();
+	      }
+	    catch (java.io.IOException e)
+	      {
+	      }
+	  }
+
+	spec.BOL = bol;
+	spec.EOF = eof;
+	spec.m_ccls_map = ccls_map;
+	spec.m_dtrans_ncols = ncols;
+	spec.m_dtrans_vector = new Vector();
+	for (i = 0; i < rows.length; ++i)
+	  {
+	    dtrans = new CDTrans(i,spec);
+	    dtrans.m_dtrans = rows[i];
+	    spec.m_dtrans_vector.addElement(dtrans);
+	  }
+	spec.m_row_map = row_map;
+	spec.m_col_map = col_map;
+	spec.m_state_dtrans = state_dtrans;
+	spec.m_accept_vector = new Vector();
+	for (i = 0; i < accepts.length; ++i)
+	  {
+	    spec.m_accept_vector.addElement
+	      ((-1 == accepts[i]) ? null : m_accepts.elementAt(accepts[i]));
+	  }
+	spec.m_anchor_array = anchors;
+	return true;
+      }
+
+  /***************************************************************
+    Function: save
+    Description: Writes the minimized DFA in spec to the cache
+    file.  Failing to do so is not an error.
+    **************************************************************/
+  void save
+    (
+     CSpec spec
+     )
+      {
+	java.io.DataOutputStream out;
+	int accepts[];
+	int i;
+	Object accept;
+
+	accepts = new int[spec.m_accept_vector.size()];
+	for (i = 0; i < accepts.length; ++i)
+	  {
+	    accept = spec.m_accept_vector.elementAt(i);
+	    accepts[i] = (null == accept) ? -1
+	      : ((Integer) m_accept_index.get(accept)).intValue();
+	  }
+
+	try
+	  {
+	    out = new java.io.DataOutputStream(new java.io.BufferedOutputStream(
+		    new java.io.FileOutputStream(m_filename)));
+	    out.writeUTF(MAGIC);
+	    out.writeInt(m_key.length);
+	    out.write(m_key);
+
+	    out.writeInt(spec.BOL);
+	    out.writeInt(spec.EOF);
+	    out.writeInt(spec.m_dtrans_ncols);
+	    write_ints(out,spec.m_ccls_map);
+	    out.writeInt(spec.m_dtrans_vector.size());
+	    for (i = 0; i < spec.m_dtrans_vector.size(); ++i)
+	      {
+		write_ints(out,((CDTrans) spec.m_dtrans_vector.elementAt(i)).m_dtrans);
+	      }
+	    write_ints(out,spec.m_row_map);
+	    write_ints(out,spec.m_col_map);
+	    write_ints(out,spec.m_state_dtrans);
+	    write_ints(out,accepts);
+	    write_ints(out,spec.m_anchor_array);
+	    out.close();
+	  }
+	catch (java.io.IOException e)
+	  {
+	    System.out.println("Warning: Unable to write DFA cache "
+			       + m_filename + ".");
+	  }
+      }
+
+  /***************************************************************
+    Function: read_ints
+    **************************************************************/
+  private static int[] read_ints
+    (
+     java.io.DataInputStream in
+     )
+      throws java.io.IOException
+      {
+	int a[] = new int[in.readInt()];
+	int i;
+
+	for (i = 0; i < a.length; ++i)
 	  {
-	    System.out.println(" NOT FOUND!");
+	    a[i] = in.readInt();
 	  }
-	return NOT_IN_DSTATES;
+	return a;
       }
 
+  /***************************************************************
+    Function: write_ints
+    **************************************************************/
+  private static void write_ints
+    (
+     java.io.DataOutputStream out,
+     int a[]
+     )
+      throws java.io.IOException
+      {
+	int i;
+
+	out.writeInt(a.length);
+	for (i = 0; i < a.length; ++i)
+	  {
+	    out.writeInt(a[i]);
+	  }
+      }
 }
 
 /***************************************************************
@@ -3832,10 +6053,47 @@ public class Main
     throws java.io.IOException
       {
 	CLexGen lg;
+	boolean show_timing = false;
+	boolean check_minimize = false;
+	boolean use_cache = false;
+	int dfa_threads = 0;
+	int i;
+
+	for (i = 0; i < arg.length - 1; ++i)
+	  {
+	    if (arg[i].equals("-time"))
+	      {
+		show_timing = true;
+	      }
+	    else if (arg[i].equals("-check"))
+	      {
+		check_minimize = true;
+	      }
+	    else if (arg[i].equals("-cache"))
+	      {
+		use_cache = true;
+	      }
+	    else if (arg[i].equals("-threads") && i + 2 < arg.length)
+	      {
+		try
+		  {
+		    dfa_threads = Integer.parseInt(arg[++i]);
+		  }
+		catch (NumberFormatException e)
+		  {
+		    break;
+		  }
+	      }
+	    else
+	      {
+		break;
+	      }
+	  }
 
-	if (arg.length < 1)
+	if (arg.length < 1 || i != arg.length - 1)
 	  {
-	    System.out.println("Usage: JLex.Main <filename>");
+	    System.out.println("Usage: JLex.Main [-time] [-check] [-cache] "
+			       + "[-threads n] <filename>");
 	    return;
 	  }
 
@@ -3844,7 +6102,9 @@ public class Main
 	   This gives more information. */
 	try 
 	  {	
-	    lg = new CLexGen(arg[0]);
+	    lg = new CLexGen(arg[i]);
+	    lg.set_options(show_timing,check_minimize,dfa_threads,
+			   use_cache ? arg[i] + ".dfa" : null);
 	    lg.generate();
 	  }
 	catch (Error e)
@@ -3888,6 +6148,48 @@ class CDTrans
       }
 }
 
+/***************************************************************
+  Class: CDfaTables
+  Description: The tables emitted for a minimized and reduced DFA,
+  taken from a CSpec, so that -check can compare those of two
+  minimizers.
+  **************************************************************/
+class CDfaTables
+{
+  /***************************************************************
+    Member Variables
+    ***********************************************************/
+  int m_state_dtrans[];		/* yy_state_dtrans */
+  Vector m_accept_vector;	/* yy_acpt, and the actions */
+  int m_anchor_array[];
+  int m_col_map[];		/* yy_cmap, by character class */
+  int m_row_map[];		/* yy_rmap */
+  int m_nxt[][];		/* yy_nxt */
+
+  /***************************************************************
+    Function: CDfaTables
+    ***********************************************************/
+  CDfaTables
+    (
+     CSpec spec
+     )
+      {
+	int i;
+
+	m_state_dtrans = spec.m_state_dtrans.clone();
+	m_accept_vector = (Vector) spec.m_accept_vector.clone();
+	m_anchor_array = spec.m_anchor_array.clone();
+	m_col_map = spec.m_col_map.clone();
+	m_row_map = spec.m_row_map.clone();
+	m_nxt = new int[spec.m_dtrans_vector.size()][];
+	for (i = 0; i < m_nxt.length; ++i)
+	  {
+	    m_nxt[i] =
+	      ((CDTrans) spec.m_dtrans_vector.elementAt(i)).m_dtrans.clone();
+	  }
+      }
+}
+
 /***************************************************************
   Class: CDfa
   **************************************************************/
@@ -3900,8 +6202,6 @@ class CDfa
   boolean m_mark;
   CAccept m_accept;
   int m_anchor;
-  Vector m_nfa_set;
-  SparseBitSet m_nfa_bit;
   int m_label;
 
   /***************************************************************
@@ -3918,9 +6218,6 @@ class CDfa
 	m_accept = null;
 	m_anchor = CSpec.NONE;
 
-	m_nfa_set = null;
-	m_nfa_bit = null;
-
 	m_label = label;
       }
 }
@@ -4205,6 +6502,7 @@ class CUtility
   static final int MAX_SEVEN_BIT = 127;
   static final int MAX_EIGHT_BIT = 255;
   static final int MAX_SIXTEEN_BIT=65535;
+  static final int MAX_CODE_POINT = 0x10FFFF;
 
   /********************************************************
     Function: enter
@@ -4255,9 +6553,38 @@ class CUtility
       }
 
   /***************************************************************
-    Function: doubleSize
+    Function: timestr
+    Description: Formats a time in milliseconds as seconds and a
+    percentage of total_time, as CUP's -time summary does.
     **************************************************************/
-  static char[] doubleSize
+  static String timestr
+    (
+     long time_val,
+     long total_time
+     )
+      {
+	long ms = time_val % 1000;
+	long sec = time_val / 1000;
+	long percent10 = (0 == total_time) ? 0 : (time_val * 1000) / total_time;
+	String pad;
+
+	if (sec < 10)
+	  pad = "   ";
+	else if (sec < 100)
+	  pad = "  ";
+	else if (sec < 1000)
+	  pad = " ";
+	else
+	  pad = "";
+
+	return pad + sec + "." + (ms / 100) + ((ms % 100) / 10) + (ms % 10)
+	  + "sec (" + percent10 / 10 + "." + percent10 % 10 + "%)";
+      }
+
+  /***************************************************************
+    Function: doubleSize
+    **************************************************************/
+  static char[] doubleSize
     (
      char oldBuffer[]
      )
@@ -4589,7 +6916,7 @@ class CSet
   /********************************************************
     Member Variables
     *******************************************************/
-  private SparseBitSet m_set;
+  private CBitSet m_set;
   private boolean m_complement;
 
   /********************************************************
@@ -4599,7 +6926,7 @@ class CSet
     (
      )
     {
-      m_set = new SparseBitSet();
+      m_set = new CBitSet();
       m_complement = false;
     }
 
@@ -4669,17 +6996,71 @@ class CSet
      )
       {
 	m_complement = set.m_complement;
-	m_set = (SparseBitSet) set.m_set.clone();
+	m_set = (CBitSet) set.m_set.clone();
       } 
 
+  /********************************************************
+    Function: is_complement
+    *******************************************************/
+  boolean is_complement
+    (
+     )
+      {
+	return m_complement;
+      }
+
+  /********************************************************
+    Function: elements
+    Description: Returns the characters explicitly in the
+    set (those excluded from it, if it is a complement),
+    in increasing order.
+    *******************************************************/
+  int[] elements
+    (
+     )
+      {
+	int result[] = new int[m_set.count()];
+	int c;
+	int i = 0;
+
+	for (c = m_set.next_set_bit(0); c >= 0; c = m_set.next_set_bit(c + 1))
+	  {
+	    result[i++] = c;
+	  }
+	return result;
+      }
+
+  /********************************************************
+    Function: members
+    Description: Returns the characters in 0..n-1 that the
+    set matches, complement applied, as a new bitset.
+    *******************************************************/
+  CBitSet members
+    (
+     int n
+     )
+      {
+	CBitSet result = new CBitSet(n);
+	int c;
+
+	for (c = m_set.next_set_bit(0); c >= 0 && c < n; c = m_set.next_set_bit(c + 1))
+	  {
+	    result.set(c);
+	  }
+	if (m_complement)
+	  {
+	    result.flip(0,n);
+	  }
+	return result;
+      }
+
   /** Map set using character classes [CSA] */
   void map(CSet set, int[] mapping) {
     m_complement = set.m_complement;
     m_set.clearAll();
-    for (Enumeration e=set.m_set.elements(); e.hasMoreElements(); ) {
-      int old_value =((Integer)e.nextElement()).intValue();
-      if (old_value<mapping.length) // skip unmapped characters
-	m_set.set(mapping[old_value]);
+    for (int c=set.m_set.next_set_bit(0); c>=0; c=set.m_set.next_set_bit(c+1)) {
+      if (c>=mapping.length) break; // skip unmapped characters
+      m_set.set(mapping[c]);
     }
   }
 }
@@ -4713,7 +7094,7 @@ class CNfa
 
   int m_label;
 
-  SparseBitSet m_states;
+  CBitSet m_states;
 
   /********************************************************
     Constants
@@ -4780,7 +7161,7 @@ class CNfa
 
 	if (null != nfa.m_states)
 	  {
-	    m_states = (SparseBitSet) nfa.m_states.clone();
+	    m_states = (CBitSet) nfa.m_states.clone();
 	  }
 	else
 	  {
@@ -4815,9 +7196,18 @@ class CLexGen
 				 conversion module. */
   private CMinimize m_minimize; /* Transition table compressor. */
   private CSimplifyNfa m_simplifyNfa; /* NFA simplifier using char classes */
+  private CUtf8Nfa m_utf8Nfa; /* NFA rewriter from code points to UTF-8 */
+  private CDfaCache m_cache; /* Cache of the minimized DFA, or null. */
   private CEmit m_emit; /* Output module that emits source code
 			   into the generated lexer file. */
 
+  /* Timing data for -time, from System.currentTimeMillis(). */
+  private long m_start_time;
+  private long m_declare_end;
+  private long m_nfa_end;
+  private long m_dfa_end;
+  private long m_minimize_end;
+  private long m_emit_end;
 
   /********************************************************
     Constants
@@ -4856,6 +7246,8 @@ class CLexGen
      )
       throws java.io.FileNotFoundException, java.io.IOException
       {
+	m_start_time = System.currentTimeMillis();
+
 	/* Successful initialization flag. */
 	m_init_flag = false;
 	
@@ -4907,6 +7299,8 @@ class CLexGen
 	m_minimize = new CMinimize();
 	m_makeNfa = new CMakeNfa();
 	m_simplifyNfa = new CSimplifyNfa();
+	m_utf8Nfa = new CUtf8Nfa();
+	m_cache = null;
 
 	m_emit = new CEmit();
 
@@ -4914,6 +7308,30 @@ class CLexGen
 	m_init_flag = true;
       }
 
+  /***************************************************************
+    Function: set_options
+    Description: Sets the command-line options.
+    **************************************************************/
+  void set_options
+    (
+     boolean show_timing,
+     boolean check_minimize,
+     int dfa_threads,
+     String cache_file
+     )
+      {
+	m_spec.m_show_timing = show_timing;
+	m_spec.m_check_minimize = check_minimize;
+	if (0 < dfa_threads)
+	  {
+	    m_spec.m_dfa_threads = dfa_threads;
+	  }
+	if (null != cache_file)
+	  {
+	    m_cache = new CDfaCache(cache_file);
+	  }
+      }
+
   /***************************************************************
     Function: generate
     Description: 
@@ -4965,6 +7383,7 @@ class CLexGen
 	  {
 	    System.out.println("Processing third section -- lexical rules.");
 	  }
+	m_declare_end = System.currentTimeMillis();
 	userRules();
  	if (CUtility.DO_DEBUG)
 	  {
@@ -4983,6 +7402,38 @@ class CLexGen
 	  }
 	
 	m_outstream.close();
+	m_emit_end = System.currentTimeMillis();
+
+	if (m_spec.m_show_timing)
+	  {
+	    show_times();
+	  }
+      }
+
+  /***************************************************************
+    Function: show_times
+    Description: Prints the timing summary, in the format of CUP's.
+    **************************************************************/
+  private void show_times
+    (
+     )
+      {
+	long total_time = m_emit_end - m_start_time;
+
+	System.err.println(". . . . . . . . . . . . . . . . . . . . . . . . . ");
+	System.err.println("  Timing Summary");
+	System.err.println("    Total time       "
+			   + CUtility.timestr(total_time, total_time));
+	System.err.println("      Declarations   "
+			   + CUtility.timestr(m_declare_end - m_start_time, total_time));
+	System.err.println("      NFA build      "
+			   + CUtility.timestr(m_nfa_end - m_declare_end, total_time));
+	System.err.println("      DFA build      "
+			   + CUtility.timestr(m_dfa_end - m_nfa_end, total_time));
+	System.err.println("      Minimization   "
+			   + CUtility.timestr(m_minimize_end - m_dfa_end, total_time));
+	System.err.println("      Code Output    "
+			   + CUtility.timestr(m_emit_end - m_minimize_end, total_time));
       }
 
   /***************************************************************
@@ -5236,12 +7687,25 @@ class CLexGen
     '\0'
     };
 
+  private char m_column_dir[] = { 
+    '%', 'c', 'o',
+    'l', 'u', 'm', 'n',
+    '\0'
+    };
+
   private char m_class_dir[] = { 
     '%', 'c', 'l', 
     'a', 's', 's',
     '\0'
     };
 
+  private char m_compress_dir[] = { 
+    '%', 'c', 'o',
+    'm', 'p', 'r',
+    'e', 's', 's',
+    '\0'
+    };
+
   private char m_implements_dir[] = { 
     '%', 'i', 'm', 'p', 'l', 'e', 'm', 'e', 'n', 't', 's', 
     '\0'
@@ -5254,6 +7718,12 @@ class CLexGen
     '\0'
     };
 
+  private char m_switch_dir[] = { 
+    '%', 's', 'w',
+    'i', 't', 'c', 'h',
+    '\0'
+    };
+
   private char m_type_dir[] = { 
     '%', 't', 'y',
     'p', 'e',
@@ -5287,6 +7757,12 @@ class CLexGen
     '\0'
     };
 
+  private char m_utf8_dir[] = { 
+    '%', 'u', 't', 
+    'f', '8',
+    '\0'
+    };
+
   private char m_ignorecase_dir[] = {
     '%', 'i', 'g',
     'n', 'o', 'r',
@@ -5409,6 +7885,12 @@ class CLexGen
     'b', 'l', 'i', 
     'c', '\0'
     };
+
+  private char m_mmap_dir[] = { 
+    '%', 'm', 'm',
+    'a', 'p',
+    '\0'
+    };
   
   /***************************************************************
     Function: userDeclare
@@ -5537,6 +8019,30 @@ class CLexGen
 			      "java_cup.runtime.Symbol".toCharArray();
 			  break;
 			}
+		      else if (0 == CUtility.charncmp(m_input.m_line,
+						      0,
+						      m_compress_dir,
+						      0,
+						      m_compress_dir.length - 1))
+			{
+			  /* Emit a row-displacement transition table. */
+			  m_input.m_line_index = m_compress_dir.length;
+			  m_spec.m_compress = true;
+			  break;
+			}
+		      else if (0 == CUtility.charncmp(m_input.m_line,
+						      0,
+						      m_column_dir,
+						      0,
+						      m_column_dir.length - 1))
+			{
+			  /* Set column counting to ON; columns are
+			     computed from character counts. */
+			  m_input.m_line_index = m_column_dir.length;
+			  m_spec.m_count_columns = true;
+			  m_spec.m_count_chars = true;
+			  break;
+			}
 	      
 		      /* Bad directive. */
 		      CError.parse_error(CError.E_DIRECT,
@@ -5711,6 +8217,24 @@ class CLexGen
 					 m_input.m_line_number);
 		      break;
 
+		    case 'm':
+		      if (0 == CUtility.charncmp(m_input.m_line,
+						 0,
+						 m_mmap_dir,
+						 0,
+						 m_mmap_dir.length - 1))
+			{
+			  /* Scan mapped input in place. */
+			  m_input.m_line_index = m_mmap_dir.length;
+			  m_spec.m_mmap = true;
+			  break;
+			}
+
+		      /* Bad directive. */
+		      CError.parse_error(CError.E_DIRECT,
+					 m_input.m_line_number);
+		      break;
+
 		    case 'n':
 		      if (0 == CUtility.charncmp(m_input.m_line,
 						 0,
@@ -5759,6 +8283,16 @@ class CLexGen
 			  saveStates();
 			  break;
 			}
+		      else if (0 == CUtility.charncmp(m_input.m_line,
+						      0,
+						      m_switch_dir,
+						      0,
+						      m_switch_dir.length - 1))
+			{
+			  m_input.m_line_index = m_switch_dir.length;
+			  m_spec.m_switch = true;
+			  break;
+			}
 
 		      /* Undefined directive. */
 		      CError.parse_error(CError.E_DIRECT,
@@ -5794,6 +8328,20 @@ class CLexGen
 			  m_spec.m_dtrans_ncols= CUtility.MAX_SIXTEEN_BIT + 1;
 			  break;
 			}
+		      else if (0 == CUtility.charncmp(m_input.m_line,
+						      0,
+						      m_utf8_dir,
+						      0,
+						      m_utf8_dir.length - 1))
+			{
+			  /* Rules range over code points until CUtf8Nfa
+			     rewrites the NFA over bytes. */
+			  m_input.m_line_index = m_utf8_dir.length;
+			  m_spec.m_dtrans_ncols= CUtility.MAX_CODE_POINT + 1;
+			  m_spec.m_utf8 = true;
+			  m_spec.m_mmap = true;
+			  break;
+			}
 
 		      /* Bad directive. */
 		      CError.parse_error(CError.E_DIRECT,
@@ -5889,7 +8437,28 @@ class CLexGen
 	m_makeNfa.allocate_BOL_EOF(m_spec);
 	m_makeNfa.thompson(this,m_spec,m_input);
 	
+	if (null != m_cache)
+	  {
+	    m_cache.digest(m_spec);
+	    if (m_cache.load(m_spec))
+	      {
+		if (m_spec.m_verbose)
+		  {
+		    System.out.println("Using the cached DFA.");
+		  }
+		m_nfa_end = System.currentTimeMillis();
+		m_dfa_end = m_nfa_end;
+		m_minimize_end = m_nfa_end;
+		return;
+	      }
+	  }
+
+	if (m_spec.m_utf8)
+	  {
+	    m_utf8Nfa.translate(m_spec);
+	  }
 	m_simplifyNfa.simplify(m_spec);
+	m_nfa_end = System.currentTimeMillis();
 
 	/*print_nfa();*/
 
@@ -5903,6 +8472,7 @@ class CLexGen
 	    System.out.println("Creating DFA transition table.");
 	  }
 	m_nfa2dfa.make_dfa(this,m_spec);
+	m_dfa_end = System.currentTimeMillis();
 
 	if (CUtility.FOODEBUG) {
 	  print_header();
@@ -5913,6 +8483,12 @@ class CLexGen
 	    System.out.println("Minimizing DFA transition table.");
 	  }
 	m_minimize.min_dfa(m_spec);
+	m_minimize_end = System.currentTimeMillis();
+
+	if (null != m_cache)
+	  {
+	    m_cache.save(m_spec);
+	  }
       }
 
   /***************************************************************
@@ -6108,15 +8684,15 @@ class CLexGen
     Special Notes: This function treats commas as optional
     and permits states to be spread over multiple lines.
     **************************************************************/
-  private SparseBitSet all_states = null;
-  SparseBitSet getStates
+  private CBitSet all_states = null;
+  CBitSet getStates
     (
      )
       throws java.io.IOException
       {
 	int start_state;
 	int count_state;
-	SparseBitSet states;
+	CBitSet states;
 	String name;
 	Integer index;
 	int i;
@@ -6154,7 +8730,7 @@ class CLexGen
 	  {
 	    ++m_input.m_line_index;
 	   
-	    states = new SparseBitSet();
+	    states = new CBitSet();
 
 	    /* Parse states. */
 	    while (true)
@@ -6239,7 +8815,7 @@ class CLexGen
 	
 	if (null == all_states)
 	  {
-	    all_states = new SparseBitSet();
+	    all_states = new CBitSet();
 
 	    size = m_spec.m_states.size();
 	    for (i = 0; i < size; ++i)
@@ -7203,6 +9779,17 @@ class CLexGen
 	    System.out.println("Character counting is on.");
 	  }
 
+	System.out.println();
+	System.out.println("\t** Column Counting **");
+	if (false == m_spec.m_count_columns)
+	  {
+	    System.out.println("Column counting is off.");
+	  }
+	else
+	  {
+	    System.out.println("Column counting is on.");
+	  }
+
 	System.out.println();
 	System.out.println("\t** Line Counting **");
 	if (false == m_spec.m_count_lines)
@@ -7437,381 +10024,560 @@ class CLexGen
       }
 }
 
-/*
- * SparseBitSet 25-Jul-1999.
- * C. Scott Ananian <cananian@alumni.princeton.edu>
- *
- * Re-implementation of the standard java.util.BitSet to support sparse
- * sets, which we need to efficiently support unicode character classes.
- */
+/***************************************************************
+  Class: CBitSet
+  Description: A set of small non-negative integers (characters,
+  character classes, lexical states) kept as a dense array of
+  64-bit words, which grows to hold the largest element added.
+  Replaces SparseBitSet: sets of characters are only as wide as
+  the character set, and after CSimplifyNfa as the number of
+  character classes, so a flat array indexed by word is both
+  smaller and faster than a sorted array of blocks searched on
+  every access, and unions, intersections and iteration run a
+  word at a time.
+ **************************************************************/
+final class CBitSet implements Cloneable
+{
+  /***************************************************************
+    Member Variables
+    **************************************************************/
+  private long m_words[];
 
-/**
- * A set of bits. The set automatically grows as more bits are
- * needed. 
- *
- * @version 	1.00, 25 Jul 1999
- * @author C. Scott Ananian
- */
-final class SparseBitSet implements Cloneable {
-    /** Sorted array of bit-block offsets. */
-    int  offs[];
-    /** Array of bit-blocks; each holding BITS bits. */
-    long bits[];
-    /** Number of blocks currently in use. */
-    int size;
-    /** log base 2 of BITS, for the identity: x/BITS == x >> LG_BITS */
-    static final private int LG_BITS = 6;
-    /** Number of bits in a block. */
-    static final private int BITS = 1<<LG_BITS;
-    /** BITS-1, using the identity: x % BITS == x & (BITS-1) */
-    static final private int BITS_M1 = BITS-1;
-
-    /**
-     * Creates an empty set.
-     */
-    public SparseBitSet() {
-	bits = new long[4];
-	offs = new int [4];
-	size = 0;
-    }
+  /***************************************************************
+    Constants
+    **************************************************************/
+  private static final int LG_BITS = 6;
+  private static final int BITS = 1 << LG_BITS;
 
-    /**
-     * Creates an empty set with the specified size.
-     * @param nbits the size of the set
-     */
-    public SparseBitSet(int nbits) {
-	this();
-    }
+  /***************************************************************
+    Function: CBitSet
+    **************************************************************/
+  CBitSet
+    (
+     )
+      {
+	m_words = new long[1];
+      }
 
-    /**
-     * Creates an empty set with the same size as the given set.
-     */
-    public SparseBitSet(SparseBitSet set) {
-	bits = new long[set.size];
-	offs = new int [set.size];
-	size = 0;
-    }
+  /***************************************************************
+    Function: CBitSet
+    Description: Creates an empty set with room for 0..nbits-1.
+    **************************************************************/
+  CBitSet
+    (
+     int nbits
+     )
+      {
+	m_words = new long[Math.max(1,(nbits + BITS - 1) >> LG_BITS)];
+      }
 
-    private void new_block(int bnum) {
-	new_block(bsearch(bnum), bnum);
-    }
-    private void new_block(int idx, int bnum) {
-	if (size==bits.length) { // resize
-	    long[] nbits = new long[size*3];
-	    int [] noffs = new int [size*3];
-	    System.arraycopy(bits, 0, nbits, 0, size);
-	    System.arraycopy(offs, 0, noffs, 0, size);
-	    bits = nbits;
-	    offs = noffs;
-	}
-	CUtility.ASSERT(size<bits.length);
-	insert_block(idx, bnum);
-    }
-    private void insert_block(int idx, int bnum) {
-	CUtility.ASSERT(idx<=size);
-	CUtility.ASSERT(idx==size || offs[idx]!=bnum);
-	System.arraycopy(bits, idx, bits, idx+1, size-idx);
-	System.arraycopy(offs, idx, offs, idx+1, size-idx);
-	offs[idx]=bnum;
-	bits[idx]=0; //clear them bits.
-	size++;
-    }
-    private int bsearch(int bnum) {
-	int l=0, r=size; // search interval is [l, r)
-	while (l<r) {
-	    int p = (l+r)/2;
-	    if (bnum<offs[p]) r=p;
-	    else if (bnum>offs[p]) l=p+1;
-	    else return p;
-	}
-	CUtility.ASSERT(l==r);
-	return l; // index at which the bnum *should* be, if it's not.
-    }
-	    
-    /**
-     * Sets a bit.
-     * @param bit the bit to be set
-     */
-    public void set(int bit) {
-	int bnum = bit >> LG_BITS;
-	int idx  = bsearch(bnum);
-	if (idx >= size || offs[idx]!=bnum)
-	    new_block(idx, bnum);
-	bits[idx] |= (1L << (bit & BITS_M1) );
-    }
+  /***************************************************************
+    Function: grow
+    **************************************************************/
+  private void grow
+    (
+     int nwords
+     )
+      {
+	if (nwords > m_words.length)
+	  {
+	    m_words = java.util.Arrays.copyOf
+	      (m_words,Math.max(nwords,2 * m_words.length));
+	  }
+      }
 
-    /**
-     * Clears a bit.
-     * @param bit the bit to be cleared
-     */
-    public void clear(int bit) {
-	int bnum = bit >> LG_BITS;
-	int idx  = bsearch(bnum);
-	if (idx >= size || offs[idx]!=bnum)
-	    new_block(idx, bnum);
-	bits[idx] &= ~(1L << (bit & BITS_M1) );
-    }
+  /***************************************************************
+    Function: set
+    **************************************************************/
+  void set
+    (
+     int bit
+     )
+      {
+	int w = bit >> LG_BITS;
 
-    /**
-     * Clears all bits.
-     */
-    public void clearAll() {
-	size = 0;
-    }
+	grow(w + 1);
+	m_words[w] |= 1L << bit;
+      }
 
-    /**
-     * Gets a bit.
-     * @param bit the bit to be gotten
-     */
-    public boolean get(int bit) {
-	int bnum = bit >> LG_BITS;
-	int idx  = bsearch(bnum);
-	if (idx >= size || offs[idx]!=bnum)
-	    return false;
-	return 0 != ( bits[idx] & (1L << (bit & BITS_M1) ) );
-    }
+  /***************************************************************
+    Function: set
+    Description: Adds lo..hi-1.
+    **************************************************************/
+  void set
+    (
+     int lo,
+     int hi
+     )
+      {
+	int w;
+	int last;
 
-    /**
-     * Logically ANDs this bit set with the specified set of bits.
-     * @param set the bit set to be ANDed with
-     */
-    public void and(SparseBitSet set) {
-	binop(this, set, AND);
-    }
+	if (lo >= hi)
+	  {
+	    return;
+	  }
+	w = lo >> LG_BITS;
+	last = (hi - 1) >> LG_BITS;
+	grow(last + 1);
+	if (w == last)
+	  {
+	    m_words[w] |= (-1L << lo) & (-1L >>> -hi);
+	    return;
+	  }
+	m_words[w] |= -1L << lo;
+	for (++w; w < last; ++w)
+	  {
+	    m_words[w] = -1L;
+	  }
+	m_words[last] |= -1L >>> -hi;
+      }
 
-    /**
-     * Logically ORs this bit set with the specified set of bits.
-     * @param set the bit set to be ORed with
-     */
-    public void or(SparseBitSet set) {
-	binop(this, set, OR);
-    }
+  /***************************************************************
+    Function: clear
+    **************************************************************/
+  void clear
+    (
+     int bit
+     )
+      {
+	int w = bit >> LG_BITS;
 
-    /**
-     * Logically XORs this bit set with the specified set of bits.
-     * @param set the bit set to be XORed with
-     */
-    public void xor(SparseBitSet set) {
-	binop(this, set, XOR);
-    }
+	if (w < m_words.length)
+	  {
+	    m_words[w] &= ~(1L << bit);
+	  }
+      }
 
-    // BINARY OPERATION MACHINERY
-    private static interface BinOp {
-	public long op(long a, long b);
-    }
-    private static final BinOp AND = new BinOp() {
-	public final long op(long a, long b) { return a & b; }
-    };
-    private static final BinOp OR = new BinOp() {
-	public final long op(long a, long b) { return a | b; }
-    };
-    private static final BinOp XOR = new BinOp() {
-	public final long op(long a, long b) { return a ^ b; }
-    };
-    private static final void binop(SparseBitSet a, SparseBitSet b, BinOp op) {
-	int  nsize = a.size + b.size;
-	long[] nbits; 
-	int [] noffs;
-	int a_zero, a_size;
-	// be very clever and avoid allocating more memory if we can.
-	if (a.bits.length < nsize) { // oh well, have to make working space.
-	    nbits = new long[nsize];
-	    noffs = new int [nsize];
-	    a_zero  = 0; a_size = a.size;
-	} else { // reduce, reuse, recycle!
-	    nbits = a.bits;
-	    noffs = a.offs;
-	    a_zero = a.bits.length - a.size; a_size = a.bits.length;
-	    System.arraycopy(a.bits, 0, a.bits, a_zero, a.size);
-	    System.arraycopy(a.offs, 0, a.offs, a_zero, a.size);
-	}
-	// ok, crunch through and binop those sets!
-	nsize = 0;
-	for (int i=a_zero, j=0; i<a_size || j<b.size; ) {
-	    long nb; int no;
-	    if (i<a_size && (j>=b.size || a.offs[i] < b.offs[j])) {
-		nb = op.op(a.bits[i], 0);
-		no = a.offs[i];
-		i++;
-	    } else if (j<b.size && (i>=a_size || a.offs[i] > b.offs[j])) {
-		nb = op.op(0, b.bits[j]);
-		no = b.offs[j];
-		j++;
-	    } else { // equal keys; merge.
-		nb = op.op(a.bits[i], b.bits[j]);
-		no = a.offs[i];
-		i++; j++;
-	    }
-	    if (nb!=0) {
-		nbits[nsize] = nb;
-		noffs[nsize] = no;
-		nsize++;
-	    }
-	}
-	a.bits = nbits;
-	a.offs = noffs;
-	a.size = nsize;
-    }
+  /***************************************************************
+    Function: clearAll
+    **************************************************************/
+  void clearAll
+    (
+     )
+      {
+	java.util.Arrays.fill(m_words,0L);
+      }
 
-    /**
-     * Gets the hashcode.
-     */
-    public int hashCode() {
-	long h = 1234;
-	for (int i=0; i<size; i++)
-	    h ^= bits[i] * offs[i];
-	return (int)((h >> 32) ^ h);
-    }
+  /***************************************************************
+    Function: get
+    **************************************************************/
+  boolean get
+    (
+     int bit
+     )
+      {
+	int w = bit >> LG_BITS;
 
-    /**
-     * Calculates and returns the set's size
-     */
-    public int size() {
-	return (size==0)?0:((1+offs[size-1]) << LG_BITS);
-    }
+	return w < m_words.length && 0 != (m_words[w] & (1L << bit));
+      }
 
-    /**
-     * Compares this object against the specified object.
-     * @param obj the object to commpare with
-     * @return true if the objects are the same; false otherwise.
-     */
-    public boolean equals(Object obj) {
-	if ((obj != null) && (obj instanceof SparseBitSet))
-	    return equals(this, (SparseBitSet)obj); 
+  /***************************************************************
+    Function: and
+    **************************************************************/
+  void and
+    (
+     CBitSet set
+     )
+      {
+	int n = Math.min(m_words.length,set.m_words.length);
+	int i;
+
+	for (i = 0; i < n; ++i)
+	  {
+	    m_words[i] &= set.m_words[i];
+	  }
+	for (; i < m_words.length; ++i)
+	  {
+	    m_words[i] = 0L;
+	  }
+      }
+
+  /***************************************************************
+    Function: or
+    **************************************************************/
+  void or
+    (
+     CBitSet set
+     )
+      {
+	int i;
+
+	grow(set.m_words.length);
+	for (i = 0; i < set.m_words.length; ++i)
+	  {
+	    m_words[i] |= set.m_words[i];
+	  }
+      }
+
+  /***************************************************************
+    Function: andNot
+    **************************************************************/
+  void andNot
+    (
+     CBitSet set
+     )
+      {
+	int n = Math.min(m_words.length,set.m_words.length);
+	int i;
+
+	for (i = 0; i < n; ++i)
+	  {
+	    m_words[i] &= ~set.m_words[i];
+	  }
+      }
+
+  /***************************************************************
+    Function: flip
+    Description: Complements lo..hi-1.
+    **************************************************************/
+  void flip
+    (
+     int lo,
+     int hi
+     )
+      {
+	int w;
+	int last;
+
+	if (lo >= hi)
+	  {
+	    return;
+	  }
+	w = lo >> LG_BITS;
+	last = (hi - 1) >> LG_BITS;
+	grow(last + 1);
+	if (w == last)
+	  {
+	    m_words[w] ^= (-1L << lo) & (-1L >>> -hi);
+	    return;
+	  }
+	m_words[w] ^= -1L << lo;
+	for (++w; w < last; ++w)
+	  {
+	    m_words[w] = ~m_words[w];
+	  }
+	m_words[last] ^= -1L >>> -hi;
+      }
+
+  /***************************************************************
+    Function: intersects
+    **************************************************************/
+  boolean intersects
+    (
+     CBitSet set
+     )
+      {
+	int n = Math.min(m_words.length,set.m_words.length);
+	int i;
+
+	for (i = 0; i < n; ++i)
+	  {
+	    if (0L != (m_words[i] & set.m_words[i]))
+	      {
+		return true;
+	      }
+	  }
 	return false;
-    }
-    /**
-     * Compares two SparseBitSets for equality.
-     * @return true if the objects are the same; false otherwise.
-     */
-    public static boolean equals(SparseBitSet a, SparseBitSet b) {
-	for (int i=0, j=0; i<a.size || j<b.size; ) {
-	    if (i<a.size && (j>=b.size || a.offs[i] < b.offs[j])) {
-		if (a.bits[i++]!=0) return false;
-	    } else if (j<b.size && (i>=a.size || a.offs[i] > b.offs[j])) {
-		if (b.bits[j++]!=0) return false;
-	    } else { // equal keys
-		if (a.bits[i++]!=b.bits[j++]) return false;
-	    }
-	}
+      }
+
+  /***************************************************************
+    Function: subset_of
+    Description: Returns true if every element of this set is
+    in set.
+    **************************************************************/
+  boolean subset_of
+    (
+     CBitSet set
+     )
+      {
+	int i;
+
+	for (i = 0; i < m_words.length; ++i)
+	  {
+	    if (0L != (m_words[i] & ~(i < set.m_words.length
+				      ? set.m_words[i] : 0L)))
+	      {
+		return false;
+	      }
+	  }
 	return true;
-    }
+      }
+
+  /***************************************************************
+    Function: next_set_bit
+    Description: Returns the least element that is at least
+    from, or -1 if there is none.  The elements of a set are
+    visited by
+      for (i = set.next_set_bit(0); i >= 0; i = set.next_set_bit(i + 1))
+    **************************************************************/
+  int next_set_bit
+    (
+     int from
+     )
+      {
+	int w = from >> LG_BITS;
+	long word;
+
+	if (w >= m_words.length)
+	  {
+	    return -1;
+	  }
+	word = m_words[w] & (-1L << from);
+	while (0L == word)
+	  {
+	    if (++w == m_words.length)
+	      {
+		return -1;
+	      }
+	    word = m_words[w];
+	  }
+	return (w << LG_BITS) + Long.numberOfTrailingZeros(word);
+      }
 
-    /**
-     * Clones the SparseBitSet.
-     */
-    public Object clone() {
-	try { 
-	    SparseBitSet set = (SparseBitSet)super.clone();
-	    set.bits = (long[]) bits.clone();
-	    set.offs = (int []) offs.clone();
+  /***************************************************************
+    Function: is_empty
+    **************************************************************/
+  boolean is_empty
+    (
+     )
+      {
+	int i;
+
+	for (i = 0; i < m_words.length; ++i)
+	  {
+	    if (0L != m_words[i])
+	      {
+		return false;
+	      }
+	  }
+	return true;
+      }
+
+  /***************************************************************
+    Function: count
+    Description: Returns the number of elements.
+    **************************************************************/
+  int count
+    (
+     )
+      {
+	int n = 0;
+	int i;
+
+	for (i = 0; i < m_words.length; ++i)
+	  {
+	    n += Long.bitCount(m_words[i]);
+	  }
+	return n;
+      }
+
+  /***************************************************************
+    Function: hashCode
+    **************************************************************/
+  public int hashCode
+    (
+     )
+      {
+	long h = 1234;
+	int i;
+
+	for (i = m_words.length; --i >= 0; )
+	  {
+	    h ^= m_words[i] * (i + 1);
+	  }
+	return (int) ((h >> 32) ^ h);
+      }
+
+  /***************************************************************
+    Function: equals
+    Description: Sets are equal if they have the same elements,
+    whatever the length of their arrays.
+    **************************************************************/
+  public boolean equals
+    (
+     Object obj
+     )
+      {
+	CBitSet set;
+	long a[];
+	long b[];
+	int i;
+
+	if (false == (obj instanceof CBitSet))
+	  {
+	    return false;
+	  }
+	set = (CBitSet) obj;
+	a = m_words;
+	b = set.m_words;
+	if (a.length < b.length)
+	  {
+	    a = set.m_words;
+	    b = m_words;
+	  }
+	for (i = 0; i < b.length; ++i)
+	  {
+	    if (a[i] != b[i])
+	      {
+		return false;
+	      }
+	  }
+	for (; i < a.length; ++i)
+	  {
+	    if (0L != a[i])
+	      {
+		return false;
+	      }
+	  }
+	return true;
+      }
+
+  /***************************************************************
+    Function: clone
+    **************************************************************/
+  public Object clone
+    (
+     )
+      {
+	try
+	  {
+	    CBitSet set = (CBitSet) super.clone();
+	    set.m_words = m_words.clone();
 	    return set;
-	} catch (CloneNotSupportedException e) {
-	    // this shouldn't happen, since we are Cloneable
+	  }
+	catch (CloneNotSupportedException e)
+	  {
 	    throw new InternalError();
-	}
-    }
+	  }
+      }
 
-    /**
-     * Return an <code>Enumeration</code> of <code>Integer</code>s
-     * which represent set bit indices in this SparseBitSet.
-     */
-    public Enumeration elements() {
-	return new Enumeration() {
-	    int idx=-1, bit=BITS;
-	    { advance(); }
-	    public boolean hasMoreElements() {
-		return (idx<size);
-	    }
-	    public Object nextElement() {
-		int r = bit + (offs[idx] << LG_BITS);
-		advance();
-		return new Integer(r);
-	    }
-	    private void advance() {
-		while (idx<size) {
-		    while (++bit<BITS)
-			if (0!=(bits[idx] & (1L<<bit)))
-			    return;
-		    idx++; bit=-1;
-		}
-	    }
-	};
-    }
-    /**
-     * Converts the SparseBitSet to a String.
-     */
-    public String toString() {
+  /***************************************************************
+    Function: toString
+    **************************************************************/
+  public String toString
+    (
+     )
+      {
 	StringBuffer sb = new StringBuffer();
+	int i;
+
 	sb.append('{');
-	for (Enumeration e=elements(); e.hasMoreElements(); ) {
-	    if (sb.length() > 1) sb.append(", ");
-	    sb.append(e.nextElement());
-	}
+	for (i = next_set_bit(0); i >= 0; i = next_set_bit(i + 1))
+	  {
+	    if (sb.length() > 1)
+	      {
+		sb.append(", ");
+	      }
+	    sb.append(i);
+	  }
 	sb.append('}');
 	return sb.toString();
-    }
+      }
+}
 
-    /** Check validity. */
-    private boolean isValid() {
-	if (bits.length!=offs.length) return false;
-	if (size>bits.length) return false;
-	if (size!=0 && 0<=offs[0]) return false;
-	for (int i=1; i<size; i++)
-	    if (offs[i] < offs[i-1])
-		    return false;
+/***************************************************************
+  Class: CLongSet
+  Description: A set of non-negative longs, kept in an open
+  addressing table of primitive longs so that adding one boxes
+  nothing.
+  **************************************************************/
+final class CLongSet
+{
+  /***************************************************************
+    Member Variables
+    **************************************************************/
+  private long m_table[];
+  private int m_size;
+
+  /***************************************************************
+    Constants
+    **************************************************************/
+  private static final long EMPTY = -1L;
+
+  /***************************************************************
+    Function: CLongSet
+    **************************************************************/
+  CLongSet
+    (
+     )
+      {
+	m_table = new long[16];
+	java.util.Arrays.fill(m_table,EMPTY);
+	m_size = 0;
+      }
+
+  /***************************************************************
+    Function: add
+    Description: Adds key, which must not be negative, and returns
+    true if it was not in the set already.
+    **************************************************************/
+  boolean add
+    (
+     long key
+     )
+      {
+	int mask = m_table.length - 1;
+	int i = hash(key) & mask;
+
+	while (EMPTY != m_table[i])
+	  {
+	    if (key == m_table[i])
+	      {
+		return false;
+	      }
+	    i = (i + 1) & mask;
+	  }
+	m_table[i] = key;
+	++m_size;
+	if (2 * m_size > m_table.length)
+	  {
+	    rehash();
+	  }
 	return true;
-    }
-    /** Self-test. */
-    public static void main(String[] args) {
-	final int ITER = 500;
-	final int RANGE= 65536;
-	SparseBitSet a = new SparseBitSet();
-	CUtility.ASSERT(!a.get(0) && !a.get(1));
-	CUtility.ASSERT(!a.get(123329));
-	a.set(0); CUtility.ASSERT(a.get(0) && !a.get(1));
-	a.set(1); CUtility.ASSERT(a.get(0) && a.get(1));
-	a.clearAll();
-	CUtility.ASSERT(!a.get(0) && !a.get(1));
-	java.util.Random r = new java.util.Random();
-	java.util.Vector v = new java.util.Vector();
-	for (int n=0; n<ITER; n++) {
-	    int rr = ((r.nextInt()>>>1) % RANGE) << 1;
-	    a.set(rr); v.addElement(new Integer(rr));
-	    // check that all the numbers are there.
-	    CUtility.ASSERT(a.get(rr) && !a.get(rr+1) && !a.get(rr-1));
-	    for (int i=0; i<v.size(); i++)
-		CUtility.ASSERT(a.get(((Integer)v.elementAt(i)).intValue()));
-	}
-	SparseBitSet b = (SparseBitSet) a.clone();
-	CUtility.ASSERT(a.equals(b) && b.equals(a));
-	for (int n=0; n<ITER/2; n++) {
-	    int rr = (r.nextInt()>>>1) % v.size();
-	    int m = ((Integer)v.elementAt(rr)).intValue();
-	    b.clear(m); v.removeElementAt(rr);
-	    // check that numbers are removed properly.
-	    CUtility.ASSERT(!b.get(m));
-	}
-	CUtility.ASSERT(!a.equals(b));
-	SparseBitSet c = (SparseBitSet) a.clone();
-	SparseBitSet d = (SparseBitSet) a.clone();
-	c.and(a);
-	CUtility.ASSERT(c.equals(a) && a.equals(c));
-	c.xor(a);
-	CUtility.ASSERT(!c.equals(a) && c.size()==0);
-	d.or(b);
-	CUtility.ASSERT(d.equals(a) && !b.equals(d));
-	d.and(b);
-	CUtility.ASSERT(!d.equals(a) && b.equals(d));
-	d.xor(a);
-	CUtility.ASSERT(!d.equals(a) && !b.equals(d));
-	c.or(d); c.or(b);
-	CUtility.ASSERT(c.equals(a) && a.equals(c));
-	c = (SparseBitSet) d.clone();
-	c.and(b);
-	CUtility.ASSERT(c.size()==0);
-	System.out.println("Success.");
-    }
+      }
+
+  /***************************************************************
+    Function: rehash
+    Description: Doubles the table.
+    **************************************************************/
+  private void rehash
+    (
+     )
+      {
+	long old[] = m_table;
+	int mask;
+	int i;
+	int j;
+
+	m_table = new long[2 * old.length];
+	java.util.Arrays.fill(m_table,EMPTY);
+	mask = m_table.length - 1;
+	for (j = 0; j < old.length; ++j)
+	  {
+	    if (EMPTY != old[j])
+	      {
+		i = hash(old[j]) & mask;
+		while (EMPTY != m_table[i])
+		  {
+		    i = (i + 1) & mask;
+		  }
+		m_table[i] = old[j];
+	      }
+	  }
+      }
+
+  /***************************************************************
+    Function: hash
+    **************************************************************/
+  private static int hash
+    (
+     long key
+     )
+      {
+	key *= 0x9e3779b97f4a7c15L;
+	return (int) (key ^ (key >>> 32));
+      }
 }
 
 /************************************************************************
@@ -48,6 +48,12 @@ import java_cup.runtime.*;
  *   <dd> produce a dump of parse state machine
  *   <dt> -dump_tables   
  *   <dd> produce a dump of the parse tables
+ *   <dt> -table_resource
+ *   <dd> write the parse tables to a file, parser.tables, next to the
+ *        generated sources, instead of into the parser class.  The parser
+ *        loads it from the class path as a resource in its own package 
+ *        (e.g. /pkg/path/parser.tables), so the build must copy it next
+ *        to the parser's class file, into the class tree or jar.
  *   <dt> -dump          
  *   <dd> produce a dump of all of the above
  *   <dt> -debug         
@@ -108,6 +114,7 @@ public class Main {
   protected static boolean locations = false;
   protected static boolean xmlactions = false;
   protected static boolean genericlabels = false;
+  protected static boolean xmlstream = false;
   
   /** User option -- should symbols be put in a class or an interface? [CSA]*/
   protected static boolean sym_interface = false;
@@ -181,6 +188,7 @@ public class Main {
       emit.set_locations(locations);
       emit.set_xmlactions(xmlactions);
       emit.set_genericlabels(genericlabels);
+      emit.set_xmlstream(xmlstream);
       /* open output set_xmlactionsfiles */
       if (print_progress) System.err.println("Opening files...");
       /* use a buffered version of standard input */
@@ -269,12 +277,16 @@ version.title_str + "\n" +
 "    -nonterms      put non terminals in symbol constant class\n" + 
 "    -expect #      number of conflicts expected/allowed [default 0]\n" + 
 "    -compact_red   compact tables by defaulting to most frequent reduce\n" +
+"    -direct_tables also emit tables in row-displaced form for O(1) lookup\n" +
+"    -table_resource\n" +
+"                   write the tables to parser.tables, not into the class\n" +
 "    -nowarn        don't warn about useless productions, etc.\n" +
 "    -nosummary     don't print the usual summary of parse states, etc.\n" +
 "    -nopositions   don't propagate the left and right token position values\n" +
 "    -locations     generate handles xleft/xright for symbol positions in actions\n" +
 "    -xmlactions    make the generated parser yield its parse tree as XML\n" +
 "    -genericlabels automatically generate labels to all symbols in XML mode\n" +
+"    -xmlstream     like -xmlactions, but write the parse tree as it is parsed\n" +
 "    -noscanner     don't refer to java_cup.runtime.Scanner\n" +
 "    -progress      print messages to indicate progress of the system\n" +
 "    -time          print time usage summary\n" +
@@ -360,6 +372,8 @@ version.title_str + "\n" +
 	      }
 	    }
 	  else if (argv[i].equals("-compact_red"))  opt_compact_red = true;
+	  else if (argv[i].equals("-direct_tables")) emit.direct_tables = true;
+	  else if (argv[i].equals("-table_resource")) emit.table_resource = true;
 	  else if (argv[i].equals("-nosummary"))    no_summary = true;
 	  else if (argv[i].equals("-nowarn"))       emit.nowarn = true;
 	  else if (argv[i].equals("-dump_states"))  opt_dump_states = true;
@@ -375,6 +389,7 @@ version.title_str + "\n" +
 	  else if (argv[i].equals("-locations"))    locations = true;
 	  else if (argv[i].equals("-xmlactions"))   xmlactions = true;
 	  else if (argv[i].equals("-genericlabels"))   genericlabels = true;
+	  else if (argv[i].equals("-xmlstream"))    xmlstream = true;
 	  /* CSA 12/21/97 */
 	  else if (argv[i].equals("-interface"))    sym_interface = true;
 	  /* CSA 23-Jul-1999 */
@@ -638,6 +653,21 @@ version.title_str + "\n" +
       emit.parser(parser_class_file, action_table, reduce_table, 
 		  start_state.index(), emit.start_production, opt_compact_red,
 		  suppress_scanner);
+      if (emit.table_resource)
+	{
+	  String out_name = emit.table_resource_name();
+	  try {
+	    OutputStream out = new FileOutputStream(new File(dest_dir,out_name));
+	    try {
+	      emit.write_table_resource(out);
+	    } finally {
+	      out.close();
+	    }
+	  } catch(java.io.IOException e) {
+	    System.err.println("Can't write \"" + out_name + "\"");
+	    System.exit(5);
+	  }
+	}
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -655,6 +685,21 @@ version.title_str + "\n" +
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
+  /** Helper routine to describe the size of a row-displaced table as a
+   *  multiple of the size of its searched form, or as "searched" if it 
+   *  was not emitted.
+   * @param direct   size of the row-displaced table, 0 if not emitted.
+   * @param searched size of the searched table.
+   */
+  protected static String growth(int direct, int searched)
+    {
+      if (direct == 0)
+	return "searched";
+      return String.format("%.2fx", (double) direct / searched);
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** Emit a long summary message to standard error (System.err) which 
    *  summarizes what was found in the specification, how many states were
    *  produced, how many conflicts were found, etc.  A detailed timing 
@@ -700,10 +745,32 @@ version.title_str + "\n" +
 			 plural(emit.num_conflicts) + " detected" +
 	                 " (" + expect_conflicts + " expected).");
 
+      /* table sizes */
+      if (output_produced)
+	{
+	  System.err.println("  Parse tables: " + emit.action_table_size +
+			     " + " + emit.reduce_table_size + " shorts" +
+			     " (action + reduce-goto).");
+	  if (emit.direct_action_size + emit.direct_reduce_size > 0)
+	    System.err.println("  Row-displaced tables: " + 
+			       emit.direct_action_size + " + " +
+			       emit.direct_reduce_size + " shorts (" +
+			       growth(emit.direct_action_size,
+				      emit.action_table_size) + " + " +
+			       growth(emit.direct_reduce_size,
+				      emit.reduce_table_size) + ").");
+	}
+
       /* code location */
       if (output_produced)
-	System.err.println("  Code written to \"" + emit.parser_class_name + 
+	{
+	  System.err.println("  Code written to \"" + emit.parser_class_name + 
 	        ".java\", and \"" + emit.symbol_const_class_name + ".java\".");
+	  if (emit.table_resource)
+	    System.err.println("  Tables written to \"" + 
+	        emit.table_resource_name() + "\"; the parser loads them from" +
+	        " the class path as \"" + emit.table_resource_path() + "\".");
+	}
       else
 	System.err.println("  No code produced.");
 
@@ -46,6 +46,8 @@ public class CUPTask extends Task
     private boolean nonterms=false;
     private String expect=null;
     private boolean compact_red=false;
+    private boolean direct_tables=false;
+    private boolean table_resource=false;
     private boolean nowarn=false;
     private boolean nosummary=false;
     private boolean progress=false;
@@ -58,6 +60,7 @@ public class CUPTask extends Task
     private boolean nopositions=false;
     private boolean xmlactions=false;
     private boolean genericlabels=false;
+    private boolean xmlstream=false;
     private boolean locations=true;
     private boolean noscanner=false;
     private boolean force=false;
@@ -82,6 +85,8 @@ public class CUPTask extends Task
 	if (_interface)    {  sc.add("-interface"); }
 	if (nonterms)      {  sc.add("-nonterms"); }
 	if (compact_red)   {  sc.add("-compact_red"); }
+	if (direct_tables) {  sc.add("-direct_tables"); }
+	if (table_resource){  sc.add("-table_resource"); }
 	if (nowarn)        {  sc.add("-nowarn"); }
 	if (nosummary)     {  sc.add("-nosummary");}
 	if (progress)      {  sc.add("-progress"); }
@@ -95,6 +100,7 @@ public class CUPTask extends Task
 	if (locations)     {  sc.add("-locations"); }
 	if (genericlabels) {  sc.add("-genericlabels"); }
 	if (xmlactions)    {  sc.add("-xmlactions"); }
+	if (xmlstream)     {  sc.add("-xmlstream"); }
 	if (noscanner)     {  sc.add("-noscanner"); }
 	if (!quiet) log ("This is "+version.title_str);
         if (!quiet) log ("Authors : "+version.author_str);
@@ -127,6 +133,11 @@ public class CUPTask extends Task
 		if (!quiet) log("Either Parserfile or Symbolfile didn't exist");
 		force=true;	    
 	    }else { if (!quiet) log("Parserfile and symbolfile are existing"); }
+
+	    if (table_resource && !new File(destdir+packagename,parser+".tables").exists()) {
+		if (!quiet) log("Table resource didn't exist");
+		force=true;
+	    }
 	    
 	    
 	    if (parserfile.lastModified()<=cupfile.lastModified()) {
@@ -388,6 +399,45 @@ public class CUPTask extends Task
 	this.compact_red = argCompact_red;
     }
 
+    /**
+     * Gets the value of direct_tables
+     *
+     * @return the value of direct_tables
+     */
+    public boolean isDirect_tables() {
+	return this.direct_tables;
+    }
+
+    /**
+     * Sets the value of direct_tables
+     *
+     * @param argDirect_tables Value to assign to this.direct_tables
+     */
+    public void setDirect_tables(boolean argDirect_tables){
+	this.direct_tables = argDirect_tables;
+    }
+
+    /**
+     * Gets the value of table_resource
+     *
+     * @return the value of table_resource
+     */
+    public boolean isTable_resource() {
+	return this.table_resource;
+    }
+
+    /**
+     * Sets the value of table_resource.  The tables are written to
+     * parser.tables next to the parser's source, and the parser loads
+     * them as a resource of its package, so the build must copy
+     * **&#47;*.tables into the class directory or jar with the classes.
+     *
+     * @param argTable_resource Value to assign to this.table_resource
+     */
+    public void setTable_resource(boolean argTable_resource){
+	this.table_resource = argTable_resource;
+    }
+
     /**
      * Gets the value of nowarn
      *
@@ -619,6 +669,14 @@ public class CUPTask extends Task
 		this.genericlabels = genericlabels;
 	}
 
+	public boolean isXmlstream() {
+		return xmlstream;
+	}
+
+	public void setXmlstream(boolean xmlstream) {
+		this.xmlstream = xmlstream;
+	}
+
 
 }
 
@@ -63,6 +63,9 @@ import java.util.Enumeration;
      emit_production_table - emit declaration and init for the production table
      do_action_table       - emit declaration and init for the action table
      do_reduce_table       - emit declaration and init for the reduce-goto table
+     do_direct_table       - emit a table in row-displaced form
+     do_table_accessor     - emit the accessor for a table, and keep the table
+     emit_shared_tables    - emit the class holding the tables kept
 
    Finally, this class uses a number of public instance variables to communicate
    optional parameters and flags used to control how code is generated,
@@ -86,9 +89,15 @@ import java.util.Enumeration;
    import_list             - list of imports for use with action class.
    num_conflicts           - number of conflicts detected. 
    nowarn                  - true if we are not to issue warning messages.
+   direct_tables           - true if the action and reduce-goto tables are
+			     also emitted in row-displaced form.
+   table_resource          - true if the tables are written to a resource
+			     file rather than into the parser class.
    not_reduced             - count of number of productions that never reduce.
    unused_term             - count of unused terminal symbols.
    unused_non_term         - count of unused non terminal symbols.
+   *_size                  - sizes of the tables emitted, in shorts (0 for
+			     a table that was not emitted).
    *_time                  - a series of symbols indicating how long various
 			     sub-parts of code generation took (used to produce
 			     optional time reports in main).
@@ -172,6 +181,27 @@ public class emit {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
+  /** Do we also emit the tables in row-displaced form, for direct indexing? */
+  public static boolean direct_tables = false;
+
+  /** Most times the size of the searched form of a table that its 
+   *  row-displaced form may take; a table that packs worse is only 
+   *  searched. */
+  public static final int direct_table_max_growth = 2;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Do we write the tables to a resource file rather than into strings? */
+  public static boolean table_resource = false;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** The tables of the parser being emitted, as {field name, comment,
+   *  short[][]} triples, in the order they are written. */
+  protected static Stack shared_tables = new Stack();
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** Count of the number on non-reduced productions found. */
   public static int not_reduced = 0;
 
@@ -187,6 +217,22 @@ public class emit {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
+  /* Table sizes (in shorts) reported in the summary by main. */
+
+  /** Size of the action table. */
+  public static int action_table_size      = 0;
+
+  /** Size of the reduce-goto table. */
+  public static int reduce_table_size      = 0;
+
+  /** Size of the row-displaced action table. */
+  public static int direct_action_size     = 0;
+
+  /** Size of the row-displaced reduce-goto table. */
+  public static int direct_reduce_size     = 0;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /* Timing values used to produce timing report in main.*/
 
   /** Time to produce symbol constant class. */
@@ -212,6 +258,7 @@ public class emit {
   protected static boolean _locations;
   protected static boolean _xmlactions;
   protected static boolean _genericlabels;
+  protected static boolean _xmlstream;
 
   /** whether or not to emit code for left and right values */
   public static boolean lr_values() {return _lr_values;}
@@ -224,10 +271,17 @@ public class emit {
  	_locations=true; 
  	_lr_values=true;
   }
+  /** whether the XML parse tree is written as it is parsed (implies
+      xmlactions) */
+  public static boolean xmlstream() { return _xmlstream; }
+  protected static void set_xmlstream(boolean b) { _xmlstream = b;
+ 	if (b) set_xmlactions(true);
+  }
   //Hm Added clear  to clear all static fields
   public static void clear () {
 	  _genericlabels = false;
 	  _xmlactions = false;
+	  _xmlstream = false;
       _locations = false; 
       _lr_values = true;
       action_code = null;
@@ -243,6 +297,11 @@ public class emit {
       symbol_const_class_name = "sym";
       unused_non_term = 0;
       unused_term = 0;
+      direct_tables = false;
+      table_resource = false;
+      shared_tables = new Stack();
+      action_table_size = reduce_table_size = 0;
+      direct_action_size = direct_reduce_size = 0;
   }
 
   /*-----------------------------------------------------------*/
@@ -256,6 +315,15 @@ public class emit {
     return prefix + parser_class_name + "$" + str;
   }
 
+  /** Build an expression for the Symbol offset places below the top of
+   *  the parse stack, as seen from the generated action code.
+   * @param offset distance from the top of the stack (0 for the top).
+   */
+  protected static String stack_elem(int offset) {
+    return pre("stack") + ((offset==0) ? ".top_symbol()" :
+			   (".symbol_at(" + pre("top") + "-" + offset + ")"));
+  }
+
    /**
     * TUM changes; proposed by Henning Niss 20050628 
     * Build a string with the specified type arguments,
@@ -402,34 +470,19 @@ public class emit {
       out.println("  " + pre("actions") + "("+parser_class_name+typeArgument()+" parser) {");
       out.println("    this.parser = parser;");
       out.println("  }");
-
-      out.println();
-      for (int instancecounter = 0; instancecounter <= production.number()/UPPERLIMIT; instancecounter++) {
-      out.println("  /** Method "+instancecounter+" with the actual generated action code for actions "+(instancecounter*UPPERLIMIT)+" to "+((instancecounter+1)*UPPERLIMIT) +". */");
-      out.println("  public final java_cup.runtime.Symbol " + 
-		     pre("do_action_part")+ String.format("%08d",new Integer(instancecounter)) +"(");
-      out.println("    int                        " + pre("act_num,"));
-      out.println("    java_cup.runtime.lr_parser " + pre("parser,"));
-      out.println("    java.util.Stack            " + pre("stack,"));
-      out.println("    int                        " + pre("top)"));
-      out.println("    throws java.lang.Exception");
-      out.println("    {");
-      out.println("      /* Symbol object for return from actions */");
-      out.println("      java_cup.runtime.Symbol " + pre("result") + ";");
       out.println();
-      out.println("      /* select the action based on the action number */");
-      out.println("      switch (" + pre("act_num") + ")");
-      out.println("        {");
-      // START Switch
-      /* emit action code for each production as a separate case */
-      int proditeration = instancecounter*UPPERLIMIT;
-      prod=production.find(proditeration);
-      for ( ;proditeration<Math.min((instancecounter+1)*UPPERLIMIT,production.number());prod=(production)production.find(++proditeration) )
+
+      /* emit the action code of each production as a method of its own, 
+	 so that each can be compiled (and inlined) on its own */
+      for (int proditeration = 0; proditeration < production.number(); proditeration++)
 	{
-	  /* case label */
-          out.println("          /*. . . . . . . . . . . . . . . . . . . .*/");
-          out.println("          case " + prod.index() + ": // " + 
-					  prod.to_simple_string());
+	  prod = production.find(proditeration);
+	  emit_action_head(out, pre("do_action_prod") + prod.index(),
+			   "Action code for production " + prod.index() + ": " +
+			   prod.to_simple_string());
+	  out.println("      /* Symbol object for return from the action */");
+	  out.println("      java_cup.runtime.Symbol " + pre("result") + ";");
+	  out.println();
 
 	  /* give them their own block to work in */
 	  out.println("            {");
@@ -443,10 +496,8 @@ public class emit {
               int lastResult = ((action_production)prod).getIndexOfIntermediateResult();
               if (lastResult!=-1) {
                   result =  "(" + prod.lhs().the_symbol().stack_type() + ") " +
-                      "((java_cup.runtime.Symbol) " + emit.pre("stack") + 
                       // TUM 20050917
-                      ((lastResult==1)?".peek()":(".elementAt(" + emit.pre("top") + "-" + (lastResult-1) + ")"))+
-                      ").value";
+                      emit.stack_elem(lastResult-1) + ".value";
               }
           }
 
@@ -485,10 +536,8 @@ public class emit {
 	    // store the intermediate result into RESULT
             out.println("                " + "RESULT = " +
 	      "(" + prod.lhs().the_symbol().stack_type() + ") " +
-	      "((java_cup.runtime.Symbol) " + emit.pre("stack") + 
 			// TUM 20050917
-			((index==0)?".peek()":(".elementAt(" + emit.pre("top") + "-" + index + ")"))+
-			").value;");
+			emit.stack_elem(index) + ".value;");
             break;
 	  }
 
@@ -508,21 +557,14 @@ public class emit {
 	    String leftstring, rightstring;
 	    // TUM 20050917
             //int roffset = 0;
-	    rightstring = "((java_cup.runtime.Symbol)" + emit.pre("stack") + 
-		// TUM 20050917
-		//".elementAt(" + emit.pre("top") + "-" + roffset + "))"+
-		".peek()"+
-                // TUM 20060327 removed .right
-		")"; 	  
+	    // TUM 20060327 removed .right
+	    rightstring = emit.stack_elem(0);
 	    if (prod.rhs_length() == 0) 
 	      leftstring = rightstring;
 	    else {
 	      loffset = prod.rhs_length() - 1;
-	      leftstring = "((java_cup.runtime.Symbol)" + emit.pre("stack") + 
-		  // TUM 20050917
-		  ((loffset==0)?(".peek()"):(".elementAt(" + emit.pre("top") + "-" + loffset + ")")) +
-                  // TUM 20060327 removed .left
-		  ")";
+	      // TUM 20060327 removed .left
+	      leftstring = emit.stack_elem(loffset);
 	    }
 	    out.println("              " + pre("result") + " = parser.getSymbolFactory().newSymbol(" + 
                         "\""+ 	prod.lhs().the_symbol().name() +"\","+ 
@@ -537,20 +579,93 @@ public class emit {
 	  
 	  /* end of their block */
 	  out.println("            }");
-
 	  /* if this was the start production, do action for accept */
 	  if (prod == start_prod)
 	    {
-	      out.println("          /* ACCEPT */");
-	      out.println("          " + pre("parser") + ".done_parsing();");
+	      out.println("      /* ACCEPT */");
+	      out.println("      " + pre("parser") + ".done_parsing();");
 	    }
 
 	  /* code to return lhs symbol */
-	  out.println("          return " + pre("result") + ";");
+	  out.println("      return " + pre("result") + ";");
+	  out.println("    }");
 	  out.println();
 	}
 
-      // END Switch
+      /* and the methods selecting them by the action number */
+      emit_action_dispatch(out);
+
+      /* end of class */
+      out.println("}");
+      out.println();
+
+      action_code_time = System.currentTimeMillis() - start_time;
+    }
+
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Emit the head of a method of the action class, taking the arguments 
+   *  of do_action (the generated action code refers to them by name).
+   * @param out     stream to produce output on.
+   * @param name    name of the method.
+   * @param comment doc comment for the method.
+   */
+  protected static void emit_action_head(PrintWriter out, String name, String comment)
+    {
+      out.println("  /** " + comment + " */");
+      out.println("  public final java_cup.runtime.Symbol " + name + "(");
+      out.println("    int                        " + pre("act_num,"));
+      out.println("    java_cup.runtime.lr_parser " + pre("parser,"));
+      out.println("    java_cup.runtime.SymbolStack " + pre("stack,"));
+      out.println("    int                        " + pre("top)"));
+      out.println("    throws java.lang.Exception");
+      out.println("    {");
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Emit a call, with the arguments of do_action, returning its result. 
+   * @param out    stream to produce output on.
+   * @param indent indentation of the return statement.
+   * @param name   name of the method called.
+   */
+  protected static void emit_action_call(PrintWriter out, String indent, String name)
+    {
+      out.println(indent + "return " + name + "(");
+      out.println(indent + "                 " + pre("act_num,"));
+      out.println(indent + "                 " + pre("parser,"));
+      out.println(indent + "                 " + pre("stack,"));
+      out.println(indent + "                 " + pre("top);"));
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Emit do_action, which selects the action method of a production by 
+   *  its number.  The selection is split over several methods, each with a 
+   *  switch over at most UPPERLIMIT productions, to keep every method small
+   *  enough for the JIT compiler.
+   * @param out stream to produce output on.
+   */
+  protected static void emit_action_dispatch(PrintWriter out)
+    throws internal_error
+    {
+      production prod;
+
+      for (int instancecounter = 0; instancecounter <= production.number()/UPPERLIMIT; instancecounter++) {
+      emit_action_head(out, 
+		       pre("do_action_part")+ String.format("%08d",new Integer(instancecounter)),
+		       "Method "+instancecounter+" selecting the action code for actions "+(instancecounter*UPPERLIMIT)+" to "+((instancecounter+1)*UPPERLIMIT) +".");
+      out.println("      /* select the action based on the action number */");
+      out.println("      switch (" + pre("act_num") + ")");
+      out.println("        {");
+      for (int proditeration = instancecounter*UPPERLIMIT; proditeration<Math.min((instancecounter+1)*UPPERLIMIT,production.number()); proditeration++)
+	{
+	  prod = production.find(proditeration);
+          out.println("          case " + prod.index() + ": // " + 
+					  prod.to_simple_string());
+	  emit_action_call(out, "            ", pre("do_action_prod") + prod.index());
+	}
       out.println("          /* . . . . . .*/");
       out.println("          default:");
       out.println("            throw new Exception(");
@@ -559,33 +674,17 @@ public class emit {
       out.println();
       out.println("        }");
       out.println("    } /* end of method */");
+      out.println();
       }
 
       /* action method head */
-      out.println();
-      out.println("  /** Method splitting the generated action code into several parts. */");
-      out.println("  public final java_cup.runtime.Symbol " + 
-		     pre("do_action") + "(");
-      out.println("    int                        " + pre("act_num,"));
-      out.println("    java_cup.runtime.lr_parser " + pre("parser,"));
-      out.println("    java.util.Stack            " + pre("stack,"));
-      out.println("    int                        " + pre("top)"));
-      out.println("    throws java.lang.Exception");
-      out.println("    {");
+      emit_action_head(out, pre("do_action"), 
+		       "Method splitting the generated action code into several parts.");
 
       if (production.number()<UPPERLIMIT) { // Make it simple for the optimizer to inline!
-	  out.println("              return " + pre("do_action_part")+ String.format("%08d",new Integer(0))+"(");
-	  out.println("                               " + pre("act_num,"));
-	  out.println("                               " + pre("parser,"));
-	  out.println("                               " + pre("stack,"));
-	  out.println("                               " + pre("top);"));
+	  emit_action_call(out, "      ", 
+			   pre("do_action_part")+ String.format("%08d",new Integer(0)));
 	  out.println("    }");
-
-	  /* end of class */
-	  out.println("}");
-	  out.println();
-
-	  action_code_time = System.currentTimeMillis() - start_time;
 	  return;
       }
 
@@ -594,16 +693,12 @@ public class emit {
       out.println("      switch (" + pre("act_num") + "/"+UPPERLIMIT+ ")");
       out.println("        {");
 
-      /* emit action code for each production as a separate case */
       for (int instancecounter = 0; instancecounter <= production.number()/UPPERLIMIT; instancecounter++) {
 	  /* case label */
           out.println("          /*. . . . . . . . "+(instancecounter*UPPERLIMIT)+" < #action < "+((instancecounter+1)*UPPERLIMIT)+". . . . . . . . . . . .*/");
           out.println("          case " + instancecounter + ": ");
-	  out.println("              return " + pre("do_action_part")+ String.format("%08d",new Integer(instancecounter))+"(");
-	  out.println("                               " + pre("act_num,"));
-	  out.println("                               " + pre("parser,"));
-	  out.println("                               " + pre("stack,"));
-	  out.println("                               " + pre("top);"));
+	  emit_action_call(out, "              ", 
+			   pre("do_action_part")+ String.format("%08d",new Integer(instancecounter)));
       }
 
       out.println("          /* . . . no valid action number: . . .*/");
@@ -614,12 +709,6 @@ public class emit {
 
       /* end of method */
       out.println("    }");
-
-      /* end of class */
-      out.println("}");
-      out.println();
-
-      action_code_time = System.currentTimeMillis() - start_time;
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -651,19 +740,9 @@ public class emit {
 	  prod_table[i][0] = (short) prod.lhs().the_symbol().index();
 	  prod_table[i][1] = (short) prod.rhs_length();
 	}
-      /* do the top of the table */
-      out.println();
-      out.println("  /** Production table. */");
-      out.println("  protected static final short _production_table[][] = ");
-      out.print  ("    unpackFromStrings(");
-      do_table_as_string(out, prod_table);
-      out.println(");");
-
       /* do the public accessor method */
-      out.println();
-      out.println("  /** Access to production table. */");
-      out.println("  public short[][] production_table() " + 
-						 "{return _production_table;}");
+      do_table_accessor(out, "_production_table", "Production table.",
+			"production_table", "production", prod_table);
 
       production_table_time = System.currentTimeMillis() - start_time;
     }
@@ -758,18 +837,14 @@ public class emit {
 	    action_table[i][nentries++] = 0;
 	}
 
-      /* finish off the init of the table */
-      out.println();
-      out.println("  /** Parse-action table. */");
-      out.println("  protected static final short[][] _action_table = "); 
-      out.print  ("    unpackFromStrings(");
-      do_table_as_string(out, action_table);
-      out.println(");");
-
       /* do the public accessor method */
-      out.println();
-      out.println("  /** Access to parse-action table. */");
-      out.println("  public short[][] action_table() {return _action_table;}");
+      do_table_accessor(out, "_action_table", "Parse-action table.",
+			"action_table", "parse-action", action_table);
+
+      action_table_size = java_cup.runtime.RowDisplacementTable.size(action_table);
+      if (direct_tables)
+	direct_action_size = do_direct_table(out, "action", "parse-action",
+					     action_table);
 
       action_table_time = System.currentTimeMillis() - start_time;
     }
@@ -820,21 +895,186 @@ public class emit {
 	  reduce_goto_table[i][nentries++] = -1;
 	}
 
-      /* emit the table. */
+      /* do the public accessor method */
+      do_table_accessor(out, "_reduce_table", 
+			"<code>reduce_goto</code> table.", "reduce_table",
+			"<code>reduce_goto</code>", reduce_goto_table);
+
+      reduce_table_size = java_cup.runtime.RowDisplacementTable.size(reduce_goto_table);
+      if (direct_tables)
+	{
+	  direct_reduce_size = do_direct_table(out, "reduce", "reduce-goto",
+					       reduce_goto_table);
+	}
       out.println();
-      out.println("  /** <code>reduce_goto</code> table. */");
-      out.println("  protected static final short[][] _reduce_table = "); 
-      out.print  ("    unpackFromStrings(");
-      do_table_as_string(out, reduce_goto_table);
-      out.println(");");
+
+      goto_table_time = System.currentTimeMillis() - start_time;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Emit a table, given in the row form of the action and reduce-goto
+   *  tables, in row-displaced form as well, with its accessor.  Returns
+   *  the size of the table emitted, or 0 if it could not be packed, or
+   *  only into more than direct_table_max_growth times the size of the
+   *  searched table; the parser then searches that table as usual.
+   * @param out   stream to produce output on.
+   * @param name  name of the table in the field and accessor names.
+   * @param desc  description of the table for comments and warnings.
+   * @param table the table to pack.
+   */
+  protected static int do_direct_table(
+    PrintWriter out,
+    String      name,
+    String      desc,
+    short[][]   table)
+    {
+      short[][] packed = java_cup.runtime.RowDisplacementTable.pack(table);
+      if (packed == null)
+	{
+	  ErrorManager.getManager().emit_warning("The " + desc + 
+	    " table is too large for -direct_tables; it will be searched");
+	  return 0;
+	}
+      int searched = java_cup.runtime.RowDisplacementTable.size(table);
+      int size = java_cup.runtime.RowDisplacementTable.size(packed);
+      if (size > direct_table_max_growth * searched)
+	{
+	  ErrorManager.getManager().emit_warning("The " + desc + 
+	    " table packs into " + size + " shorts, more than " +
+	    direct_table_max_growth + " times its " + searched + 
+	    " searched; it will be searched");
+	  return 0;
+	}
 
       /* do the public accessor method */
+      do_table_accessor(out, "_direct_" + name + "_table",
+			desc + " table in row-displaced form.",
+			"direct_" + name + "_table", "row-displaced " + desc,
+			packed);
+
+      return size;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Emit the public accessor for a table, and keep the table to be 
+   *  emitted later by emit_shared_tables().
+   * @param out      stream to produce output on.
+   * @param field    name of the field holding the table.
+   * @param comment  doc comment for the field.
+   * @param accessor name of the accessor method.
+   * @param desc     description of the table for the accessor comment.
+   * @param table    the table.
+   */
+  protected static void do_table_accessor(
+    PrintWriter out,
+    String      field,
+    String      comment,
+    String      accessor,
+    String      desc,
+    short[][]   table)
+    {
+      shared_tables.push(new Object[] {field, comment, table});
+
       out.println();
-      out.println("  /** Access to <code>reduce_goto</code> table. */");
-      out.println("  public short[][] reduce_table() {return _reduce_table;}");
+      out.println("  /** Access to " + desc + " table. */");
+      out.println("  public short[][] " + accessor + "() {return " + 
+		  pre("tables") + "." + field + ";}");
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Emit the class holding the tables kept by do_table_accessor().  The
+   *  tables are decoded when the class is initialized, which the JVM does
+   *  once, on first use of a table, whatever the number of parser
+   *  instances or threads; they are read either from strings in the class
+   *  or, with table_resource, from the resource written by 
+   *  write_table_resource().
+   * @param out stream to produce output on.
+   */
+  protected static void emit_shared_tables(PrintWriter out)
+    {
+      out.println("  /** Parse tables, decoded when first used and shared by");
+      out.println("   *  all instances of the parser. */");
+      out.println("  protected static class " + pre("tables") + " {");
+      if (table_resource)
+	{
+	  out.println("    /** The tables, read from " + table_resource_path() +
+		      ". */");
+	  out.println("    private static final short[][][] all = ");
+	  out.println("      unpackFromResource(" + parser_class_name + 
+		      ".class, \"" + table_resource_path() + "\");");
+	}
+      for (int i = 0; i < shared_tables.size(); i++)
+	{
+	  Object[] t = (Object[]) shared_tables.elementAt(i);
+	  out.println();
+	  out.println("    /** " + t[1] + " */");
+	  out.println("    protected static final short[][] " + t[0] + " = ");
+	  if (table_resource)
+	    out.println("      all[" + i + "];");
+	  else
+	    {
+	      out.print  ("      unpackFromStrings(");
+	      do_table_as_string(out, (short[][]) t[2]);
+	      out.println(");");
+	    }
+	}
+      out.println("  }");
       out.println();
+    }
 
-      goto_table_time = System.currentTimeMillis() - start_time;
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Name of the resource file the tables are written to, next to the
+   *  generated source files.
+   */
+  public static String table_resource_name()
+    {
+      return parser_class_name + ".tables";
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Absolute name under which the parser loads its tables: the resource
+   *  file in the directory of the parser's package, e.g. 
+   *  "/pkg/path/parser.tables", so it must go on the class path next to 
+   *  the parser's class file.
+   */
+  public static String table_resource_path()
+    {
+      String dir = (package_name == null) ? "" :
+	package_name.replace('.', '/') + "/";
+      return "/" + dir + table_resource_name();
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Write the tables kept by do_table_accessor() in the binary form read 
+   *  by lr_parser.unpackFromResource(): the number of tables, then for 
+   *  each table its number of rows, and for each row its length followed
+   *  by its entries, all big-endian.
+   * @param out stream to write the tables on.
+   */
+  public static void write_table_resource(java.io.OutputStream out)
+    throws java.io.IOException
+    {
+      java.io.DataOutputStream data = new java.io.DataOutputStream(
+	new java.io.BufferedOutputStream(out));
+      data.writeInt(shared_tables.size());
+      for (int i = 0; i < shared_tables.size(); i++)
+	{
+	  short[][] table = (short[][]) ((Object[]) shared_tables.elementAt(i))[2];
+	  data.writeInt(table.length);
+	  for (int r = 0; r < table.length; r++)
+	    {
+	      data.writeInt(table[r].length);
+	      for (int j = 0; j < table[r].length; j++)
+		data.writeShort(table[r][j]);
+	    }
+	}
+      data.flush();
     }
 
   // print a string array encoding the given short[][] array.
@@ -960,6 +1200,7 @@ public class emit {
       emit_production_table(out);
       do_action_table(out, action_table, compact_reduces);
       do_reduce_table(out, reduce_table);
+      emit_shared_tables(out);
 
       /* instance of the action encapsulation class */
       out.println("  /** Instance of action encapsulation class. */");
@@ -975,6 +1216,32 @@ public class emit {
       out.println("    }");
       out.println();
 
+      /* writer of the parse tree, when it is written as it is parsed */
+      if (_xmlstream)
+	{
+	  out.println("  /** Writer of the XML parse tree, if any. */");
+	  out.println("  protected java_cup.runtime.XMLElementWriter xml_writer;");
+	  out.println();
+	  out.println("  /** Write the parse tree with writer as the input is parsed. */");
+	  out.println("  public void set_xml_writer(java_cup.runtime.XMLElementWriter writer)");
+	  out.println("    {");
+	  out.println("      xml_writer = writer;");
+	  out.println("    }");
+	  out.println();
+	  out.println("  /** Writer of the XML parse tree, if any. */");
+	  out.println("  public java_cup.runtime.XMLElementWriter xml_writer()");
+	  out.println("    {");
+	  out.println("      return xml_writer;");
+	  out.println("    }");
+	  out.println();
+	  out.println("  /** Tell the writer of the elements error recovery drops. */");
+	  out.println("  protected void recovery_pop(java_cup.runtime.Symbol sym)");
+	  out.println("    {");
+	  out.println("      xml_writer.discard(sym.value);");
+	  out.println("    }");
+	  out.println();
+	}
+
       /* access to action code */
       out.println("  /** Invoke a user supplied parse action. */");
       out.println("  public java_cup.runtime.Symbol do_action(");
@@ -986,7 +1253,7 @@ public class emit {
       out.println("  {");
       out.println("    /* call code in generated class */");
       out.println("    return action_obj." + pre("do_action(") +
-                  "act_num, parser, stack, top);");
+                  "act_num, parser, java_cup.runtime.SymbolStack.of(stack), top);");
       out.println("  }");
       out.println("");
 
@@ -1012,13 +1279,22 @@ public class emit {
       out.println();
 
       /* user supplied code for user_init() */
-      if (init_code != null)
+      if (init_code != null || _xmlstream)
 	{
           out.println();
 	  out.println("  /** User initialization code. */");
 	  out.println("  public void user_init() throws java.lang.Exception");
 	  out.println("    {");
-	  out.println(init_code);
+	  if (init_code != null)
+	    out.println(init_code);
+	  /* the actions write through xml_writer from the first reduction,
+	     so it must be set by now (perhaps by the init code) */
+	  if (_xmlstream)
+	    {
+	      out.println("      if (xml_writer == null)");
+	      out.println("        throw new IllegalStateException(" +
+			  "\"No XMLElementWriter: call set_xml_writer() before parsing\");");
+	    }
 	  out.println("    }");
 	}
 
@@ -1087,34 +1363,19 @@ public class emit {
       out.println("  " + pre("actions") + "("+parser_class_name+typeArgument()+" parser) {");
       out.println("    this.parser = parser;");
       out.println("  }");
-
       out.println();
-      for (int instancecounter = 0; instancecounter <= production.number()/UPPERLIMIT; instancecounter++) {
-      out.println("  /** Method "+instancecounter+" with the actual generated action code for actions "+(instancecounter*UPPERLIMIT)+" to "+((instancecounter+1)*UPPERLIMIT) +". */");
-      out.println("  public final java_cup.runtime.Symbol " + 
-		     pre("do_action_part")+ String.format("%08d",new Integer(instancecounter)) +"(");
-      out.println("    int                        " + pre("act_num,"));
-      out.println("    java_cup.runtime.lr_parser " + pre("parser,"));
-      out.println("    java.util.Stack            " + pre("stack,"));
-      out.println("    int                        " + pre("top)"));
-      out.println("    throws java.lang.Exception");
-      out.println("    {");
-      out.println("      /* Symbol object for return from actions */");
-      out.println("      java_cup.runtime.Symbol " + pre("result") + ";");
-      out.println();
-      out.println("      /* select the action based on the action number */");
-      out.println("      switch (" + pre("act_num") + ")");
-      out.println("        {");
-      // START Switch
-      /* emit action code for each production as a separate case */
-      int proditeration = instancecounter*UPPERLIMIT;
-      prod=production.find(proditeration);
-      for ( ;proditeration<Math.min((instancecounter+1)*UPPERLIMIT,production.number());prod=(production)production.find(++proditeration) )
+
+      /* emit the action code of each production as a method of its own, 
+	 so that each can be compiled (and inlined) on its own */
+      for (int proditeration = 0; proditeration < production.number(); proditeration++)
 	{
-	  /* case label */
-          out.println("          /*. . . . . . . . . . . . . . . . . . . .*/");
-          out.println("          case " + prod.index() + ": // " + 
-					  prod.to_simple_string());
+	  prod = production.find(proditeration);
+	  emit_action_head(out, pre("do_action_prod") + prod.index(),
+			   "Action code for production " + prod.index() + ": " +
+			   prod.to_simple_string());
+	  out.println("      /* Symbol object for return from the action */");
+	  out.println("      java_cup.runtime.Symbol " + pre("result") + ";");
+	  out.println();
 
 	  /* give them their own block to work in */
 	  out.println("            {");
@@ -1138,6 +1399,22 @@ public class emit {
         	  else 
         		  nested+=",new XMLElement.Terminal("+label+"xleft,\""+label+"\","+label+","+label+"xright)";
           }
+          if (_xmlstream) {
+        	  /* the elements of all nonterminals are written, labelled or not,
+        	     so each one needs its child element */
+        	  nested="";
+        	  for (int rhsi=0;rhsi<prod.rhs_length();rhsi++){
+        		  if (!(prod.rhs(rhsi) instanceof symbol_part)) continue;
+        		  symbol_part sym  = (symbol_part)prod.rhs(rhsi);
+        		  String label = sym.label();
+        		  if (sym.the_symbol().is_non_term())
+        			  nested+=",java_cup.runtime.XMLElementWriter.WRITTEN";
+        		  else if (label!=null || _genericlabels) {
+        			  if (label==null) label = sym.the_symbol().name()+rhsi;
+        			  nested+=",new XMLElement.Terminal("+label+"xleft,\""+label+"\","+label+","+label+"xright)";
+        		  }
+        	  }
+          }
           
           if (prod.action() != null && prod.action().code_string() != null &&
                   !prod.action().equals(""))
@@ -1149,9 +1426,18 @@ public class emit {
         	  if (production.find(i).lhs().equals(prod.lhs())) variant++;
           
           String lhsname =prod.lhs().the_symbol().name().replace('$','_'); 
-          out.println("                RESULT = new XMLElement.NonTerminal(\""+
+          if (!_xmlstream)
+            out.println("                RESULT = new XMLElement.NonTerminal(\""+
         		  lhsname+"\","+
         		  variant+nested+");"); 
+          else {
+            String ends = "null, null";
+            if (prod.rhs_length() != 0)
+              ends = emit.stack_elem(prod.rhs_length() - 1) + ", " + emit.stack_elem(0);
+            out.println("                RESULT = parser.xml_writer.nonTerminal(\""+
+        		  lhsname+"\","+
+        		  variant+","+ends+nested+");"); 
+          }
           
           
          /* Create the code that assigns the left and right values of
@@ -1159,13 +1445,12 @@ public class emit {
 	  if (emit.lr_values()) {	    
 	    int loffset;
 	    String leftstring, rightstring;
-	    rightstring = "((java_cup.runtime.Symbol)" + emit.pre("stack") + ".peek()"+")"; 	  
+	    rightstring = emit.stack_elem(0);
 	    if (prod.rhs_length() == 0) 
 	      leftstring = rightstring;
 	    else {
 	      loffset = prod.rhs_length() - 1;
-	      leftstring = "((java_cup.runtime.Symbol)" + emit.pre("stack") + 
-		  ((loffset==0)?(".peek()"):(".elementAt(" + emit.pre("top") + "-" + loffset + ")")) +")";
+	      leftstring = emit.stack_elem(loffset);
 	    }
 	    out.println("              " + pre("result") + " = parser.getSymbolFactory().newSymbol(" + 
                         "\""+ 	prod.lhs().the_symbol().name() +"\","+ 
@@ -1177,83 +1462,21 @@ public class emit {
 	  
 	  /* end of their block */
 	  out.println("            }");
-
 	  /* if this was the start production, do action for accept */
 	  if (prod == start_prod)
 	    {
-	      out.println("          /* ACCEPT */");
-	      out.println("          " + pre("parser") + ".done_parsing();");
+	      out.println("      /* ACCEPT */");
+	      out.println("      " + pre("parser") + ".done_parsing();");
 	    }
 
 	  /* code to return lhs symbol */
-	  out.println("          return " + pre("result") + ";");
-	  out.println();
-	}
-
-      // END Switch
-      out.println("          /* . . . . . .*/");
-      out.println("          default:");
-      out.println("            throw new Exception(");
-      out.println("               \"Invalid action number \"+"+pre("act_num")+"+\"found in " +
-				  "internal parse table\");");
-      out.println();
-      out.println("        }");
-      out.println("    } /* end of method */");
-      }
-
-      /* action method head */
-      out.println();
-      out.println("  /** Method splitting the generated action code into several parts. */");
-      out.println("  public final java_cup.runtime.Symbol " + 
-		     pre("do_action") + "(");
-      out.println("    int                        " + pre("act_num,"));
-      out.println("    java_cup.runtime.lr_parser " + pre("parser,"));
-      out.println("    java.util.Stack            " + pre("stack,"));
-      out.println("    int                        " + pre("top)"));
-      out.println("    throws java.lang.Exception");
-      out.println("    {");
-
-      if (production.number()<UPPERLIMIT) { // Make it simple for the optimizer to inline!
-	  out.println("              return " + pre("do_action_part")+ String.format("%08d",new Integer(0))+"(");
-	  out.println("                               " + pre("act_num,"));
-	  out.println("                               " + pre("parser,"));
-	  out.println("                               " + pre("stack,"));
-	  out.println("                               " + pre("top);"));
+	  out.println("      return " + pre("result") + ";");
 	  out.println("    }");
-
-	  /* end of class */
-	  out.println("}");
 	  out.println();
+	}
 
-	  action_code_time = System.currentTimeMillis() - start_time;
-	  return;
-      }
-
-      /* switch top */
-      out.println("      /* select the action handler based on the action number */");
-      out.println("      switch (" + pre("act_num") + "/"+UPPERLIMIT+ ")");
-      out.println("        {");
-
-      /* emit action code for each production as a separate case */
-      for (int instancecounter = 0; instancecounter <= production.number()/UPPERLIMIT; instancecounter++) {
-	  /* case label */
-          out.println("          /*. . . . . . . . "+(instancecounter*UPPERLIMIT)+" < #action < "+((instancecounter+1)*UPPERLIMIT)+". . . . . . . . . . . .*/");
-          out.println("          case " + instancecounter + ": ");
-	  out.println("              return " + pre("do_action_part")+ String.format("%08d",new Integer(instancecounter))+"(");
-	  out.println("                               " + pre("act_num,"));
-	  out.println("                               " + pre("parser,"));
-	  out.println("                               " + pre("stack,"));
-	  out.println("                               " + pre("top);"));
-      }
-
-      out.println("          /* . . . no valid action number: . . .*/");
-      out.println("          default:");
-      out.println("            throw new Exception(\"Invalid action number found in internal parse table\");");
-      out.println();
-      out.println("        }      /* end of switch */");
-
-      /* end of method */
-      out.println("    }");
+      /* and the methods selecting them by the action number */
+      emit_action_dispatch(out);
 
       /* end of class */
       out.println("}");
@@ -1263,5 +1486,6 @@ public class emit {
     }
 
 
+
     /*-----------------------------------------------------------*/
 }
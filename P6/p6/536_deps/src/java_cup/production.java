@@ -397,35 +397,21 @@ public class production {
       /* Put in the left/right value labels */
       if (emit.lr_values()){
 	if (!emit.locations())
-        ret = "\t\tint " + labelname + "left = ((java_cup.runtime.Symbol)" + 
-	  emit.pre("stack") + 
- 	    // TUM 20050917
-	    ((offset==0)?".peek()":(".elementAt(" + emit.pre("top") + "-" + offset + ")"))+
-	    ").left;\n" +
-	  "\t\tint " + labelname + "right = ((java_cup.runtime.Symbol)" + 
-	  emit.pre("stack") +
- 	    // TUM 20050917
-	    ((offset==0)?".peek()":(".elementAt(" + emit.pre("top") + "-" + offset + ")"))+
-	    ").right;\n";
+        ret = "\t\tint " + labelname + "left = " + 
+	  // TUM 20050917
+	  emit.stack_elem(offset) + ".left;\n" +
+	  "\t\tint " + labelname + "right = " + 
+	  emit.stack_elem(offset) + ".right;\n";
 	else
         ret = "\t\tLocation " + labelname + "xleft = ((java_cup.runtime.ComplexSymbolFactory.ComplexSymbol)" + 
-	  emit.pre("stack") + 
- 	    // TUM 20050917
-	    ((offset==0)?".peek()":(".elementAt(" + emit.pre("top") + "-" + offset + ")"))+
-	    ").xleft;\n" +
+	  emit.stack_elem(offset) + ").xleft;\n" +
 	  "\t\tLocation " + labelname + "xright = ((java_cup.runtime.ComplexSymbolFactory.ComplexSymbol)" + 
-	  emit.pre("stack") +
- 	    // TUM 20050917
-	    ((offset==0)?".peek()":(".elementAt(" + emit.pre("top") + "-" + offset + ")"))+
-	    ").xright;\n";}
+	  emit.stack_elem(offset) + ").xright;\n";}
       else ret = "";
 
       /* otherwise, just declare label. */
 	return ret + "\t\t" + stack_type + " " + labelname + " = (" + stack_type + 
-	  ")((" + "java_cup.runtime.Symbol) " + emit.pre("stack") + 
-	    // TUM 20050917
-	    ((offset==0)?".peek()":(".elementAt(" + emit.pre("top") + "-" + offset + ")"))+
-	    ").value;\n";
+	  ")" + emit.stack_elem(offset) + ".value;\n";
 
     }
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -0,0 +1,172 @@
+package java_cup.runtime;
+
+/**
+ * Lightweight Implementation for SymbolFactory, for parsing large inputs.
+ *
+ * Positions are kept as packed long values (see position()) in the
+ * PackedSymbol itself, instead of the two Location objects, each with
+ * its compilation unit, that ComplexSymbolFactory attaches to a symbol;
+ * left and right hold the offsets, as with ComplexSymbols.
+ *
+ * With pooling, the factory also reuses its symbols: lr_parser hands
+ * back the symbols of each handle it pops on a reduce, after the action
+ * has run, and the factory gives them out again from newSymbol, fresh
+ * for the parser's recycling check.  This is only safe if nothing keeps
+ * a reference to a symbol once it is reduced: actions may keep the
+ * values and positions of the right hand side, but not the Symbols,
+ * and the scanner must not buffer its tokens (e.g. in a ScannerBuffer).
+ * A pooling factory is meant for one parser at a time.
+ */
+public class PackedSymbolFactory implements SymbolFactory {
+    /** Packed position for an unknown location */
+    public static final long NOWHERE = -1L;
+
+    // position layout: offset in the high 32 bits, then line and column
+    private static final int LINE_BITS = 20, COLUMN_BITS = 12;
+    private static final int MAX_LINE = (1 << LINE_BITS) - 1;
+    private static final int MAX_COLUMN = (1 << COLUMN_BITS) - 1;
+
+    private static final int POOL_SIZE = 1024;
+
+    /**
+     * PackedSymbol with its left and right positions packed in longs
+     */
+    public static class PackedSymbol extends Symbol {
+        public long xleft, xright;
+        public PackedSymbol(int id) {
+            super(id);
+            xleft = xright = NOWHERE;
+        }
+        public String toString(){
+            if (xleft==NOWHERE) return super.toString();
+            return super.toString()+" ("+line(xleft)+"/"+column(xleft)+
+                " - "+line(xright)+"/"+column(xright)+")";
+        }
+    }
+
+    private final boolean pooling;
+    private final PackedSymbol[] pool;
+    private int pooled;
+
+    /**
+     * Creates a factory that allocates a new symbol each time
+     */
+    public PackedSymbolFactory(){
+        this(false);
+    }
+    /**
+     * Creates a factory
+     * @param pooling whether symbols released by the parser are reused
+     */
+    public PackedSymbolFactory(boolean pooling){
+        this.pooling=pooling;
+        this.pool=pooling ? new PackedSymbol[POOL_SIZE] : null;
+    }
+
+    /**
+     * @return whether symbols released by the parser are reused
+     */
+    public boolean isPooling(){
+        return pooling;
+    }
+
+    // Packed positions
+    /**
+     * position
+     * packs a position; line and column saturate at 2^20-1 and 2^12-1
+     * @param line      line number
+     * @param column    column number
+     * @param offset    offset from file start
+     */
+    public static long position(int line, int column, int offset){
+        long l = Math.min(Math.max(line,0),MAX_LINE);
+        long c = Math.min(Math.max(column,0),MAX_COLUMN);
+        return ((long)offset << 32) | (l << COLUMN_BITS) | c;
+    }
+    /** @return the line of a packed position, or -1 for NOWHERE */
+    public static int line(long position){
+        if (position==NOWHERE) return -1;
+        return (int)(position >>> COLUMN_BITS) & MAX_LINE;
+    }
+    /** @return the column of a packed position, or -1 for NOWHERE */
+    public static int column(long position){
+        if (position==NOWHERE) return -1;
+        return (int)position & MAX_COLUMN;
+    }
+    /** @return the offset of a packed position, or -1 for NOWHERE */
+    public static int offset(long position){
+        return (int)(position >> 32);
+    }
+
+    // Pooling
+    /**
+     * release
+     * gives a symbol the parser is done with back to the pool; symbols
+     * from elsewhere, and any once the pool is full, are left alone
+     */
+    public void release(Symbol s){
+        if (!pooling || !(s instanceof PackedSymbol) || pooled==pool.length)
+            return;
+        s.value=null;
+        pool[pooled++]=(PackedSymbol)s;
+    }
+    private PackedSymbol obtain(int id){
+        if (pooled==0) return new PackedSymbol(id);
+        PackedSymbol s = pool[--pooled];
+        pool[pooled]=null;
+        s.sym=id;
+        s.parse_state=0;
+        s.used_by_parser=false;
+        return s;
+    }
+
+    // Factory methods
+    /**
+     * newSymbol
+     * creates a symbol with packed positions for left and right boundaries;
+     * this is used for terminals with values!
+     */
+    public Symbol newSymbol(String name, int id, long left, long right, Object value){
+        PackedSymbol s = obtain(id);
+        s.xleft=left;
+        s.xright=right;
+        s.left=offset(left);
+        s.right=offset(right);
+        s.value=value;
+        return s;
+    }
+    /**
+     * newSymbol
+     * creates a symbol with packed positions for left and right boundaries;
+     * this is used for terminals without values!
+     */
+    public Symbol newSymbol(String name, int id, long left, long right){
+        return newSymbol(name,id,left,right,null);
+    }
+    public Symbol newSymbol(String name, int id, Symbol left, Symbol right, Object value){
+        PackedSymbol s = obtain(id);
+        s.xleft = (left instanceof PackedSymbol) ? ((PackedSymbol)left).xleft : NOWHERE;
+        s.xright = (right instanceof PackedSymbol) ? ((PackedSymbol)right).xright : NOWHERE;
+        s.left=left.left;
+        s.right=right.right;
+        s.value=value;
+        return s;
+    }
+    public Symbol newSymbol(String name, int id, Symbol left, Symbol right){
+        return newSymbol(name,id,left,right,null);
+    }
+    public Symbol newSymbol(String name, int id){
+        return newSymbol(name,id,NOWHERE,NOWHERE,null);
+    }
+    public Symbol newSymbol(String name, int id, Object value){
+        return newSymbol(name,id,NOWHERE,NOWHERE,value);
+    }
+    public Symbol startSymbol(String name, int id, int state){
+        PackedSymbol s = obtain(id);
+        s.xleft=s.xright=NOWHERE;
+        s.left=s.right=-1;
+        s.value=null;
+        s.parse_state=state;
+        return s;
+    }
+}
@@ -0,0 +1,218 @@
+
+package java_cup.runtime;
+
+/** This class collects counts of what an lr_parser does as it parses:
+ *  Symbols shifted, reductions by each production, gotos into each state,
+ *  syntax errors and recoveries, and the greatest depth of the parse
+ *  stack.  It is meant to find the hot spots of a grammar on large inputs,
+ *  where the trace of debug_parse() is far too slow and too long.<p>
+ *
+ *  A parser counts only while a profile is set on it, with
+ *  lr_parser.set_profile(); the counts are kept in arrays of longs, indexed
+ *  by production and state numbers as in the tables CUP emits (and in the
+ *  output of its -dump options), and add up over all the parses made with
+ *  the profile until it is reset().
+ *
+ * @see     java_cup.runtime.lr_parser#set_profile
+ */
+public class ParseProfile {
+
+  /*-----------------------------------------------------------*/
+  /*--- Constructor(s) ----------------------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Create an empty profile; it is sized by the parser it is set on. */
+  public ParseProfile()
+    {
+      reduces = new long[0];
+      gotos   = new long[0];
+      production_tab = new short[0][];
+    }
+
+  /*-----------------------------------------------------------*/
+  /*--- (Access to) Instance Variables ------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Number of Symbols shifted, including those shifted during recovery. */
+  protected long shifts;
+
+  /** Number of reductions by each production. */
+  protected long[] reduces;
+
+  /** Number of gotos into each state, after a reduction. */
+  protected long[] gotos;
+
+  /** Number of syntax errors detected. */
+  protected long syntax_errors;
+
+  /** Number of syntax errors recovered from. */
+  protected long recoveries;
+
+  /** Greatest number of Symbols on the parse stack. */
+  protected int max_depth;
+
+  /** Number of parses started with the profile. */
+  protected int parses;
+
+  /** The production table of the parser, for the report. */
+  protected short[][] production_tab;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  public long shifts()                 { return shifts; }
+  public long reduces(int production)  { return reduces[production]; }
+  public long gotos(int state)         { return gotos[state]; }
+  public long syntax_errors()          { return syntax_errors; }
+  public long recoveries()             { return recoveries; }
+  public int  max_depth()              { return max_depth; }
+  public int  parses()                 { return parses; }
+
+  /** Total number of reductions. */
+  public long total_reduces()
+    {
+      long n = 0;
+      for (int i = 0; i < reduces.length; i++)
+	n += reduces[i];
+      return n;
+    }
+
+  /*-----------------------------------------------------------*/
+  /*--- General Methods ---------------------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Clear all the counts. */
+  public void reset()
+    {
+      shifts = syntax_errors = recoveries = 0;
+      max_depth = parses = 0;
+      java.util.Arrays.fill(reduces, 0);
+      java.util.Arrays.fill(gotos, 0);
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Called by the parser as a parse starts, to size the counts for its
+   *  tables.
+   * @param production_table the production table of the parser.
+   * @param states           the number of states of the parser.
+   */
+  public void start(short[][] production_table, int states)
+    {
+      parses++;
+      production_tab = production_table;
+      if (reduces.length < production_table.length)
+	reduces = java.util.Arrays.copyOf(reduces, production_table.length);
+      if (gotos.length < states)
+	gotos = java.util.Arrays.copyOf(gotos, states);
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Count a shift.
+   * @param depth the number of Symbols on the stack after the shift.
+   */
+  public final void shift(int depth)
+    {
+      shifts++;
+      if (depth > max_depth) max_depth = depth;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Count a reduction.
+   * @param production the production reduced by.
+   */
+  public final void reduce(int production)
+    {
+      reduces[production]++;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Count the goto that follows a reduction (which leaves the stack no
+   *  deeper than it was).
+   * @param state the state gone to.
+   */
+  public final void goto_state(int state)
+    {
+      gotos[state]++;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Count a syntax error. */
+  public final void syntax_error() { syntax_errors++; }
+
+  /** Count a successful recovery from a syntax error. */
+  public final void recovered()    { recoveries++; }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Return a report of the counts, listing the productions reduced by
+   *  and the states gone to most often.
+   * @param top how many productions and states to list.
+   */
+  public String report(int top)
+    {
+      StringBuffer sb = new StringBuffer();
+      long total = total_reduces();
+      sb.append(parses + " parses: " + shifts + " shifts, " + total +
+		" reduces, " + syntax_errors + " syntax errors (" +
+		recoveries + " recovered), max stack depth " + max_depth + "\n");
+
+      sb.append("Productions reduced by most often:\n");
+      int[] order = most_often(reduces, top);
+      for (int k = 0; k < order.length; k++)
+	{
+	  int p = order[k];
+	  sb.append("  production #" + p);
+	  if (p < production_tab.length)
+	    sb.append(" [NT=" + production_tab[p][0] + ", SZ=" +
+		      production_tab[p][1] + "]");
+	  sb.append(": " + reduces[p] + percent(reduces[p], total) + "\n");
+	}
+
+      sb.append("States gone to most often:\n");
+      order = most_often(gotos, top);
+      for (int k = 0; k < order.length; k++)
+	sb.append("  state #" + order[k] + ": " + gotos[order[k]] +
+		  percent(gotos[order[k]], total) + "\n");
+
+      return sb.toString();
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Indexes of the (at most) n greatest nonzero counts, greatest first. */
+  protected static int[] most_often(long[] counts, int n)
+    {
+      int[] best = new int[Math.max(0, Math.min(n, counts.length))];
+      int found = 0;
+      for (int i = 0; i < counts.length; i++)
+	{
+	  if (counts[i] == 0) continue;
+
+	  /* insert i among those found so far, if it makes the cut */
+	  int j = found;
+	  if (found < best.length) found++;
+	  else if (j == 0 || counts[best[j-1]] >= counts[i]) continue;
+	  else j--;
+	  while (j > 0 && counts[best[j-1]] < counts[i])
+	    {
+	      best[j] = best[j-1];
+	      j--;
+	    }
+	  best[j] = i;
+	}
+      return java.util.Arrays.copyOf(best, found);
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Format count as a percentage of total. */
+  protected static String percent(long count, long total)
+    {
+      if (total == 0) return "";
+      return " (" + (count * 1000 / total) / 10.0 + "%)";
+    }
+}
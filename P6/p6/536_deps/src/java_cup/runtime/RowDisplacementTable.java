@@ -0,0 +1,186 @@
+
+package java_cup.runtime;
+
+/** This class holds a parse table (the action table or the reduce-goto
+ *  table) in row-displaced form, so that an entry is found by indexing
+ *  rather than by searching the row as lr_parser does with the tables
+ *  returned by action_table() and reduce_table().<p>
+ *
+ *  The rows of the table are overlaid in one pair of arrays, check and
+ *  next, each row starting at its own displacement base[state] and placed
+ *  so that its entries fall on slots no other row uses.  The entry for a
+ *  state and a symbol is next[base[state]+symbol] if check at that slot
+ *  names the state; otherwise the symbol has no entry in the row and the
+ *  row default, deflt[state], applies.  A dense table is the special case
+ *  in which every row gets a base of its own, and is never smaller.<p>
+ *
+ *  CUP emits the table (with the -direct_tables option) packed by pack()
+ *  as four rows -- base, default, check, next -- in the string format of
+ *  lr_parser.unpackFromStrings().
+ *
+ * @see     java_cup.runtime.lr_parser#direct_action_table
+ * @see     java_cup.runtime.lr_parser#direct_reduce_table
+ */
+public class RowDisplacementTable {
+
+  /*-----------------------------------------------------------*/
+  /*--- Constructor(s) ----------------------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Build a table from its packed form.
+   * @param packed the rows base, default, check and next, as made by pack().
+   */
+  public RowDisplacementTable(short[][] packed)
+    {
+      base  = packed[0];
+      deflt = packed[1];
+      check = packed[2];
+      next  = packed[3];
+    }
+
+  /*-----------------------------------------------------------*/
+  /*--- (Access to) Instance Variables ------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Start of the row of each state in check and next. */
+  protected final short[] base;
+
+  /** Entry used for symbols with no entry in the row of a state. */
+  protected final short[] deflt;
+
+  /** State whose row each slot of next belongs to (-1 for none). */
+  protected final short[] check;
+
+  /** The entries of all the rows. */
+  protected final short[] next;
+
+  /*-----------------------------------------------------------*/
+  /*--- General Methods ---------------------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Build a table from its packed form, or return null if there is none.
+   * @param packed the packed table, or null.
+   */
+  public static RowDisplacementTable of(short[][] packed)
+    {
+      return packed == null ? null : new RowDisplacementTable(packed);
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Fetch an entry.
+   * @param state the state index of the entry being accessed.
+   * @param sym   the Symbol index of the entry being accessed.
+   */
+  public final short get(int state, int sym)
+    {
+      int slot = base[state] + sym;
+      if (slot < check.length && check[slot] == state)
+	return next[slot];
+      return deflt[state];
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Number of short values in the packed table. */
+  public static int size(short[][] packed)
+    {
+      int n = 0;
+      for (int i = 0; i < packed.length; i++)
+	n += packed[i].length;
+      return n;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Pack a table given as rows of index, value pairs ending with a default
+   *  entry (index -1), the form of lr_parser.action_table() and
+   *  reduce_table(), into row-displaced form.  Rows are placed largest
+   *  first, each at the lowest base where its entries hit only free slots.
+   *  Returns null if the result cannot be held in shorts.
+   * @param rows the table, one row per state (null for a row with no
+   *             entries and a default of -1).
+   */
+  public static short[][] pack(short[][] rows)
+    {
+      int nstates = rows.length;
+      if (nstates > Short.MAX_VALUE) return null;
+
+      short[] base  = new short[nstates];
+      short[] deflt = new short[nstates];
+      short[] check = new short[16];
+      short[] next  = new short[16];
+      java.util.Arrays.fill(check, (short)-1);
+      int length = 0;
+
+      /* order the states by number of entries, largest first */
+      Integer[] order = new Integer[nstates];
+      for (int s = 0; s < nstates; s++)
+	order[s] = s;
+      final short[][] r = rows;
+      java.util.Arrays.sort(order, new java.util.Comparator<Integer>() {
+	  public int compare(Integer a, Integer b) {
+	    return entries(r[b]) - entries(r[a]);
+	  }
+	});
+
+      for (int k = 0; k < nstates; k++)
+	{
+	  int s = order[k];
+	  short[] row = rows[s];
+	  deflt[s] = (row == null) ? -1 : row[row.length-1];
+	  if (entries(row) == 0)
+	    continue;
+
+	  /* find the lowest base at which the row fits */
+	  int b;
+	  for (b = 0; ; b++)
+	    {
+	      boolean fits = true;
+	      for (int i = 0; i + 1 < row.length && row[i] != -1; i += 2)
+		{
+		  int slot = b + row[i];
+		  if (slot < check.length && check[slot] != -1)
+		    {
+		      fits = false;
+		      break;
+		    }
+		}
+	      if (fits) break;
+	    }
+	  if (b > Short.MAX_VALUE) return null;
+	  base[s] = (short) b;
+
+	  /* and claim its slots */
+	  for (int i = 0; i + 1 < row.length && row[i] != -1; i += 2)
+	    {
+	      int slot = b + row[i];
+	      if (slot >= check.length)
+		{
+		  int old = check.length;
+		  int n = Math.max(2 * old, slot + 1);
+		  check = java.util.Arrays.copyOf(check, n);
+		  next  = java.util.Arrays.copyOf(next, n);
+		  java.util.Arrays.fill(check, old, n, (short)-1);
+		}
+	      check[slot] = (short) s;
+	      next[slot]  = row[i+1];
+	      length = Math.max(length, slot + 1);
+	    }
+	}
+
+      return new short[][] {
+	base, deflt,
+	java.util.Arrays.copyOf(check, length),
+	java.util.Arrays.copyOf(next, length)
+      };
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Number of index, value pairs in a row, not counting the default. */
+  protected static int entries(short[] row)
+    {
+      return (row == null) ? 0 : (row.length - 2) / 2;
+    }
+}
@@ -1,31 +1,117 @@
 package java_cup.runtime;
 
-import java.util.Collections;
-import java.util.LinkedList;
+import java.util.AbstractList;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
 
+/**
+ * Wraps a scanner and keeps the tokens it produces in an array used as
+ * a ring.  By default every token is kept; with a window, only the last
+ * window tokens are, so that memory stays constant however long the
+ * input, and each token that drops out of the window can be handed to a
+ * spill sink, e.g. to write it to disk.
+ */
 public class ScannerBuffer implements Scanner {
+	private static final int INITIAL_SIZE = 64;
+
 	private Scanner inner;
-	private List<Symbol> buffer = new LinkedList<Symbol>();
+	private Symbol[] ring;
+	private int first;	// index in ring of the oldest token kept
+	private int count;	// number of tokens kept
+	private long produced;	// number of tokens ever produced
+	private final int window;	// 0 for no limit
+	private final Consumer<Symbol> spill;
+	private final List<Symbol> view = new View();
+
 	/**
 	 * Wraps around a custom scanner and stores all so far produced tokens in a buffer
 	 * @param inner the scanner to buffer
 	 */
 	public ScannerBuffer(Scanner inner){
+		this(inner,0,null);
+	}
+	/**
+	 * Wraps around a custom scanner and stores the last window tokens
+	 * @param inner the scanner to buffer
+	 * @param window the number of tokens to keep, or 0 to keep all
+	 */
+	public ScannerBuffer(Scanner inner, int window){
+		this(inner,window,null);
+	}
+	/**
+	 * Wraps around a custom scanner and stores the last window tokens,
+	 * passing each older token to spill as it leaves the window
+	 * @param inner the scanner to buffer
+	 * @param window the number of tokens to keep, or 0 to keep all
+	 * @param spill receives the tokens dropped from the window, or null
+	 */
+	public ScannerBuffer(Scanner inner, int window, Consumer<Symbol> spill){
+		if (window<0) throw new IllegalArgumentException("negative window: "+window);
 		this.inner=inner;
+		this.window=window;
+		this.spill=spill;
+		this.ring=new Symbol[window>0 ? window : INITIAL_SIZE];
 	}
 	/**
-	 * Read-Only access to the buffered Symbols 
+	 * Read-Only access to the buffered Symbols, oldest first.  The list
+	 * is a view of the buffer: it follows the tokens read later.
 	 * @return an unmodifiable Version of the buffer
 	 */
 	public List<Symbol> getBuffered() {
-		return Collections.unmodifiableList(buffer);
+		return view;
+	}
+	/**
+	 * Lookback into the buffer
+	 * @param back 0 for the last token produced, 1 for the one before, ...
+	 * @return the token, or null if it is no longer (or not yet) buffered
+	 */
+	public Symbol lookback(int back) {
+		if (back<0 || back>=count) return null;
+		return ring[(first+count-1-back)%ring.length];
+	}
+	/**
+	 * @return the number of tokens produced so far, including those no
+	 * longer buffered
+	 */
+	public long produced() {
+		return produced;
 	}
 	@Override
 	public Symbol next_token() throws Exception {
 		Symbol buffered = inner.next_token();
-		buffer.add(buffered);
+		if (count==ring.length){
+			if (window>0){
+				Symbol oldest = ring[first];
+				ring[first]=null;
+				first=(first+1)%ring.length;
+				count--;
+				if (spill!=null) spill.accept(oldest);
+			}
+			else grow();
+		}
+		ring[(first+count)%ring.length]=buffered;
+		count++;
+		produced++;
 		return buffered;
 	}
+	private void grow() {
+		Symbol[] bigger = new Symbol[2*ring.length];
+		for (int i=0;i<count;i++)
+			bigger[i]=ring[(first+i)%ring.length];
+		ring=bigger;
+		first=0;
+	}
 
+	private class View extends AbstractList<Symbol> implements RandomAccess {
+		@Override
+		public Symbol get(int i) {
+			if (i<0 || i>=count) throw new IndexOutOfBoundsException("Index: "+i+", Size: "+count);
+			return ring[(first+i)%ring.length];
+		}
+		@Override
+		public int size() {
+			return count;
+		}
+	}
 }
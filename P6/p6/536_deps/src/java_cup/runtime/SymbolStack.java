@@ -0,0 +1,115 @@
+package java_cup.runtime;
+
+import java.util.Stack;
+
+/**
+ * The parse stack of lr_parser.  It is a java.util.Stack, so that
+ * hand-written parsers and actions that expect one keep working, but
+ * the operations the parser and the generated actions use (push, pop,
+ * peek, empty, size, elementAt and removeAllElements) are overridden to
+ * work on Vector's array directly, without the monitor that Vector
+ * takes on every call; the parse stack is only ever used by the thread
+ * running the parse.  The other methods inherited from Vector, which the
+ * parser does not call, are still synchronized.  The actions emitted by
+ * CUP read their operands with symbol_at and top_symbol, which also
+ * spare them the cast from Object.
+ *
+ * @see     java_cup.runtime.lr_parser
+ */
+public class SymbolStack extends Stack<Object> {
+  private static final long serialVersionUID = 1L;
+
+  /** Create an empty stack. */
+  public SymbolStack() {
+    super();
+  }
+
+  /** Create a stack holding the elements of stack, bottom first.
+   * @param stack the stack to copy
+   */
+  public SymbolStack(Stack<?> stack) {
+    super();
+    addAll(stack);
+  }
+
+  /** Return stack, the parse stack passed to do_action, as a SymbolStack.
+   *  The parse drivers of lr_parser make sure it is one before they start
+   *  (see lr_parser.symbol_stack()), so any other Stack here means the
+   *  stack field was replaced in the middle of a parse.
+   * @param stack the parse stack passed to do_action
+   * @exception IllegalStateException if stack is not a SymbolStack.
+   */
+  public static SymbolStack of(Stack<?> stack) {
+    if (stack instanceof SymbolStack) return (SymbolStack) stack;
+    throw new IllegalStateException("Parse stack is a " +
+                                    stack.getClass().getName() +
+                                    ", not a java_cup.runtime.SymbolStack");
+  }
+
+  /** The Symbol at index i, counting from the bottom of the stack. */
+  public final Symbol symbol_at(int i) {
+    if (i >= elementCount)
+      throw new ArrayIndexOutOfBoundsException(i + " >= " + elementCount);
+    return (Symbol) elementData[i];
+  }
+
+  /** The Symbol on top of the stack. */
+  public final Symbol top_symbol() {
+    if (elementCount == 0) throw new java.util.EmptyStackException();
+    return (Symbol) elementData[elementCount - 1];
+  }
+
+  /** Pop n Symbols off the stack at once. */
+  public final void pop_symbols(int n) {
+    if (n > elementCount) throw new java.util.EmptyStackException();
+    for (int i = 0; i < n; i++)
+      elementData[--elementCount] = null;
+    modCount++;
+  }
+
+  /*-----------------------------------------------------------*/
+  /*--- Unsynchronized Stack operations -----------------------*/
+  /*-----------------------------------------------------------*/
+
+  public Object push(Object item) {
+    if (elementCount == elementData.length)
+      elementData = java.util.Arrays.copyOf(elementData,
+                                            Math.max(16, 2 * elementCount));
+    elementData[elementCount++] = item;
+    modCount++;
+    return item;
+  }
+
+  public Object pop() {
+    if (elementCount == 0) throw new java.util.EmptyStackException();
+    Object item = elementData[--elementCount];
+    elementData[elementCount] = null;
+    modCount++;
+    return item;
+  }
+
+  public Object peek() {
+    if (elementCount == 0) throw new java.util.EmptyStackException();
+    return elementData[elementCount - 1];
+  }
+
+  public boolean empty() {
+    return elementCount == 0;
+  }
+
+  public int size() {
+    return elementCount;
+  }
+
+  public Object elementAt(int index) {
+    if (index >= elementCount)
+      throw new ArrayIndexOutOfBoundsException(index + " >= " + elementCount);
+    return elementData[index];
+  }
+
+  public void removeAllElements() {
+    java.util.Arrays.fill(elementData, 0, elementCount, null);
+    elementCount = 0;
+    modCount++;
+  }
+}
@@ -0,0 +1,157 @@
+package java_cup.runtime;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import java_cup.runtime.ComplexSymbolFactory.ComplexSymbol;
+import java_cup.runtime.ComplexSymbolFactory.Location;
+
+/**
+ * Writes the parse tree of a parser generated with -xmlstream as it is
+ * parsed, instead of building an XMLElement tree and dumping it at the end.
+ *
+ * An LR parser finds the nodes of the tree bottom up, so the tree is
+ * written in post-order: each reduction writes one nonterminal element,
+ * holding its locations and terminals as XMLElement.dump() writes them,
+ * and an empty child element for each nonterminal of its right hand side,
+ * whose own element was written before it.  A reader rebuilds the tree
+ * with a stack of pending elements: each child pops one, in order, and
+ * each nonterminal is pushed when it ends.  The stack never gets deeper
+ * than the parse stack did; see maxPending().
+ *
+ * Error recovery may pop nonterminals off the parse stack that no
+ * production will use, although their elements have been written.  The
+ * parser hands their values to discard(), and before the next element
+ * the writer writes a discarded element whose count attribute says how
+ * many pending elements, from the top of the stack, to drop.
+ *
+ * The values of nonterminals seen by the actions of a streaming parser
+ * are just WRITTEN, so grammars whose actions look into their subtrees
+ * (with selectById() and the like) need -xmlactions.  Nor is there a
+ * token sequence, since a ScannerBuffer keeps all of the tokens.
+ */
+public class XMLElementWriter {
+	/** The value of every nonterminal in a streaming parser. */
+	public static final XMLElement WRITTEN = new Written();
+
+	private final XMLStreamWriter writer;
+	private int pending, maxPending;
+	// elements dropped by error recovery, not yet marked
+	private int discarded;
+
+	public XMLElementWriter(XMLStreamWriter writer) {
+		this.writer = writer;
+	}
+
+	/**
+	 * Writes the start of the document, as XMLElement.dump() does, up to
+	 * the parsetree element that the nonterminals go into.
+	 */
+	public void startDocument(String ... blacklist) throws XMLStreamException {
+		writer.writeStartDocument("utf-8", "1.0");
+		writer.writeProcessingInstruction("xml-stylesheet","href=\"tree.xsl\" type=\"text/xsl\"");
+		writer.writeStartElement("document");
+
+		if (blacklist.length>0) {
+			writer.writeStartElement("blacklist");
+			for (String s: blacklist){
+				writer.writeStartElement("symbol");
+				writer.writeCharacters(s);
+				writer.writeEndElement();
+			}
+			writer.writeEndElement();
+		}
+
+		writer.writeStartElement("parsetree");
+		writer.writeAttribute("order", "postorder");
+		pending = maxPending = discarded = 0;
+	}
+
+	/**
+	 * Writes the element of a nonterminal the parser has just reduced to.
+	 * @param tagname  name of the nonterminal
+	 * @param variant  number of its production among those of the nonterminal
+	 * @param left     leftmost symbol of the right hand side, null if empty
+	 * @param right    rightmost symbol of the right hand side, null if empty
+	 * @param children Terminals and (WRITTEN) nonterminals of the right hand side
+	 * @return WRITTEN, the value of the nonterminal
+	 */
+	public XMLElement nonTerminal(String tagname, int variant, Symbol left, Symbol right,
+			XMLElement ... children) throws XMLStreamException {
+		writeDiscarded();
+		writer.writeStartElement("nonterminal");
+		writer.writeAttribute("id", tagname);
+		writer.writeAttribute("variant", variant+"");
+		if (left instanceof ComplexSymbol) {
+			Location loc = ((ComplexSymbol)left).getLeft();
+			if (loc!=null) loc.toXML(writer, "left");
+		}
+		for (XMLElement e:children) {
+			if (e instanceof XMLElement.Terminal)
+				e.dump(writer);
+			else {
+				writer.writeEmptyElement("child");
+				pending--;
+			}
+		}
+		if (right instanceof ComplexSymbol) {
+			Location loc = ((ComplexSymbol)right).getRight();
+			if (loc!=null) loc.toXML(writer, "right");
+		}
+		writer.writeEndElement();
+		if (++pending > maxPending) maxPending = pending;
+		return WRITTEN;
+	}
+
+	/**
+	 * Writes the end of the document, and flushes and closes the writer
+	 * (but not the stream under it).
+	 */
+	public void endDocument() throws XMLStreamException {
+		writeDiscarded();
+		writer.writeEndElement();
+		writer.writeEndElement();
+		writer.writeEndDocument();
+		writer.flush();
+		writer.close();
+	}
+
+	/**
+	 * Notes a value that error recovery popped off the parse stack; if
+	 * it is WRITTEN, its element is dropped.
+	 */
+	public void discard(Object value) {
+		if (value == WRITTEN) discarded++;
+	}
+
+	private void writeDiscarded() throws XMLStreamException {
+		if (discarded == 0) return;
+		writer.writeEmptyElement("discarded");
+		writer.writeAttribute("count", discarded+"");
+		pending -= discarded;
+		discarded = 0;
+	}
+
+	/** @return the most nonterminals a reader has had pending at once */
+	public int maxPending() {
+		return maxPending;
+	}
+
+	private static class Written extends XMLElement {
+		public List<XMLElement> selectById(String s) {
+			return new LinkedList<XMLElement>();
+		}
+		public Location left()  { return null; }
+		public Location right() { return null; }
+		public String toString() {
+			return "<child/>";
+		}
+		@Override
+		protected void dump(XMLStreamWriter writer) throws XMLStreamException {
+			writer.writeEmptyElement("child");
+		}
+	}
+}
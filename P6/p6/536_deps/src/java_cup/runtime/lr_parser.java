@@ -42,8 +42,11 @@ import java_cup.runtime.ComplexSymbolFactory.ComplexSymbol;
  *  more.  One of these is used to simulate "parsing ahead" in the input 
  *  without carrying out actions (to verify that a potential error recovery 
  *  has worked), and the other is used to parse through buffered "parse ahead" 
- *  input in order to execute all actions and re-synchronize the actual parser 
- *  configuration.<p>
+ *  input in order to execute all actions and re-synchronize the actual parser
+ *  configuration.  The main parser can also be run with its input pushed
+ *  into it a Symbol at a time, by offer() and end(), rather than pulling
+ *  the input from scan().  All of them count what they do into a 
+ *  ParseProfile, if one is set with set_profile().<p>
  *
  *  This is an abstract class which is normally filled out by a subclass
  *  generated by the JavaCup parser generator.  In addition to supplying
@@ -110,6 +113,10 @@ import java_cup.runtime.ComplexSymbolFactory.ComplexSymbol;
  *  <dd> This method is called if syntax error recovery fails.  In the default
  *       implementation it invokes:<br> 
  *         report_fatal_error("Couldn't repair and continue parse", null);
+ *  <dt> void recovery_pop(Symbol sym)
+ *  <dd> This method is called for each Symbol that error recovery pops off 
+ *       the stack, and so never hands to an action.  The default 
+ *       implementation does nothing.
  *  </dl>
  *
  * @see     java_cup.runtime.Symbol
@@ -177,6 +184,21 @@ public abstract class lr_parser {
    */
   protected int error_sync_size() {return _error_sync_size; }
 
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** The default number of Symbols error recovery may discard for one
+   *  error before it gives up: no limit. 
+   */
+  protected final static int _error_skip_limit = Integer.MAX_VALUE;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** The number of Symbols error recovery may discard for one error before
+   *  it gives up, which bounds the parse aheads tried for the error.  
+   *  Override this to keep recovery cheap on badly broken input.
+   */
+  protected int error_skip_limit() {return _error_skip_limit; }
+
   /*-----------------------------------------------------------*/
   /*--- (Access to) Instance Variables ------------------------*/
   /*-----------------------------------------------------------*/
@@ -227,6 +249,26 @@ public abstract class lr_parser {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
+  /** The action table in row-displaced form, for direct indexing by 
+   *  get_action(), or null to search the rows of action_table().  CUP
+   *  supplies it when run with the -direct_tables option.
+   *
+   * @see java_cup.runtime.RowDisplacementTable
+   */
+  public short[][] direct_action_table() { return null; }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** The reduce-goto table in row-displaced form, for direct indexing by 
+   *  get_reduce(), or null to search the rows of reduce_table().  CUP
+   *  supplies it when run with the -direct_tables option.
+   *
+   * @see java_cup.runtime.RowDisplacementTable
+   */
+  public short[][] direct_reduce_table() { return null; }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** The index of the start state (supplied by generated subclass). */
   public abstract int start_state();
 
@@ -278,8 +320,24 @@ public abstract class lr_parser {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /** The parse stack itself. */
-  protected Stack stack = new Stack();
+  /** The parse stack itself.  It is a SymbolStack unless a subclass has
+   *  put another Stack here, in which case parse(), debug_parse() and 
+   *  offer() replace it as they start (see symbol_stack()).
+   */
+  protected Stack stack = new SymbolStack();
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Return the parse stack as a SymbolStack, first replacing it with an
+   *  empty one if a subclass has put another Stack in the stack field.  
+   *  The parse drivers call this once, as they start a parse, since the 
+   *  generated actions only take a SymbolStack.
+   */
+  protected final SymbolStack symbol_stack()
+    {
+      if (!(stack instanceof SymbolStack)) stack = new SymbolStack();
+      return (SymbolStack)stack;
+    }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
@@ -298,6 +356,33 @@ public abstract class lr_parser {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
+  /** The action table in row-displaced form, or null if there is none. */
+  protected RowDisplacementTable direct_action_tab;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** The reduce-goto table in row-displaced form, or null if there is none. */
+  protected RowDisplacementTable direct_reduce_tab;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** The profile counting what the parser does, or null if it is not 
+   *  profiled (see set_profile()).
+   */
+  protected ParseProfile profile;
+
+  /** Profile the parses made from now on, counting into profile (which
+   *  can be shared by several parsers, one at a time, with the same
+   *  tables); null turns profiling off.  A profile costs a few counter 
+   *  updates for each shift and reduce; without one, a test of a local.
+   */
+  public void set_profile(ParseProfile profile) { this.profile = profile; }
+
+  /** The profile the parser counts into, or null. */
+  public ParseProfile profile() { return profile; }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** This is the scanner object used by the default implementation
    *  of scan() to get Symbols.  To avoid name conflicts with existing
    *  code, this field is private. [CSA/davidm] */
@@ -541,18 +626,37 @@ public abstract class lr_parser {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
+  /** This method is called for each Symbol popped off the stack by error 
+   *  recovery, topmost first, to get back to a state that can shift error.
+   *  The value of such a Symbol never reaches an action, so a parser whose
+   *  actions have already handed their results on elsewhere (as one 
+   *  generated with -xmlstream does) can use this to learn which were 
+   *  dropped.  Here in the base class we do nothing.
+   *
+   * @param sym the Symbol popped.
+   */
+  protected void recovery_pop(Symbol sym)
+    {
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** Fetch an action from the action table.  The table is broken up into
    *  rows, one per state (rows are indexed directly by state number).  
    *  Within each row, a list of index, value pairs are given (as sequential
    *  entries in the table), and the list is terminated by a default entry 
    *  (denoted with a Symbol index of -1).  To find the proper entry in a row 
-   *  we do a linear or binary search (depending on the size of the row).  
+   *  we do a linear or binary search (depending on the size of the row),
+   *  unless the table is also given in row-displaced form, which we index.
    *
    * @param state the state index of the action being accessed.
    * @param sym   the Symbol index of the action being accessed.
    */
   protected final short get_action(int state, int sym)
     {
+      if (direct_action_tab != null)
+	return direct_action_tab.get(state, sym);
+
       short tag;
       int first, last, probe;
       short[] row = action_tab[state];
@@ -601,13 +705,17 @@ public abstract class lr_parser {
    *  Within each row, a list of index, value pairs are given (as sequential
    *  entries in the table), and the list is terminated by a default entry 
    *  (denoted with a Symbol index of -1).  To find the proper entry in a row 
-   *  we do a linear search.  
+   *  we do a linear search, unless the table is also given in row-displaced
+   *  form, which we index.
    *
    * @param state the state index of the entry being accessed.
    * @param sym   the Symbol index of the entry being accessed.
    */
   protected final short get_reduce(int state, int sym)
     {
+      if (direct_reduce_tab != null)
+	return direct_reduce_tab.get(state, sym);
+
       short tag;
       short[] row = reduce_tab[state];
 
@@ -631,6 +739,51 @@ public abstract class lr_parser {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
+  /** Set up a parse: fetch the tables that drive the parser, start error
+   *  recovery afresh, and initialize the actions and the user code.  This
+   *  is done at the start of parse(), debug_parse() and a push parse, 
+   *  before the first Symbol is read.
+   */
+  protected void start_parse() throws java.lang.Exception
+    {
+      /* set up direct reference to tables to drive the parser */
+      production_tab = production_table();
+      action_tab     = action_table();
+      reduce_tab     = reduce_table();
+      direct_action_tab = RowDisplacementTable.of(direct_action_table());
+      direct_reduce_tab = RowDisplacementTable.of(direct_reduce_table());
+
+      /* start error recovery afresh */
+      recovery_errors = recovery_attempts = recovery_memo_hits = 0;
+      recovery_skipped = 0;
+      failed_recoveries.clear();
+      failed_depth = 0;
+
+      /* start counting, if we are profiled */
+      if (profile != null) profile.start(production_tab, action_tab.length);
+
+      /* initialize the action encapsulation object */
+      init_actions();
+
+      /* do user initialization */
+      user_init();
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** The symbol factory, if it takes back the Symbols the parser is done
+   *  with (see PackedSymbolFactory), or null.
+   */
+  protected PackedSymbolFactory symbol_pool()
+    {
+      if (getSymbolFactory() instanceof PackedSymbolFactory &&
+	  ((PackedSymbolFactory)getSymbolFactory()).isPooling())
+	return (PackedSymbolFactory)getSymbolFactory();
+      return null;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** This method provides the main parsing routine.  It returns only when 
    *  done_parsing() has been called (typically because the parser has 
    *  accepted, or a fatal error has been reported).  See the header 
@@ -648,24 +801,22 @@ public abstract class lr_parser {
       /* information about production being reduced with */
       short handle_size, lhs_sym_num;
 
-      /* set up direct reference to tables to drive the parser */
-
-      production_tab = production_table();
-      action_tab     = action_table();
-      reduce_tab     = reduce_table();
-
-      /* initialize the action encapsulation object */
-      init_actions();
-
-      /* do user initialization */
-      user_init();
+      /* set up the tables and actions */
+      start_parse();
+      ParseProfile prof = profile;
 
       /* get the first token */
       cur_token = scan(); 
 
+      /* the parse stack, unsynchronized and without casts */
+      SymbolStack symbols = symbol_stack();
+
+      /* the factory to hand reduced symbols back to, if it pools them */
+      PackedSymbolFactory pool = symbol_pool();
+
       /* push dummy Symbol with start state to get us underway */
-      stack.removeAllElements();
-      stack.push(getSymbolFactory().startSymbol("START", 0, start_state()));
+      symbols.removeAllElements();
+      symbols.push(getSymbolFactory().startSymbol("START", 0, start_state()));
       tos = 0;
 
       /* continue until we are told to stop */
@@ -678,7 +829,7 @@ public abstract class lr_parser {
 	  /* current state is always on the top of the stack */
 
 	  /* look up action out of the current state with the current input */
-	  act = get_action(((Symbol)stack.peek()).parse_state, cur_token.sym);
+	  act = get_action(symbols.top_symbol().parse_state, cur_token.sym);
 
 	  /* decode the action -- > 0 encodes shift */
 	  if (act > 0)
@@ -686,8 +837,9 @@ public abstract class lr_parser {
 	      /* shift to the encoded state by pushing it on the stack */
 	      cur_token.parse_state = act-1;
 	      cur_token.used_by_parser = true;
-	      stack.push(cur_token);
+	      symbols.push(cur_token);
 	      tos++;
+	      if (prof != null) prof.shift(tos+1);
 
 	      /* advance to the next Symbol */
 	      cur_token = scan();
@@ -696,27 +848,29 @@ public abstract class lr_parser {
 	  else if (act < 0)
 	    {
 	      /* perform the action for the reduce */
-	      lhs_sym = do_action((-act)-1, this, stack, tos);
+	      lhs_sym = do_action((-act)-1, this, symbols, tos);
+	      if (prof != null) prof.reduce((-act)-1);
 
 	      /* look up information about the production */
 	      lhs_sym_num = production_tab[(-act)-1][0];
 	      handle_size = production_tab[(-act)-1][1];
 
 	      /* pop the handle off the stack */
-	      for (int i = 0; i < handle_size; i++)
-		{
-		  stack.pop();
-		  tos--;
-		}
+	      if (pool != null)
+		for (int i = 0; i < handle_size; i++)
+		  pool.release(symbols.symbol_at(tos - i));
+	      symbols.pop_symbols(handle_size);
+	      tos -= handle_size;
 	      
 	      /* look up the state to go to from the one popped back to */
-	      act = get_reduce(((Symbol)stack.peek()).parse_state, lhs_sym_num);
+	      act = get_reduce(symbols.top_symbol().parse_state, lhs_sym_num);
 
 	      /* shift to that state */
 	      lhs_sym.parse_state = act;
 	      lhs_sym.used_by_parser = true;
-	      stack.push(lhs_sym);
+	      symbols.push(lhs_sym);
 	      tos++;
+	      if (prof != null) prof.goto_state(act);
 	    }
 	  /* finally if the entry is zero, we have an error */
 	  else if (act == 0)
@@ -733,7 +887,7 @@ public abstract class lr_parser {
 		  /* just in case that wasn't fatal enough, end parse */
 		  done_parsing();
 		} else {
-		  lhs_sym = (Symbol)stack.peek();
+		  lhs_sym = symbols.top_symbol();
 		}
 	    }
 	}
@@ -742,6 +896,229 @@ public abstract class lr_parser {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
+  /** Phases of a push parse: none under way, parsing, and collecting the
+   *  lookahead Symbols needed to recover from a syntax error.
+   */
+  protected static final int PUSH_IDLE = 0;
+  protected static final int PUSH_PARSING = 1;
+  protected static final int PUSH_RECOVERING = 2;
+
+  /** Phase of the push parse under way (see offer()). */
+  protected int push_phase = PUSH_IDLE;
+
+  /** Number of Symbols in the lookahead buffer while recovering. */
+  protected int push_filled;
+
+  /** Number of Symbols discarded for the error being recovered from. */
+  protected int push_skipped;
+
+  /** The Symbol end() returns: what parse() would have returned. */
+  protected Symbol push_result;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Parse with input pushed by the caller, one Symbol at a time, instead 
+   *  of pulled from scan().  Each call runs the parser as far as it can go
+   *  with the Symbols offered so far, and returns true if it wants more 
+   *  input, false once the parse is over (it has accepted, or a syntax 
+   *  error could not be recovered from); Symbols offered after that are
+   *  ignored.  The first call starts a new parse.  After the last Symbol
+   *  of the input, call end(), which supplies the end of input and returns
+   *  the result of the parse.  Actions and error recovery behave as in
+   *  parse(), with the scanner replaced by the caller: the parser never
+   *  blocks waiting for input, and the Symbols needed for a recovery "parse
+   *  ahead" are simply collected over the following calls.
+   *
+   * @param token the next Symbol of the input.
+   */
+  public boolean offer(Symbol token) throws java.lang.Exception
+    {
+      if (push_phase == PUSH_IDLE)
+	{
+	  /* set up a new parse */
+	  start_parse();
+	  SymbolStack symbols = symbol_stack();
+	  symbols.removeAllElements();
+	  symbols.push(getSymbolFactory().startSymbol("START", 0, start_state()));
+	  tos = 0;
+	  _done_parsing = false;
+	  push_result = null;
+	  push_phase = PUSH_PARSING;
+	}
+
+      if (_done_parsing) return false;
+
+      if (push_phase == PUSH_RECOVERING)
+	{
+	  lookahead[push_filled++] = token;
+	  return push_recover();
+	}
+
+      cur_token = token;
+      return push_parse();
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** End the input of a push parse (see offer()) and return the result of
+   *  the parse, as parse() would.  The parser is then ready for a new 
+   *  parse.
+   */
+  public Symbol end() throws java.lang.Exception
+    {
+      /* past the end of input there is only more end of input */
+      while (offer(getSymbolFactory().newSymbol("END_OF_FILE", EOF_sym())))
+	;
+
+      push_phase = PUSH_IDLE;
+      return push_result;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Run the parser of a push parse on cur_token, as the loop of parse() 
+   *  does, until it shifts the Symbol.  Returns true if it wants more 
+   *  input.
+   */
+  protected boolean push_parse() throws java.lang.Exception
+    {
+      /* the current action code */
+      int act;
+
+      /* the Symbol/stack element returned by a reduce */
+      Symbol lhs_sym;
+
+      /* information about production being reduced with */
+      short handle_size, lhs_sym_num;
+
+      SymbolStack symbols = (SymbolStack)stack;
+      PackedSymbolFactory pool = symbol_pool();
+      ParseProfile prof = profile;
+
+      while (!_done_parsing)
+	{
+	  /* Check current token for freshness. */
+	  if (cur_token.used_by_parser)
+	    throw new Error("Symbol recycling detected (fix your scanner).");
+
+	  /* look up action out of the current state with the current input */
+	  act = get_action(symbols.top_symbol().parse_state, cur_token.sym);
+
+	  /* decode the action -- > 0 encodes shift */
+	  if (act > 0)
+	    {
+	      /* shift to the encoded state by pushing it on the stack */
+	      cur_token.parse_state = act-1;
+	      cur_token.used_by_parser = true;
+	      symbols.push(cur_token);
+	      tos++;
+	      if (prof != null) prof.shift(tos+1);
+
+	      /* we need the next Symbol, unless this was the end of input */
+	      if (cur_token.sym != EOF_sym()) return true;
+	      cur_token = getSymbolFactory().newSymbol("END_OF_FILE", EOF_sym());
+	    }
+	  /* if its less than zero, then it encodes a reduce action */
+	  else if (act < 0)
+	    {
+	      /* perform the action for the reduce */
+	      lhs_sym = do_action((-act)-1, this, symbols, tos);
+	      if (prof != null) prof.reduce((-act)-1);
+
+	      /* look up information about the production */
+	      lhs_sym_num = production_tab[(-act)-1][0];
+	      handle_size = production_tab[(-act)-1][1];
+
+	      /* pop the handle off the stack */
+	      if (pool != null)
+		for (int i = 0; i < handle_size; i++)
+		  pool.release(symbols.symbol_at(tos - i));
+	      symbols.pop_symbols(handle_size);
+	      tos -= handle_size;
+
+	      /* look up the state to go to from the one popped back to */
+	      act = get_reduce(symbols.top_symbol().parse_state, lhs_sym_num);
+
+	      /* shift to that state */
+	      lhs_sym.parse_state = act;
+	      lhs_sym.used_by_parser = true;
+	      symbols.push(lhs_sym);
+	      tos++;
+	      if (prof != null) prof.goto_state(act);
+	      push_result = lhs_sym;
+	    }
+	  /* finally if the entry is zero, we have an error */
+	  else if (act == 0)
+	    {
+	      /* call user syntax error reporting routine */
+	      syntax_error(cur_token);
+	      recovery_errors++;
+	      if (profile != null) profile.syntax_error();
+
+	      /* pop back to a state that shifts on error (see error_recovery) */
+	      if (!find_recovery_config(false))
+		{
+		  unrecovered_syntax_error(cur_token);
+		  done_parsing();
+		  return false;
+		}
+
+	      /* and collect the lookahead, starting with this Symbol */
+	      lookahead = new Symbol[error_sync_size()];
+	      lookahead[0] = cur_token;
+	      push_filled = 1;
+	      push_skipped = 0;
+	      push_phase = PUSH_RECOVERING;
+	      return push_recover();
+	    }
+	}
+      return false;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Carry on error recovery in a push parse, as error_recovery() does, 
+   *  whenever the lookahead buffer is full: parse ahead, and discard the
+   *  first Symbol of the buffer if that fails.  Returns true if it wants 
+   *  more input.
+   */
+  protected boolean push_recover() throws java.lang.Exception
+    {
+      while (push_filled == error_sync_size())
+	{
+	  /* try to parse forward, if it makes it, go back to normal parse */
+	  lookahead_pos = 0;
+	  if (try_parse_ahead(false))
+	    {
+	      parse_lookahead(false);
+	      if (profile != null) profile.recovered();
+	      push_result = ((SymbolStack)stack).top_symbol();
+	      push_phase = PUSH_PARSING;
+	      return !_done_parsing;
+	    }
+
+	  /* if we are at EOF, or have discarded all we may, we have failed */
+	  if (lookahead[0].sym == EOF_sym() || 
+	      push_skipped == error_skip_limit())
+	    {
+	      push_phase = PUSH_PARSING;
+	      unrecovered_syntax_error(cur_token);
+	      done_parsing();
+	      return false;
+	    }
+
+	  /* otherwise, we consume the first Symbol and wait for another */
+	  for (int i = 1; i < push_filled; i++)
+	    lookahead[i-1] = lookahead[i];
+	  lookahead[--push_filled] = null;
+	  push_skipped++;
+	  recovery_skipped++;
+	}
+      return true;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** Write a debugging message to System.err for the debugging version 
    *  of the parser. 
    *
@@ -835,18 +1212,11 @@ public abstract class lr_parser {
       /* information about production being reduced with */
       short handle_size, lhs_sym_num;
 
-      /* set up direct reference to tables to drive the parser */
-      production_tab = production_table();
-      action_tab     = action_table();
-      reduce_tab     = reduce_table();
-
       debug_message("# Initializing parser");
 
-      /* initialize the action encapsulation object */
-      init_actions();
-
-      /* do user initialization */
-      user_init();
+      /* set up the tables and actions */
+      start_parse();
+      ParseProfile prof = profile;
 
       /* the current Symbol */
       cur_token = scan(); 
@@ -854,7 +1224,7 @@ public abstract class lr_parser {
       debug_message("# Current Symbol is #" + cur_token.sym);
 
       /* push dummy Symbol with start state to get us underway */
-      stack.removeAllElements();
+      symbol_stack().removeAllElements();
       stack.push(getSymbolFactory().startSymbol("START",0, start_state()));
       tos = 0;
 
@@ -880,6 +1250,7 @@ public abstract class lr_parser {
 	      debug_shift(cur_token);
 	      stack.push(cur_token);
 	      tos++;
+	      if (prof != null) prof.shift(tos+1);
 
 	      /* advance to the next Symbol */
 	      cur_token = scan();
@@ -890,6 +1261,7 @@ public abstract class lr_parser {
 	    {
 	      /* perform the action for the reduce */
 	      lhs_sym = do_action((-act)-1, this, stack, tos);
+	      if (prof != null) prof.reduce((-act)-1);
 
 	      /* look up information about the production */
 	      lhs_sym_num = production_tab[(-act)-1][0];
@@ -915,6 +1287,7 @@ public abstract class lr_parser {
 	      lhs_sym.used_by_parser = true;
 	      stack.push(lhs_sym);
 	      tos++;
+	      if (prof != null) prof.goto_state(act);
 
 	      debug_message("# Goto state #" + act);
 	    }
@@ -937,6 +1310,8 @@ public abstract class lr_parser {
 		}
 	    }
 	}
+      if (recovery_errors > 0)
+	debug_message("# Error recovery: " + recovery_statistics());
       return lhs_sym;
     }
 
@@ -962,7 +1337,12 @@ public abstract class lr_parser {
    *  success.  Once a successful recovery point is determined, we do an
    *  actual parse over the stored input -- modifying the real parse 
    *  configuration and executing all actions.  Finally, we return the the 
-   *  normal parser to continue with the overall parse.
+   *  normal parser to continue with the overall parse.<p>
+   *
+   *  Recovery also fails once it has discarded error_skip_limit() Symbols
+   *  for the error.  A parse ahead that fails is remembered, by the states 
+   *  it read from the real stack and the Symbols it was given, so that the
+   *  same configuration is not simulated again (see try_parse_ahead()).
    *
    * @param debug should we produce debugging messages as we parse.
    */
@@ -970,6 +1350,11 @@ public abstract class lr_parser {
     throws java.lang.Exception
     {
       if (debug) debug_message("# Attempting error recovery");
+      recovery_errors++;
+      if (profile != null) profile.syntax_error();
+
+      /* number of Symbols discarded for this error */
+      int skipped = 0;
 
       /* first pop the stack back into a state that can shift on error and 
 	 do that shift (if that fails, we fail) */
@@ -999,6 +1384,15 @@ public abstract class lr_parser {
 	      return false;
 	    }
 
+	  /* and if we have discarded all we may, we give up */
+	  if (skipped == error_skip_limit())
+	    {
+	      if (debug) 
+		debug_message("# Error recovery fails after discarding " +
+			      skipped + " Symbols");
+	      return false;
+	    }
+
 	  /* otherwise, we consume another Symbol and try again */
 	  // BUG FIX by Bruce Hutton
 	  // Computer Science Department, University of Auckland,
@@ -1008,6 +1402,8 @@ public abstract class lr_parser {
 	  if (debug) 
 	      debug_message("# Consuming Symbol #" + lookahead[ 0 ].sym);
 	  restart_lookahead();
+	  skipped++;
+	  recovery_skipped++;
 	}
 
       /* we have consumed to a point where we can parse forward */
@@ -1015,6 +1411,7 @@ public abstract class lr_parser {
 
       /* do the real parse (including actions) across the lookahead */
       parse_lookahead(debug);
+      if (profile != null) profile.recovered();
 
       /* we have success */
       return true;
@@ -1060,6 +1457,7 @@ public abstract class lr_parser {
 	                  ((Symbol)stack.peek()).parse_state);
           left = ((Symbol)stack.pop()); // TUM 20060327 removed .left	
 	  tos--;
+	  recovery_pop(left);
 
 	  /* if we have hit bottom, we fail */
 	  if (stack.empty()) 
@@ -1176,8 +1574,21 @@ public abstract class lr_parser {
       int act;
       short lhs, rhs_size;
 
-      /* create a virtual stack from the real parse stack */
-      virtual_parse_stack vstack = new virtual_parse_stack(stack);
+      /* don't simulate what we know fails */
+      if (known_to_fail())
+	{
+	  if (debug) debug_message("# Parse-ahead known to fail");
+	  recovery_memo_hits++;
+	  return false;
+	}
+      recovery_attempts++;
+
+      /* set up a virtual stack over the real parse stack */
+      if (error_vstack == null || error_vstack.real_stack != stack)
+	error_vstack = new virtual_parse_stack(stack);
+      else
+	error_vstack.reset();
+      virtual_parse_stack vstack = error_vstack;
 
       /* parse until we fail or get past the lookahead input */
       for (;;)
@@ -1186,7 +1597,11 @@ public abstract class lr_parser {
 	  act = get_action(vstack.top(), cur_err_token().sym);
 
 	  /* if its an error, we fail */
-	  if (act == 0) return false;
+	  if (act == 0)
+	    {
+	      remember_failure(vstack.real_next);
+	      return false;
+	    }
 
 	  /* > 0 encodes a shift */
 	  if (act > 0)
@@ -1232,6 +1647,107 @@ public abstract class lr_parser {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
+  /** Virtual stack reused by the parse aheads of error recovery. */
+  protected virtual_parse_stack error_vstack;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Deepest a parse ahead may read into the real stack for its failure to
+   *  be remembered.
+   */
+  protected final static int MAX_FAILURE_DEPTH = 8;
+
+  /** Most failures remembered before they are forgotten all at once. */
+  protected final static int MAX_FAILURES = 4096;
+
+  /** Parse aheads that failed, each as the number of states it read from
+   *  the top of the real stack, those states, and the lookahead Symbols.
+   *  A parse ahead depends on nothing else, so any other with the same
+   *  key fails too.
+   */
+  protected java.util.HashSet<FailureKey> failed_recoveries = 
+    new java.util.HashSet<FailureKey>();
+
+  /** Greatest depth of the failures in failed_recoveries. */
+  protected int failed_depth;
+
+  /** The key of a failed parse ahead. */
+  protected static final class FailureKey {
+    final int[] key;
+    FailureKey(int[] key) { this.key = key; }
+    public int hashCode() { return java.util.Arrays.hashCode(key); }
+    public boolean equals(Object o) {
+      return o instanceof FailureKey &&
+	java.util.Arrays.equals(key, ((FailureKey)o).key);
+    }
+  }
+
+  /** Build the key of a parse ahead that reads depth states of the real 
+   *  stack, from the current stack and lookahead.
+   */
+  protected FailureKey failure_key(int depth)
+    {
+      int n = error_sync_size();
+      int[] key = new int[1 + depth + n];
+      key[0] = depth;
+      for (int i = 0; i < depth; i++)
+	key[1+i] = ((Symbol)stack.elementAt(stack.size()-1-i)).parse_state;
+      for (int i = 0; i < n; i++)
+	key[1+depth+i] = lookahead[i].sym;
+      return new FailureKey(key);
+    }
+
+  /** Is the parse ahead about to be tried one that is known to fail? */
+  protected boolean known_to_fail()
+    {
+      for (int depth = 1; depth <= failed_depth && depth <= stack.size(); 
+	   depth++)
+	if (failed_recoveries.contains(failure_key(depth)))
+	  return true;
+      return false;
+    }
+
+  /** Remember that the parse ahead just tried, which read depth states of
+   *  the real stack, fails.
+   */
+  protected void remember_failure(int depth)
+    {
+      if (depth > MAX_FAILURE_DEPTH) return;
+      if (failed_recoveries.size() == MAX_FAILURES)
+	{
+	  failed_recoveries.clear();
+	  failed_depth = 0;
+	}
+      failed_recoveries.add(failure_key(depth));
+      failed_depth = Math.max(failed_depth, depth);
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Number of syntax errors that error recovery was attempted for. */
+  protected int recovery_errors;
+
+  /** Number of parse aheads simulated by error recovery. */
+  protected int recovery_attempts;
+
+  /** Number of parse aheads not simulated, being known to fail. */
+  protected int recovery_memo_hits;
+
+  /** Number of input Symbols discarded by error recovery. */
+  protected int recovery_skipped;
+
+  /** Report the work error recovery has done in the current (or last) 
+   *  parse.
+   */
+  public String recovery_statistics()
+    {
+      return recovery_errors + " syntax errors, " + 
+	recovery_attempts + " parse aheads (" + recovery_memo_hits +
+	" known to fail), " + recovery_skipped + " Symbols discarded";
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** Parse forward using stored lookahead Symbols.  In this case we have
    *  already verified that parsing will make it through the stored lookahead
    *  Symbols and we are now getting back to the point at which we can hand
@@ -1253,6 +1769,8 @@ public abstract class lr_parser {
       /* information about production being reduced with */
       short handle_size, lhs_sym_num;
 
+      ParseProfile prof = profile;
+
       /* restart the saved input at the beginning */
       lookahead_pos = 0;
 
@@ -1282,6 +1800,7 @@ public abstract class lr_parser {
 	      if (debug) debug_shift(cur_err_token());
 	      stack.push(cur_err_token());
 	      tos++;
+	      if (prof != null) prof.shift(tos+1);
 
 	      /* advance to the next Symbol, if there is none, we are done */
 	      if (!advance_lookahead()) 
@@ -1306,6 +1825,7 @@ public abstract class lr_parser {
 	    {
 	      /* perform the action for the reduce */
 	      lhs_sym = do_action((-act)-1, this, stack, tos);
+	      if (prof != null) prof.reduce((-act)-1);
 
 	      /* look up information about the production */
 	      lhs_sym_num = production_tab[(-act)-1][0];
@@ -1328,6 +1848,7 @@ public abstract class lr_parser {
 	      lhs_sym.used_by_parser = true;
 	      stack.push(lhs_sym);
 	      tos++;
+	      if (prof != null) prof.goto_state(act);
 	       
 	      if (debug) debug_message("# Goto state #" + act);
 
@@ -1349,18 +1870,66 @@ public abstract class lr_parser {
   /** Utility function: unpacks parse tables from strings */
   protected static short[][] unpackFromStrings(String[] sa)
     {
-      // Concatanate initialization strings.
-      StringBuffer sb = new StringBuffer(sa[0]);
-      for (int i=1; i<sa.length; i++)
-	sb.append(sa[i]);
+      // Copy the initialization strings into one array, without the
+      // locking of a StringBuffer on every character.
+      int len = 0;
+      for (int i=0; i<sa.length; i++)
+	len += sa[i].length();
+      char[] sb = new char[len];
+      for (int i=0, n=0; i<sa.length; n+=sa[i].length(), i++)
+	sa[i].getChars(0, sa[i].length(), sb, n);
       int n=0; // location in initialization string
-      int size1 = (((int)sb.charAt(n))<<16) | ((int)sb.charAt(n+1)); n+=2;
+      int size1 = (((int)sb[n])<<16) | ((int)sb[n+1]); n+=2;
       short[][] result = new short[size1][];
       for (int i=0; i<size1; i++) {
-        int size2 = (((int)sb.charAt(n))<<16) | ((int)sb.charAt(n+1)); n+=2;
+        int size2 = (((int)sb[n])<<16) | ((int)sb[n+1]); n+=2;
         result[i] = new short[size2];
         for (int j=0; j<size2; j++)
-          result[i][j] = (short) (sb.charAt(n++)-2);
+          result[i][j] = (short) (sb[n++]-2);
+      }
+      return result;
+    }
+
+  /** Utility function: unpacks parse tables from a resource written by 
+   *  CUP with the -table_resource option.  The resource is read whole 
+   *  and decoded from one ByteBuffer.  CUP passes an absolute name, the 
+   *  file's path from the root of the class path, since it is written 
+   *  next to the parser's sources and must be copied next to its class.
+   * @param c    the class whose loader finds the resource.
+   * @param name the name of the resource.
+   */
+  protected static short[][][] unpackFromResource(Class c, String name)
+    {
+      java.io.InputStream in = c.getResourceAsStream(name);
+      if (in == null)
+	throw new Error("Parse table resource " + name + " not found on" +
+			" the class path of " + c.getName() + "; copy the" +
+			" .tables file written by CUP next to its class file");
+      byte[] bytes = new byte[8192];
+      int len = 0;
+      try {
+	try {
+	  for (int n; (n = in.read(bytes, len, bytes.length-len)) > 0; ) {
+	    len += n;
+	    if (len == bytes.length)
+	      bytes = java.util.Arrays.copyOf(bytes, 2*len);
+	  }
+	} finally {
+	  in.close();
+	}
+      } catch (java.io.IOException e) {
+	throw new Error("Can't read parse table resource " + name, e);
+      }
+
+      java.nio.ByteBuffer buf = java.nio.ByteBuffer.wrap(bytes, 0, len);
+      short[][][] result = new short[buf.getInt()][][];
+      for (int t=0; t<result.length; t++) {
+	result[t] = new short[buf.getInt()][];
+	for (int i=0; i<result[t].length; i++) {
+	  result[t][i] = new short[buf.getInt()];
+	  buf.asShortBuffer().get(result[t][i]);
+	  buf.position(buf.position() + 2*result[t][i].length);
+	}
       }
       return result;
     }
@@ -34,7 +34,9 @@ public class virtual_parse_stack {
 
       /* set up our internals */
       real_stack = shadowing_stack;
-      vstack     = new Stack();
+      states     = new int[16];
+      vsize      = 0;
+      vstack     = new StateView();
       real_next  = 0;
 
       /* get one element onto the virtual portion of the stack */
@@ -66,13 +68,37 @@ public class virtual_parse_stack {
    *  of the real stack within the area that has been modified (via operations
    *  on the virtual stack).  When this portion of the stack becomes empty we 
    *  transfer elements from the underlying stack onto this stack. 
+   *  It is a view of the states array, kept for subclasses: push, pop, 
+   *  peek, empty, size, elementAt and removeAllElements work on that array,
+   *  boxing and unboxing as they go, while this class itself uses the 
+   *  array directly.  Putting another Stack here is not seen by this class.
    */
   protected Stack vstack;
 
+  /** The state numbers on the virtual portion of the stack, bottom first,
+   *  in states[0..vsize-1]. 
+   */
+  private int[] states;
+
+  /** Number of states on the virtual portion of the stack. */
+  protected int vsize;
+
   /*-----------------------------------------------------------*/
   /*--- General Methods ---------------------------------------*/
   /*-----------------------------------------------------------*/
 
+  /** Go back to shadowing the real stack as it is, as if newly built, so 
+   *  that one virtual stack can serve many parse aheads.
+   */
+  public void reset()
+    {
+      vsize     = 0;
+      real_next = 0;
+      get_from_real();
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** Transfer an element from the real to the virtual stack.  This assumes 
    *  that the virtual stack is currently empty.  
    */
@@ -90,7 +116,7 @@ public class virtual_parse_stack {
       real_next++;
 
       /* put the state number from the Symbol onto the virtual stack */
-      vstack.push(new Integer(stack_sym.parse_state));
+      push(stack_sym.parse_state);
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -100,7 +126,7 @@ public class virtual_parse_stack {
     {
       /* if vstack is empty then we were unable to transfer onto it and 
 	 the whole thing is empty. */
-      return vstack.empty();
+      return vsize == 0;
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -108,11 +134,11 @@ public class virtual_parse_stack {
   /** Return value on the top of the stack (without popping it). */
   public int top() throws java.lang.Exception
     {
-      if (vstack.empty())
+      if (vsize == 0)
 	throw new Exception(
 		  "Internal parser error: top() called on empty virtual stack");
 
-      return ((Integer)vstack.peek()).intValue();
+      return states[vsize-1];
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -120,15 +146,15 @@ public class virtual_parse_stack {
   /** Pop the stack. */
   public void pop() throws java.lang.Exception
     {
-      if (vstack.empty())
+      if (vsize == 0)
 	throw new Exception(
 		  "Internal parser error: pop from empty virtual stack");
 
       /* pop it */
-      vstack.pop();
+      vsize--;
 
       /* if we are now empty transfer an element (if there is one) */
-      if (vstack.empty())
+      if (vsize == 0)
         get_from_real();
     }
 
@@ -137,9 +163,59 @@ public class virtual_parse_stack {
   /** Push a state number onto the stack. */
   public void push(int state_num)
     {
-      vstack.push(new Integer(state_num));
+      if (vsize == states.length)
+	states = java.util.Arrays.copyOf(states, 2*vsize);
+      states[vsize++] = state_num;
     }
 
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** The Stack that vstack holds: Integer state numbers, read from and 
+   *  written to the states array.  Unlike the methods above it does not
+   *  refill itself from the real stack when it runs empty.
+   */
+  private final class StateView extends Stack<Object> {
+    private static final long serialVersionUID = 1L;
+
+    public Object push(Object item)
+      {
+	virtual_parse_stack.this.push(((Integer)item).intValue());
+	return item;
+      }
+
+    public Object pop()
+      {
+	Object item = peek();
+	vsize--;
+	return item;
+      }
+
+    public Object peek()
+      {
+	if (vsize == 0) throw new java.util.EmptyStackException();
+	return Integer.valueOf(states[vsize-1]);
+      }
+
+    public boolean empty() { return vsize == 0; }
+
+    public boolean isEmpty() { return vsize == 0; }
+
+    public int size() { return vsize; }
+
+    public Object elementAt(int index)
+      {
+	if (index < 0 || index >= vsize)
+	  throw new ArrayIndexOutOfBoundsException(index + " >= " + vsize);
+	return Integer.valueOf(states[index]);
+      }
+
+    public Object get(int index) { return elementAt(index); }
+
+    public void removeAllElements() { vsize = 0; }
+
+    public void clear() { vsize = 0; }
+  }
+
   /*-----------------------------------------------------------*/
 
 }
@@ -0,0 +1,6 @@
+rm *.java
+rm *.class
+java -cp ../../dist/java-cup-11b.jar JLex.Main utf8.lex
+javac *.java
+java -cp . Utf8Test input.txt > output.txt
+diff output.txt expected.txt && echo PASS
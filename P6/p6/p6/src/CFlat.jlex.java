@@ -6,6 +6,20 @@ import java_cup.runtime.*; // defines the Symbol class
 // A TokenVal object contains the line number on which the token occurs as
 // well as the number of the character on that line that starts the token.
 // Some tokens (literals and IDs) also include the value of the token.
+//
+// Alternatively, scanAll records the tokens in a TokenBuffer, which
+// stores them in int arrays instead of allocating objects per token.
+//
+// Reserved words have no rules of their own: they match the identifier
+// rule, and Keywords classifies the text with a perfect hash.
+//
+// Lexical errors are recorded in the Diagnostics of the compilation (see
+// ErrMsg) and printed together at the end, so scanning a bad input does
+// not wait on System.err.
+//
+// The input is scanned as UTF-8 bytes (%utf8), so string literals and
+// comments may contain any Unicode characters; character numbers count
+// bytes.
 class TokenVal {
   // fields
     int linenum;
@@ -26,31 +40,26 @@ class IntLitTokenVal extends TokenVal {
     }
 }
 class IdTokenVal extends TokenVal {
-  // new field: the value of the identifier
-    String idVal;
+  // new field: the value of the identifier, interned
+    Name idVal;
   // constructor
-    IdTokenVal(int line, int ch, String val) {
+    IdTokenVal(int line, int ch, Name val) {
         super(line, ch);
     idVal = val;
     }
 }
 class StrLitTokenVal extends TokenVal {
-  // new field: the value of the string literal
-    String strVal;
+  // new field: the value of the string literal, interned
+    Name strVal;
   // constructor
-    StrLitTokenVal(int line, int ch, String val) {
+    StrLitTokenVal(int line, int ch, Name val) {
         super(line, ch);
         strVal = val;
     }
 }
-// The following class is used to keep track of the character number at which
-// the current token starts on its line.
-class CharNum {
-    static int num=1;
-}
 
 
-class Yylex implements java_cup.runtime.Scanner {
+class Yylex implements CFlatScanner {
 	private final int YY_BUFFER_SIZE = 512;
 	private final int YY_F = -1;
 	private final int YY_NO_STATE = -1;
@@ -58,15 +67,107 @@ class Yylex implements java_cup.runtime.Scanner {
 	private final int YY_START = 1;
 	private final int YY_END = 2;
 	private final int YY_NO_ANCHOR = 4;
-	private final int YY_BOL = 128;
-	private final int YY_EOF = 129;
-	private java.io.BufferedReader yy_reader;
+	private final int YY_BOL = 256;
+	private final int YY_EOF = 257;
+
+// Returned by token() in place of a new Symbol when the token has been
+// recorded in a TokenBuffer.
+private static final Symbol RECORDED = new Symbol(-1);
+// When non-null, tokens are recorded here instead of being returned as
+// Symbols; see scanAll.
+private TokenBuffer tokens = null;
+// IDs and string literals are interned here
+private NameTable names = new NameTable();
+/**
+ * Returns the table in which this scanner interns IDs and string
+ * literals.
+ */
+public NameTable names() {
+    return names;
+}
+/**
+ * Makes this scanner intern into the given table, so that several
+ * scanners in one compilation share one set of Names.
+ */
+public void setNames(NameTable table) {
+    names = table;
+}
+/**
+ * Numbers the line at the current position of the input as line.  A
+ * scanner over one chunk of a larger file uses this to report the lines
+ * of the whole file.
+ */
+public void setLine(int line) {
+    yyline = line-1;
+}
+/**
+ * Scans the rest of the input into buf.  No Symbol or TokenVal is
+ * allocated per token; IDs and string literals are recorded by the id
+ * of their Name in names().  Returns the number of tokens added to buf.
+ */
+public int scanAll(TokenBuffer buf) throws java.io.IOException {
+    int first = buf.size();
+    tokens = buf;
+    try {
+        while (next_token().sym != sym.EOF) {
+        }
+    } finally {
+        tokens = null;
+    }
+    return buf.size() - first;
+}
+/**
+ * Builds the token of the given kind for the text just matched, either
+ * as a Symbol or, when scanning into a TokenBuffer, as a new entry in
+ * that buffer.  The character number is the column of the match, which
+ * the scanner computes from its buffer indices (%column).
+ */
+private Symbol token(int kind) {
+    int line = yyline+1;
+    int ch = yycolumn+1;
+    int intVal = 0;
+    Name name = null;
+    if (kind == sym.INTLITERAL) {
+        long val = TokenBuffer.decodeInt(yy_bytes, yychar, yylength());
+        if (val > Integer.MAX_VALUE) {
+            ErrMsg.warn(line, ch, Diagnostics.INT_TOO_LARGE, null);
+            val = Integer.MAX_VALUE;
+        }
+        intVal = (int)val;
+    }
+    else if (kind == sym.ID || kind == sym.STRINGLITERAL) {
+        name = names.intern(yy_bytes, yychar, yylength());
+        intVal = name.id();
+    }
+    if (tokens != null) {
+        tokens.setSource(yy_bytes);
+        tokens.add(kind, line, ch, yychar, yylength(), intVal);
+        return RECORDED;
+    }
+    switch (kind) {
+    case sym.ID:
+        return new Symbol(kind, new IdTokenVal(line, ch, name));
+    case sym.INTLITERAL:
+        return new Symbol(kind, new IntLitTokenVal(line, ch, intVal));
+    case sym.STRINGLITERAL:
+        return new Symbol(kind, new StrLitTokenVal(line, ch, name));
+    default:
+        return new Symbol(kind, new TokenVal(line, ch));
+    }
+}
+	private java.io.Reader yy_reader;
+	private java.io.InputStream yy_stream;
+	private java.nio.channels.FileChannel yy_channel;
+	private java.nio.ByteBuffer yy_bytes;
+	private char yy_text_buffer[];
 	private int yy_buffer_index;
 	private int yy_buffer_read;
 	private int yy_buffer_start;
 	private int yy_buffer_end;
-	private char yy_buffer[];
+	private int yychar;
 	private int yyline;
+	private int yycolumn;
+	private int yy_line_start;
 	private boolean yy_at_bol;
 	private int yy_lexical_state;
 
@@ -75,7 +176,7 @@ class Yylex implements java_cup.runtime.Scanner {
 		if (null == reader) {
 			throw (new Error("Error: Bad input stream initializer."));
 		}
-		yy_reader = new java.io.BufferedReader(reader);
+		yy_reader = reader;
 	}
 
 	Yylex (java.io.InputStream instream) {
@@ -83,16 +184,39 @@ class Yylex implements java_cup.runtime.Scanner {
 		if (null == instream) {
 			throw (new Error("Error: Bad input stream initializer."));
 		}
-		yy_reader = new java.io.BufferedReader(new java.io.InputStreamReader(instream));
+		if (instream instanceof java.io.FileInputStream) {
+			yy_channel = ((java.io.FileInputStream) instream).getChannel();
+		} else {
+			yy_stream = instream;
+		}
+	}
+
+	Yylex (java.nio.channels.FileChannel channel) {
+		this ();
+		if (null == channel) {
+			throw (new Error("Error: Bad input stream initializer."));
+		}
+		yy_channel = channel;
+	}
+
+	Yylex (java.nio.ByteBuffer bytes) {
+		this ();
+		if (null == bytes) {
+			throw (new Error("Error: Bad input stream initializer."));
+		}
+		yy_bytes = bytes.slice();
+		yy_buffer_read = yy_bytes.limit();
 	}
 
 	private Yylex () {
-		yy_buffer = new char[YY_BUFFER_SIZE];
 		yy_buffer_read = 0;
 		yy_buffer_index = 0;
 		yy_buffer_start = 0;
 		yy_buffer_end = 0;
+		yychar = 0;
 		yyline = 0;
+		yycolumn = 0;
+		yy_line_start = 0;
 		yy_at_bol = true;
 		yy_lexical_state = YYINITIAL;
 	}
@@ -105,71 +229,92 @@ class Yylex implements java_cup.runtime.Scanner {
 	private void yybegin (int state) {
 		yy_lexical_state = state;
 	}
-	private int yy_advance ()
+	private void yy_load ()
 		throws java.io.IOException {
-		int next_read;
-		int i;
-		int j;
-
-		if (yy_buffer_index < yy_buffer_read) {
-			return yy_buffer[yy_buffer_index++];
+		if (null != yy_channel) {
+			long size = yy_channel.size();
+			if (0 < size) {
+				long position = yy_channel.position();
+				size = size - position;
+				if (size > java.lang.Integer.MAX_VALUE) {
+					throw (new java.io.IOException("Error: Input too large to map."));
+				}
+				yy_bytes = yy_channel.map(java.nio.channels.FileChannel.MapMode.READ_ONLY,
+					position, size);
+			} else {
+				yy_stream = java.nio.channels.Channels.newInputStream(yy_channel);
+			}
+			yy_channel = null;
 		}
-
-		if (0 != yy_buffer_start) {
-			i = yy_buffer_start;
-			j = 0;
-			while (i < yy_buffer_read) {
-				yy_buffer[j] = yy_buffer[i];
-				++i;
-				++j;
+		if (null != yy_stream) {
+			int next_read;
+			int read = 0;
+			byte bytes[] = new byte[YY_BUFFER_SIZE];
+			while (-1 != (next_read = yy_stream.read(bytes, read, bytes.length - read))) {
+				read = read + next_read;
+				if (read >= bytes.length) {
+					bytes = java.util.Arrays.copyOf(bytes, 2 * bytes.length);
+				}
 			}
-			yy_buffer_end = yy_buffer_end - yy_buffer_start;
-			yy_buffer_start = 0;
-			yy_buffer_read = j;
-			yy_buffer_index = j;
-			next_read = yy_reader.read(yy_buffer,
-					yy_buffer_read,
-					yy_buffer.length - yy_buffer_read);
-			if (-1 == next_read) {
-				return YY_EOF;
+			yy_bytes = java.nio.ByteBuffer.wrap(bytes, 0, read);
+			yy_stream = null;
+		} else if (null != yy_reader) {
+			int i;
+			int next_read;
+			int read = 0;
+			char buf[] = new char[YY_BUFFER_SIZE];
+			byte bytes[];
+			while (-1 != (next_read = yy_reader.read(buf, read, buf.length - read))) {
+				read = read + next_read;
+				if (read >= buf.length) {
+					buf = yy_double(buf);
+				}
 			}
-			yy_buffer_read = yy_buffer_read + next_read;
+			bytes = new java.lang.String(buf, 0, read).getBytes(java.nio.charset.StandardCharsets.UTF_8);
+			yy_bytes = java.nio.ByteBuffer.wrap(bytes);
+			yy_reader = null;
 		}
-
-		while (yy_buffer_index >= yy_buffer_read) {
-			if (yy_buffer_index >= yy_buffer.length) {
-				yy_buffer = yy_double(yy_buffer);
-			}
-			next_read = yy_reader.read(yy_buffer,
-					yy_buffer_read,
-					yy_buffer.length - yy_buffer_read);
-			if (-1 == next_read) {
-				return YY_EOF;
+		yy_buffer_read = yy_bytes.limit();
+	}
+	private int yy_advance ()
+		throws java.io.IOException {
+		if (yy_buffer_index < yy_buffer_read) {
+			return yy_bytes.get(yy_buffer_index++) & 0xff;
+		}
+		if (null == yy_bytes) {
+			yy_load();
+			if (yy_buffer_index < yy_buffer_read) {
+				return yy_bytes.get(yy_buffer_index++) & 0xff;
 			}
-			yy_buffer_read = yy_buffer_read + next_read;
 		}
-		return yy_buffer[yy_buffer_index++];
+		return YY_EOF;
 	}
 	private void yy_move_end () {
 		if (yy_buffer_end > yy_buffer_start &&
-		    '\n' == yy_buffer[yy_buffer_end-1])
+		    '\n' == ((char) (yy_bytes.get(yy_buffer_end-1) & 0xff)))
 			yy_buffer_end--;
 		if (yy_buffer_end > yy_buffer_start &&
-		    '\r' == yy_buffer[yy_buffer_end-1])
+		    '\r' == ((char) (yy_bytes.get(yy_buffer_end-1) & 0xff)))
 			yy_buffer_end--;
 	}
 	private boolean yy_last_was_cr=false;
 	private void yy_mark_start () {
 		int i;
 		for (i = yy_buffer_start; i < yy_buffer_index; ++i) {
-			if ('\n' == yy_buffer[i] && !yy_last_was_cr) {
+			if ('\n' == ((char) (yy_bytes.get(i) & 0xff)) && !yy_last_was_cr) {
 				++yyline;
 			}
-			if ('\r' == yy_buffer[i]) {
+			if ('\r' == ((char) (yy_bytes.get(i) & 0xff))) {
 				++yyline;
 				yy_last_was_cr=true;
 			} else yy_last_was_cr=false;
+			if ('\n' == ((char) (yy_bytes.get(i) & 0xff)) || '\r' == ((char) (yy_bytes.get(i) & 0xff))) {
+				yy_line_start = yychar + i + 1 - yy_buffer_start;
+			}
 		}
+		yychar = yychar
+			+ yy_buffer_index - yy_buffer_start;
+		yycolumn = yychar - yy_line_start;
 		yy_buffer_start = yy_buffer_index;
 	}
 	private void yy_mark_end () {
@@ -178,15 +323,28 @@ class Yylex implements java_cup.runtime.Scanner {
 	private void yy_to_mark () {
 		yy_buffer_index = yy_buffer_end;
 		yy_at_bol = (yy_buffer_end > yy_buffer_start) &&
-		            ('\r' == yy_buffer[yy_buffer_end-1] ||
-		             '\n' == yy_buffer[yy_buffer_end-1] ||
-		             2028/*LS*/ == yy_buffer[yy_buffer_end-1] ||
-		             2029/*PS*/ == yy_buffer[yy_buffer_end-1]);
+		            ('\r' == ((char) (yy_bytes.get(yy_buffer_end-1) & 0xff)) ||
+		             '\n' == ((char) (yy_bytes.get(yy_buffer_end-1) & 0xff)) ||
+		             2028/*LS*/ == ((char) (yy_bytes.get(yy_buffer_end-1) & 0xff)) ||
+		             2029/*PS*/ == ((char) (yy_bytes.get(yy_buffer_end-1) & 0xff)));
 	}
 	private java.lang.String yytext () {
-		return (new java.lang.String(yy_buffer,
-			yy_buffer_start,
-			yy_buffer_end - yy_buffer_start));
+		int i;
+		int length = yy_buffer_end - yy_buffer_start;
+		if (null == yy_text_buffer || yy_text_buffer.length < length) {
+			yy_text_buffer = new char[java.lang.Math.max(length, YY_BUFFER_SIZE)];
+		}
+		for (i = 0; i < length; ++i) {
+			int b = yy_bytes.get(yy_buffer_start + i);
+			if (b < 0) {
+				java.nio.ByteBuffer text = yy_bytes.duplicate();
+				text.limit(yy_buffer_end);
+				text.position(yy_buffer_start);
+				return java.nio.charset.StandardCharsets.UTF_8.decode(text).toString();
+			}
+			yy_text_buffer[i] = (char) b;
+		}
+		return (new java.lang.String(yy_text_buffer, 0, length));
 	}
 	private int yylength () {
 		return yy_buffer_end - yy_buffer_start;
@@ -296,86 +454,34 @@ class Yylex implements java_cup.runtime.Scanner {
 		/* 42 */ YY_NO_ANCHOR,
 		/* 43 */ YY_NO_ANCHOR,
 		/* 44 */ YY_NO_ANCHOR,
-		/* 45 */ YY_NO_ANCHOR,
-		/* 46 */ YY_NO_ANCHOR,
+		/* 45 */ YY_NOT_ACCEPT,
+		/* 46 */ YY_NOT_ACCEPT,
 		/* 47 */ YY_NO_ANCHOR,
 		/* 48 */ YY_NO_ANCHOR,
-		/* 49 */ YY_NOT_ACCEPT,
-		/* 50 */ YY_NO_ANCHOR,
+		/* 49 */ YY_NO_ANCHOR,
+		/* 50 */ YY_NOT_ACCEPT,
 		/* 51 */ YY_NO_ANCHOR,
 		/* 52 */ YY_NO_ANCHOR,
-		/* 53 */ YY_NO_ANCHOR,
-		/* 54 */ YY_NO_ANCHOR,
-		/* 55 */ YY_NO_ANCHOR,
-		/* 56 */ YY_NO_ANCHOR,
-		/* 57 */ YY_NO_ANCHOR,
-		/* 58 */ YY_NO_ANCHOR,
-		/* 59 */ YY_NO_ANCHOR,
-		/* 60 */ YY_NO_ANCHOR,
-		/* 61 */ YY_NO_ANCHOR,
-		/* 62 */ YY_NO_ANCHOR,
-		/* 63 */ YY_NO_ANCHOR,
-		/* 64 */ YY_NO_ANCHOR,
-		/* 65 */ YY_NO_ANCHOR,
-		/* 66 */ YY_NO_ANCHOR,
-		/* 67 */ YY_NO_ANCHOR,
-		/* 68 */ YY_NO_ANCHOR,
-		/* 69 */ YY_NO_ANCHOR,
-		/* 70 */ YY_NO_ANCHOR,
-		/* 71 */ YY_NO_ANCHOR,
-		/* 72 */ YY_NO_ANCHOR,
-		/* 73 */ YY_NO_ANCHOR,
-		/* 74 */ YY_NO_ANCHOR,
-		/* 75 */ YY_NO_ANCHOR,
-		/* 76 */ YY_NO_ANCHOR,
-		/* 77 */ YY_NO_ANCHOR,
-		/* 78 */ YY_NO_ANCHOR,
-		/* 79 */ YY_NO_ANCHOR,
-		/* 80 */ YY_NO_ANCHOR,
-		/* 81 */ YY_NO_ANCHOR,
-		/* 82 */ YY_NO_ANCHOR,
-		/* 83 */ YY_NO_ANCHOR,
-		/* 84 */ YY_NO_ANCHOR,
-		/* 85 */ YY_NO_ANCHOR,
-		/* 86 */ YY_NO_ANCHOR,
-		/* 87 */ YY_NO_ANCHOR,
-		/* 88 */ YY_NO_ANCHOR,
-		/* 89 */ YY_NO_ANCHOR,
-		/* 90 */ YY_NO_ANCHOR,
-		/* 91 */ YY_NO_ANCHOR,
-		/* 92 */ YY_NO_ANCHOR,
-		/* 93 */ YY_NO_ANCHOR
+		/* 53 */ YY_NO_ANCHOR
 	};
-	private int yy_cmap[] = unpackFromString(1,130,
-"45:9,26,25,45:2,22,45:18,26,41,21,28,45:2,42,24,31,32,40,38,34,39,35,27,20:" +
-"10,45,33,36,44,37,24,45,18:26,45,23,45:2,19,45,13,1,15,8,11,12,18,17,4,18:2" +
-",3,18,5,2,18:2,9,14,6,10,7,16,18:3,29,43,30,45:2,0:2")[0];
+	private int yy_cmap[] = unpackFromString(1,258,
+"38:9,8,7,38:2,0,38:18,8,23,3,10,38:2,24,5,13,14,22,20,16,21,17,9,2:10,38,15" +
+",18,26,19,5,38,1:26,38,4,38:2,1,38,1:13,6,1:5,6,1:6,11,25,12,38:2,29:16,35:" +
+"16,31:32,38:2,28:30,30,32:12,33,32:2,34,36:3,37,38:11,27:2")[0];
 
-	private int yy_rmap[] = unpackFromString(1,94,
-"0,1,2,3,4,1:2,5,6,7,1:7,8,9,10,11,1,12,13,14,1,15,1:10,14:7,1,14:4,16,17,18" +
-",19,20,21,22,23,24,20,25,26,27,28,29,30,31,32,33,34,35,36,14,37,38,39,40,41" +
-",42,43,44,45,46,47,48,49,14,50,51,52,53,54,55,56,57")[0];
+	private int yy_rmap[] = unpackFromString(1,54,
+"0,1,2,3,4:2,5,6,7,4:7,8,9,10,11,4,12,13,14,15,4,16,17,18,19,20,21,22,4,23,4" +
+":10,16,18,24,4,25,26,27:2,28")[0];
 
-	private int yy_nxt[][] = unpackFromString(58,46,
-"1,2,85:2,50,85,87,88,85,89,85,90,91,85,92,69,93,85:3,3,4,-1,5:2,6,7,8,9,10," +
-"11,12,13,14,15,16,17,18,19,20,21,22,51,55,23,5,-1:47,85,70,85:16,71:2,-1:45" +
-",3,-1:26,4:20,25,4,26,4,-1,4:20,-1:26,7,-1:46,9,-1:19,9:24,-1,9:20,-1:36,27" +
-",-1:7,28,-1:38,29,-1:6,30,-1:39,31,-1:46,32,-1:50,33,-1:45,36,-1:2,85:18,71" +
-":2,-1:26,52:4,4:2,52:14,4,52,4:2,-1,52:20,-1,49:20,44,49:3,-1,49:20,-1,85:4" +
-",54,85:6,24,85:6,71:2,-1:67,34,-1:4,52:20,44,52,56,52,-1,52:20,-1,58:20,-1," +
-"58,60,58,-1,58:20,-1,85:5,37,85:12,71:2,-1:68,35,-1:3,49:4,52:2,49:14,53,49" +
-",52:2,-1,49:20,-1,85:4,38,85:13,71:2,-1:26,85:2,39,85:15,71:2,-1:30,58:2,-1" +
-":14,58,-1,58:2,-1:22,85:10,40,85:7,71:2,-1:26,85:7,41,85:10,71:2,-1:26,85:1" +
-"0,42,85:7,71:2,-1:26,85:5,43,85:12,71:2,-1:26,85:10,45,85:7,71:2,-1:26,85:1" +
-"0,46,85:7,71:2,-1:26,85:4,47,85:13,71:2,-1:26,85:5,48,85:12,71:2,-1:26,85,7" +
-"8,85,57,85:14,71:2,-1:26,85,59,85:16,71:2,-1:26,85:9,61,85:8,71:2,-1:26,85:" +
-"3,62,85:14,71:2,-1:26,85:5,80,85:12,71:2,-1:26,85:13,63,85:4,71:2,-1:26,85:" +
-"2,81,85:15,71:2,-1:26,85:8,86,85:9,71:2,-1:26,85:9,64,85:8,71:2,-1:26,85:3," +
-"82,85:14,71:2,-1:26,85:9,83,85:8,71:2,-1:26,85:13,65,85:4,71:2,-1:26,85:2,6" +
-"6,85:15,71:2,-1:26,85:8,67,85:9,71:2,-1:26,85:14,68,85:3,71:2,-1:26,85:9,84" +
-",85:8,71:2,-1:26,85:8,72,85:9,71:2,-1:26,85,73,85:16,71:2,-1:26,85:10,74,85" +
-":7,71:2,-1:26,85:2,75,85:15,71:2,-1:26,85:12,76,85:5,71:2,-1:26,85:5,77,85:" +
-"12,71:2,-1:26,85:16,79,85,71:2,-1:25");
+	private int yy_nxt[][] = unpackFromString(29,39,
+"-1,1,2,3,4:2,1,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20,21,22,23,24,25,26" +
+",4,27,4,28,29,30,4,31,32,4,-1,1:2,-1:3,1,-1:34,2,-1:36,3:3,33,34,3:2,-1,3:1" +
+"9,-1,3:11,-1:47,6,-1:39,8,-1:29,8:7,-1,8:19,-1,8:11,-1:18,35,-1:7,36,-1:31," +
+"37,-1:6,38,-1:32,39,-1:39,40,-1:43,41,-1:36,42,-1:39,43,-1:39,44,-1:41,4,-1" +
+",4,-1:3,4,-1:34,45,-1:36,45,-1,45,-1:3,45,-1:32,45,-1:5,45,-1:34,46,-1:3,46" +
+",-1:32,46,-1,46,-1:3,46,-1:32,46,-1:9,47:3,3:4,-1,47:19,-1,47:14,48,49,47:2" +
+",-1,47:19,-1,47:11,50:3,51,47:3,-1,50:19,-1,50:14,48,50:3,-1,50:19,-1,50:11" +
+",52:3,-1,53,52:2,-1,52:19,-1,52:11,-1:3,52:4,-1:32");
 
 	public java_cup.runtime.Symbol next_token ()
 		throws java.io.IOException {
@@ -423,737 +529,259 @@ return new Symbol(sym.EOF);
 					yy_to_mark();
 					switch (yy_last_accept_state) {
 					case 1:
-						
+						{
+            return token(Keywords.lookup(yy_bytes, yychar, yylength()));
+          }
 					case -2:
 						break;
 					case 2:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
+						{ return token(sym.INTLITERAL); }
 					case -3:
 						break;
 					case 3:
-						{ double val = Double.parseDouble(yytext());
-            int intVal;
-            if (val > Integer.MAX_VALUE) {
-                ErrMsg.warn(yyline+1, CharNum.num,
-                            "integer literal too large; using max value");
-                intVal = Integer.MAX_VALUE;
-            } else {
-                intVal = Integer.parseInt(yytext());
-            }
-            Symbol S = new Symbol(sym.INTLITERAL,
-                             new IntLitTokenVal(yyline+1, CharNum.num, intVal));
-            CharNum.num += yytext().length();
-            return S;
+						{
+            // unterminated string
+            ErrMsg.fatal(yyline+1, yycolumn+1,
+                         Diagnostics.UNTERMINATED_STRING, null);
           }
 					case -4:
 						break;
 					case 4:
-						{
-            // unterminated string
-            ErrMsg.fatal(yyline+1, CharNum.num,
-                         "unterminated string literal ignored");
+						{ ErrMsg.fatal(yyline+1, yycolumn+1,
+                         Diagnostics.ILLEGAL_CHAR, yytext());
           }
 					case -5:
 						break;
 					case 5:
-						{ ErrMsg.fatal(yyline+1, CharNum.num,
-                         "illegal character ignored: " + yytext());
-            CharNum.num++;
-          }
+						{ }
 					case -6:
 						break;
 					case 6:
-						{ CharNum.num = 1; }
+						{ }
 					case -7:
 						break;
 					case 7:
-						{ CharNum.num += yytext().length(); }
+						{ return token(sym.DIVIDE); }
 					case -8:
 						break;
 					case 8:
-						{ Symbol S = new Symbol(sym.DIVIDE, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
-            return S;
+						{ // comment - ignore.
           }
 					case -9:
 						break;
 					case 9:
-						{ // comment - ignore. Note: don't need to update char num 
-            // since everything to end of line will be ignored
-          }
+						{ return token(sym.LCURLY); }
 					case -10:
 						break;
 					case 10:
-						{ Symbol S = new Symbol(sym.LCURLY, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
-            return S;
-          }
+						{ return token(sym.RCURLY); }
 					case -11:
 						break;
 					case 11:
-						{ Symbol S = new Symbol(sym.RCURLY, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
-            return S;
-          }
+						{ return token(sym.LPAREN); }
 					case -12:
 						break;
 					case 12:
-						{ Symbol S = new Symbol(sym.LPAREN, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
-            return S;
-          }
+						{ return token(sym.RPAREN); }
 					case -13:
 						break;
 					case 13:
-						{ Symbol S = new Symbol(sym.RPAREN, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
-            return S;
-          }
+						{ return token(sym.SEMICOLON); }
 					case -14:
 						break;
 					case 14:
-						{ Symbol S = new Symbol(sym.SEMICOLON, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
-            return S;
-          }
+						{ return token(sym.COMMA); }
 					case -15:
 						break;
 					case 15:
-						{ Symbol S = new Symbol(sym.COMMA, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
-            return S;
-          }
+						{ return token(sym.DOT); }
 					case -16:
 						break;
 					case 16:
-						{ Symbol S = new Symbol(sym.DOT, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
-            return S;
-          }
+						{ return token(sym.LESS); }
 					case -17:
 						break;
 					case 17:
-						{ Symbol S = new Symbol(sym.LESS, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
-            return S;
-          }
+						{ return token(sym.GREATER); }
 					case -18:
 						break;
 					case 18:
-						{ Symbol S = new Symbol(sym.GREATER, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
-            return S;
-          }
+						{ return token(sym.PLUS); }
 					case -19:
 						break;
 					case 19:
-						{ Symbol S = new Symbol(sym.PLUS, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
-            return S;
-          }
+						{ return token(sym.MINUS); }
 					case -20:
 						break;
 					case 20:
-						{ Symbol S = new Symbol(sym.MINUS, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
-            return S;
-          }
+						{ return token(sym.TIMES); }
 					case -21:
 						break;
 					case 21:
-						{ Symbol S = new Symbol(sym.TIMES, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
-            return S;
-          }
+						{ return token(sym.NOT); }
 					case -22:
 						break;
 					case 22:
-						{ Symbol S = new Symbol(sym.NOT, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
-            return S;
+						{ ErrMsg.fatal(yyline+1, yycolumn+1,
+                         Diagnostics.ILLEGAL_CHAR, yytext());
           }
 					case -23:
 						break;
 					case 23:
-						{ Symbol S = new Symbol(sym.ASSIGN, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num++;
-            return S;
+						{ ErrMsg.fatal(yyline+1, yycolumn+1,
+                         Diagnostics.ILLEGAL_CHAR, yytext());
           }
 					case -24:
 						break;
 					case 24:
-						{ Symbol S = new Symbol(sym.IF, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
-          }
+						{ return token(sym.ASSIGN); }
 					case -25:
 						break;
 					case 25:
-						{
-            String strVal = yytext();
-            Symbol S = new Symbol(sym.STRINGLITERAL,
-                             new StrLitTokenVal(yyline+1, CharNum.num, strVal));
-            CharNum.num += yytext().length();
-            return S;
-          }
+						
 					case -26:
 						break;
 					case 26:
-						{
-            // bad escape character
-            ErrMsg.fatal(yyline+1, CharNum.num,
-             "unterminated string literal with bad escaped character ignored");
+						{ ErrMsg.fatal(yyline+1, yycolumn+1,
+                         Diagnostics.ILLEGAL_CHAR, yytext());
           }
 					case -27:
 						break;
 					case 27:
-						{ Symbol S = new Symbol(sym.WRITE, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += 2;
-            return S;
+						{ ErrMsg.fatal(yyline+1, yycolumn+1,
+                         Diagnostics.ILLEGAL_CHAR, yytext());
           }
 					case -28:
 						break;
 					case 28:
-						{ Symbol S = new Symbol(sym.LESSEQ, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += 2;
-            return S;
+						{ ErrMsg.fatal(yyline+1, yycolumn+1,
+                         Diagnostics.ILLEGAL_CHAR, yytext());
           }
 					case -29:
 						break;
 					case 29:
-						{ Symbol S = new Symbol(sym.READ, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += 2;
-            return S;
+						{ ErrMsg.fatal(yyline+1, yycolumn+1,
+                         Diagnostics.ILLEGAL_CHAR, yytext());
           }
 					case -30:
 						break;
 					case 30:
-						{ Symbol S = new Symbol(sym.GREATEREQ, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += 2;
-            return S;
+						{ ErrMsg.fatal(yyline+1, yycolumn+1,
+                         Diagnostics.ILLEGAL_CHAR, yytext());
           }
 					case -31:
 						break;
 					case 31:
-						{ Symbol S = new Symbol(sym.PLUSPLUS, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += 2;
-            return S;
+						{ ErrMsg.fatal(yyline+1, yycolumn+1,
+                         Diagnostics.ILLEGAL_CHAR, yytext());
           }
 					case -32:
 						break;
 					case 32:
-						{ Symbol S = new Symbol(sym.MINUSMINUS, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += 2;
-            return S;
+						{ ErrMsg.fatal(yyline+1, yycolumn+1,
+                         Diagnostics.ILLEGAL_CHAR, yytext());
           }
 					case -33:
 						break;
 					case 33:
-						{ Symbol S = new Symbol(sym.NOTEQUALS, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += 2;
-            return S;
-          }
+						{ return token(sym.STRINGLITERAL); }
 					case -34:
 						break;
 					case 34:
-						{ Symbol S = new Symbol(sym.AND, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += 2;
-            return S;
+						{
+            // bad escape character
+            ErrMsg.fatal(yyline+1, yycolumn+1,
+                         Diagnostics.UNTERMINATED_BAD_ESCAPE, null);
           }
 					case -35:
 						break;
 					case 35:
-						{ Symbol S = new Symbol(sym.OR, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += 2;
-            return S;
-          }
+						{ return token(sym.WRITE); }
 					case -36:
 						break;
 					case 36:
-						{ Symbol S = new Symbol(sym.EQUALS, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += 2;
-            return S;
-          }
+						{ return token(sym.LESSEQ); }
 					case -37:
 						break;
 					case 37:
-						{ Symbol S = new Symbol(sym.INT, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
-          }
+						{ return token(sym.READ); }
 					case -38:
 						break;
 					case 38:
-						{ Symbol S = new Symbol(sym.CIN, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
-          }
+						{ return token(sym.GREATEREQ); }
 					case -39:
 						break;
 					case 39:
-						{ Symbol S = new Symbol(sym.BOOL, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
-          }
+						{ return token(sym.PLUSPLUS); }
 					case -40:
 						break;
 					case 40:
-						{ Symbol S = new Symbol(sym.TRUE, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
-          }
+						{ return token(sym.MINUSMINUS); }
 					case -41:
 						break;
 					case 41:
-						{ Symbol S = new Symbol(sym.VOID, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
-          }
+						{ return token(sym.NOTEQUALS); }
 					case -42:
 						break;
 					case 42:
-						{ Symbol S = new Symbol(sym.ELSE, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
-          }
+						{ return token(sym.AND); }
 					case -43:
 						break;
 					case 43:
-						{ Symbol S = new Symbol(sym.COUT, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
-          }
+						{ return token(sym.OR); }
 					case -44:
 						break;
 					case 44:
-						{
-            // bad escape character
-            ErrMsg.fatal(yyline+1, CharNum.num,
-                         "string literal with bad escaped character ignored");
-            CharNum.num += yytext().length();
-          }
+						{ return token(sym.EQUALS); }
 					case -45:
 						break;
-					case 45:
-						{ Symbol S = new Symbol(sym.FALSE, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -46:
-						break;
-					case 46:
-						{ Symbol S = new Symbol(sym.WHILE, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -47:
-						break;
 					case 47:
-						{ Symbol S = new Symbol(sym.RETURN, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -48:
-						break;
-					case 48:
-						{ Symbol S = new Symbol(sym.STRUCT, new TokenVal(yyline+1, CharNum.num));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -49:
-						break;
-					case 50:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -50:
-						break;
-					case 51:
-						{ ErrMsg.fatal(yyline+1, CharNum.num,
-                         "illegal character ignored: " + yytext());
-            CharNum.num++;
-          }
-					case -51:
-						break;
-					case 52:
 						{
             // bad escape character
-            ErrMsg.fatal(yyline+1, CharNum.num,
-             "unterminated string literal with bad escaped character ignored");
+            ErrMsg.fatal(yyline+1, yycolumn+1,
+                         Diagnostics.UNTERMINATED_BAD_ESCAPE, null);
           }
-					case -52:
+					case -46:
 						break;
-					case 53:
+					case 48:
 						{
             // bad escape character
-            ErrMsg.fatal(yyline+1, CharNum.num,
-                         "string literal with bad escaped character ignored");
-            CharNum.num += yytext().length();
+            ErrMsg.fatal(yyline+1, yycolumn+1,
+                         Diagnostics.BAD_ESCAPE, null);
           }
-					case -53:
-						break;
-					case 54:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -54:
-						break;
-					case 55:
-						{ ErrMsg.fatal(yyline+1, CharNum.num,
-                         "illegal character ignored: " + yytext());
-            CharNum.num++;
-          }
-					case -55:
+					case -47:
 						break;
-					case 56:
+					case 49:
 						{
             // bad escape character
-            ErrMsg.fatal(yyline+1, CharNum.num,
-             "unterminated string literal with bad escaped character ignored");
+            ErrMsg.fatal(yyline+1, yycolumn+1,
+                         Diagnostics.UNTERMINATED_BAD_ESCAPE, null);
           }
-					case -56:
-						break;
-					case 57:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -57:
+					case -48:
 						break;
-					case 58:
+					case 51:
 						{
             // bad escape character
-            ErrMsg.fatal(yyline+1, CharNum.num,
-             "unterminated string literal with bad escaped character ignored");
+            ErrMsg.fatal(yyline+1, yycolumn+1,
+                         Diagnostics.BAD_ESCAPE, null);
           }
-					case -58:
-						break;
-					case 59:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -59:
+					case -49:
 						break;
-					case 60:
+					case 52:
 						{
             // bad escape character
-            ErrMsg.fatal(yyline+1, CharNum.num,
-             "unterminated string literal with bad escaped character ignored");
-          }
-					case -60:
-						break;
-					case 61:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -61:
-						break;
-					case 62:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -62:
-						break;
-					case 63:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -63:
-						break;
-					case 64:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -64:
-						break;
-					case 65:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -65:
-						break;
-					case 66:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -66:
-						break;
-					case 67:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -67:
-						break;
-					case 68:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -68:
-						break;
-					case 69:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -69:
-						break;
-					case 70:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -70:
-						break;
-					case 71:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -71:
-						break;
-					case 72:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -72:
-						break;
-					case 73:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -73:
-						break;
-					case 74:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
+            ErrMsg.fatal(yyline+1, yycolumn+1,
+                         Diagnostics.UNTERMINATED_BAD_ESCAPE, null);
           }
-					case -74:
-						break;
-					case 75:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -75:
-						break;
-					case 76:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -76:
-						break;
-					case 77:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -77:
-						break;
-					case 78:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -78:
-						break;
-					case 79:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -79:
-						break;
-					case 80:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -80:
-						break;
-					case 81:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -81:
-						break;
-					case 82:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -82:
-						break;
-					case 83:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -83:
-						break;
-					case 84:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -84:
-						break;
-					case 85:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -85:
-						break;
-					case 86:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -86:
-						break;
-					case 87:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -87:
-						break;
-					case 88:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -88:
-						break;
-					case 89:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -89:
-						break;
-					case 90:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -90:
-						break;
-					case 91:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -91:
-						break;
-					case 92:
-						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
-          }
-					case -92:
+					case -50:
 						break;
-					case 93:
+					case 53:
 						{
-            Symbol S = new Symbol(sym.ID, 
-                             new IdTokenVal(yyline+1, CharNum.num, yytext()));
-            CharNum.num += yytext().length();
-            return S;
+            // bad escape character
+            ErrMsg.fatal(yyline+1, yycolumn+1,
+                         Diagnostics.UNTERMINATED_BAD_ESCAPE, null);
           }
-					case -93:
+					case -51:
 						break;
 					default:
 						yy_error(YY_E_INTERNAL,false);
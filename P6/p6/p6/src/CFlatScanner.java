@@ -0,0 +1,15 @@
+/**
+ * The CFlatScanner interface is implemented by the scanners that the
+ * parser can read from: the generated Yylex, and ParallelScanner, which
+ * concatenates the tokens of several Yylex scanners.
+ *
+ * Besides the tokens, the parser needs the NameTable in which the IDs
+ * and string literals it receives were interned.
+ */
+public interface CFlatScanner extends java_cup.runtime.Scanner {
+    /**
+     * Returns the table in which the scanned IDs and string literals
+     * are interned.
+     */
+    NameTable names();
+}
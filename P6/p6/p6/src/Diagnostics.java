@@ -0,0 +1,149 @@
+/**
+ * The Diagnostics class collects the errors and warnings of one
+ * compilation, so that the scanner, the parser and the later passes can
+ * report them without writing to System.err as they go.
+ *
+ * Each diagnostic is recorded as its line and character number, a code
+ * naming its message template, and the text that fills the template,
+ * in parallel arrays as in TokenBuffer.  Nothing is formatted until
+ * flush(), which prints them all at once, sorted by position; those
+ * without a position (line 0) come last.  Once the error limit is
+ * reached, further diagnostics are only counted, so a garbage input
+ * costs no more than scanning it.
+ *
+ * A Diagnostics may be shared by threads, e.g. by the scanners of
+ * ParallelScanner; its methods are synchronized.
+ */
+public class Diagnostics {
+    public static final int DEFAULT_LIMIT = 100;
+    private static final int INITIAL_SIZE = 16;
+
+    // message codes, which index TEMPLATES
+    public static final int MESSAGE = 0;
+    public static final int ILLEGAL_CHAR = 1;
+    public static final int UNTERMINATED_STRING = 2;
+    public static final int BAD_ESCAPE = 3;
+    public static final int UNTERMINATED_BAD_ESCAPE = 4;
+    public static final int INT_TOO_LARGE = 5;
+
+    // {0} is replaced by the text recorded with the diagnostic
+    private static final String[] TEMPLATES = {
+        "{0}",
+        "illegal character ignored: {0}",
+        "unterminated string literal ignored",
+        "string literal with bad escaped character ignored",
+        "unterminated string literal with bad escaped character ignored",
+        "integer literal too large; using max value"
+    };
+
+    private int limit;
+    private boolean[] error;
+    private int[] line;
+    private int[] charnum;
+    private int[] code;
+    private String[] text;
+    private int size;
+    private int errors;     // errors reported, whether recorded or not
+    private int dropped;    // diagnostics not recorded for the limit
+
+    public Diagnostics() {
+        this(DEFAULT_LIMIT);
+    }
+
+    /**
+     * Creates a buffer that records at most limit diagnostics.
+     */
+    public Diagnostics(int limit) {
+        this.limit = Math.max(1, limit);
+        int n = Math.min(this.limit, INITIAL_SIZE);
+        error = new boolean[n];
+        line = new int[n];
+        charnum = new int[n];
+        code = new int[n];
+        text = new String[n];
+    }
+
+    public synchronized void error(int ln, int ch, int c, String txt) {
+        errors++;
+        add(true, ln, ch, c, txt);
+    }
+
+    public synchronized void warn(int ln, int ch, int c, String txt) {
+        add(false, ln, ch, c, txt);
+    }
+
+    /**
+     * Returns true if any error has been reported.
+     */
+    public synchronized boolean hasErrors() {
+        return errors > 0;
+    }
+
+    public synchronized int errorCount() {
+        return errors;
+    }
+
+    /**
+     * Prints the diagnostics recorded so far to out, sorted by
+     * position, and forgets them.
+     */
+    public synchronized void flush(java.io.PrintStream out) {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        // stable, so diagnostics at one position keep their order
+        java.util.Arrays.sort(order, (a, b) -> {
+            long ka = key(a), kb = key(b);
+            return ka < kb ? -1 : (ka > kb ? 1 : 0);
+        });
+
+        StringBuilder sb = new StringBuilder();
+        for (int i : order) {
+            sb.append(line[i]).append(':').append(charnum[i])
+              .append(error[i] ? " ***ERROR*** " : " ***WARNING*** ")
+              .append(TEMPLATES[code[i]].replace("{0}", text[i]))
+              .append('\n');
+        }
+        if (dropped > 0) {
+            sb.append("***NOTE*** ").append(dropped)
+              .append(" more errors and warnings not shown\n");
+        }
+        out.print(sb);
+        out.flush();
+
+        java.util.Arrays.fill(text, 0, size, null);
+        size = 0;
+        dropped = 0;
+    }
+
+    private void add(boolean err, int ln, int ch, int c, String txt) {
+        if (size == limit) {
+            dropped++;
+            return;
+        }
+        if (size == line.length) {
+            grow();
+        }
+        error[size] = err;
+        line[size] = ln;
+        charnum[size] = ch;
+        code[size] = c;
+        text[size] = (txt == null) ? "" : txt;
+        size++;
+    }
+
+    private long key(int i) {
+        long ln = (line[i] <= 0) ? Integer.MAX_VALUE : line[i];
+        return (ln << 32) | (charnum[i] & 0xffffffffL);
+    }
+
+    private void grow() {
+        int n = Math.min(limit, 2 * line.length);
+        error = java.util.Arrays.copyOf(error, n);
+        line = java.util.Arrays.copyOf(line, n);
+        charnum = java.util.Arrays.copyOf(charnum, n);
+        code = java.util.Arrays.copyOf(code, n);
+        text = java.util.Arrays.copyOf(text, n);
+    }
+}
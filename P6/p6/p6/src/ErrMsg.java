@@ -1,11 +1,47 @@
+import java.util.concurrent.Callable;
+
 /**
  * ErrMsg
  *
  * This class is used to generate warning and fatal error messages.
+ * They are recorded in the Diagnostics of the current compilation and
+ * printed, sorted by position, when flush is called.  Each thread has
+ * its own current Diagnostics, so compilations on different threads
+ * keep their messages apart; tasks that a compilation runs on other
+ * threads are wrapped with in() to report to it.
  */
 class ErrMsg {
-	private static boolean err = false;
-	
+	// the Diagnostics of the compilation running on each thread
+	private static final ThreadLocal<Diagnostics> diagnostics =
+		ThreadLocal.withInitial(Diagnostics::new);
+
+	/**
+	 * Makes d the buffer in which messages reported on this thread are
+	 * recorded, e.g. a new one for each compilation.
+	 */
+	static void use(Diagnostics d) {
+		diagnostics.set(d);
+	}
+
+	static Diagnostics diagnostics() {
+		return diagnostics.get();
+	}
+
+	/**
+	 * Returns task wrapped to record its messages in d, whatever
+	 * thread it runs on.
+	 */
+	static <T> Callable<T> in(Diagnostics d, Callable<T> task) {
+		return () -> {
+			diagnostics.set(d);
+			try {
+				return task.call();
+			} finally {
+				diagnostics.remove();
+			}
+		};
+	}
+
     /**
      * Generates a fatal error message.
      * @param lineNum line number for error location
@@ -13,8 +49,18 @@ class ErrMsg {
      * @param msg associated message for error
      */
     static void fatal(int lineNum, int charNum, String msg) {
-		err = true;
-        System.err.println(lineNum + ":" + charNum + " ***ERROR*** " + msg);
+        diagnostics().error(lineNum, charNum, Diagnostics.MESSAGE, msg);
+    }
+
+    /**
+     * Generates a fatal error message from a template.
+     * @param lineNum line number for error location
+     * @param charNum character number (i.e., column) for error location
+     * @param code Diagnostics code of the message template
+     * @param text text that fills in the template, or null
+     */
+    static void fatal(int lineNum, int charNum, int code, String text) {
+        diagnostics().error(lineNum, charNum, code, text);
     }
 
     /**
@@ -24,13 +70,31 @@ class ErrMsg {
      * @param msg associated message for warning
      */
     static void warn(int lineNum, int charNum, String msg) {
-        System.err.println(lineNum + ":" + charNum + " ***WARNING*** " + msg);
+        diagnostics().warn(lineNum, charNum, Diagnostics.MESSAGE, msg);
+    }
+
+    /**
+     * Generates a warning message from a template.
+     * @param lineNum line number for warning location
+     * @param charNum character number (i.e., column) for warning location
+     * @param code Diagnostics code of the message template
+     * @param text text that fills in the template, or null
+     */
+    static void warn(int lineNum, int charNum, int code, String text) {
+        diagnostics().warn(lineNum, charNum, code, text);
     }
-	
+
 	/**
 	 * Returns the err flag.
 	 */
 	static boolean getErr() {
-		return err;
+		return diagnostics().hasErrors();
+	}
+
+	/**
+	 * Prints the messages recorded so far to System.err.
+	 */
+	static void flush() {
+		diagnostics().flush(System.err);
 	}
 }
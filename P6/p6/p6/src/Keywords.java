@@ -0,0 +1,135 @@
+/**
+ * The Keywords class classifies the text of an identifier token as one
+ * of CFlat's reserved words or as a plain ID.
+ *
+ * The scanner matches reserved words with its identifier rule, which
+ * keeps them out of the DFA, and then looks the text up here.  The
+ * lookup is a minimal perfect hash over WORDS, built by "hash and
+ * displace" when the class is loaded: the words are spread over
+ * buckets by one hash, and each bucket, largest first, is given the
+ * smallest displacement d for which the hash seeded with d sends all of
+ * its words to table slots that are still free.  A lookup is then two
+ * hashes of the text and one comparison with the word in its slot,
+ * whatever the number of reserved words.
+ */
+public class Keywords {
+    // the reserved words and their token kinds
+    private static final String[] WORDS = {
+        "bool", "int", "void", "true", "false", "struct",
+        "cin", "cout", "if", "else", "while", "return"
+    };
+    private static final int[] KINDS = {
+        sym.BOOL, sym.INT, sym.VOID, sym.TRUE, sym.FALSE, sym.STRUCT,
+        sym.CIN, sym.COUT, sym.IF, sym.ELSE, sym.WHILE, sym.RETURN
+    };
+
+    private static final int BUCKETS = (WORDS.length + 1) / 2;
+
+    private static final int[] displacement = new int[BUCKETS];
+    private static final byte[][] slotWord = new byte[WORDS.length][];
+    private static final int[] slotKind = new int[WORDS.length];
+
+    static {
+        build();
+    }
+
+    /**
+     * Return the kind of the reserved word spelled by the ASCII text
+     * src[start .. start+len-1], or sym.ID if it is not one.
+     */
+    public static int lookup(java.nio.ByteBuffer src, int start, int len) {
+        int d = displacement[index(hash(src, start, len, 0), BUCKETS)];
+        int slot = index(hash(src, start, len, d), WORDS.length);
+        byte[] word = slotWord[slot];
+        if (word.length != len) {
+            return sym.ID;
+        }
+        for (int i = 0; i < len; i++) {
+            if (word[i] != src.get(start + i)) {
+                return sym.ID;
+            }
+        }
+        return slotKind[slot];
+    }
+
+    private static int hash(java.nio.ByteBuffer src, int start, int len,
+                            int seed) {
+        int h = 0x811c9dc5 ^ (seed * 0x9e3779b9);
+        for (int i = 0; i < len; i++) {
+            h = (h ^ src.get(start + i)) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static int index(int hash, int size) {
+        return (hash & 0x7fffffff) % size;
+    }
+
+    private static void build() {
+        java.nio.ByteBuffer[] text = new java.nio.ByteBuffer[WORDS.length];
+        int[] bucket = new int[WORDS.length];
+        int[] bucketSize = new int[BUCKETS];
+        for (int k = 0; k < WORDS.length; k++) {
+            text[k] = java.nio.ByteBuffer.wrap(
+                WORDS[k].getBytes(java.nio.charset.StandardCharsets.US_ASCII));
+            bucket[k] = index(hash(text[k], 0, text[k].limit(), 0), BUCKETS);
+            bucketSize[bucket[k]]++;
+        }
+
+        // place the buckets largest first, while the most slots are free
+        Integer[] order = new Integer[BUCKETS];
+        for (int b = 0; b < BUCKETS; b++) {
+            order[b] = b;
+        }
+        java.util.Arrays.sort(order, (a, b) -> bucketSize[b] - bucketSize[a]);
+
+        boolean[] used = new boolean[WORDS.length];
+        int[] slot = new int[WORDS.length];
+        for (int b : order) {
+            if (bucketSize[b] == 0) {
+                break;
+            }
+            for (int d = 1; ; d++) {
+                if (place(b, d, bucket, text, used, slot)) {
+                    displacement[b] = d;
+                    break;
+                }
+            }
+        }
+
+        for (int k = 0; k < WORDS.length; k++) {
+            slotWord[slot[k]] = text[k].array();
+            slotKind[slot[k]] = KINDS[k];
+        }
+    }
+
+    /**
+     * Try displacement d for the words of bucket b; if they all hash to
+     * distinct free slots, mark the slots used and record them in slot.
+     */
+    private static boolean place(int b, int d, int[] bucket,
+                                 java.nio.ByteBuffer[] text,
+                                 boolean[] used, int[] slot) {
+        int placed = 0;
+        for (int k = 0; k < WORDS.length; k++) {
+            if (bucket[k] != b) {
+                continue;
+            }
+            int s = index(hash(text[k], 0, text[k].limit(), d), WORDS.length);
+            if (used[s]) {
+                // undo this bucket's words placed so far
+                for (int j = 0; j < k && placed > 0; j++) {
+                    if (bucket[j] == b) {
+                        used[slot[j]] = false;
+                        placed--;
+                    }
+                }
+                return false;
+            }
+            used[s] = true;
+            slot[k] = s;
+            placed++;
+        }
+        return true;
+    }
+}
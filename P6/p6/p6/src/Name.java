@@ -0,0 +1,38 @@
+/**
+ * The Name class is the canonical form of an identifier or string
+ * literal, as handed out by a NameTable.
+ *
+ * Each distinct spelling is interned once per compilation, so two Names
+ * are equal exactly when they are the same object.  The hash code is
+ * computed once (it is the same as the hash code of the String) and the
+ * small integer id can be used to index side tables.
+ */
+public final class Name {
+    private final String str;
+    private final int hash;
+    private final int id;
+
+    Name(String str, int hash, int id) {
+        this.str = str;
+        this.hash = hash;
+        this.id = id;
+    }
+
+    /**
+     * Return the id of this name; ids are 0, 1, 2, ... in order of first
+     * occurrence.
+     */
+    public int id() {
+        return id;
+    }
+
+    public int hashCode() {
+        return hash;
+    }
+
+    // equals is inherited from Object: interned names compare by identity
+
+    public String toString() {
+        return str;
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * The NameTable class interns identifiers and string literals for one
+ * compilation.  The scanner looks names up directly from its input
+ * buffer, so a String is only built the first time a spelling is seen;
+ * every later occurrence returns the same Name object.
+ *
+ * The table uses open addressing with linear probing and is not
+ * synchronized.
+ */
+public class NameTable {
+    private static final int INITIAL_SIZE = 256;  // must be a power of 2
+
+    private Name[] slots;   // hash table
+    private Name[] byId;    // names indexed by id
+    private int size;
+
+    public NameTable() {
+        slots = new Name[INITIAL_SIZE];
+        byId = new Name[INITIAL_SIZE];
+        size = 0;
+    }
+
+    /**
+     * Return the Name for the UTF-8 text src[start .. start+len-1],
+     * adding it to the table if it is not there yet.  ASCII text is
+     * hashed and compared in place; anything else is decoded first.
+     */
+    public Name intern(java.nio.ByteBuffer src, int start, int len) {
+        int hash = 0;
+        for (int i = 0; i < len; i++) {
+            byte b = src.get(start + i);
+            if (b < 0) {
+                return intern(decode(src, start, len));
+            }
+            hash = 31 * hash + b;
+        }
+
+        int mask = slots.length - 1;
+        int i = hash & mask;
+        Name name;
+        while ((name = slots[i]) != null) {
+            if (name.hashCode() == hash && matches(name, src, start, len)) {
+                return name;
+            }
+            i = (i + 1) & mask;
+        }
+
+        char[] chars = new char[len];
+        for (int j = 0; j < len; j++) {
+            chars[j] = (char) (src.get(start + j) & 0xff);
+        }
+        return add(new String(chars), hash, i);
+    }
+
+    /**
+     * Return the Name for s, adding it to the table if it is not there
+     * yet.
+     */
+    public Name intern(String s) {
+        Name name = lookup(s);
+        if (name != null) {
+            return name;
+        }
+        int hash = s.hashCode();
+        int mask = slots.length - 1;
+        int i = hash & mask;
+        while (slots[i] != null) {
+            i = (i + 1) & mask;
+        }
+        return add(s, hash, i);
+    }
+
+    /**
+     * Return the Name for s, or null if s has not been interned.
+     */
+    public Name lookup(String s) {
+        int hash = s.hashCode();
+        int mask = slots.length - 1;
+        int i = hash & mask;
+        Name name;
+        while ((name = slots[i]) != null) {
+            if (name.hashCode() == hash && name.toString().equals(s)) {
+                return name;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Return the Name with the given id.
+     */
+    public Name get(int id) {
+        return byId[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Decodes the UTF-8 text src[start .. start+len-1].
+     */
+    static String decode(java.nio.ByteBuffer src, int start, int len) {
+        java.nio.ByteBuffer text = src.duplicate();
+        text.limit(start + len);
+        text.position(start);
+        return java.nio.charset.StandardCharsets.UTF_8.decode(text).toString();
+    }
+
+    private static boolean matches(Name name, java.nio.ByteBuffer src,
+                                   int start, int len) {
+        String s = name.toString();
+        if (s.length() != len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (s.charAt(i) != (char) (src.get(start + i) & 0xff)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Name add(String s, int hash, int slot) {
+        Name name = new Name(s, hash, size);
+        slots[slot] = name;
+        if (size == byId.length) {
+            byId = java.util.Arrays.copyOf(byId, 2 * size);
+        }
+        byId[size++] = name;
+
+        // keep the load factor at or below 1/2
+        if (2 * size > slots.length) {
+            rehash();
+        }
+        return name;
+    }
+
+    private void rehash() {
+        Name[] newSlots = new Name[2 * slots.length];
+        int mask = newSlots.length - 1;
+        for (int j = 0; j < size; j++) {
+            int i = byId[j].hashCode() & mask;
+            while (newSlots[i] != null) {
+                i = (i + 1) & mask;
+            }
+            newSlots[i] = byId[j];
+        }
+        slots = newSlots;
+    }
+}
@@ -166,7 +166,12 @@ public class P5 {
 	}
 	
 	public void run(){
-		int resultCode = process();
+		int resultCode;
+		try {
+			resultCode = process();
+		} finally {
+			ErrMsg.flush();
+		}
 		if (resultCode == RESULT_CORRECT){
 			cleanup();
 			return;
@@ -9,12 +9,25 @@ import java_cup.runtime.*;
  *    1. the file to be parsed
  *    2. the output file into which the AST built by the parser should be
  *       unparsed
+ * An optional third argument gives the number of threads with which to
+ * scan the input (see ParallelScanner); by default it is scanned on one.
+ * An optional fourth argument gives the number of threads with which to
+ * parse it (see ParallelParser); by default it is parsed on one.
+ * An optional fifth argument gives the most errors and warnings to
+ * print (see Diagnostics); by default 100.
+ * An optional sixth argument, "pool", makes the parser reuse the
+ * symbols of each handle it reduces (see PackedSymbolFactory); by
+ * default it allocates new ones.
  * The program opens the two files, creates a scanner and a parser, and
  * calls the parser.  If the parse is successful, the AST is unparsed.
  */
 public class P6 {
-	FileReader inFile;
+	FileInputStream inFile;
 	private PrintWriter outFile;
+	private int lexThreads = 1;
+	private int parseThreads = 1;
+	private int errorLimit = Diagnostics.DEFAULT_LIMIT;
+	private boolean poolSymbols = false;
 	private static PrintStream outStream = System.err;
 	
 	public static final int RESULT_CORRECT = 0;
@@ -48,6 +61,21 @@ public class P6 {
 		try{
 			setInfile(args[0]);
 			setOutfile(args[1]);
+			if (args.length > 2) {
+				setLexThreads(threadCount(args[2]));
+			}
+			if (args.length > 3) {
+				setParseThreads(threadCount(args[3]));
+			}
+			if (args.length > 4) {
+				setErrorLimit(intArg(args[4], "error limit"));
+			}
+			if (args.length > 5) {
+				if (!args[5].equals("pool")) {
+					pukeAndDie("sixth argument must be \"pool\": " + args[5]);
+				}
+				setPoolSymbols(true);
+			}
 		} catch(BadInfileException e){
             pukeAndDie(e.getMessage());			
 		} catch(BadOutfileException e){
@@ -55,13 +83,37 @@ public class P6 {
 		}
 	}
 
+	/**
+	 * Thread count given on the command line
+	 * @param arg command line argument
+	 * @return number of threads
+	 */
+	private int threadCount(String arg){
+		return intArg(arg, "number of threads");
+	}
+
+	/**
+	 * Integer given on the command line
+	 * @param arg command line argument
+	 * @param what what the argument gives, for the error message
+	 * @return its value
+	 */
+	private int intArg(String arg, String what){
+		try {
+			return Integer.parseInt(arg);
+		} catch(NumberFormatException e){
+			pukeAndDie(what + " must be an integer: " + arg);
+			return 1;
+		}
+	}
+
 	/**
 	 * Source code file path 
 	 * @param filename path to source file
 	 */
 	public void setInfile(String filename) throws BadInfileException{
         try {
-            inFile = new FileReader(filename);
+            inFile = new FileInputStream(filename);
         } catch (FileNotFoundException ex) {
         	throw new BadInfileException(ex, filename);
         }
@@ -73,12 +125,54 @@ public class P6 {
 	 */
 	public void setOutfile(String filename) throws BadOutfileException{
         try {
-            outFile = new PrintWriter(filename);
+            // string literals are written out as they were read, in UTF-8
+            outFile = new PrintWriter(new OutputStreamWriter(
+                new FileOutputStream(filename),
+                java.nio.charset.StandardCharsets.UTF_8));
         } catch (FileNotFoundException ex) {
         	throw new BadOutfileException(ex, filename);
         }
 	}
 	
+	/**
+	 * Number of threads with which to scan the source file. With
+	 * more than one, the file is split into chunks that are scanned
+	 * concurrently.
+	 * @param threads number of scanner threads
+	 */
+	public void setLexThreads(int threads){
+		lexThreads = Math.max(1, threads);
+	}
+
+	/**
+	 * Number of threads with which to parse the source file. With
+	 * more than one, its declarations are parsed concurrently.
+	 * @param threads number of parser threads
+	 */
+	public void setParseThreads(int threads){
+		parseThreads = Math.max(1, threads);
+	}
+
+	/**
+	 * Maximum number of errors and warnings to record. Any beyond it
+	 * are counted but not printed.
+	 * @param limit error limit
+	 */
+	public void setErrorLimit(int limit){
+		errorLimit = limit;
+	}
+
+	/**
+	 * Whether the parser reuses the symbols of each handle it reduces,
+	 * instead of allocating new ones. This is safe because the CFlat
+	 * actions keep only the values of the right hand side, never its
+	 * Symbols, and do not read the parse stack.
+	 * @param pool whether to reuse symbols
+	 */
+	public void setPoolSymbols(boolean pool){
+		poolSymbols = pool;
+	}
+
 	/**
 	 * Perform cleanup at the end of parsing. This should be called
 	 * after both good and bad input so that the files are all in a
@@ -128,7 +222,17 @@ public class P6 {
 	 */
 	private Symbol parseCFG(){
 		try {
-	        parser P = new parser(new Yylex(inFile));
+	        CFlatScanner scanner;
+	        if (lexThreads > 1) {
+	        	scanner = new ParallelScanner(inFile.getChannel(), lexThreads);
+	        } else {
+	        	scanner = new Yylex(inFile);
+	        }
+	        if (parseThreads > 1) {
+	        	return new ParallelParser(scanner, parseThreads,
+	        	                          poolSymbols).parse();
+	        }
+	        parser P = new parser(scanner, new PackedSymbolFactory(poolSymbols));
 	        return P.parse();
 		} catch (Exception e){
 			System.out.println("Welp");
@@ -137,6 +241,7 @@ public class P6 {
 	}
 	
 	public int process(){
+		ErrMsg.use(new Diagnostics(errorLimit));
 		Symbol cfgRoot = parseCFG();
 		
 		
@@ -176,7 +281,12 @@ public class P6 {
 	}
 	
 	public void run(){
-		int resultCode = process();
+		int resultCode;
+		try {
+			resultCode = process();
+		} finally {
+			ErrMsg.flush();
+		}
 		if (resultCode == RESULT_CORRECT){
 			cleanup();
 			return;
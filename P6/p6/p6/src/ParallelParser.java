@@ -0,0 +1,227 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+import java_cup.runtime.*;
+
+/**
+ * The ParallelParser class parses a CFlat program on several threads.
+ *
+ * A CFlat program is a flat list of declarations, and the parser is in
+ * the same state at the start of each of them, so the declarations can
+ * be parsed apart.  All of the tokens are read first and split into
+ * declarations by counting braces: a declaration ends with a semicolon
+ * outside any braces, or with a closing brace that closes all of them
+ * (a function body) unless a semicolon follows it (a struct).  Runs of
+ * whole declarations ("pieces") are parsed concurrently, each by a
+ * parser of its own as a program of its own, and the declarations of
+ * all the pieces are put together in source order into one ProgramNode.
+ *
+ * Syntax errors are reported just as the sequential parser reports them.
+ * Each piece but the last ends with an EOF that carries the position of
+ * the token after the piece, which is where the sequential parser finds
+ * an unfinished declaration to be wrong.  If any piece fails to parse,
+ * the first one that fails is parsed again by a parser that reports the
+ * error and exits.  As with ParallelScanner, the whole file is scanned
+ * before parsing starts, so lexical errors past a syntax error are
+ * reported too.
+ */
+public class ParallelParser {
+    // pieces are not made smaller than this many tokens
+    private static final int MIN_PIECE_SIZE = 1 << 14;
+
+    private final CFlatScanner scanner;
+    private final int threads;
+    private final boolean poolSymbols;
+
+    // all the tokens, ending with the scanner's EOF
+    private List<Symbol> tokens;
+
+    /**
+     * Parses the tokens of scanner using up to threads threads.
+     */
+    public ParallelParser(CFlatScanner scanner, int threads) {
+        this(scanner, threads, false);
+    }
+
+    /**
+     * Parses the tokens of scanner using up to threads threads, each
+     * parser reusing the symbols it reduces if poolSymbols is set (see
+     * PackedSymbolFactory).
+     */
+    public ParallelParser(CFlatScanner scanner, int threads,
+                          boolean poolSymbols) {
+        this.scanner = scanner;
+        this.threads = Math.max(1, threads);
+        this.poolSymbols = poolSymbols;
+    }
+
+    /**
+     * Parses the program, returning a Symbol whose value is its
+     * ProgramNode, like parser.parse().  Does not return if there is a
+     * syntax error.
+     */
+    public Symbol parse() throws Exception {
+        tokens = new ArrayList<Symbol>();
+        Symbol token;
+        do {
+            token = scanner.next_token();
+            tokens.add(token);
+        } while (token.sym != sym.EOF);
+
+        int[] bounds = split();
+        int n = bounds.length - 1;
+        List<Future<List<DeclNode>>> pieces =
+            new ArrayList<Future<List<DeclNode>>>();
+        Diagnostics diagnostics = ErrMsg.diagnostics();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(n, threads));
+        try {
+            for (int k = 0; k < n; k++) {
+                final int from = bounds[k], to = bounds[k+1];
+                pieces.add(pool.submit(ErrMsg.in(diagnostics,
+                                                 () -> parsePiece(from, to))));
+            }
+
+            // put the declarations together, stopping at the first error
+            LinkedList<DeclNode> decls = new LinkedList<DeclNode>();
+            for (int k = 0; k < n; k++) {
+                List<DeclNode> piece = get(pieces.get(k));
+                if (piece == null) {
+                    pool.shutdownNow();
+                    reportError(bounds[k], bounds[k+1]);
+                    return null;
+                }
+                decls.addAll(piece);
+            }
+            return new Symbol(0, new ProgramNode(new DeclListNode(decls),
+                                                 scanner.names()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Returns the token indexes at which the tokens are split into
+     * pieces: piece k is tokens[bounds[k] .. bounds[k+1]-1], and the
+     * final EOF is in no piece.  Pieces hold whole declarations, except
+     * where the braces do not balance.
+     */
+    private int[] split() {
+        int size = tokens.size() - 1;
+        int pieceSize = Math.max(MIN_PIECE_SIZE, size / (4 * threads));
+        List<Integer> bounds = new ArrayList<Integer>();
+        bounds.add(0);
+        int depth = 0;
+        for (int i = 0; i < size; i++) {
+            boolean declEnd = false;
+            switch (tokens.get(i).sym) {
+            case sym.LCURLY:
+                depth++;
+                break;
+            case sym.RCURLY:
+                depth--;
+                declEnd = depth == 0 && tokens.get(i+1).sym != sym.SEMICOLON;
+                break;
+            case sym.SEMICOLON:
+                declEnd = depth == 0;
+                break;
+            }
+            if (declEnd && i + 1 - bounds.get(bounds.size()-1) >= pieceSize
+                && i + 1 < size) {
+                bounds.add(i + 1);
+            }
+        }
+        bounds.add(size);
+
+        int[] result = new int[bounds.size()];
+        for (int k = 0; k < result.length; k++) {
+            result[k] = bounds.get(k);
+        }
+        return result;
+    }
+
+    /**
+     * Parses tokens[from .. to-1], returning its declarations, or null
+     * if it has a syntax error.
+     */
+    private List<DeclNode> parsePiece(int from, int to) throws Exception {
+        PieceParser p = new PieceParser(new PieceScanner(from, to, false),
+                                        new PackedSymbolFactory(poolSymbols));
+        Symbol result = p.parse();
+        if (p.failed) {
+            return null;
+        }
+        return ((ProgramNode)result.value).getDeclList();
+    }
+
+    /**
+     * Parses tokens[from .. to-1] again with a parser that reports its
+     * syntax error, as the sequential parser would, and exits.
+     */
+    private void reportError(int from, int to) throws Exception {
+        new parser(new PieceScanner(from, to, true),
+                   new PackedSymbolFactory(poolSymbols)).parse();
+    }
+
+    /**
+     * The parser of a piece, which notes a syntax error instead of
+     * reporting it.
+     */
+    private static class PieceParser extends parser {
+        boolean failed;
+
+        PieceParser(CFlatScanner scanner, SymbolFactory factory) {
+            super(scanner, factory);
+        }
+
+        public void syntax_error(Symbol token) {
+            failed = true;
+        }
+
+        public void unrecovered_syntax_error(Symbol token) {
+        }
+    }
+
+    /**
+     * Hands the tokens of a piece to its parser, then an EOF at the
+     * position of the token after the piece.
+     */
+    private class PieceScanner implements CFlatScanner {
+        private final int to;
+        private final boolean copy;
+        private int next;
+
+        // copy makes a fresh Symbol of each token, for a second parse
+        PieceScanner(int from, int to, boolean copy) {
+            this.next = from;
+            this.to = to;
+            this.copy = copy;
+        }
+
+        public NameTable names() {
+            return scanner.names();
+        }
+
+        public Symbol next_token() {
+            if (next == to) {
+                return new Symbol(sym.EOF, tokens.get(to).value);
+            }
+            Symbol t = tokens.get(next++);
+            return copy ? new Symbol(t.sym, t.left, t.right, t.value) : t;
+        }
+    }
+
+    /**
+     * Waits for result, rethrowing an exception thrown by its task.
+     */
+    private static <T> T get(Future<T> result) throws Exception {
+        try {
+            return result.get();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception)cause;
+            }
+            throw new Error(cause);
+        }
+    }
+}
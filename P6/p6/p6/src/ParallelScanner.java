@@ -0,0 +1,220 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.*;
+import java.util.concurrent.*;
+
+import java_cup.runtime.*;
+
+/**
+ * The ParallelScanner class scans a large CFlat source file on several
+ * threads and hands the concatenated token stream to the parser.
+ *
+ * The file is mapped (or read, if it cannot be) and split into chunks
+ * that end just after a newline.  Since no CFlat token, string literal
+ * or comment spans a line, each chunk can be scanned on its own by an
+ * independent Yylex, starting at character 1 of a line.  The lines in
+ * each chunk are counted first so that every chunk's scanner numbers
+ * its lines (in tokens and in error messages) as lines of the whole
+ * file.
+ *
+ * Each chunk is scanned into a TokenBuffer with its own NameTable; the
+ * names of each chunk are then interned into one table for the whole
+ * file, and next_token builds a Symbol per token as the parser asks
+ * for it.  The whole file is scanned before parsing starts, so lexical
+ * errors are reported even past a syntax error, and messages from
+ * different chunks may be printed in any order.
+ */
+public class ParallelScanner implements CFlatScanner {
+    // files are not split into chunks smaller than this
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+
+    private final NameTable names = new NameTable();
+    private final TokenBuffer[] chunks;
+
+    // nameMaps[k][id] is the Name in names for Name id of chunk k
+    private final Name[][] nameMaps;
+
+    // the next token to return is token index of chunks[chunk]
+    private int chunk;
+    private int index;
+
+    /**
+     * Scans the rest of the file read by channel using up to threads
+     * threads.
+     */
+    public ParallelScanner(FileChannel channel, int threads)
+        throws IOException {
+        ByteBuffer bytes = load(channel);
+        int[] bounds = split(bytes, threads);
+        int n = bounds.length - 1;
+        chunks = new TokenBuffer[n];
+        nameMaps = new Name[n][];
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(n, threads));
+        try {
+            // count the lines in each chunk to find the line it starts on
+            List<Future<Integer>> counts = submitAll(pool, n, k ->
+                countLines(bytes, bounds[k], bounds[k+1]));
+            int[] firstLine = new int[n];
+            firstLine[0] = 1;
+            for (int k = 1; k < n; k++) {
+                firstLine[k] = firstLine[k-1] + get(counts.get(k-1));
+            }
+
+            // scan the chunks
+            List<Future<Yylex>> scanners = submitAll(pool, n, k -> {
+                ByteBuffer slice = bytes.duplicate();
+                slice.position(bounds[k]).limit(bounds[k+1]);
+                Yylex scanner = new Yylex(slice);
+                scanner.setLine(firstLine[k]);
+                chunks[k] = new TokenBuffer();
+                scanner.scanAll(chunks[k]);
+                return scanner;
+            });
+
+            // intern each chunk's names, in order, into one table
+            for (int k = 0; k < n; k++) {
+                NameTable chunkNames = get(scanners.get(k)).names();
+                nameMaps[k] = new Name[chunkNames.size()];
+                for (int id = 0; id < nameMaps[k].length; id++) {
+                    nameMaps[k][id] = names.intern(chunkNames.get(id).toString());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        chunk = 0;
+        index = 0;
+    }
+
+    public NameTable names() {
+        return names;
+    }
+
+    public Symbol next_token() {
+        while (index == chunks[chunk].size()) {
+            if (chunk == chunks.length - 1) {
+                return new Symbol(sym.EOF);
+            }
+            chunk++;
+            index = 0;
+        }
+
+        TokenBuffer buf = chunks[chunk];
+        int i = index++;
+        int kind = buf.kind(i);
+        int line = buf.line(i);
+        int ch = buf.charnum(i);
+        switch (kind) {
+        case sym.ID:
+            return new Symbol(kind, new IdTokenVal(line, ch,
+                                                   nameMaps[chunk][buf.value(i)]));
+        case sym.INTLITERAL:
+            return new Symbol(kind, new IntLitTokenVal(line, ch, buf.value(i)));
+        case sym.STRINGLITERAL:
+            return new Symbol(kind, new StrLitTokenVal(line, ch,
+                                                       nameMaps[chunk][buf.value(i)]));
+        default:
+            return new Symbol(kind, new TokenVal(line, ch));
+        }
+    }
+
+    /**
+     * Returns the rest of the file read by channel, mapped if it is a
+     * regular file.  Pipes and other special files have no size to map
+     * (nor a position), so they are read to the end instead.
+     */
+    private static ByteBuffer load(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size > 0) {
+            long position = channel.position();
+            size -= position;
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Input too large to map");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        }
+        return ByteBuffer.wrap(Channels.newInputStream(channel).readAllBytes());
+    }
+
+    /**
+     * Returns the offsets at which bytes is split into at most
+     * maxChunks chunks: chunk k is bytes[bounds[k] .. bounds[k+1]-1].
+     * Every chunk but the last ends with a newline.
+     */
+    private static int[] split(ByteBuffer bytes, int maxChunks) {
+        int size = bytes.limit();
+        int n = Math.max(1, Math.min(maxChunks, size / MIN_CHUNK_SIZE));
+        int[] bounds = new int[n+1];
+        int count = 1;
+        for (int k = 1; k < n; k++) {
+            int b = Math.max(bounds[count-1], (int)((long)size * k / n));
+            while (b < size && bytes.get(b) != '\n') {
+                b++;
+            }
+            if (b < size) {
+                bounds[count++] = b + 1;
+            }
+        }
+        bounds[count] = size;
+        return java.util.Arrays.copyOf(bounds, count+1);
+    }
+
+    /**
+     * Returns the number of lines ended in bytes[start .. end-1],
+     * counting "\r", "\n" and "\r\n" as line ends the way the scanner
+     * does.
+     */
+    private static int countLines(ByteBuffer bytes, int start, int end) {
+        int lines = 0;
+        boolean lastWasCR = false;
+        for (int i = start; i < end; i++) {
+            byte b = bytes.get(i);
+            if (b == '\r' || (b == '\n' && !lastWasCR)) {
+                lines++;
+            }
+            lastWasCR = (b == '\r');
+        }
+        return lines;
+    }
+
+    private interface ChunkTask<T> {
+        T run(int k) throws IOException;
+    }
+
+    private static <T> List<Future<T>> submitAll(ExecutorService pool, int n,
+                                                 ChunkTask<T> task) {
+        // lexical errors go to the caller's compilation
+        Diagnostics diagnostics = ErrMsg.diagnostics();
+        List<Future<T>> results = new ArrayList<Future<T>>(n);
+        for (int k = 0; k < n; k++) {
+            final int chunk = k;
+            results.add(pool.submit(ErrMsg.in(diagnostics,
+                                              () -> task.run(chunk))));
+        }
+        return results;
+    }
+
+    /**
+     * Waits for result, rethrowing an IOException thrown by its task.
+     */
+    private static <T> T get(Future<T> result) throws IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            throw new Error(cause);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * The TokenBuffer class holds a scanned token stream in parallel int
+ * arrays instead of one Symbol and TokenVal object per token.
+ *
+ * Token i has a kind (a sym code), the line and character number at
+ * which it starts, its start offset and length in the source, and a
+ * value: the id of the interned Name for IDs and string literals, and
+ * the value of integer literals.  The source text of any token can be
+ * decoded on demand by text().  Offsets, lengths and character numbers
+ * count bytes of the UTF-8 source.
+ *
+ * A buffer can be cleared and reused, so scanning a large file into it
+ * allocates only when the arrays need to grow.
+ */
+public class TokenBuffer {
+    private static final int INITIAL_SIZE = 1024;
+
+    private int[] kind;
+    private int[] line;
+    private int[] charnum;
+    private int[] start;
+    private int[] length;
+    private int[] value;
+    private int size;
+
+    // the scanned input; offsets in start[] index into this buffer
+    private java.nio.ByteBuffer source;
+
+    public TokenBuffer() {
+        kind = new int[INITIAL_SIZE];
+        line = new int[INITIAL_SIZE];
+        charnum = new int[INITIAL_SIZE];
+        start = new int[INITIAL_SIZE];
+        length = new int[INITIAL_SIZE];
+        value = new int[INITIAL_SIZE];
+        size = 0;
+    }
+
+    /**
+     * Appends a token.
+     */
+    public void add(int k, int ln, int ch, int st, int len, int val) {
+        if (size == kind.length) {
+            grow();
+        }
+        kind[size] = k;
+        line[size] = ln;
+        charnum[size] = ch;
+        start[size] = st;
+        length[size] = len;
+        value[size] = val;
+        size++;
+    }
+
+    /**
+     * Forgets all tokens but keeps the arrays for reuse.
+     */
+    public void clear() {
+        size = 0;
+        source = null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int kind(int i) {
+        return kind[i];
+    }
+
+    public int line(int i) {
+        return line[i];
+    }
+
+    public int charnum(int i) {
+        return charnum[i];
+    }
+
+    public int start(int i) {
+        return start[i];
+    }
+
+    public int length(int i) {
+        return length[i];
+    }
+
+    /**
+     * Returns the value of token i: a Name id for IDs and string
+     * literals, or the value of an integer literal.
+     */
+    public int value(int i) {
+        return value[i];
+    }
+
+    void setSource(java.nio.ByteBuffer src) {
+        source = src;
+    }
+
+    /**
+     * Returns the source text of token i (for IDs, the name; for string
+     * literals, the literal including its quotes).
+     */
+    public String text(int i) {
+        char[] chars = new char[length[i]];
+        for (int j = 0; j < chars.length; j++) {
+            byte b = source.get(start[i] + j);
+            if (b < 0) {
+                return NameTable.decode(source, start[i], length[i]);
+            }
+            chars[j] = (char) b;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Decodes the decimal digits src[st .. st+len-1] without building a
+     * String.  Values larger than Integer.MAX_VALUE are returned as
+     * Integer.MAX_VALUE + 1 so that callers can detect the overflow.
+     */
+    static long decodeInt(java.nio.ByteBuffer src, int st, int len) {
+        long val = 0;
+        for (int j = 0; j < len; j++) {
+            val = val * 10 + (src.get(st + j) - '0');
+            if (val > Integer.MAX_VALUE) {
+                return (long) Integer.MAX_VALUE + 1;
+            }
+        }
+        return val;
+    }
+
+    private void grow() {
+        int newSize = 2 * kind.length;
+        kind = java.util.Arrays.copyOf(kind, newSize);
+        line = java.util.Arrays.copyOf(line, newSize);
+        charnum = java.util.Arrays.copyOf(charnum, newSize);
+        start = java.util.Arrays.copyOf(start, newSize);
+        length = java.util.Arrays.copyOf(length, newSize);
+        value = java.util.Arrays.copyOf(value, newSize);
+    }
+}
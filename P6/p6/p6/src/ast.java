@@ -121,8 +121,9 @@ abstract class ASTnode {
 // **********************************************************************
 
 class ProgramNode extends ASTnode {
-    public ProgramNode(DeclListNode L) {
+    public ProgramNode(DeclListNode L, NameTable names) {
         myDeclList = L;
+        myNames = names;
     }
 
     /**
@@ -133,7 +134,8 @@ class ProgramNode extends ASTnode {
     public void nameAnalysis() {
         SymTable symTab = new SymTable();
         myDeclList.nameAnalysis(symTab);
-        if (symTab.lookupGlobal("main") == null) {
+        Name main = myNames.lookup("main");
+        if (main == null || symTab.lookupGlobal(main) == null) {
         	ErrMsg.fatal(0, 0,
                     "No main function");
         	
@@ -155,8 +157,14 @@ class ProgramNode extends ASTnode {
 		myDeclList.codeGen();
 	}
 
+    public List<DeclNode> getDeclList() {
+        return myDeclList.getList();
+    }
+
     // 1 kid
     private DeclListNode myDeclList;
+    // names interned by the scanner for this program
+    private NameTable myNames;
 }
 
 class DeclListNode extends ASTnode {
@@ -480,7 +488,7 @@ class VarDeclNode extends DeclNode {
     
     public SemSym nameAnalysis(SymTable symTab, SymTable globalTab) {
         boolean badDecl = false;
-        String name = myId.name();
+        Name name = myId.key();
         SemSym sym = null;
         IdNode structId = null;
 
@@ -492,7 +500,7 @@ class VarDeclNode extends DeclNode {
         
         else if (myType instanceof StructNode) {
             structId = ((StructNode)myType).idNode();
-            sym = globalTab.lookupGlobal(structId.name());
+            sym = globalTab.lookupGlobal(structId.key());
             
             // if the name for the struct type is not found, 
             // or is not a struct type
@@ -600,7 +608,7 @@ class FnDeclNode extends DeclNode {
      *     exit scope
      */
     public SemSym nameAnalysis(SymTable symTab) {
-        String name = myId.name();
+        Name name = myId.key();
         FnSym sym = null;
         
         if (symTab.lookupLocal(name) != null) {
@@ -761,7 +769,7 @@ class FormalDeclNode extends DeclNode {
      * else add a new entry to the symbol table and return that Sym
      */
     public SemSym nameAnalysis(SymTable symTab) {
-        String name = myId.name();
+        Name name = myId.key();
         boolean badDecl = false;
         SemSym sym = null;
         
@@ -830,7 +838,7 @@ class StructDeclNode extends DeclNode {
      *     add a new entry to symbol table for this struct
      */
     public SemSym nameAnalysis(SymTable symTab) {
-        String name = myId.name();
+        Name name = myId.key();
         boolean badDecl = false;
         
         if (symTab.lookupLocal(name) != null) {
@@ -1694,7 +1702,8 @@ abstract class ExpNode extends ASTnode {
     abstract public int lineNum();
     abstract public int charNum();
     public void codeGen() {}
-    public static Hashtable<String, String> stringTable = new Hashtable<String, String>();
+    // labels of the string literals emitted so far, keyed by interned value
+    public static HashMap<Name, String> stringTable = new HashMap<Name, String>();
 }
 
 class IntLitNode extends ExpNode {
@@ -1740,10 +1749,11 @@ class IntLitNode extends ExpNode {
 }
 
 class StringLitNode extends ExpNode {
-    public StringLitNode(int lineNum, int charNum, String strVal) {
+    public StringLitNode(int lineNum, int charNum, Name strVal) {
         myLineNum = lineNum;
         myCharNum = charNum;
-        myStrVal = strVal;
+        myName = strVal;
+        myStrVal = strVal.toString();
     }
     
     /**
@@ -1772,10 +1782,10 @@ class StringLitNode extends ExpNode {
     }
     
     public void codeGen() {
-    	String label = stringTable.get(this.myStrVal);
+    	String label = stringTable.get(this.myName);
     	if (label == null) {
     		String newLabel = Codegen.nextLabel();
-    		stringTable.put(this.myStrVal, newLabel);
+    		stringTable.put(this.myName, newLabel);
     		Codegen.p.println("\t.data");
     		Codegen.generateLabeled(newLabel, ".asciiz " + myStrVal, "");
     		Codegen.p.println("\t.text");
@@ -1796,6 +1806,7 @@ class StringLitNode extends ExpNode {
 
     private int myLineNum;
     private int myCharNum;
+    private Name myName;
     private String myStrVal;
 }
 
@@ -1880,10 +1891,11 @@ class FalseNode extends ExpNode {
 }
 
 class IdNode extends ExpNode {
-    public IdNode(int lineNum, int charNum, String strVal) {
+    public IdNode(int lineNum, int charNum, Name strVal) {
         myLineNum = lineNum;
         myCharNum = charNum;
-        myStrVal = strVal;
+        myName = strVal;
+        myStrVal = strVal.toString();
     }
 
     /**
@@ -1899,6 +1911,13 @@ class IdNode extends ExpNode {
     public String name() {
         return myStrVal;
     }
+
+    /**
+     * Return the interned name of this ID, used as its symbol-table key.
+     */
+    public Name key() {
+        return myName;
+    }
     
     /**
      * Return the symbol associated with this ID.
@@ -1928,7 +1947,7 @@ class IdNode extends ExpNode {
      * - if ok, link to symbol table entry
      */
     public void nameAnalysis(SymTable symTab) {
-        SemSym sym = symTab.lookupGlobal(myStrVal);
+        SemSym sym = symTab.lookupGlobal(myName);
         if (sym == null) {
             ErrMsg.fatal(myLineNum, myCharNum, "Undeclared identifier");
         } else {
@@ -1988,6 +2007,7 @@ class IdNode extends ExpNode {
 	}
     private int myLineNum;
     private int myCharNum;
+    private Name myName;
     private String myStrVal;
     private SemSym mySym;
 }
@@ -2099,7 +2119,7 @@ class DotAccessExpNode extends ExpNode {
         // do name analysis on RHS of dot-access in the struct's symbol table
         if (!badAccess) {
         
-            sym = structSymTab.lookupGlobal(myId.name()); // lookup
+            sym = structSymTab.lookupGlobal(myId.key()); // lookup
             if (sym == null) { // not found - RHS is not a valid field name
                 ErrMsg.fatal(myId.lineNum(), myId.charNum(), 
                              "Invalid struct field name");
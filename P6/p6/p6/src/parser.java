@@ -1,13 +1,13 @@
 
 //----------------------------------------------------
-// The following code was generated by CUP v0.11b 20140808 (SVN rev 54)
+// The following code was generated by CUP v0.11b beta 20140226
 //----------------------------------------------------
 
 import java_cup.runtime.*;
 import java.util.*;
 import java_cup.runtime.XMLElement;
 
-/** CUP v0.11b 20140808 (SVN rev 54) generated parser.
+/** CUP v0.11b beta 20140226 generated parser.
   */
 @SuppressWarnings({"rawtypes"})
 public class parser extends java_cup.runtime.lr_parser {
@@ -25,9 +25,28 @@ public class parser extends java_cup.runtime.lr_parser {
   /** Constructor which sets the default scanner. */
   public parser(java_cup.runtime.Scanner s, java_cup.runtime.SymbolFactory sf) {super(s,sf);}
 
-  /** Production table. */
-  protected static final short _production_table[][] = 
-    unpackFromStrings(new String[] {
+  /** Access to production table. */
+  public short[][] production_table() {return CUP$parser$tables._production_table;}
+
+  /** Access to parse-action table. */
+  public short[][] action_table() {return CUP$parser$tables._action_table;}
+
+  /** Access to row-displaced parse-action table. */
+  public short[][] direct_action_table() {return CUP$parser$tables._direct_action_table;}
+
+  /** Access to <code>reduce_goto</code> table. */
+  public short[][] reduce_table() {return CUP$parser$tables._reduce_table;}
+
+  /** Access to row-displaced reduce-goto table. */
+  public short[][] direct_reduce_table() {return CUP$parser$tables._direct_reduce_table;}
+
+  /** Parse tables, decoded when first used and shared by
+   *  all instances of the parser. */
+  protected static class CUP$parser$tables {
+
+    /** Production table. */
+    protected static final short[][] _production_table = 
+      unpackFromStrings(new String[] {
     "\000\104\000\002\002\004\000\002\002\003\000\002\003" +
     "\004\000\002\003\002\000\002\004\003\000\002\004\003" +
     "\000\002\004\003\000\002\005\004\000\002\005\002\000" +
@@ -51,12 +70,9 @@ public class parser extends java_cup.runtime.lr_parser {
     "\025\003\000\002\026\003\000\002\026\005\000\002\027" +
     "\003" });
 
-  /** Access to production table. */
-  public short[][] production_table() {return _production_table;}
-
-  /** Parse-action table. */
-  protected static final short[][] _action_table = 
-    unpackFromStrings(new String[] {
+    /** Parse-action table. */
+    protected static final short[][] _action_table = 
+      unpackFromStrings(new String[] {
     "\000\213\000\014\002\ufffe\004\ufffe\005\ufffe\006\ufffe\011" +
     "\ufffe\001\002\000\014\002\000\004\010\005\011\006\013" +
     "\011\012\001\002\000\004\002\006\001\002\000\004\002" +
@@ -265,12 +281,245 @@ public class parser extends java_cup.runtime.lr_parser {
     "\002\000\014\002\ufff5\004\ufff5\005\ufff5\006\ufff5\011\ufff5" +
     "\001\002" });
 
-  /** Access to parse-action table. */
-  public short[][] action_table() {return _action_table;}
-
-  /** <code>reduce_goto</code> table. */
-  protected static final short[][] _reduce_table = 
-    unpackFromStrings(new String[] {
+    /** parse-action table in row-displaced form. */
+    protected static final short[][] _direct_action_table = 
+      unpackFromStrings(new String[] {
+    "\000\004\000\213\002\010\003\007\u050d\004\014\015\024" +
+    "\043\u0513\u0519\u051f\002\137\u02a3\041\u01eb\050\071\064\137" +
+    "\133\073\117\163\u02c1\u0525\u02ce\127\150\u049a\u02db\150\031" +
+    "\u04a1\163\u0347\175\207\u052b\210\205\u0333\u03a4\133\160\u0213" +
+    "\105\205\232\u04a8\257\304\u03ab\u03b7\331\u0228\u03ca\u03d0\u03d6" +
+    "\u03e9\u03ef\u03f5\u0408\u040e\u0414\356\u0427\u042d\u0433\u0103\u0338\u0118" +
+    "\u0347\u012d\u0356\u0365\u0374\u0383\u0142\u0157\u016c\u0181\221\u0446\u0196" +
+    "\057\u04af\u01ab\u044c\u023c\u04b6\u04bd\u04c4\u0452\u0251\217\u02e8\u02f5" +
+    "\u04cb\u046b\224\u0302\u030f\u04d2\u04d9\234\235\u04e0\u04e7\u0475\u0265" +
+    "\u04ee\u0398\u01ea\164\u01c0\u047b\u01d5\u01ff\u0481\u027a\242\u031c\u0329" +
+    "\u04f5\u04fc\246\240\u02b4\245\003\u0227\u0531\u0537\u053d\261\u054a" +
+    "\000\213\002\002\002\002\002\002\002\002\002\002\002" +
+    "\002\002\002\002\002\002\002\002\002\002\002\002\002" +
+    "\002\002\002\002\002\002\002\002\002\002\002\002\002" +
+    "\002\002\002\002\002\002\002\002\002\002\002\002\002" +
+    "\002\002\002\002\002\002\002\002\002\002\002\002\002" +
+    "\002\002\002\002\002\002\002\002\002\002\002\002\002" +
+    "\002\002\002\002\002\002\002\002\002\002\002\002\002" +
+    "\002\002\002\002\002\002\002\002\002\002\002\002\002" +
+    "\002\002\002\002\002\002\002\002\002\002\002\002\002" +
+    "\002\002\002\002\002\002\002\002\002\002\002\002\002" +
+    "\002\002\002\002\002\002\002\002\002\002\002\000\u0550" +
+    "\002\004\002\002\002\005\003\002\003\003\003\001\001" +
+    "\003\017\206\007\017\206\017\017\017\017\017\010\011" +
+    "\017\017\017\017\017\017\012\017\017\017\017\017\017" +
+    "\017\017\017\044\044\044\044\044\013\022\044\044\044" +
+    "\044\044\044\024\044\044\044\044\044\044\044\044\044" +
+    "\131\131\131\131\025\026\131\131\131\131\131\131\031" +
+    "\131\131\131\131\131\131\131\131\131\062\062\062\062" +
+    "\030\030\030\032\062\062\062\062\037\062\062\062\062" +
+    "\062\062\062\062\062\057\057\057\020\027\020\027\040" +
+    "\057\057\057\057\043\057\057\057\057\057\057\057\057" +
+    "\060\060\060\033\166\033\166\046\060\060\060\060\050" +
+    "\060\060\060\060\060\060\060\060\063\063\063\051\053" +
+    "\054\126\143\063\063\063\063\150\063\063\063\063\063" +
+    "\063\063\063\064\064\064\155\156\175\202\203\064\064" +
+    "\064\064\205\064\064\064\064\064\064\064\064\066\066" +
+    "\066\213\001\001\001\001\066\066\066\066\001\066\066" +
+    "\066\066\066\066\066\066\067\067\067\001\001\001\001" +
+    "\001\067\067\067\067\001\067\067\067\067\067\067\067" +
+    "\067\072\072\072\001\001\001\001\001\072\072\072\072" +
+    "\001\072\072\072\072\072\072\072\072\105\105\105\001" +
+    "\001\001\001\001\105\105\105\105\001\105\105\105\105" +
+    "\105\105\105\105\111\111\111\001\001\001\001\001\111" +
+    "\111\111\111\001\111\111\111\111\111\111\111\111\113" +
+    "\113\113\001\001\001\001\001\113\113\113\113\001\113" +
+    "\113\113\113\113\113\113\113\115\115\115\001\001\001" +
+    "\001\001\115\115\115\115\001\115\115\115\115\115\115" +
+    "\115\115\122\122\122\001\001\001\001\001\122\122\122" +
+    "\122\001\122\122\122\122\122\122\122\122\123\123\123" +
+    "\001\001\001\001\001\123\123\123\123\001\123\123\123" +
+    "\123\123\123\123\123\124\124\124\001\001\001\001\001" +
+    "\124\124\124\124\001\124\124\124\124\124\124\124\124" +
+    "\125\125\125\001\001\001\001\001\125\125\125\125\001" +
+    "\125\125\125\125\125\125\125\125\130\130\130\001\001" +
+    "\001\001\001\130\130\130\130\001\130\130\130\130\130" +
+    "\130\130\130\133\133\133\001\001\001\001\001\133\133" +
+    "\133\133\001\133\133\133\133\133\133\133\133\167\167" +
+    "\167\001\001\001\001\001\167\167\167\167\001\167\167" +
+    "\167\167\167\167\167\167\171\171\171\001\023\023\023" +
+    "\001\171\171\171\171\001\171\171\171\171\171\171\171" +
+    "\171\165\023\165\001\001\001\001\001\165\165\165\165" +
+    "\001\165\165\165\165\165\165\165\165\172\001\172\001" +
+    "\001\001\001\001\172\172\172\172\001\172\172\172\172" +
+    "\172\172\172\172\061\207\207\207\001\001\207\061\061" +
+    "\061\061\001\061\061\061\061\061\061\061\061\073\001" +
+    "\001\001\001\001\001\001\073\073\073\073\001\073\073" +
+    "\073\073\073\073\073\073\135\001\001\001\001\001\001" +
+    "\135\135\135\135\001\135\135\135\135\135\135\135\135" +
+    "\142\001\001\001\001\001\001\001\142\142\142\142\001" +
+    "\142\142\142\142\142\142\142\142\162\001\001\001\001" +
+    "\001\001\162\162\162\162\001\162\162\162\162\162\162" +
+    "\162\162\174\001\001\001\001\001\001\001\174\174\174" +
+    "\174\001\174\174\174\174\174\174\174\174\021\001\021" +
+    "\021\021\001\001\021\021\021\021\001\021\021\021\001" +
+    "\001\204\021\204\204\204\001\001\204\204\204\204\001" +
+    "\204\204\204\034\034\034\204\001\034\034\034\034\001" +
+    "\034\034\034\036\036\036\034\001\036\036\036\036\001" +
+    "\036\036\036\042\042\042\036\001\042\042\042\042\001" +
+    "\042\042\042\144\144\144\042\001\144\144\144\144\001" +
+    "\144\144\144\145\145\145\144\001\145\145\145\145\001" +
+    "\145\145\145\151\151\151\145\001\151\151\151\151\001" +
+    "\151\151\151\152\152\152\151\001\152\152\152\152\001" +
+    "\152\152\152\176\176\176\152\001\176\176\176\176\001" +
+    "\176\176\176\177\177\177\176\001\177\177\177\177\001" +
+    "\177\177\177\055\055\001\177\001\001\001\001\001\055" +
+    "\055\055\001\001\055\001\055\001\001\001\112\112\112" +
+    "\001\055\001\001\055\112\112\112\112\001\112\112\114" +
+    "\114\114\047\001\001\047\047\114\114\114\114\001\114" +
+    "\114\116\116\116\001\001\001\047\001\116\116\116\116" +
+    "\001\116\116\117\117\117\001\001\001\001\001\117\117" +
+    "\117\117\001\117\117\120\120\120\001\001\001\001\001" +
+    "\120\120\120\120\001\120\120\121\121\121\001\001\001" +
+    "\164\164\121\121\121\121\001\121\121\164\164\164\056" +
+    "\056\164\164\001\001\001\070\070\056\056\056\164\001" +
+    "\056\164\070\070\070\071\071\070\001\001\056\001\001" +
+    "\056\071\071\071\070\001\071\070\001\001\001\074\074" +
+    "\001\001\001\071\075\075\071\074\074\074\076\076\074" +
+    "\075\075\075\001\001\075\076\076\076\074\001\076\074" +
+    "\001\001\075\077\077\075\001\001\076\100\100\076\077" +
+    "\077\077\101\101\077\100\100\100\001\001\100\101\101" +
+    "\101\077\001\101\077\001\001\100\102\102\100\001\001" +
+    "\101\103\103\101\102\102\102\104\104\102\103\103\103" +
+    "\001\001\103\104\104\104\102\001\104\102\001\001\103" +
+    "\106\106\103\001\001\104\107\107\104\106\106\106\110" +
+    "\110\106\107\107\107\001\001\107\110\110\110\106\001" +
+    "\110\106\001\001\107\127\127\107\001\001\110\134\134" +
+    "\110\127\127\127\141\141\127\134\134\134\001\001\134" +
+    "\141\141\141\127\001\141\127\001\001\134\001\001\134" +
+    "\001\001\141\001\001\141\147\147\147\147\147\147\147" +
+    "\161\161\001\147\001\001\170\170\001\161\161\161\173" +
+    "\173\161\170\170\170\001\001\170\173\173\173\161\001" +
+    "\173\161\001\001\170\001\001\170\001\001\173\001\001" +
+    "\173\041\041\041\001\041\041\041\045\045\045\041\045" +
+    "\045\045\065\065\065\045\065\065\065\132\132\132\065" +
+    "\132\132\132\136\136\136\132\136\136\136\137\137\137" +
+    "\136\137\137\137\140\140\140\137\140\140\140\146\146" +
+    "\146\140\146\146\146\153\153\153\146\153\153\153\154" +
+    "\154\154\153\154\154\154\157\157\157\154\157\157\157" +
+    "\160\160\160\157\160\160\160\163\163\163\160\163\163" +
+    "\163\200\200\200\163\200\200\200\201\201\201\200\201" +
+    "\201\201\001\001\006\201\006\006\006\001\014\006\014" +
+    "\014\014\001\015\014\015\015\015\001\016\015\016\016" +
+    "\016\001\035\016\035\035\035\001\052\035\052\052\052" +
+    "\001\001\052\210\210\210\001\001\210\211\211\211\001" +
+    "\001\211\212\212\212\001\210\212\001\001\001\001\211" +
+    "\214\001\214\214\214\212\001\214\000\u0550\ufffe\006\ufffe" +
+    "\ufffe\ufffe\001\000\ufffe\010\011\013\002\002\012\uffbe\020" +
+    "\uffc3\uffbe\210\uffbe\uffbe\uffbe\uffbe\uffbe\uffc2\020\uffbe\uffbe\uffbe" +
+    "\uffbe\uffbe\uffbe\uffc1\uffbe\uffbe\uffbe\uffbe\uffbe\uffbe\uffbe\uffbe\uffbe" +
+    "\165\uffc0\uffc0\uffc0\uffc0\020\035\uffc0\uffc0\uffc0\uffc0\uffc0\uffc0" +
+    "\ufff2\uffc0\uffc0\uffc0\uffc0\uffc0\uffc0\uffc0\uffc0\uffc0\uffbf\uffbf\uffbf" +
+    "\uffbf\020\033\uffbf\uffbf\uffbf\uffbf\uffbf\uffbf\uffef\uffbf\uffbf\uffbf" +
+    "\uffbf\uffbf\uffbf\uffbf\uffbf\uffbf\uffce\uffce\uffce\127\010\011\013" +
+    "\ufff1\uffce\uffce\uffce\uffce\020\uffce\uffce\uffce\uffce\uffce\uffce\uffce" +
+    "\uffce\130\uffcf\uffcf\uffcf\024\ufff0\022\031\020\uffcf\uffcf\uffcf" +
+    "\uffcf\174\uffcf\uffcf\uffcf\uffcf\uffcf\uffcf\uffcf\uffcf\uffcb\uffcb\uffcb" +
+    "\uffee\172\uffee\171\162\uffcb\uffcb\uffcb\uffcb\142\uffcb\uffcb\uffcb" +
+    "\uffcb\uffcb\uffcb\uffcb\uffcb\uffde\uffde\uffde\141\140\135\020\145" +
+    "\uffde\uffde\uffde\uffde\152\uffde\uffde\uffde\uffde\uffde\uffde\uffde\uffde" +
+    "\uffca\uffca\uffca\161\160\177\020\205\uffca\uffca\uffca\uffca\022" +
+    "\uffca\uffca\uffca\uffca\uffca\uffca\uffca\uffca\uffcc\uffcc\uffcc\215\002" +
+    "\002\002\002\uffcc\uffcc\uffcc\uffcc\002\uffcc\uffcc\uffcc\uffcc\uffcc" +
+    "\uffcc\uffcc\uffcc\uffc8\uffc8\uffc8\002\002\002\002\002\uffc8\uffc8" +
+    "\uffc8\uffc8\002\uffc8\uffc8\uffc8\uffc8\uffc8\uffc8\uffc8\uffc8\uffcd\uffcd" +
+    "\uffcd\002\002\002\002\002\uffcd\uffcd\uffcd\uffcd\002\uffcd\uffcd" +
+    "\uffcd\uffcd\uffcd\uffcd\uffcd\uffcd\uffc9\uffc9\uffc9\002\002\002\002" +
+    "\002\uffc9\uffc9\uffc9\uffc9\002\uffc9\uffc9\uffc9\uffc9\uffc9\uffc9\uffc9" +
+    "\uffc9\uffd7\uffd7\uffd7\002\002\002\002\002\104\076\107\077" +
+    "\002\075\uffd7\110\100\105\102\101\103\uffdb\uffdb\uffdb\002" +
+    "\002\002\002\002\uffdb\uffdb\uffdb\uffdb\002\uffdb\uffdb\uffdb\uffdb" +
+    "\uffdb\uffdb\uffdb\uffdb\uffdd\uffdd\uffdd\002\002\002\002\002\uffdd" +
+    "\uffdd\107\077\002\uffdd\uffdd\uffdd\uffdd\uffdd\uffdd\uffdd\uffdd\uffda" +
+    "\uffda\uffda\002\002\002\002\002\uffda\uffda\uffda\uffda\002\uffda" +
+    "\uffda\uffda\uffda\uffda\uffda\uffda\uffda\uffdc\uffdc\uffdc\002\002\002" +
+    "\002\002\uffdc\uffdc\107\077\002\uffdc\uffdc\uffdc\uffdc\uffdc\uffdc" +
+    "\uffdc\uffdc\uffd8\uffd8\uffd8\002\002\002\002\002\104\076\107" +
+    "\077\002\uffd8\uffd8\110\100\105\102\101\103\uffd9\uffd9\uffd9" +
+    "\002\002\002\002\002\uffd9\uffd9\uffd9\uffd9\002\uffd9\uffd9\uffd9" +
+    "\uffd9\uffd9\uffd9\uffd9\uffd9\uffdf\uffdf\uffdf\002\002\002\002\002" +
+    "\104\076\107\077\002\075\111\110\100\105\102\101\103" +
+    "\uffd0\uffd0\uffd0\002\002\002\002\002\uffd0\uffd0\107\077\002" +
+    "\uffd0\uffd0\uffd0\uffd0\uffd0\uffd0\uffd0\uffd0\uffc7\uffc7\uffc7\002\002" +
+    "\002\002\002\uffc7\uffc7\uffc7\uffc7\002\uffc7\uffc7\uffc7\uffc7\uffc7" +
+    "\uffc7\uffc7\uffc7\uffc6\uffc6\uffc6\002\010\011\013\002\uffc6\uffc6" +
+    "\uffc6\uffc6\002\uffc6\uffc6\uffc6\uffc6\uffc6\uffc6\uffc6\uffc6\uffc5\025" +
+    "\uffc5\002\002\002\002\002\104\076\107\077\002\075\111" +
+    "\110\100\105\102\101\103\uffc4\002\uffc4\002\002\002\002" +
+    "\002\104\076\107\077\002\075\111\110\100\105\102\101" +
+    "\103\133\010\011\013\002\002\041\104\076\107\077\002" +
+    "\075\111\110\100\105\102\101\103\106\002\002\002\002" +
+    "\002\002\002\104\076\107\077\002\075\111\110\100\105" +
+    "\102\101\103\137\002\002\002\002\002\002\104\076\107" +
+    "\077\002\075\111\110\100\105\102\101\103\144\002\002" +
+    "\002\002\002\002\002\104\076\107\077\002\075\111\110" +
+    "\100\105\102\101\103\164\002\002\002\002\002\002\104" +
+    "\076\107\077\002\075\111\110\100\105\102\101\103\176" +
+    "\002\002\002\002\002\002\002\104\076\107\077\002\075" +
+    "\111\110\100\105\102\101\103\ufff8\002\ufff8\ufff8\ufff8\002" +
+    "\002\ufff8\ufff8\ufff8\ufff8\002\ufff8\ufff8\ufff8\002\002\ufff7\ufff8" +
+    "\ufff7\ufff7\ufff7\002\002\ufff7\ufff7\ufff7\ufff7\002\ufff7\ufff7\ufff7" +
+    "\ufff9\ufff9\ufff9\ufff7\002\ufff9\ufff9\ufff9\ufff9\002\ufff9\ufff9\ufff9" +
+    "\010\011\013\ufff9\002\041\uffeb\uffeb\uffeb\002\uffeb\uffeb\uffeb" +
+    "\ufffa\ufffa\ufffa\uffeb\002\ufffa\ufffa\ufffa\ufffa\002\ufffa\ufffa\ufffa" +
+    "\ufff9\ufff9\ufff9\ufffa\002\ufff9\ufff9\ufff9\ufff9\002\ufff9\ufff9\ufff9" +
+    "\010\011\013\ufff9\002\041\uffeb\uffeb\uffeb\002\uffeb\uffeb\uffeb" +
+    "\ufff9\ufff9\ufff9\uffeb\002\ufff9\ufff9\ufff9\ufff9\002\ufff9\ufff9\ufff9" +
+    "\010\011\013\ufff9\002\041\uffeb\uffeb\uffeb\002\uffeb\uffeb\uffeb" +
+    "\ufff9\ufff9\ufff9\uffeb\002\ufff9\ufff9\ufff9\ufff9\002\ufff9\ufff9\ufff9" +
+    "\010\011\013\ufff9\002\041\uffeb\uffeb\uffeb\002\uffeb\uffeb\uffeb" +
+    "\061\065\002\uffeb\002\002\002\002\002\020\073\067\002" +
+    "\002\072\002\066\002\002\002\uffd6\uffd6\uffd6\002\057\002" +
+    "\002\071\104\076\107\077\002\uffd6\uffd6\uffd4\uffd4\uffd4\127" +
+    "\002\002\157\156\104\076\107\077\002\uffd4\uffd4\uffd1\uffd1" +
+    "\uffd1\002\002\002\130\002\104\076\107\077\002\uffd1\uffd1" +
+    "\uffd3\uffd3\uffd3\002\002\002\002\002\104\076\107\077\002" +
+    "\uffd3\uffd3\uffd2\uffd2\uffd2\002\002\002\002\002\104\076\107" +
+    "\077\002\uffd2\uffd2\uffd5\uffd5\uffd5\002\002\002\061\065\104" +
+    "\076\107\077\002\uffd5\uffd5\020\073\067\061\065\072\170" +
+    "\002\002\002\061\065\020\073\067\057\002\072\071\020" +
+    "\073\067\061\065\072\002\002\057\002\002\071\020\073" +
+    "\067\057\002\072\071\002\002\002\061\065\002\002\002" +
+    "\057\061\065\071\020\073\067\061\065\072\020\073\067" +
+    "\002\002\072\020\073\067\057\002\072\071\002\002\057" +
+    "\061\065\071\002\002\057\061\065\071\020\073\067\061" +
+    "\065\072\020\073\067\002\002\072\020\073\067\057\002" +
+    "\072\071\002\002\057\061\065\071\002\002\057\061\065" +
+    "\071\020\073\067\061\065\072\020\073\067\002\002\072" +
+    "\020\073\067\057\002\072\071\002\002\057\061\065\071" +
+    "\002\002\057\061\065\071\020\073\067\061\065\072\020" +
+    "\073\067\002\002\072\020\073\067\057\002\072\071\002" +
+    "\002\057\061\065\071\002\002\057\061\065\071\020\073" +
+    "\067\061\065\072\020\073\067\002\002\072\020\073\067" +
+    "\057\002\072\071\002\002\057\002\002\071\002\002\057" +
+    "\002\002\071\uffe5\uffe5\uffe5\151\uffe5\uffe5\uffe5\061\065\002" +
+    "\uffe5\002\002\061\065\002\020\073\067\061\065\072\020" +
+    "\073\067\002\002\072\020\073\067\057\002\072\071\002" +
+    "\002\057\002\002\071\002\002\057\002\002\071\055\047" +
+    "\051\002\044\056\020\uffec\uffec\uffec\053\uffec\uffec\uffec\uffe1" +
+    "\uffe1\uffe1\uffec\uffe1\uffe1\uffe1\uffe2\uffe2\uffe2\uffe1\uffe2\uffe2\uffe2" +
+    "\uffe7\uffe7\uffe7\uffe2\uffe7\uffe7\uffe7\uffe0\uffe0\uffe0\uffe7\uffe0\uffe0" +
+    "\uffe0\uffea\uffea\uffea\uffe0\uffea\uffea\uffea\055\047\051\uffea\044" +
+    "\056\020\055\047\051\150\044\056\020\uffe4\uffe4\uffe4\155" +
+    "\uffe4\uffe4\uffe4\uffe9\uffe9\uffe9\uffe4\uffe9\uffe9\uffe9\uffe8\uffe8\uffe8" +
+    "\uffe9\uffe8\uffe8\uffe8\uffe6\uffe6\uffe6\uffe8\uffe6\uffe6\uffe6\055\047" +
+    "\051\uffe6\044\056\020\uffe3\uffe3\uffe3\202\uffe3\uffe3\uffe3\002" +
+    "\002\ufffd\uffe3\ufffd\ufffd\ufffd\002\uffff\ufffd\uffff\uffff\uffff\002" +
+    "\ufffc\uffff\ufffc\ufffc\ufffc\002\ufffb\ufffc\ufffb\ufffb\ufffb\002\ufff6" +
+    "\ufffb\ufff6\ufff6\ufff6\002\uffed\ufff6\uffed\uffed\uffed\002\002\uffed" +
+    "\ufff3\ufff3\ufff3\002\002\ufff3\010\011\013\002\002\041\ufff4" +
+    "\ufff4\ufff4\002\ufff3\ufff4\002\002\002\002\214\ufff5\002\ufff5" +
+    "\ufff5\ufff5\ufff4\002\ufff5" });
+
+    /** <code>reduce_goto</code> table. */
+    protected static final short[][] _reduce_table = 
+      unpackFromStrings(new String[] {
     "\000\213\000\006\002\004\003\003\001\001\000\014\004" +
     "\014\006\006\007\015\010\016\025\013\001\001\000\002" +
     "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
@@ -347,8 +596,69 @@ public class parser extends java_cup.runtime.lr_parser {
     "\037\001\001\000\002\001\001\000\002\001\001\000\002" +
     "\001\001" });
 
-  /** Access to <code>reduce_goto</code> table. */
-  public short[][] reduce_table() {return _reduce_table;}
+    /** reduce-goto table in row-displaced form. */
+    protected static final short[][] _direct_reduce_table = 
+      unpackFromStrings(new String[] {
+    "\000\004\000\213\002\002\002\002\002\002\002\017\002" +
+    "\037\002\002\002\002\002\002\003\317\002\057\002\002" +
+    "\323\002\002\002\002\002\031\077\110\267\002\002\002" +
+    "\002\002\002\002\002\002\002\002\012\022\002\002\002" +
+    "\002\002\002\002\002\002\032\042\002\002\052\062\072" +
+    "\102\112\122\132\142\152\002\162\172\202\002\002\002" +
+    "\002\002\002\002\002\002\002\002\002\002\117\212\002" +
+    "\002\002\002\222\002\002\002\002\232\002\002\006\051" +
+    "\274\002\002\010\071\301\002\002\002\002\002\242\002" +
+    "\002\002\002\002\002\252\002\002\262\002\002\011\111" +
+    "\306\002\120\002\002\002\127\332\002\011\002\002\002" +
+    "\000\213\001\001\001\001\001\001\001\001\001\001\001" +
+    "\001\001\001\001\001\001\001\001\001\001\001\001\001" +
+    "\001\001\001\001\001\001\001\001\001\001\001\001\001" +
+    "\001\001\001\001\001\001\001\001\001\001\001\001\001" +
+    "\001\001\001\001\001\001\001\001\001\001\001\001\001" +
+    "\001\001\001\001\001\001\001\001\001\001\001\001\001" +
+    "\001\001\001\001\001\001\001\001\001\001\001\001\001" +
+    "\001\001\001\001\001\001\001\001\001\001\001\001\001" +
+    "\001\001\001\001\001\001\001\001\001\001\001\001\001" +
+    "\001\001\001\001\001\001\001\001\001\001\001\001\001" +
+    "\001\001\001\001\001\001\001\001\001\001\001\000\354" +
+    "\002\002\003\034\003\003\003\144\020\151\176\211\022" +
+    "\001\164\164\164\164\164\003\164\164\055\055\055\055" +
+    "\211\036\055\055\056\056\056\056\011\036\056\056\070" +
+    "\070\070\070\036\145\070\070\071\071\071\071\013\145" +
+    "\071\071\074\074\074\074\145\152\074\074\075\075\075" +
+    "\075\025\152\075\075\076\076\076\076\152\177\076\076" +
+    "\077\077\077\077\037\177\077\077\100\100\100\100\177" +
+    "\040\100\100\101\101\101\101\126\202\101\101\102\102" +
+    "\102\102\206\001\102\102\103\103\103\103\001\001\103" +
+    "\103\104\104\104\104\001\001\104\104\106\106\106\106" +
+    "\001\001\106\106\107\107\107\107\001\001\107\107\110" +
+    "\110\110\110\001\001\110\110\127\127\127\127\001\001" +
+    "\127\127\134\134\134\134\001\001\134\134\141\141\141" +
+    "\141\001\001\141\141\161\161\161\161\001\001\161\161" +
+    "\170\170\170\170\001\001\170\170\173\173\173\173\041" +
+    "\041\173\173\041\146\146\041\041\146\153\153\146\146" +
+    "\153\200\200\153\153\200\023\023\200\200\030\030\207" +
+    "\001\001\207\023\001\001\001\030\001\001\001\001\001" +
+    "\001\207\000\354\004\003\014\036\006\015\016\145\022" +
+    "\152\177\212\035\002\063\165\057\067\166\013\062\044" +
+    "\063\061\057\067\037\042\062\044\063\133\057\067\206" +
+    "\041\062\044\063\125\057\067\037\042\062\044\063\073" +
+    "\057\067\020\146\062\044\063\124\057\067\037\042\062" +
+    "\044\063\123\057\067\033\153\062\044\063\122\057\067" +
+    "\037\042\062\044\063\121\057\067\205\200\062\044\063" +
+    "\120\057\067\037\202\062\044\063\117\057\067\131\203" +
+    "\062\044\063\116\057\067\203\002\062\044\063\115\057" +
+    "\067\002\002\062\044\063\114\057\067\002\002\062\044" +
+    "\063\113\057\067\002\002\062\044\063\112\057\067\002" +
+    "\002\062\044\063\111\057\067\002\002\062\044\063\130" +
+    "\057\067\002\002\062\044\063\135\057\067\002\002\062" +
+    "\044\063\142\057\067\002\002\062\044\063\162\057\067" +
+    "\002\002\062\044\063\172\057\067\002\002\062\044\063" +
+    "\174\057\067\045\051\062\044\053\045\051\047\044\053" +
+    "\045\051\047\044\053\045\051\047\044\053\026\027\047" +
+    "\044\031\027\210\002\002\211\025\002\002\002\025\002" +
+    "\002\002\002\002\002\037" });
+  }
 
   /** Instance of action encapsulation class. */
   protected CUP$parser$actions action_obj;
@@ -368,7 +678,7 @@ public class parser extends java_cup.runtime.lr_parser {
     throws java.lang.Exception
   {
     /* call code in generated class */
-    return action_obj.CUP$parser$do_action(act_num, parser, stack, top);
+    return action_obj.CUP$parser$do_action(act_num, parser, java_cup.runtime.SymbolStack.of(stack), top);
   }
 
   /** Indicates start state. */
@@ -394,6 +704,7 @@ public void syntax_error(Symbol currToken) {
                      ((TokenVal)currToken.value).charnum,
                      "Syntax error");
     }
+    ErrMsg.flush();
     System.exit(-1);
 }
 
@@ -408,1012 +719,2098 @@ class CUP$parser$actions {
     this.parser = parser;
   }
 
-  /** Method 0 with the actual generated action code for actions 0 to 300. */
-  public final java_cup.runtime.Symbol CUP$parser$do_action_part00000000(
+  /** Action code for production 0: $START ::= program EOF  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod0(
     int                        CUP$parser$act_num,
     java_cup.runtime.lr_parser CUP$parser$parser,
-    java.util.Stack            CUP$parser$stack,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
     int                        CUP$parser$top)
     throws java.lang.Exception
     {
-      /* Symbol object for return from actions */
+      /* Symbol object for return from the action */
       java_cup.runtime.Symbol CUP$parser$result;
 
-      /* select the action based on the action number */
-      switch (CUP$parser$act_num)
-        {
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 0: // $START ::= program EOF 
             {
               Object RESULT =null;
-		int start_valleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int start_valright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		ProgramNode start_val = (ProgramNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		int start_valleft = CUP$parser$stack.symbol_at(CUP$parser$top-1).left;
+		int start_valright = CUP$parser$stack.symbol_at(CUP$parser$top-1).right;
+		ProgramNode start_val = (ProgramNode)CUP$parser$stack.symbol_at(CUP$parser$top-1).value;
 		RESULT = start_val;
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("$START",0, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("$START",0, CUP$parser$stack.symbol_at(CUP$parser$top-1), CUP$parser$stack.top_symbol(), RESULT);
             }
-          /* ACCEPT */
-          CUP$parser$parser.done_parsing();
-          return CUP$parser$result;
+      /* ACCEPT */
+      CUP$parser$parser.done_parsing();
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 1: program ::= declList  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod1(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 1: // program ::= declList 
             {
               ProgramNode RESULT =null;
-		int dleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int dright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		LinkedList d = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 RESULT = new ProgramNode(new DeclListNode(d));
+		int dleft = CUP$parser$stack.top_symbol().left;
+		int dright = CUP$parser$stack.top_symbol().right;
+		LinkedList d = (LinkedList)CUP$parser$stack.top_symbol().value;
+		 RESULT = new ProgramNode(new DeclListNode(d),
+                                           ((CFlatScanner)parser.getScanner()).names());
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("program",0, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("program",0, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 2: declList ::= declList decl  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod2(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 2: // declList ::= declList decl 
             {
               LinkedList RESULT =null;
-		int dlleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int dlright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList dl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
-		int dleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int dright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		DeclNode d = (DeclNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int dlleft = CUP$parser$stack.symbol_at(CUP$parser$top-1).left;
+		int dlright = CUP$parser$stack.symbol_at(CUP$parser$top-1).right;
+		LinkedList dl = (LinkedList)CUP$parser$stack.symbol_at(CUP$parser$top-1).value;
+		int dleft = CUP$parser$stack.top_symbol().left;
+		int dright = CUP$parser$stack.top_symbol().right;
+		DeclNode d = (DeclNode)CUP$parser$stack.top_symbol().value;
 		 dl.addLast(d);
                    RESULT = dl;
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("declList",1, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("declList",1, CUP$parser$stack.symbol_at(CUP$parser$top-1), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 3: declList ::=  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod3(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 3: // declList ::= 
             {
               LinkedList RESULT =null;
 		 RESULT = new LinkedList<DeclNode>();
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("declList",1, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("declList",1, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 4: decl ::= varDecl  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod4(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 4: // decl ::= varDecl 
             {
               DeclNode RESULT =null;
-		int vleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int vright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		VarDeclNode v = (VarDeclNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int vleft = CUP$parser$stack.top_symbol().left;
+		int vright = CUP$parser$stack.top_symbol().right;
+		VarDeclNode v = (VarDeclNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = v;
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("decl",2, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("decl",2, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 5: decl ::= fnDecl  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod5(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 5: // decl ::= fnDecl 
             {
               DeclNode RESULT =null;
-		int fleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int fright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		FnDeclNode f = (FnDeclNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int fleft = CUP$parser$stack.top_symbol().left;
+		int fright = CUP$parser$stack.top_symbol().right;
+		FnDeclNode f = (FnDeclNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = f;
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("decl",2, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("decl",2, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 6: decl ::= structDecl  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod6(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 6: // decl ::= structDecl 
             {
               DeclNode RESULT =null;
-		int sleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int sright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		StructDeclNode s = (StructDeclNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int sleft = CUP$parser$stack.top_symbol().left;
+		int sright = CUP$parser$stack.top_symbol().right;
+		StructDeclNode s = (StructDeclNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = s;
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("decl",2, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("decl",2, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 7: varDeclList ::= varDeclList varDecl  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod7(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 7: // varDeclList ::= varDeclList varDecl 
             {
               LinkedList RESULT =null;
-		int vdlleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int vdlright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList vdl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
-		int vdleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int vdright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		VarDeclNode vd = (VarDeclNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int vdlleft = CUP$parser$stack.symbol_at(CUP$parser$top-1).left;
+		int vdlright = CUP$parser$stack.symbol_at(CUP$parser$top-1).right;
+		LinkedList vdl = (LinkedList)CUP$parser$stack.symbol_at(CUP$parser$top-1).value;
+		int vdleft = CUP$parser$stack.top_symbol().left;
+		int vdright = CUP$parser$stack.top_symbol().right;
+		VarDeclNode vd = (VarDeclNode)CUP$parser$stack.top_symbol().value;
 		 vdl.addLast(vd);
                    RESULT = vdl;
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("varDeclList",3, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("varDeclList",3, CUP$parser$stack.symbol_at(CUP$parser$top-1), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 8: varDeclList ::=  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod8(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 8: // varDeclList ::= 
             {
               LinkedList RESULT =null;
 		 RESULT = new LinkedList<VarDeclNode>();
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("varDeclList",3, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("varDeclList",3, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 9: varDecl ::= type id SEMICOLON  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod9(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 9: // varDecl ::= type id SEMICOLON 
             {
               VarDeclNode RESULT =null;
-		int tleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int tright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		TypeNode t = (TypeNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int ileft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int iright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		IdNode i = (IdNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		int tleft = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int tright = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		TypeNode t = (TypeNode)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int ileft = CUP$parser$stack.symbol_at(CUP$parser$top-1).left;
+		int iright = CUP$parser$stack.symbol_at(CUP$parser$top-1).right;
+		IdNode i = (IdNode)CUP$parser$stack.symbol_at(CUP$parser$top-1).value;
 		 RESULT = new VarDeclNode(t, i, VarDeclNode.NOT_STRUCT);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("varDecl",4, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("varDecl",4, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 10: varDecl ::= STRUCT id id SEMICOLON  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod10(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 10: // varDecl ::= STRUCT id id SEMICOLON 
             {
               VarDeclNode RESULT =null;
-		int tleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int tright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		IdNode t = (IdNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int ileft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int iright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		IdNode i = (IdNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		int tleft = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int tright = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		IdNode t = (IdNode)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int ileft = CUP$parser$stack.symbol_at(CUP$parser$top-1).left;
+		int iright = CUP$parser$stack.symbol_at(CUP$parser$top-1).right;
+		IdNode i = (IdNode)CUP$parser$stack.symbol_at(CUP$parser$top-1).value;
 		 RESULT = new VarDeclNode(new StructNode(t), i, 0);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("varDecl",4, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("varDecl",4, CUP$parser$stack.symbol_at(CUP$parser$top-3), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 11: fnDecl ::= type id formals fnBody  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod11(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 11: // fnDecl ::= type id formals fnBody 
             {
               FnDeclNode RESULT =null;
-		int tleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)).left;
-		int tright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)).right;
-		TypeNode t = (TypeNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-3)).value;
-		int ileft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int iright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		IdNode i = (IdNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int fleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int fright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList f = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
-		int fbleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int fbright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		FnBodyNode fb = (FnBodyNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int tleft = CUP$parser$stack.symbol_at(CUP$parser$top-3).left;
+		int tright = CUP$parser$stack.symbol_at(CUP$parser$top-3).right;
+		TypeNode t = (TypeNode)CUP$parser$stack.symbol_at(CUP$parser$top-3).value;
+		int ileft = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int iright = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		IdNode i = (IdNode)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int fleft = CUP$parser$stack.symbol_at(CUP$parser$top-1).left;
+		int fright = CUP$parser$stack.symbol_at(CUP$parser$top-1).right;
+		LinkedList f = (LinkedList)CUP$parser$stack.symbol_at(CUP$parser$top-1).value;
+		int fbleft = CUP$parser$stack.top_symbol().left;
+		int fbright = CUP$parser$stack.top_symbol().right;
+		FnBodyNode fb = (FnBodyNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = new FnDeclNode(t, i, new FormalsListNode(f), fb);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("fnDecl",5, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("fnDecl",5, CUP$parser$stack.symbol_at(CUP$parser$top-3), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 12: structDecl ::= STRUCT id LCURLY structBody RCURLY SEMICOLON  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod12(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 12: // structDecl ::= STRUCT id LCURLY structBody RCURLY SEMICOLON 
             {
               StructDeclNode RESULT =null;
-		int ileft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-4)).left;
-		int iright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-4)).right;
-		IdNode i = (IdNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-4)).value;
-		int sbleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int sbright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		LinkedList sb = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
+		int ileft = CUP$parser$stack.symbol_at(CUP$parser$top-4).left;
+		int iright = CUP$parser$stack.symbol_at(CUP$parser$top-4).right;
+		IdNode i = (IdNode)CUP$parser$stack.symbol_at(CUP$parser$top-4).value;
+		int sbleft = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int sbright = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		LinkedList sb = (LinkedList)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
 		 RESULT = new StructDeclNode(i, new DeclListNode(sb));
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("structDecl",6, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-5)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("structDecl",6, CUP$parser$stack.symbol_at(CUP$parser$top-5), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 13: structBody ::= structBody varDecl  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod13(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 13: // structBody ::= structBody varDecl 
             {
               LinkedList RESULT =null;
-		int sbleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int sbright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList sb = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
-		int vdleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int vdright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		VarDeclNode vd = (VarDeclNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int sbleft = CUP$parser$stack.symbol_at(CUP$parser$top-1).left;
+		int sbright = CUP$parser$stack.symbol_at(CUP$parser$top-1).right;
+		LinkedList sb = (LinkedList)CUP$parser$stack.symbol_at(CUP$parser$top-1).value;
+		int vdleft = CUP$parser$stack.top_symbol().left;
+		int vdright = CUP$parser$stack.top_symbol().right;
+		VarDeclNode vd = (VarDeclNode)CUP$parser$stack.top_symbol().value;
 		 sb.addLast(vd);
                    RESULT = sb;
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("structBody",7, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("structBody",7, CUP$parser$stack.symbol_at(CUP$parser$top-1), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 14: structBody ::= varDecl  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod14(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 14: // structBody ::= varDecl 
             {
               LinkedList RESULT =null;
-		int vdleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int vdright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		VarDeclNode vd = (VarDeclNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int vdleft = CUP$parser$stack.top_symbol().left;
+		int vdright = CUP$parser$stack.top_symbol().right;
+		VarDeclNode vd = (VarDeclNode)CUP$parser$stack.top_symbol().value;
 		 LinkedList<VarDeclNode> list = 
 				                           new LinkedList<VarDeclNode>();
                    list.addLast(vd);
                    RESULT = list;
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("structBody",7, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("structBody",7, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 15: formals ::= LPAREN RPAREN  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod15(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 15: // formals ::= LPAREN RPAREN 
             {
               LinkedList RESULT =null;
 		 RESULT = new LinkedList<FormalDeclNode>();
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("formals",8, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("formals",8, CUP$parser$stack.symbol_at(CUP$parser$top-1), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 16: formals ::= LPAREN formalsList RPAREN  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod16(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 16: // formals ::= LPAREN formalsList RPAREN 
             {
               LinkedList RESULT =null;
-		int flleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int flright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList fl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		int flleft = CUP$parser$stack.symbol_at(CUP$parser$top-1).left;
+		int flright = CUP$parser$stack.symbol_at(CUP$parser$top-1).right;
+		LinkedList fl = (LinkedList)CUP$parser$stack.symbol_at(CUP$parser$top-1).value;
 		 RESULT = fl;
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("formals",8, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("formals",8, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 17: formalsList ::= formalDecl  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod17(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 17: // formalsList ::= formalDecl 
             {
               LinkedList RESULT =null;
-		int fdleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int fdright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		FormalDeclNode fd = (FormalDeclNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int fdleft = CUP$parser$stack.top_symbol().left;
+		int fdright = CUP$parser$stack.top_symbol().right;
+		FormalDeclNode fd = (FormalDeclNode)CUP$parser$stack.top_symbol().value;
 		 LinkedList<FormalDeclNode> list = 
 				                              new LinkedList<FormalDeclNode>();
                    list.addLast(fd);
                    RESULT = list;
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("formalsList",9, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("formalsList",9, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 18: formalsList ::= formalDecl COMMA formalsList  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod18(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 18: // formalsList ::= formalDecl COMMA formalsList 
             {
               LinkedList RESULT =null;
-		int fdleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int fdright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		FormalDeclNode fd = (FormalDeclNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int flleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int flright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		LinkedList fl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int fdleft = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int fdright = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		FormalDeclNode fd = (FormalDeclNode)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int flleft = CUP$parser$stack.top_symbol().left;
+		int flright = CUP$parser$stack.top_symbol().right;
+		LinkedList fl = (LinkedList)CUP$parser$stack.top_symbol().value;
 		 fl.addFirst(fd);
                    RESULT = fl;
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("formalsList",9, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("formalsList",9, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 19: formalDecl ::= type id  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod19(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 19: // formalDecl ::= type id 
             {
               FormalDeclNode RESULT =null;
-		int tleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int tright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		TypeNode t = (TypeNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
-		int ileft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int iright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		IdNode i = (IdNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int tleft = CUP$parser$stack.symbol_at(CUP$parser$top-1).left;
+		int tright = CUP$parser$stack.symbol_at(CUP$parser$top-1).right;
+		TypeNode t = (TypeNode)CUP$parser$stack.symbol_at(CUP$parser$top-1).value;
+		int ileft = CUP$parser$stack.top_symbol().left;
+		int iright = CUP$parser$stack.top_symbol().right;
+		IdNode i = (IdNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = new FormalDeclNode(t, i);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("formalDecl",10, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("formalDecl",10, CUP$parser$stack.symbol_at(CUP$parser$top-1), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 20: fnBody ::= LCURLY varDeclList stmtList RCURLY  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod20(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 20: // fnBody ::= LCURLY varDeclList stmtList RCURLY 
             {
               FnBodyNode RESULT =null;
-		int vdlleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int vdlright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		LinkedList vdl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int slleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int slright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList sl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		int vdlleft = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int vdlright = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		LinkedList vdl = (LinkedList)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int slleft = CUP$parser$stack.symbol_at(CUP$parser$top-1).left;
+		int slright = CUP$parser$stack.symbol_at(CUP$parser$top-1).right;
+		LinkedList sl = (LinkedList)CUP$parser$stack.symbol_at(CUP$parser$top-1).value;
 		 RESULT = new FnBodyNode(
                             new DeclListNode(vdl), new StmtListNode(sl));
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("fnBody",11, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("fnBody",11, CUP$parser$stack.symbol_at(CUP$parser$top-3), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 21: stmtList ::= stmtList stmt  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod21(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 21: // stmtList ::= stmtList stmt 
             {
               LinkedList RESULT =null;
-		int slleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int slright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList sl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
-		int sleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int sright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		StmtNode s = (StmtNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int slleft = CUP$parser$stack.symbol_at(CUP$parser$top-1).left;
+		int slright = CUP$parser$stack.symbol_at(CUP$parser$top-1).right;
+		LinkedList sl = (LinkedList)CUP$parser$stack.symbol_at(CUP$parser$top-1).value;
+		int sleft = CUP$parser$stack.top_symbol().left;
+		int sright = CUP$parser$stack.top_symbol().right;
+		StmtNode s = (StmtNode)CUP$parser$stack.top_symbol().value;
 		 sl.addLast(s);
 				   RESULT = sl;
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmtList",12, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmtList",12, CUP$parser$stack.symbol_at(CUP$parser$top-1), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 22: stmtList ::=  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod22(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 22: // stmtList ::= 
             {
               LinkedList RESULT =null;
 		 RESULT = new LinkedList<StmtNode>();
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmtList",12, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmtList",12, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 23: stmt ::= assignExp SEMICOLON  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod23(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 23: // stmt ::= assignExp SEMICOLON 
             {
               StmtNode RESULT =null;
-		int aeleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int aeright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		AssignNode ae = (AssignNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		int aeleft = CUP$parser$stack.symbol_at(CUP$parser$top-1).left;
+		int aeright = CUP$parser$stack.symbol_at(CUP$parser$top-1).right;
+		AssignNode ae = (AssignNode)CUP$parser$stack.symbol_at(CUP$parser$top-1).value;
 		 RESULT = new AssignStmtNode(ae);
 				
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, CUP$parser$stack.symbol_at(CUP$parser$top-1), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 24: stmt ::= loc PLUSPLUS SEMICOLON  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod24(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 24: // stmt ::= loc PLUSPLUS SEMICOLON 
             {
               StmtNode RESULT =null;
-		int lcleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int lcright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		ExpNode lc = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
+		int lcleft = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int lcright = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		ExpNode lc = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
 		 RESULT = new PostIncStmtNode(lc);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 25: stmt ::= loc MINUSMINUS SEMICOLON  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod25(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 25: // stmt ::= loc MINUSMINUS SEMICOLON 
             {
               StmtNode RESULT =null;
-		int lcleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int lcright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		ExpNode lc = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
+		int lcleft = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int lcright = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		ExpNode lc = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
 		 RESULT = new PostDecStmtNode(lc);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 26: stmt ::= CIN READ exp SEMICOLON  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod26(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 26: // stmt ::= CIN READ exp SEMICOLON 
             {
               StmtNode RESULT =null;
-		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		ExpNode e = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		int eleft = CUP$parser$stack.symbol_at(CUP$parser$top-1).left;
+		int eright = CUP$parser$stack.symbol_at(CUP$parser$top-1).right;
+		ExpNode e = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-1).value;
 		 RESULT = new ReadStmtNode(e);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, CUP$parser$stack.symbol_at(CUP$parser$top-3), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 27: stmt ::= COUT WRITE exp SEMICOLON  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod27(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 27: // stmt ::= COUT WRITE exp SEMICOLON 
             {
               StmtNode RESULT =null;
-		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		ExpNode e = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		int eleft = CUP$parser$stack.symbol_at(CUP$parser$top-1).left;
+		int eright = CUP$parser$stack.symbol_at(CUP$parser$top-1).right;
+		ExpNode e = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-1).value;
 		 RESULT = new WriteStmtNode(e);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, CUP$parser$stack.symbol_at(CUP$parser$top-3), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 28: stmt ::= IF LPAREN exp RPAREN LCURLY varDeclList stmtList RCURLY  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod28(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 28: // stmt ::= IF LPAREN exp RPAREN LCURLY varDeclList stmtList RCURLY 
             {
               StmtNode RESULT =null;
-		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-5)).left;
-		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-5)).right;
-		ExpNode e = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-5)).value;
-		int vdlleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int vdlright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		LinkedList vdl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int slleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int slright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList sl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		int eleft = CUP$parser$stack.symbol_at(CUP$parser$top-5).left;
+		int eright = CUP$parser$stack.symbol_at(CUP$parser$top-5).right;
+		ExpNode e = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-5).value;
+		int vdlleft = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int vdlright = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		LinkedList vdl = (LinkedList)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int slleft = CUP$parser$stack.symbol_at(CUP$parser$top-1).left;
+		int slright = CUP$parser$stack.symbol_at(CUP$parser$top-1).right;
+		LinkedList sl = (LinkedList)CUP$parser$stack.symbol_at(CUP$parser$top-1).value;
 		 RESULT = new IfStmtNode(e, 
 				                new DeclListNode(vdl), new StmtListNode(sl));
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-7)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, CUP$parser$stack.symbol_at(CUP$parser$top-7), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 29: stmt ::= IF LPAREN exp RPAREN LCURLY varDeclList stmtList RCURLY ELSE LCURLY varDeclList stmtList RCURLY  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod29(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 29: // stmt ::= IF LPAREN exp RPAREN LCURLY varDeclList stmtList RCURLY ELSE LCURLY varDeclList stmtList RCURLY 
             {
               StmtNode RESULT =null;
-		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-10)).left;
-		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-10)).right;
-		ExpNode e = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-10)).value;
-		int vdltleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-7)).left;
-		int vdltright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-7)).right;
-		LinkedList vdlt = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-7)).value;
-		int sltleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-6)).left;
-		int sltright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-6)).right;
-		LinkedList slt = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-6)).value;
-		int vdleleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int vdleright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		LinkedList vdle = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int sleleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int sleright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList sle = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		int eleft = CUP$parser$stack.symbol_at(CUP$parser$top-10).left;
+		int eright = CUP$parser$stack.symbol_at(CUP$parser$top-10).right;
+		ExpNode e = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-10).value;
+		int vdltleft = CUP$parser$stack.symbol_at(CUP$parser$top-7).left;
+		int vdltright = CUP$parser$stack.symbol_at(CUP$parser$top-7).right;
+		LinkedList vdlt = (LinkedList)CUP$parser$stack.symbol_at(CUP$parser$top-7).value;
+		int sltleft = CUP$parser$stack.symbol_at(CUP$parser$top-6).left;
+		int sltright = CUP$parser$stack.symbol_at(CUP$parser$top-6).right;
+		LinkedList slt = (LinkedList)CUP$parser$stack.symbol_at(CUP$parser$top-6).value;
+		int vdleleft = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int vdleright = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		LinkedList vdle = (LinkedList)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int sleleft = CUP$parser$stack.symbol_at(CUP$parser$top-1).left;
+		int sleright = CUP$parser$stack.symbol_at(CUP$parser$top-1).right;
+		LinkedList sle = (LinkedList)CUP$parser$stack.symbol_at(CUP$parser$top-1).value;
 		 RESULT = new IfElseStmtNode(e, 
 				                new DeclListNode(vdlt), new StmtListNode(slt),
 								new DeclListNode(vdle), new StmtListNode(sle));
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-12)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, CUP$parser$stack.symbol_at(CUP$parser$top-12), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 30: stmt ::= WHILE LPAREN exp RPAREN LCURLY varDeclList stmtList RCURLY  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod30(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 30: // stmt ::= WHILE LPAREN exp RPAREN LCURLY varDeclList stmtList RCURLY 
             {
               StmtNode RESULT =null;
-		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-5)).left;
-		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-5)).right;
-		ExpNode e = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-5)).value;
-		int vdlleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int vdlright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		LinkedList vdl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int slleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int slright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList sl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		int eleft = CUP$parser$stack.symbol_at(CUP$parser$top-5).left;
+		int eright = CUP$parser$stack.symbol_at(CUP$parser$top-5).right;
+		ExpNode e = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-5).value;
+		int vdlleft = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int vdlright = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		LinkedList vdl = (LinkedList)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int slleft = CUP$parser$stack.symbol_at(CUP$parser$top-1).left;
+		int slright = CUP$parser$stack.symbol_at(CUP$parser$top-1).right;
+		LinkedList sl = (LinkedList)CUP$parser$stack.symbol_at(CUP$parser$top-1).value;
 		 RESULT = new WhileStmtNode(e, 
 				                new DeclListNode(vdl), new StmtListNode(sl));
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-7)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, CUP$parser$stack.symbol_at(CUP$parser$top-7), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 31: stmt ::= RETURN exp SEMICOLON  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod31(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 31: // stmt ::= RETURN exp SEMICOLON 
             {
               StmtNode RESULT =null;
-		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		ExpNode e = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		int eleft = CUP$parser$stack.symbol_at(CUP$parser$top-1).left;
+		int eright = CUP$parser$stack.symbol_at(CUP$parser$top-1).right;
+		ExpNode e = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-1).value;
 		 RESULT = new ReturnStmtNode(e);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 32: stmt ::= RETURN SEMICOLON  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod32(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 32: // stmt ::= RETURN SEMICOLON 
             {
               StmtNode RESULT =null;
 		 RESULT = new ReturnStmtNode(null);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, CUP$parser$stack.symbol_at(CUP$parser$top-1), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 33: stmt ::= fncall SEMICOLON  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod33(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 33: // stmt ::= fncall SEMICOLON 
             {
               StmtNode RESULT =null;
-		int fleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int fright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		CallExpNode f = (CallExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		int fleft = CUP$parser$stack.symbol_at(CUP$parser$top-1).left;
+		int fright = CUP$parser$stack.symbol_at(CUP$parser$top-1).right;
+		CallExpNode f = (CallExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-1).value;
 		 RESULT = new CallStmtNode(f);
 				
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",13, CUP$parser$stack.symbol_at(CUP$parser$top-1), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 34: assignExp ::= loc ASSIGN exp  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod34(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 34: // assignExp ::= loc ASSIGN exp 
             {
               AssignNode RESULT =null;
-		int lcleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int lcright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		ExpNode lc = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		ExpNode e = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int lcleft = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int lcright = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		ExpNode lc = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int eleft = CUP$parser$stack.top_symbol().left;
+		int eright = CUP$parser$stack.top_symbol().right;
+		ExpNode e = (ExpNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = new AssignNode(lc, e);
 				
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("assignExp",14, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("assignExp",14, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 35: exp ::= assignExp  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod35(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 35: // exp ::= assignExp 
             {
               ExpNode RESULT =null;
-		int aeleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int aeright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		AssignNode ae = (AssignNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int aeleft = CUP$parser$stack.top_symbol().left;
+		int aeright = CUP$parser$stack.top_symbol().right;
+		AssignNode ae = (AssignNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = ae;
 				
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 36: exp ::= exp PLUS exp  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod36(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 36: // exp ::= exp PLUS exp 
             {
               ExpNode RESULT =null;
-		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int e1right = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		ExpNode e1 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int e2left = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		ExpNode e2 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int e1left = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int e1right = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		ExpNode e1 = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int e2left = CUP$parser$stack.top_symbol().left;
+		int e2right = CUP$parser$stack.top_symbol().right;
+		ExpNode e2 = (ExpNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = new PlusNode(e1, e2);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 37: exp ::= exp MINUS exp  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod37(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 37: // exp ::= exp MINUS exp 
             {
               ExpNode RESULT =null;
-		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int e1right = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		ExpNode e1 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int e2left = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		ExpNode e2 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int e1left = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int e1right = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		ExpNode e1 = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int e2left = CUP$parser$stack.top_symbol().left;
+		int e2right = CUP$parser$stack.top_symbol().right;
+		ExpNode e2 = (ExpNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = new MinusNode(e1, e2);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 38: exp ::= exp TIMES exp  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod38(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 38: // exp ::= exp TIMES exp 
             {
               ExpNode RESULT =null;
-		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int e1right = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		ExpNode e1 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int e2left = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		ExpNode e2 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int e1left = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int e1right = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		ExpNode e1 = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int e2left = CUP$parser$stack.top_symbol().left;
+		int e2right = CUP$parser$stack.top_symbol().right;
+		ExpNode e2 = (ExpNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = new TimesNode(e1, e2);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 39: exp ::= exp DIVIDE exp  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod39(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 39: // exp ::= exp DIVIDE exp 
             {
               ExpNode RESULT =null;
-		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int e1right = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		ExpNode e1 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int e2left = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		ExpNode e2 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int e1left = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int e1right = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		ExpNode e1 = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int e2left = CUP$parser$stack.top_symbol().left;
+		int e2right = CUP$parser$stack.top_symbol().right;
+		ExpNode e2 = (ExpNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = new DivideNode(e1, e2);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 40: exp ::= NOT exp  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod40(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 40: // exp ::= NOT exp 
             {
               ExpNode RESULT =null;
-		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		ExpNode e = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int eleft = CUP$parser$stack.top_symbol().left;
+		int eright = CUP$parser$stack.top_symbol().right;
+		ExpNode e = (ExpNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = new NotNode(e);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, CUP$parser$stack.symbol_at(CUP$parser$top-1), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 41: exp ::= exp AND exp  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod41(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 41: // exp ::= exp AND exp 
             {
               ExpNode RESULT =null;
-		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int e1right = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		ExpNode e1 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int e2left = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		ExpNode e2 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int e1left = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int e1right = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		ExpNode e1 = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int e2left = CUP$parser$stack.top_symbol().left;
+		int e2right = CUP$parser$stack.top_symbol().right;
+		ExpNode e2 = (ExpNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = new AndNode(e1, e2);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 42: exp ::= exp OR exp  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod42(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 42: // exp ::= exp OR exp 
             {
               ExpNode RESULT =null;
-		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int e1right = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		ExpNode e1 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int e2left = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		ExpNode e2 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int e1left = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int e1right = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		ExpNode e1 = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int e2left = CUP$parser$stack.top_symbol().left;
+		int e2right = CUP$parser$stack.top_symbol().right;
+		ExpNode e2 = (ExpNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = new OrNode(e1, e2);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 43: exp ::= exp EQUALS exp  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod43(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 43: // exp ::= exp EQUALS exp 
             {
               ExpNode RESULT =null;
-		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int e1right = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		ExpNode e1 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int e2left = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		ExpNode e2 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int e1left = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int e1right = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		ExpNode e1 = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int e2left = CUP$parser$stack.top_symbol().left;
+		int e2right = CUP$parser$stack.top_symbol().right;
+		ExpNode e2 = (ExpNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = new EqualsNode(e1, e2);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 44: exp ::= exp NOTEQUALS exp  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod44(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 44: // exp ::= exp NOTEQUALS exp 
             {
               ExpNode RESULT =null;
-		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int e1right = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		ExpNode e1 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int e2left = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		ExpNode e2 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int e1left = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int e1right = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		ExpNode e1 = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int e2left = CUP$parser$stack.top_symbol().left;
+		int e2right = CUP$parser$stack.top_symbol().right;
+		ExpNode e2 = (ExpNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = new NotEqualsNode(e1, e2);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 45: exp ::= exp LESS exp  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod45(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 45: // exp ::= exp LESS exp 
             {
               ExpNode RESULT =null;
-		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int e1right = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		ExpNode e1 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int e2left = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		ExpNode e2 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int e1left = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int e1right = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		ExpNode e1 = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int e2left = CUP$parser$stack.top_symbol().left;
+		int e2right = CUP$parser$stack.top_symbol().right;
+		ExpNode e2 = (ExpNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = new LessNode(e1, e2);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 46: exp ::= exp GREATER exp  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod46(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 46: // exp ::= exp GREATER exp 
             {
               ExpNode RESULT =null;
-		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int e1right = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		ExpNode e1 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int e2left = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		ExpNode e2 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int e1left = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int e1right = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		ExpNode e1 = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int e2left = CUP$parser$stack.top_symbol().left;
+		int e2right = CUP$parser$stack.top_symbol().right;
+		ExpNode e2 = (ExpNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = new GreaterNode(e1, e2);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 47: exp ::= exp LESSEQ exp  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod47(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 47: // exp ::= exp LESSEQ exp 
             {
               ExpNode RESULT =null;
-		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int e1right = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		ExpNode e1 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int e2left = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		ExpNode e2 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int e1left = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int e1right = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		ExpNode e1 = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int e2left = CUP$parser$stack.top_symbol().left;
+		int e2right = CUP$parser$stack.top_symbol().right;
+		ExpNode e2 = (ExpNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = new LessEqNode(e1, e2);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 48: exp ::= exp GREATEREQ exp  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod48(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 48: // exp ::= exp GREATEREQ exp 
             {
               ExpNode RESULT =null;
-		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int e1right = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		ExpNode e1 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int e2left = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		ExpNode e2 = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int e1left = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int e1right = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		ExpNode e1 = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int e2left = CUP$parser$stack.top_symbol().left;
+		int e2right = CUP$parser$stack.top_symbol().right;
+		ExpNode e2 = (ExpNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = new GreaterEqNode(e1, e2);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 49: exp ::= MINUS exp  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod49(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 49: // exp ::= MINUS exp 
             {
               ExpNode RESULT =null;
-		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		ExpNode e = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int eleft = CUP$parser$stack.top_symbol().left;
+		int eright = CUP$parser$stack.top_symbol().right;
+		ExpNode e = (ExpNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = new UnaryMinusNode(e);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, CUP$parser$stack.symbol_at(CUP$parser$top-1), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 50: exp ::= term  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod50(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 50: // exp ::= term 
             {
               ExpNode RESULT =null;
-		int tleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int tright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		ExpNode t = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int tleft = CUP$parser$stack.top_symbol().left;
+		int tright = CUP$parser$stack.top_symbol().right;
+		ExpNode t = (ExpNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = t;
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",15, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 51: term ::= loc  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod51(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 51: // term ::= loc 
             {
               ExpNode RESULT =null;
-		int lcleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int lcright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		ExpNode lc = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int lcleft = CUP$parser$stack.top_symbol().left;
+		int lcright = CUP$parser$stack.top_symbol().right;
+		ExpNode lc = (ExpNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = lc;
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("term",16, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("term",16, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 52: term ::= INTLITERAL  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod52(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 52: // term ::= INTLITERAL 
             {
               ExpNode RESULT =null;
-		int ileft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int iright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		IntLitTokenVal i = (IntLitTokenVal)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int ileft = CUP$parser$stack.top_symbol().left;
+		int iright = CUP$parser$stack.top_symbol().right;
+		IntLitTokenVal i = (IntLitTokenVal)CUP$parser$stack.top_symbol().value;
 		 RESULT = new IntLitNode(i.linenum, i.charnum, i.intVal);
 				
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("term",16, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("term",16, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 53: term ::= STRINGLITERAL  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod53(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 53: // term ::= STRINGLITERAL 
             {
               ExpNode RESULT =null;
-		int sleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int sright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		StrLitTokenVal s = (StrLitTokenVal)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int sleft = CUP$parser$stack.top_symbol().left;
+		int sright = CUP$parser$stack.top_symbol().right;
+		StrLitTokenVal s = (StrLitTokenVal)CUP$parser$stack.top_symbol().value;
 		 RESULT = new StringLitNode(s.linenum, s.charnum, s.strVal);
 				
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("term",16, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("term",16, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 54: term ::= TRUE  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod54(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 54: // term ::= TRUE 
             {
               ExpNode RESULT =null;
-		int tleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int tright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		TokenVal t = (TokenVal)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int tleft = CUP$parser$stack.top_symbol().left;
+		int tright = CUP$parser$stack.top_symbol().right;
+		TokenVal t = (TokenVal)CUP$parser$stack.top_symbol().value;
 		 RESULT = new TrueNode(t.linenum, t.charnum);
 				
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("term",16, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("term",16, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 55: term ::= FALSE  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod55(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 55: // term ::= FALSE 
             {
               ExpNode RESULT =null;
-		int fleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int fright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		TokenVal f = (TokenVal)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int fleft = CUP$parser$stack.top_symbol().left;
+		int fright = CUP$parser$stack.top_symbol().right;
+		TokenVal f = (TokenVal)CUP$parser$stack.top_symbol().value;
 		 RESULT = new FalseNode(f.linenum, f.charnum);
 				
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("term",16, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("term",16, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 56: term ::= LPAREN exp RPAREN  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod56(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 56: // term ::= LPAREN exp RPAREN 
             {
               ExpNode RESULT =null;
-		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		ExpNode e = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		int eleft = CUP$parser$stack.symbol_at(CUP$parser$top-1).left;
+		int eright = CUP$parser$stack.symbol_at(CUP$parser$top-1).right;
+		ExpNode e = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-1).value;
 		 RESULT = e;
 				
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("term",16, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("term",16, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 57: term ::= fncall  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod57(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 57: // term ::= fncall 
             {
               ExpNode RESULT =null;
-		int fleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int fright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		CallExpNode f = (CallExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int fleft = CUP$parser$stack.top_symbol().left;
+		int fright = CUP$parser$stack.top_symbol().right;
+		CallExpNode f = (CallExpNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = f;
 				
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("term",16, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("term",16, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 58: fncall ::= id LPAREN RPAREN  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod58(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 58: // fncall ::= id LPAREN RPAREN 
             {
               CallExpNode RESULT =null;
-		int ileft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int iright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		IdNode i = (IdNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
+		int ileft = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int iright = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		IdNode i = (IdNode)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
 		 RESULT = new CallExpNode(i, 
 				                new ExpListNode(new LinkedList<ExpNode>()));
 				
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("fncall",17, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("fncall",17, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 59: fncall ::= id LPAREN actualList RPAREN  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod59(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 59: // fncall ::= id LPAREN actualList RPAREN 
             {
               CallExpNode RESULT =null;
-		int ileft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)).left;
-		int iright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)).right;
-		IdNode i = (IdNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-3)).value;
-		int alleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int alright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList al = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		int ileft = CUP$parser$stack.symbol_at(CUP$parser$top-3).left;
+		int iright = CUP$parser$stack.symbol_at(CUP$parser$top-3).right;
+		IdNode i = (IdNode)CUP$parser$stack.symbol_at(CUP$parser$top-3).value;
+		int alleft = CUP$parser$stack.symbol_at(CUP$parser$top-1).left;
+		int alright = CUP$parser$stack.symbol_at(CUP$parser$top-1).right;
+		LinkedList al = (LinkedList)CUP$parser$stack.symbol_at(CUP$parser$top-1).value;
 		 RESULT = new CallExpNode(i, new ExpListNode(al));
 				
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("fncall",17, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("fncall",17, CUP$parser$stack.symbol_at(CUP$parser$top-3), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 60: actualList ::= exp  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod60(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 60: // actualList ::= exp 
             {
               LinkedList RESULT =null;
-		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		ExpNode e = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int eleft = CUP$parser$stack.top_symbol().left;
+		int eright = CUP$parser$stack.top_symbol().right;
+		ExpNode e = (ExpNode)CUP$parser$stack.top_symbol().value;
 		 LinkedList<ExpNode> list = new LinkedList<ExpNode>();
 				   list.addLast(e);
 				   RESULT = list;
 				
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("actualList",18, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("actualList",18, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 61: actualList ::= actualList COMMA exp  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod61(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 61: // actualList ::= actualList COMMA exp 
             {
               LinkedList RESULT =null;
-		int alleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int alright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		LinkedList al = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		ExpNode e = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int alleft = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int alright = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		LinkedList al = (LinkedList)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int eleft = CUP$parser$stack.top_symbol().left;
+		int eright = CUP$parser$stack.top_symbol().right;
+		ExpNode e = (ExpNode)CUP$parser$stack.top_symbol().value;
 		 al.addLast(e);
 				   RESULT = al;
 				
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("actualList",18, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("actualList",18, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 62: type ::= INT  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod62(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 62: // type ::= INT 
             {
               TypeNode RESULT =null;
 		 RESULT = new IntNode();
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("type",19, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("type",19, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 63: type ::= BOOL  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod63(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 63: // type ::= BOOL 
             {
               TypeNode RESULT =null;
 		 RESULT = new BoolNode();
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("type",19, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("type",19, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 64: type ::= VOID  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod64(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 64: // type ::= VOID 
             {
               TypeNode RESULT =null;
 		 RESULT = new VoidNode();
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("type",19, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("type",19, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 65: loc ::= id  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod65(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 65: // loc ::= id 
             {
               ExpNode RESULT =null;
-		int ileft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int iright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		IdNode i = (IdNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int ileft = CUP$parser$stack.top_symbol().left;
+		int iright = CUP$parser$stack.top_symbol().right;
+		IdNode i = (IdNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = i;
 				
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("loc",20, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("loc",20, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 66: loc ::= loc DOT id  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod66(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 66: // loc ::= loc DOT id 
             {
               ExpNode RESULT =null;
-		int lcleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int lcright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		ExpNode lc = (ExpNode)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int ileft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int iright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		IdNode i = (IdNode)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int lcleft = CUP$parser$stack.symbol_at(CUP$parser$top-2).left;
+		int lcright = CUP$parser$stack.symbol_at(CUP$parser$top-2).right;
+		ExpNode lc = (ExpNode)CUP$parser$stack.symbol_at(CUP$parser$top-2).value;
+		int ileft = CUP$parser$stack.top_symbol().left;
+		int iright = CUP$parser$stack.top_symbol().right;
+		IdNode i = (IdNode)CUP$parser$stack.top_symbol().value;
 		 RESULT = new DotAccessExpNode(lc, i);
 				
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("loc",20, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("loc",20, CUP$parser$stack.symbol_at(CUP$parser$top-2), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
+
+  /** Action code for production 67: id ::= ID  */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_prod67(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* Symbol object for return from the action */
+      java_cup.runtime.Symbol CUP$parser$result;
 
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 67: // id ::= ID 
             {
               IdNode RESULT =null;
-		int ileft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int iright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		IdTokenVal i = (IdTokenVal)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		int ileft = CUP$parser$stack.top_symbol().left;
+		int iright = CUP$parser$stack.top_symbol().right;
+		IdTokenVal i = (IdTokenVal)CUP$parser$stack.top_symbol().value;
 		 RESULT = new IdNode(i.linenum, i.charnum, i.idVal);
                 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("id",21, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("id",21, CUP$parser$stack.top_symbol(), CUP$parser$stack.top_symbol(), RESULT);
             }
-          return CUP$parser$result;
+      return CUP$parser$result;
+    }
 
+  /** Method 0 selecting the action code for actions 0 to 300. */
+  public final java_cup.runtime.Symbol CUP$parser$do_action_part00000000(
+    int                        CUP$parser$act_num,
+    java_cup.runtime.lr_parser CUP$parser$parser,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
+    int                        CUP$parser$top)
+    throws java.lang.Exception
+    {
+      /* select the action based on the action number */
+      switch (CUP$parser$act_num)
+        {
+          case 0: // $START ::= program EOF 
+            return CUP$parser$do_action_prod0(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 1: // program ::= declList 
+            return CUP$parser$do_action_prod1(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 2: // declList ::= declList decl 
+            return CUP$parser$do_action_prod2(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 3: // declList ::= 
+            return CUP$parser$do_action_prod3(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 4: // decl ::= varDecl 
+            return CUP$parser$do_action_prod4(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 5: // decl ::= fnDecl 
+            return CUP$parser$do_action_prod5(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 6: // decl ::= structDecl 
+            return CUP$parser$do_action_prod6(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 7: // varDeclList ::= varDeclList varDecl 
+            return CUP$parser$do_action_prod7(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 8: // varDeclList ::= 
+            return CUP$parser$do_action_prod8(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 9: // varDecl ::= type id SEMICOLON 
+            return CUP$parser$do_action_prod9(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 10: // varDecl ::= STRUCT id id SEMICOLON 
+            return CUP$parser$do_action_prod10(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 11: // fnDecl ::= type id formals fnBody 
+            return CUP$parser$do_action_prod11(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 12: // structDecl ::= STRUCT id LCURLY structBody RCURLY SEMICOLON 
+            return CUP$parser$do_action_prod12(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 13: // structBody ::= structBody varDecl 
+            return CUP$parser$do_action_prod13(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 14: // structBody ::= varDecl 
+            return CUP$parser$do_action_prod14(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 15: // formals ::= LPAREN RPAREN 
+            return CUP$parser$do_action_prod15(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 16: // formals ::= LPAREN formalsList RPAREN 
+            return CUP$parser$do_action_prod16(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 17: // formalsList ::= formalDecl 
+            return CUP$parser$do_action_prod17(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 18: // formalsList ::= formalDecl COMMA formalsList 
+            return CUP$parser$do_action_prod18(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 19: // formalDecl ::= type id 
+            return CUP$parser$do_action_prod19(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 20: // fnBody ::= LCURLY varDeclList stmtList RCURLY 
+            return CUP$parser$do_action_prod20(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 21: // stmtList ::= stmtList stmt 
+            return CUP$parser$do_action_prod21(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 22: // stmtList ::= 
+            return CUP$parser$do_action_prod22(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 23: // stmt ::= assignExp SEMICOLON 
+            return CUP$parser$do_action_prod23(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 24: // stmt ::= loc PLUSPLUS SEMICOLON 
+            return CUP$parser$do_action_prod24(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 25: // stmt ::= loc MINUSMINUS SEMICOLON 
+            return CUP$parser$do_action_prod25(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 26: // stmt ::= CIN READ exp SEMICOLON 
+            return CUP$parser$do_action_prod26(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 27: // stmt ::= COUT WRITE exp SEMICOLON 
+            return CUP$parser$do_action_prod27(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 28: // stmt ::= IF LPAREN exp RPAREN LCURLY varDeclList stmtList RCURLY 
+            return CUP$parser$do_action_prod28(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 29: // stmt ::= IF LPAREN exp RPAREN LCURLY varDeclList stmtList RCURLY ELSE LCURLY varDeclList stmtList RCURLY 
+            return CUP$parser$do_action_prod29(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 30: // stmt ::= WHILE LPAREN exp RPAREN LCURLY varDeclList stmtList RCURLY 
+            return CUP$parser$do_action_prod30(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 31: // stmt ::= RETURN exp SEMICOLON 
+            return CUP$parser$do_action_prod31(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 32: // stmt ::= RETURN SEMICOLON 
+            return CUP$parser$do_action_prod32(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 33: // stmt ::= fncall SEMICOLON 
+            return CUP$parser$do_action_prod33(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 34: // assignExp ::= loc ASSIGN exp 
+            return CUP$parser$do_action_prod34(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 35: // exp ::= assignExp 
+            return CUP$parser$do_action_prod35(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 36: // exp ::= exp PLUS exp 
+            return CUP$parser$do_action_prod36(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 37: // exp ::= exp MINUS exp 
+            return CUP$parser$do_action_prod37(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 38: // exp ::= exp TIMES exp 
+            return CUP$parser$do_action_prod38(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 39: // exp ::= exp DIVIDE exp 
+            return CUP$parser$do_action_prod39(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 40: // exp ::= NOT exp 
+            return CUP$parser$do_action_prod40(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 41: // exp ::= exp AND exp 
+            return CUP$parser$do_action_prod41(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 42: // exp ::= exp OR exp 
+            return CUP$parser$do_action_prod42(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 43: // exp ::= exp EQUALS exp 
+            return CUP$parser$do_action_prod43(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 44: // exp ::= exp NOTEQUALS exp 
+            return CUP$parser$do_action_prod44(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 45: // exp ::= exp LESS exp 
+            return CUP$parser$do_action_prod45(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 46: // exp ::= exp GREATER exp 
+            return CUP$parser$do_action_prod46(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 47: // exp ::= exp LESSEQ exp 
+            return CUP$parser$do_action_prod47(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 48: // exp ::= exp GREATEREQ exp 
+            return CUP$parser$do_action_prod48(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 49: // exp ::= MINUS exp 
+            return CUP$parser$do_action_prod49(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 50: // exp ::= term 
+            return CUP$parser$do_action_prod50(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 51: // term ::= loc 
+            return CUP$parser$do_action_prod51(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 52: // term ::= INTLITERAL 
+            return CUP$parser$do_action_prod52(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 53: // term ::= STRINGLITERAL 
+            return CUP$parser$do_action_prod53(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 54: // term ::= TRUE 
+            return CUP$parser$do_action_prod54(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 55: // term ::= FALSE 
+            return CUP$parser$do_action_prod55(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 56: // term ::= LPAREN exp RPAREN 
+            return CUP$parser$do_action_prod56(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 57: // term ::= fncall 
+            return CUP$parser$do_action_prod57(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 58: // fncall ::= id LPAREN RPAREN 
+            return CUP$parser$do_action_prod58(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 59: // fncall ::= id LPAREN actualList RPAREN 
+            return CUP$parser$do_action_prod59(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 60: // actualList ::= exp 
+            return CUP$parser$do_action_prod60(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 61: // actualList ::= actualList COMMA exp 
+            return CUP$parser$do_action_prod61(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 62: // type ::= INT 
+            return CUP$parser$do_action_prod62(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 63: // type ::= BOOL 
+            return CUP$parser$do_action_prod63(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 64: // type ::= VOID 
+            return CUP$parser$do_action_prod64(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 65: // loc ::= id 
+            return CUP$parser$do_action_prod65(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 66: // loc ::= loc DOT id 
+            return CUP$parser$do_action_prod66(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
+          case 67: // id ::= ID 
+            return CUP$parser$do_action_prod67(
+                             CUP$parser$act_num,
+                             CUP$parser$parser,
+                             CUP$parser$stack,
+                             CUP$parser$top);
           /* . . . . . .*/
           default:
             throw new Exception(
@@ -1426,15 +2823,15 @@ class CUP$parser$actions {
   public final java_cup.runtime.Symbol CUP$parser$do_action(
     int                        CUP$parser$act_num,
     java_cup.runtime.lr_parser CUP$parser$parser,
-    java.util.Stack            CUP$parser$stack,
+    java_cup.runtime.SymbolStack CUP$parser$stack,
     int                        CUP$parser$top)
     throws java.lang.Exception
     {
-              return CUP$parser$do_action_part00000000(
-                               CUP$parser$act_num,
-                               CUP$parser$parser,
-                               CUP$parser$stack,
-                               CUP$parser$top);
+      return CUP$parser$do_action_part00000000(
+                       CUP$parser$act_num,
+                       CUP$parser$parser,
+                       CUP$parser$stack,
+                       CUP$parser$top);
     }
 }
 